@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.benchmarks;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorAccumulator;
+import com.io7m.dixmont.colors.DmColorBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare batch and accumulator color operations against applying
+ * {@link DmColor} methods to each color.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DmColorBatchBenchmark
+{
+  @Param({"1000", "1000000"})
+  private int count;
+
+  private DmColor[] colors0;
+  private DmColor[] colors1;
+  private DmColor[] results;
+  private double[] buffer0;
+  private double[] buffer1;
+  private double[] target;
+  private int[] packed;
+  private DmColorAccumulator accumulator;
+
+  /**
+   * Create the colors.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var random = new Random(0x10L);
+    final var list0 = new ArrayList<DmColor>(this.count);
+    final var list1 = new ArrayList<DmColor>(this.count);
+    for (int index = 0; index < this.count; ++index) {
+      list0.add(new DmColor(random.nextDouble(), random.nextDouble(), random.nextDouble()));
+      list1.add(new DmColor(random.nextDouble(), random.nextDouble(), random.nextDouble()));
+    }
+
+    this.colors0 = list0.toArray(new DmColor[0]);
+    this.colors1 = list1.toArray(new DmColor[0]);
+    this.results = new DmColor[this.count];
+    this.buffer0 = DmColorBatch.allocate(this.count);
+    this.buffer1 = DmColorBatch.allocate(this.count);
+    this.target = DmColorBatch.allocate(this.count);
+    this.packed = new int[this.count];
+    this.accumulator = DmColorAccumulator.create();
+    DmColorBatch.load(list0, this.buffer0);
+    DmColorBatch.load(list1, this.buffer1);
+  }
+
+  /**
+   * Scale each color individually.
+   *
+   * @return The results
+   */
+
+  @Benchmark
+  public DmColor[] scaleEach()
+  {
+    for (int index = 0; index < this.count; ++index) {
+      this.results[index] = this.colors0[index].scale(1.25);
+    }
+    return this.results;
+  }
+
+  /**
+   * Scale the colors as a batch.
+   *
+   * @return The results
+   */
+
+  @Benchmark
+  public double[] scaleBatch()
+  {
+    DmColorBatch.scale(this.buffer0, this.target, this.count, 1.25);
+    return this.target;
+  }
+
+  /**
+   * Interpolate each color individually.
+   *
+   * @return The results
+   */
+
+  @Benchmark
+  public DmColor[] lerpEach()
+  {
+    for (int index = 0; index < this.count; ++index) {
+      this.results[index] = this.colors0[index].lerp(this.colors1[index], 0.3);
+    }
+    return this.results;
+  }
+
+  /**
+   * Interpolate the colors as a batch.
+   *
+   * @return The results
+   */
+
+  @Benchmark
+  public double[] lerpBatch()
+  {
+    DmColorBatch.lerp(this.buffer0, this.buffer1, this.target, this.count, 0.3);
+    return this.target;
+  }
+
+  /**
+   * Apply a chain of operations to each color individually.
+   *
+   * @return The results
+   */
+
+  @Benchmark
+  public DmColor[] chainEach()
+  {
+    for (int index = 0; index < this.count; ++index) {
+      this.results[index] =
+        this.colors0[index]
+          .darker(0.1)
+          .lerp(this.colors1[index], 0.3)
+          .scale(0.9)
+          .lighter(0.2)
+          .darker(0.05);
+    }
+    return this.results;
+  }
+
+  /**
+   * Apply a chain of operations to each color using an accumulator.
+   *
+   * @return The results
+   */
+
+  @Benchmark
+  public int[] chainAccumulator()
+  {
+    for (int index = 0; index < this.count; ++index) {
+      this.packed[index] =
+        this.accumulator.set(this.colors0[index])
+          .darker(0.1)
+          .lerp(this.colors1[index], 0.3)
+          .scale(0.9)
+          .lighter(0.2)
+          .darker(0.05)
+          .toPacked();
+    }
+    return this.packed;
+  }
+}
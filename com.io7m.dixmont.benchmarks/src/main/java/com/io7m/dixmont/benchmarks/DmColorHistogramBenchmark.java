@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.dixmont.benchmarks;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorHistogram;
+import com.io7m.dixmont.colors.DmColorPacked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare a concurrent color histogram against a synchronized map when
+ * several threads count the same stream of colors.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class DmColorHistogramBenchmark
+{
+  private static final int COLORS = 10_000;
+
+  private DmColor[] colors;
+  private Map<DmColor, Long> map;
+  private DmColorHistogram histogram;
+
+  /**
+   * Create the colors, map, and histogram. The colors are drawn from a
+   * palette of 1000 colors.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var random = new Random(0x50L);
+    final var palette = new DmColor[1000];
+    for (int index = 0; index < palette.length; ++index) {
+      palette[index] = DmColorPacked.toColor(random.nextInt(0x1000000));
+    }
+
+    this.colors = new DmColor[COLORS];
+    for (int index = 0; index < COLORS; ++index) {
+      this.colors[index] = palette[random.nextInt(palette.length)];
+    }
+
+    this.map = new HashMap<>();
+    this.histogram = DmColorHistogram.create(4096);
+  }
+
+  /**
+   * Count the colors in a synchronized map.
+   *
+   * @return The map
+   */
+
+  @Benchmark
+  public Map<DmColor, Long> synchronizedMap()
+  {
+    for (final var color : this.colors) {
+      synchronized (this.map) {
+        this.map.merge(color, Long.valueOf(1L), Long::sum);
+      }
+    }
+    return this.map;
+  }
+
+  /**
+   * Count the colors in a histogram.
+   *
+   * @return The histogram
+   */
+
+  @Benchmark
+  public DmColorHistogram histogram()
+  {
+    for (final var color : this.colors) {
+      this.histogram.add(color);
+    }
+    return this.histogram;
+  }
+}
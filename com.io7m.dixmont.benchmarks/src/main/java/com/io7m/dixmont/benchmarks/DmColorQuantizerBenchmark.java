@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.dixmont.benchmarks;
+
+import com.io7m.dixmont.colors.DmColorPacked;
+import com.io7m.dixmont.colors.DmColorQuantizer;
+import com.io7m.dixmont.colors.DmPalette;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure how color quantization scales with the parallelism of the
+ * fork-join pool. Each operation reduces sixteen million colors to a
+ * palette of 256 colors.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DmColorQuantizerBenchmark
+{
+  private static final int COLORS = 1 << 24;
+
+  @Param({"1", "2", "4", "8"})
+  private int threads;
+
+  private int[] input;
+  private ForkJoinPool pool;
+
+  /**
+   * Create the input and pool. The input is a smooth gradient with noise,
+   * which resembles the colors of an image more closely than uniform noise.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var random = new Random(0x49L);
+    this.input = new int[COLORS];
+    for (int index = 0; index < COLORS; ++index) {
+      final var x = index & 0xfff;
+      final var y = index >>> 12;
+      this.input[index] = DmColorPacked.pack(
+        (x >>> 4) + random.nextInt(16),
+        (y >>> 4) + random.nextInt(16),
+        ((x + y) >>> 5) + random.nextInt(16)
+      );
+    }
+    this.pool = new ForkJoinPool(this.threads);
+  }
+
+  /**
+   * Shut down the pool.
+   */
+
+  @TearDown
+  public void tearDown()
+  {
+    this.pool.shutdown();
+  }
+
+  /**
+   * Quantize the input.
+   *
+   * @return The palette
+   */
+
+  @Benchmark
+  public DmPalette quantize()
+  {
+    return DmColorQuantizer.quantize(this.pool, this.input, 0, COLORS, 256);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.benchmarks;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorPacked;
+import com.io7m.dixmont.colors.DmPalette;
+import com.io7m.dixmont.colors.DmPaletteDistance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare palette queries against a linear scan over the palette.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DmPaletteBenchmark
+{
+  private static final int QUERIES = 10_000;
+
+  @Param({"16", "300"})
+  private int size;
+
+  private DmColor[] colors;
+  private int[] queries;
+  private int[] results;
+  private DmPalette palette;
+
+  /**
+   * Create the palette and queries.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var random = new Random(0x39L);
+    final var list = new ArrayList<DmColor>(this.size);
+    for (int index = 0; index < this.size; ++index) {
+      list.add(DmColorPacked.toColor(random.nextInt(0x1000000)));
+    }
+
+    this.colors = list.toArray(new DmColor[0]);
+    this.palette = DmPalette.of(list, DmPaletteDistance.DISTANCE_RGB);
+    this.queries = new int[QUERIES];
+    this.results = new int[QUERIES];
+    for (int index = 0; index < QUERIES; ++index) {
+      this.queries[index] = random.nextInt(0x1000000);
+    }
+  }
+
+  /**
+   * Find the nearest colors with a linear scan.
+   *
+   * @return The results
+   */
+
+  @Benchmark
+  public int[] linearScan()
+  {
+    for (int query = 0; query < QUERIES; ++query) {
+      final var rgb = this.queries[query];
+      final var r = (double) DmColorPacked.red(rgb) / 255.0;
+      final var g = (double) DmColorPacked.green(rgb) / 255.0;
+      final var b = (double) DmColorPacked.blue(rgb) / 255.0;
+
+      var best = 0;
+      var bestDistance = Double.POSITIVE_INFINITY;
+      for (int index = 0; index < this.colors.length; ++index) {
+        final var color = this.colors[index];
+        final var d0 = r - color.red();
+        final var d1 = g - color.green();
+        final var d2 = b - color.blue();
+        final var d = d0 * d0 + d1 * d1 + d2 * d2;
+        if (d < bestDistance) {
+          bestDistance = d;
+          best = index;
+        }
+      }
+      this.results[query] = best;
+    }
+    return this.results;
+  }
+
+  /**
+   * Find the nearest colors with the palette.
+   *
+   * @return The results
+   */
+
+  @Benchmark
+  public int[] palette()
+  {
+    this.palette.nearestIndicesPacked(this.queries, this.results, QUERIES);
+    return this.results;
+  }
+}
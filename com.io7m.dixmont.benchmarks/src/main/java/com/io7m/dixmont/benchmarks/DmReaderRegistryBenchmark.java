@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.benchmarks;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.core.DmJsonReaderRegistry;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare readers from a reader registry against readers created for each
+ * read.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DmReaderRegistryBenchmark
+{
+  private static final String TEXT = "[\"#334c66\",\"#ffeedd\"]";
+
+  private ObjectMapper mapper;
+  private DmJsonReaderRegistry registry;
+
+  /**
+   * Create the mapper and registry.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var module =
+      DmJsonRestrictedDeserializers.builder()
+        .allowListsOfClass(DmColor.class)
+        .buildModule();
+
+    this.mapper =
+      JsonMapper.builder()
+        .addModule(DmColorModule.create())
+        .addModule(module)
+        .build();
+
+    this.registry =
+      DmJsonReaderRegistry.builder(this.mapper)
+        .register(new TypeReference<List<DmColor>>()
+        {
+        })
+        .build();
+  }
+
+  /**
+   * Create a new reader for each read.
+   *
+   * @return The colors
+   */
+
+  @Benchmark
+  public List<DmColor> readerPerRead()
+  {
+    return this.mapper.readerFor(new TypeReference<List<DmColor>>()
+      {
+      })
+      .readValue(TEXT);
+  }
+
+  /**
+   * Use a reader from the registry.
+   *
+   * @return The colors
+   */
+
+  @Benchmark
+  public List<DmColor> readerRegistry()
+  {
+    return this.registry.reader(new TypeReference<List<DmColor>>()
+      {
+      })
+      .readValue(TEXT);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.benchmarks;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the record deserializers against the standard bean deserializer.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DmRecordDeserializationBenchmark
+{
+  /**
+   * A record with a mixture of property types.
+   *
+   * @param name       The name
+   * @param foreground The foreground color
+   * @param background The background color
+   * @param width      The width
+   * @param height     The height
+   * @param opacity    The opacity
+   */
+
+  public record Swatch(
+    String name,
+    DmColor foreground,
+    DmColor background,
+    int width,
+    int height,
+    double opacity)
+  {
+
+  }
+
+  private static final String TEXT = """
+    {
+      "name": "Primary",
+      "foreground": "#334c66",
+      "background": "#ffeedd",
+      "width": 640,
+      "height": 480,
+      "opacity": 0.75
+    }
+    """;
+
+  @Param({"false", "true"})
+  private boolean records;
+
+  private ObjectMapper mapper;
+
+  /**
+   * Create the mapper.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var module =
+      DmJsonRestrictedDeserializers.builder()
+        .allowClassNames(Set.of(
+          Swatch.class.getCanonicalName(),
+          DmColor.class.getCanonicalName(),
+          String.class.getCanonicalName(),
+          "int",
+          "double"
+        ))
+        .setRecordDeserializersEnabled(this.records)
+        .buildModule();
+
+    this.mapper =
+      JsonMapper.builder()
+        .addModule(DmColorModule.create())
+        .addModule(module)
+        .build();
+  }
+
+  /**
+   * Deserialize a single record.
+   *
+   * @return The record
+   */
+
+  @Benchmark
+  public Swatch deserialize()
+  {
+    return this.mapper.readValue(TEXT, Swatch.class);
+  }
+}
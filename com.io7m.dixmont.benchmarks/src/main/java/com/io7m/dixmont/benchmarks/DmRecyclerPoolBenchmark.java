@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.benchmarks;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.core.DmJsonRecyclerPool;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import com.io7m.dixmont.core.DmJsonRestrictedMappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.util.BufferRecycler;
+import tools.jackson.core.util.JsonRecyclerPools;
+import tools.jackson.core.util.RecyclerPool;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare recycler pools when parsing on many virtual threads. Each
+ * operation parses one document on each of 10000 virtual threads. The
+ * benchmark requires a JVM with virtual threads.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DmRecyclerPoolBenchmark
+{
+  /**
+   * A palette.
+   *
+   * @param primary   The primary colors
+   * @param secondary The secondary colors
+   */
+
+  public record Palette(
+    List<DmColor> primary,
+    List<DmColor> secondary)
+  {
+
+  }
+
+  private static final int THREADS = 10_000;
+
+  private static final String TEXT = """
+    {
+      "primary": ["#334c66", "#ffeedd", "#102030"],
+      "secondary": ["#aabbcc", "#000000"]
+    }
+    """;
+
+  @Param({"deque", "threadLocal", "dixmont"})
+  private String pool;
+
+  private ObjectMapper mapper;
+  private ExecutorService executor;
+
+  private static ExecutorService virtualThreads()
+  {
+    try {
+      return (ExecutorService) Executors.class
+        .getMethod("newVirtualThreadPerTaskExecutor")
+        .invoke(null);
+    } catch (final ReflectiveOperationException e) {
+      throw new IllegalStateException("Virtual threads are unavailable", e);
+    }
+  }
+
+  private RecyclerPool<BufferRecycler> selectPool()
+  {
+    return switch (this.pool) {
+      case "deque" -> JsonRecyclerPools.newConcurrentDequePool();
+      case "threadLocal" -> JsonRecyclerPools.threadLocalPool();
+      case "dixmont" -> DmJsonRecyclerPool.create(64, 4);
+      default -> throw new IllegalArgumentException(this.pool);
+    };
+  }
+
+  /**
+   * Create the mapper and executor.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.mapper =
+      DmJsonRestrictedMappers.builder(
+          DmJsonRestrictedDeserializers.builder()
+            .allowClass(Palette.class)
+            .allowListsOfClass(DmColor.class),
+          this.selectPool())
+        .addModule(DmColorModule.create())
+        .build();
+
+    this.executor = virtualThreads();
+  }
+
+  /**
+   * Shut down the executor.
+   */
+
+  @TearDown
+  public void tearDown()
+  {
+    this.executor.shutdown();
+  }
+
+  /**
+   * Parse one document on each of many virtual threads.
+   *
+   * @return The number of documents parsed
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public int parseOnVirtualThreads()
+    throws Exception
+  {
+    final var futures = new ArrayList<Future<Palette>>(THREADS);
+    for (int index = 0; index < THREADS; ++index) {
+      futures.add(this.executor.submit(
+        () -> this.mapper.readValue(TEXT, Palette.class)));
+    }
+    for (final var future : futures) {
+      future.get();
+    }
+    return futures.size();
+  }
+}
@@ -54,12 +54,9 @@ public record DmColor(
   @Override
   public String toString()
   {
-    return String.format(
-      "#%02x%02x%02x",
-      Integer.valueOf((int) (this.red * 255.0)),
-      Integer.valueOf((int) (this.green * 255.0)),
-      Integer.valueOf((int) (this.blue * 255.0))
-    );
+    final var buffer = new char[DmColorHex.ENCODED_LENGTH];
+    DmColorHex.encode(this, buffer, 0);
+    return String.valueOf(buffer);
   }
 
   /**
@@ -108,4 +105,27 @@ public record DmColor(
   {
     return this.scale(1.0 - factor);
   }
+
+  /**
+   * Linearly interpolate between this color and another color. A factor of
+   * 0.0 yields this color, and a factor of 1.0 yields the other color.
+   *
+   * @param other  The other color
+   * @param factor The interpolation factor
+   *
+   * @return The interpolated color
+   *
+   * @since 3.2.0
+   */
+
+  public DmColor lerp(
+    final DmColor other,
+    final double factor)
+  {
+    return new DmColor(
+      this.red + (other.red - this.red) * factor,
+      this.green + (other.green - this.green) * factor,
+      this.blue + (other.blue - this.blue) * factor
+    );
+  }
 }
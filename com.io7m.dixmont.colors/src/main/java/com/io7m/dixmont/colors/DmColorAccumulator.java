@@ -0,0 +1,302 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import static java.lang.Double.max;
+import static java.lang.Double.min;
+
+/**
+ * <p>A mutable color that applies chains of operations in place.</p>
+ *
+ * <p>Each operation gives exactly the same result as the corresponding
+ * {@link DmColor} method, so a chain such as
+ * {@code acc.set(c).darker(0.1).lerp(d, 0.5).scale(0.8).toColor()} is equal
+ * to {@code c.darker(0.1).lerp(d, 0.5).scale(0.8)}, but allocates nothing
+ * until the final {@link #toColor()} (and nothing at all with
+ * {@link #toPacked()}).</p>
+ *
+ * <p>The accumulator only clamps its channels when an operation could have
+ * moved them outside the range {@code [0, 1]}, and then only immediately
+ * before the next operation or result. Chains of darkening, scaling by
+ * factors in {@code [0, 1]}, and similar operations are never clamped at
+ * all.</p>
+ *
+ * <p>Accumulators are not thread-safe; each thread should use its own.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorAccumulator
+{
+  private double red;
+  private double green;
+  private double blue;
+  private boolean unclamped;
+
+  private DmColorAccumulator()
+  {
+
+  }
+
+  /**
+   * @return A new accumulator holding black
+   */
+
+  public static DmColorAccumulator create()
+  {
+    return new DmColorAccumulator();
+  }
+
+  /**
+   * @param color The initial color
+   *
+   * @return A new accumulator holding the given color
+   */
+
+  public static DmColorAccumulator of(
+    final DmColor color)
+  {
+    return create().set(color);
+  }
+
+  /**
+   * Set the current color.
+   *
+   * @param color The color
+   *
+   * @return this
+   */
+
+  public DmColorAccumulator set(
+    final DmColor color)
+  {
+    this.red = color.red();
+    this.green = color.green();
+    this.blue = color.blue();
+    this.unclamped = false;
+    return this;
+  }
+
+  /**
+   * Set the current color. The channels are clamped as by the
+   * {@link DmColor} constructor.
+   *
+   * @param r The red channel
+   * @param g The green channel
+   * @param b The blue channel
+   *
+   * @return this
+   */
+
+  public DmColorAccumulator set(
+    final double r,
+    final double g,
+    final double b)
+  {
+    this.red = r;
+    this.green = g;
+    this.blue = b;
+    this.unclamped = true;
+    return this;
+  }
+
+  /**
+   * Set the current color.
+   *
+   * @param rgb The color as {@code 0xrrggbb}
+   *
+   * @return this
+   */
+
+  public DmColorAccumulator setPacked(
+    final int rgb)
+  {
+    this.red = (double) DmColorPacked.red(rgb) / 255.0;
+    this.green = (double) DmColorPacked.green(rgb) / 255.0;
+    this.blue = (double) DmColorPacked.blue(rgb) / 255.0;
+    this.unclamped = false;
+    return this;
+  }
+
+  /**
+   * Clamp the channels to the range {@code [0, 1]}. This never needs to be
+   * called explicitly, as every operation and result clamps as necessary.
+   *
+   * @return this
+   */
+
+  public DmColorAccumulator clamp()
+  {
+    if (this.unclamped) {
+      this.red = min(1.0, max(0.0, this.red));
+      this.green = min(1.0, max(0.0, this.green));
+      this.blue = min(1.0, max(0.0, this.blue));
+      this.unclamped = false;
+    }
+    return this;
+  }
+
+  /**
+   * Scale the current color.
+   *
+   * @param factor The factor
+   *
+   * @return this
+   *
+   * @see DmColor#scale(double)
+   */
+
+  public DmColorAccumulator scale(
+    final double factor)
+  {
+    this.clamp();
+    this.red *= factor;
+    this.green *= factor;
+    this.blue *= factor;
+
+    /*
+     * Scaling channels in [0, 1] by a factor in (0, 1] cannot leave the
+     * range, even with rounding. A factor of zero is excluded, because a
+     * factor of -0.0 would produce channels of -0.0.
+     */
+
+    this.unclamped = !(factor > 0.0 && factor <= 1.0);
+    return this;
+  }
+
+  /**
+   * Lighten the current color.
+   *
+   * @param factor The factor
+   *
+   * @return this
+   *
+   * @see DmColor#lighter(double)
+   */
+
+  public DmColorAccumulator lighter(
+    final double factor)
+  {
+    return this.scale(1.0 + factor);
+  }
+
+  /**
+   * Darken the current color.
+   *
+   * @param factor The factor
+   *
+   * @return this
+   *
+   * @see DmColor#darker(double)
+   */
+
+  public DmColorAccumulator darker(
+    final double factor)
+  {
+    return this.scale(1.0 - factor);
+  }
+
+  /**
+   * Blend the current color with another color.
+   *
+   * @param other  The other color
+   * @param factor The interpolation factor
+   *
+   * @return this
+   *
+   * @see DmColor#lerp(DmColor, double)
+   */
+
+  public DmColorAccumulator lerp(
+    final DmColor other,
+    final double factor)
+  {
+    this.clamp();
+    this.red += (other.red() - this.red) * factor;
+    this.green += (other.green() - this.green) * factor;
+    this.blue += (other.blue() - this.blue) * factor;
+    this.unclamped = true;
+    return this;
+  }
+
+  /**
+   * @return The red channel of the current color
+   */
+
+  public double red()
+  {
+    return this.clamp().red;
+  }
+
+  /**
+   * @return The green channel of the current color
+   */
+
+  public double green()
+  {
+    return this.clamp().green;
+  }
+
+  /**
+   * @return The blue channel of the current color
+   */
+
+  public double blue()
+  {
+    return this.clamp().blue;
+  }
+
+  /**
+   * @return The current color
+   */
+
+  public DmColor toColor()
+  {
+    return new DmColor(this.red, this.green, this.blue);
+  }
+
+  /**
+   * @return The current color as {@code 0xrrggbb}
+   *
+   * @see DmColorPacked#pack(DmColor)
+   */
+
+  public int toPacked()
+  {
+    this.clamp();
+    return DmColorPacked.pack(
+      DmColorHex.quantize(this.red),
+      DmColorHex.quantize(this.green),
+      DmColorHex.quantize(this.blue)
+    );
+  }
+
+  @Override
+  public String toString()
+  {
+    this.clamp();
+    final var buffer = new char[DmColorHex.ENCODED_LENGTH];
+    DmColorHex.encode(
+      DmColorHex.quantize(this.red),
+      DmColorHex.quantize(this.green),
+      DmColorHex.quantize(this.blue),
+      buffer,
+      0
+    );
+    return String.valueOf(buffer);
+  }
+}
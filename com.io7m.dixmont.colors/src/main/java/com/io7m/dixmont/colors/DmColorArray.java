@@ -0,0 +1,251 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>An immutable array of colors, stored as packed {@code 0xrrggbb} values
+ * in a single {@code int} array (see {@link DmColorPacked}).</p>
+ *
+ * <p>A color array serializes to, and deserializes from, the same JSON
+ * array of {@code #rrggbb} strings as a {@code List<DmColor>}, but occupies
+ * four bytes per color, and is read and written without creating any
+ * per-element objects.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorArray
+{
+  private static final DmColorArray EMPTY =
+    new DmColorArray(new int[0], 0);
+
+  private final int[] data;
+  private final int size;
+
+  /*
+   * The array takes ownership of the given storage, which may be longer
+   * than the number of colors.
+   */
+
+  DmColorArray(
+    final int[] inData,
+    final int inSize)
+  {
+    this.data = Objects.requireNonNull(inData, "data");
+    this.size = inSize;
+  }
+
+  /*
+   * The underlying storage, which may be longer than the number of colors.
+   * The storage must not be modified.
+   */
+
+  int[] storage()
+  {
+    return this.data;
+  }
+
+  /**
+   * @return The empty color array
+   */
+
+  public static DmColorArray empty()
+  {
+    return EMPTY;
+  }
+
+  /**
+   * Create a color array from packed values. The upper eight bits of each
+   * value are ignored.
+   *
+   * @param rgb The colors as {@code 0xrrggbb} values
+   *
+   * @return A color array
+   */
+
+  public static DmColorArray ofPacked(
+    final int... rgb)
+  {
+    final var copy = new int[rgb.length];
+    for (int index = 0; index < rgb.length; ++index) {
+      copy[index] = rgb[index] & 0xffffff;
+    }
+    return new DmColorArray(copy, copy.length);
+  }
+
+  /**
+   * Create a color array from colors. Colors are quantized exactly as they
+   * are when serialized.
+   *
+   * @param colors The colors
+   *
+   * @return A color array
+   */
+
+  public static DmColorArray ofColors(
+    final Collection<DmColor> colors)
+  {
+    final var copy = new int[colors.size()];
+    var index = 0;
+    for (final var color : colors) {
+      copy[index] = DmColorPacked.pack(color);
+      ++index;
+    }
+    return new DmColorArray(copy, copy.length);
+  }
+
+  /**
+   * @return The number of colors
+   */
+
+  public int size()
+  {
+    return this.size;
+  }
+
+  /**
+   * @return {@code true} if the array is empty
+   */
+
+  public boolean isEmpty()
+  {
+    return this.size == 0;
+  }
+
+  /**
+   * @param index The index
+   *
+   * @return The color at {@code index} as a {@code 0xrrggbb} value
+   */
+
+  public int packed(
+    final int index)
+  {
+    Objects.checkIndex(index, this.size);
+    return this.data[index];
+  }
+
+  /**
+   * @param index The index
+   *
+   * @return The color at {@code index}
+   */
+
+  public DmColor color(
+    final int index)
+  {
+    return DmColorPacked.toColor(this.packed(index));
+  }
+
+  /**
+   * Copy colors into the given array.
+   *
+   * @param sourceIndex The index of the first color to copy
+   * @param target      The target array
+   * @param targetIndex The starting index in the target array
+   * @param count       The number of colors to copy
+   */
+
+  public void copyTo(
+    final int sourceIndex,
+    final int[] target,
+    final int targetIndex,
+    final int count)
+  {
+    Objects.checkFromIndexSize(sourceIndex, count, this.size);
+    System.arraycopy(this.data, sourceIndex, target, targetIndex, count);
+  }
+
+  /**
+   * @return The colors as a new array of {@code 0xrrggbb} values
+   */
+
+  public int[] toPackedArray()
+  {
+    return Arrays.copyOf(this.data, this.size);
+  }
+
+  /**
+   * @return The colors as a new list
+   */
+
+  public List<DmColor> toColors()
+  {
+    final var result = new ArrayList<DmColor>(this.size);
+    for (int index = 0; index < this.size; ++index) {
+      result.add(DmColorPacked.toColor(this.data[index]));
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(
+    final Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || !this.getClass().equals(o.getClass())) {
+      return false;
+    }
+    final var other = (DmColorArray) o;
+    return Arrays.equals(
+      this.data, 0, this.size,
+      other.data, 0, other.size
+    );
+  }
+
+  @Override
+  public int hashCode()
+  {
+    var result = 1;
+    for (int index = 0; index < this.size; ++index) {
+      result = 31 * result + this.data[index];
+    }
+    return result;
+  }
+
+  @Override
+  public String toString()
+  {
+    final var text = new StringBuilder(this.size * 9 + 2);
+    final var buffer = new char[DmColorHex.ENCODED_LENGTH];
+    text.append('[');
+    for (int index = 0; index < this.size; ++index) {
+      if (index > 0) {
+        text.append(", ");
+      }
+      final var rgb = this.data[index];
+      DmColorHex.encode(
+        DmColorPacked.red(rgb),
+        DmColorPacked.green(rgb),
+        DmColorPacked.blue(rgb),
+        buffer,
+        0
+      );
+      text.append(buffer);
+    }
+    text.append(']');
+    return text.toString();
+  }
+}
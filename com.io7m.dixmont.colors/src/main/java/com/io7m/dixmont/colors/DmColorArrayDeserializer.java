@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.deser.std.StdDeserializer;
+import tools.jackson.databind.exc.MismatchedInputException;
+
+import java.util.Arrays;
+
+/**
+ * A deserializer for color arrays. Colors are decoded directly from the
+ * parser's character buffer into packed storage.
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorArrayDeserializer
+  extends StdDeserializer<DmColorArray>
+{
+  private static final int INITIAL_CAPACITY = 16;
+
+  /**
+   * A deserializer for color arrays.
+   */
+
+  public DmColorArrayDeserializer()
+  {
+    super(DmColorArray.class);
+  }
+
+  @Override
+  public DmColorArray deserialize(
+    final JsonParser p,
+    final DeserializationContext ctxt)
+  {
+    if (!p.isExpectedStartArrayToken()) {
+      throw MismatchedInputException.from(
+        p,
+        DmColorArray.class,
+        "Color arrays must be arrays of color values"
+      );
+    }
+
+    var data = new int[INITIAL_CAPACITY];
+    var size = 0;
+
+    while (p.nextToken() != JsonToken.END_ARRAY) {
+      final var rgb = decode(p, ctxt);
+      if (size == data.length) {
+        data = Arrays.copyOf(data, data.length << 1);
+      }
+      data[size] = rgb;
+      ++size;
+    }
+
+    if (size == 0) {
+      return DmColorArray.empty();
+    }
+
+    /*
+     * Doubling can leave up to half of the storage unused. Arrays are
+     * immutable and may be long-lived, so trim any storage that is more
+     * than a quarter empty.
+     */
+
+    if (size < data.length - (data.length >>> 2)) {
+      data = Arrays.copyOf(data, size);
+    }
+    return new DmColorArray(data, size);
+  }
+
+  private static int decode(
+    final JsonParser p,
+    final DeserializationContext ctxt)
+  {
+    final var rgb = DmColorTokens.read(p, ctxt);
+    if (rgb >= 0) {
+      return rgb;
+    }
+
+    throw MismatchedInputException.from(
+      p,
+      DmColor.class,
+      DmColorHex.PATTERN_MESSAGE
+    );
+  }
+
+  @Override
+  public Object getEmptyValue(
+    final DeserializationContext ctxt)
+  {
+    return DmColorArray.empty();
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * A serializer for color arrays. Colors are encoded directly from packed
+ * storage through a single reused character buffer (or as packed integers,
+ * for binary formats).
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorArraySerializer
+  extends StdSerializer<DmColorArray>
+{
+  /**
+   * A serializer for color arrays.
+   */
+
+  public DmColorArraySerializer()
+  {
+    super(DmColorArray.class);
+  }
+
+  @Override
+  public void serialize(
+    final DmColorArray value,
+    final JsonGenerator jgen,
+    final SerializationContext provider)
+  {
+    final var size = value.size();
+    jgen.writeStartArray(value, size);
+
+    if (DmColorTokens.isBinary(provider)) {
+      for (int index = 0; index < size; ++index) {
+        jgen.writeNumber(value.packed(index));
+      }
+      jgen.writeEndArray();
+      return;
+    }
+
+    final var buffer = new char[DmColorHex.ENCODED_LENGTH];
+    for (int index = 0; index < size; ++index) {
+      final var rgb = value.packed(index);
+      DmColorHex.encode(
+        DmColorPacked.red(rgb),
+        DmColorPacked.green(rgb),
+        DmColorPacked.blue(rgb),
+        buffer,
+        0
+      );
+      jgen.writeString(buffer, 0, DmColorHex.ENCODED_LENGTH);
+    }
+    jgen.writeEndArray();
+  }
+
+  @Override
+  public boolean isEmpty(
+    final SerializationContext provider,
+    final DmColorArray value)
+  {
+    return value.isEmpty();
+  }
+}
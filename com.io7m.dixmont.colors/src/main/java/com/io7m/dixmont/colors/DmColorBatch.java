@@ -0,0 +1,323 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import java.util.Collection;
+import java.util.Objects;
+
+import static java.lang.Double.max;
+import static java.lang.Double.min;
+
+/**
+ * <p>Batch operations on colors held in primitive channel buffers.</p>
+ *
+ * <p>A channel buffer is a {@code double[]} holding colors as consecutive
+ * red, green, and blue channel values, so that color {@code i} occupies
+ * indices {@code 3i}, {@code 3i + 1}, and {@code 3i + 2}. Every operation
+ * produces results that are bit-for-bit identical to applying the
+ * corresponding {@link DmColor} method to each color in turn, but without
+ * allocating a color per element. The loops are simple enough for the JIT
+ * compiler to vectorize on hardware that supports it.</p>
+ *
+ * <p>Operations read from source buffers and write to a target buffer; the
+ * target may be the same array as a source.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorBatch
+{
+  /**
+   * The number of channels per color.
+   */
+
+  public static final int CHANNELS = 3;
+
+  private DmColorBatch()
+  {
+
+  }
+
+  private static int checkBuffer(
+    final double[] buffer,
+    final int count)
+  {
+    final var length = Math.multiplyExact(count, CHANNELS);
+    Objects.checkFromIndexSize(0, length, buffer.length);
+    return length;
+  }
+
+  /**
+   * Create a channel buffer large enough to hold the given number of colors.
+   *
+   * @param count The number of colors
+   *
+   * @return A new channel buffer
+   */
+
+  public static double[] allocate(
+    final int count)
+  {
+    return new double[Math.multiplyExact(count, CHANNELS)];
+  }
+
+  /**
+   * Write the given colors into a channel buffer.
+   *
+   * @param colors The colors
+   * @param target The target buffer
+   */
+
+  public static void load(
+    final Collection<DmColor> colors,
+    final double[] target)
+  {
+    checkBuffer(target, colors.size());
+
+    var index = 0;
+    for (final var color : colors) {
+      target[index] = color.red();
+      target[index + 1] = color.green();
+      target[index + 2] = color.blue();
+      index += CHANNELS;
+    }
+  }
+
+  /**
+   * Write the given colors into a channel buffer.
+   *
+   * @param colors The colors
+   * @param target The target buffer
+   */
+
+  public static void load(
+    final DmColorArray colors,
+    final double[] target)
+  {
+    final var count = colors.size();
+    checkBuffer(target, count);
+
+    for (int index = 0; index < count; ++index) {
+      final var rgb = colors.packed(index);
+      final var base = index * CHANNELS;
+      target[base] = (double) DmColorPacked.red(rgb) / 255.0;
+      target[base + 1] = (double) DmColorPacked.green(rgb) / 255.0;
+      target[base + 2] = (double) DmColorPacked.blue(rgb) / 255.0;
+    }
+  }
+
+  /**
+   * @param source The source buffer
+   * @param index  The color index
+   *
+   * @return The color at the given index
+   */
+
+  public static DmColor get(
+    final double[] source,
+    final int index)
+  {
+    final var base = Math.multiplyExact(index, CHANNELS);
+    Objects.checkFromIndexSize(base, CHANNELS, source.length);
+    return new DmColor(source[base], source[base + 1], source[base + 2]);
+  }
+
+  /**
+   * Pack the given number of colors from a channel buffer. Channels are
+   * quantized exactly as they are when serialized.
+   *
+   * @param source The source buffer
+   * @param count  The number of colors
+   *
+   * @return The packed colors
+   */
+
+  public static DmColorArray pack(
+    final double[] source,
+    final int count)
+  {
+    checkBuffer(source, count);
+
+    final var data = new int[count];
+    for (int index = 0; index < count; ++index) {
+      final var base = index * CHANNELS;
+      data[index] = DmColorPacked.pack(
+        DmColorHex.quantize(clamp(source[base])),
+        DmColorHex.quantize(clamp(source[base + 1])),
+        DmColorHex.quantize(clamp(source[base + 2]))
+      );
+    }
+    return new DmColorArray(data, count);
+  }
+
+  private static double clamp(
+    final double x)
+  {
+    return min(1.0, max(0.0, x));
+  }
+
+  /**
+   * Clamp every channel of the given colors to the range {@code [0, 1]},
+   * exactly as the {@link DmColor} constructor does.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   */
+
+  public static void clamp(
+    final double[] source,
+    final double[] target,
+    final int count)
+  {
+    final var length = checkBuffer(source, count);
+    checkBuffer(target, count);
+
+    for (int index = 0; index < length; ++index) {
+      target[index] = min(1.0, max(0.0, source[index]));
+    }
+  }
+
+  /**
+   * Scale the given colors.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   * @param factor The factor
+   *
+   * @see DmColor#scale(double)
+   */
+
+  public static void scale(
+    final double[] source,
+    final double[] target,
+    final int count,
+    final double factor)
+  {
+    final var length = checkBuffer(source, count);
+    checkBuffer(target, count);
+
+    for (int index = 0; index < length; ++index) {
+      target[index] = min(1.0, max(0.0, source[index] * factor));
+    }
+  }
+
+  /**
+   * Lighten the given colors.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   * @param factor The factor
+   *
+   * @see DmColor#lighter(double)
+   */
+
+  public static void lighter(
+    final double[] source,
+    final double[] target,
+    final int count,
+    final double factor)
+  {
+    scale(source, target, count, 1.0 + factor);
+  }
+
+  /**
+   * Darken the given colors.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   * @param factor The factor
+   *
+   * @see DmColor#darker(double)
+   */
+
+  public static void darker(
+    final double[] source,
+    final double[] target,
+    final int count,
+    final double factor)
+  {
+    scale(source, target, count, 1.0 - factor);
+  }
+
+  /**
+   * Linearly interpolate between two sets of colors using a single factor.
+   *
+   * @param source0 The colors at factor 0.0
+   * @param source1 The colors at factor 1.0
+   * @param target  The target buffer
+   * @param count   The number of colors
+   * @param factor  The interpolation factor
+   *
+   * @see DmColor#lerp(DmColor, double)
+   */
+
+  public static void lerp(
+    final double[] source0,
+    final double[] source1,
+    final double[] target,
+    final int count,
+    final double factor)
+  {
+    final var length = checkBuffer(source0, count);
+    checkBuffer(source1, count);
+    checkBuffer(target, count);
+
+    for (int index = 0; index < length; ++index) {
+      final var x = source0[index];
+      target[index] = min(1.0, max(0.0, x + (source1[index] - x) * factor));
+    }
+  }
+
+  /**
+   * Linearly interpolate between two sets of colors using a separate factor
+   * for each color.
+   *
+   * @param source0 The colors at factor 0.0
+   * @param source1 The colors at factor 1.0
+   * @param factors The interpolation factor for each color
+   * @param target  The target buffer
+   * @param count   The number of colors
+   *
+   * @see DmColor#lerp(DmColor, double)
+   */
+
+  public static void blend(
+    final double[] source0,
+    final double[] source1,
+    final double[] factors,
+    final double[] target,
+    final int count)
+  {
+    checkBuffer(source0, count);
+    checkBuffer(source1, count);
+    checkBuffer(target, count);
+    Objects.checkFromIndexSize(0, count, factors.length);
+
+    for (int index = 0; index < count; ++index) {
+      final var t = factors[index];
+      final var base = index * CHANNELS;
+      for (int channel = base; channel < base + CHANNELS; ++channel) {
+        final var x = source0[channel];
+        target[channel] = min(1.0, max(0.0, x + (source1[channel] - x) * t));
+      }
+    }
+  }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A bounded cache of shared, immutable {@link DmColor} instances, keyed
+ * by packed {@code 0xrrggbb} value.</p>
+ *
+ * <p>Documents typically repeat a small palette many times. A deserializer
+ * using a cache returns the same {@link DmColor} instance for every
+ * occurrence of a color that is present in the cache, rather than
+ * allocating a new instance each time.</p>
+ *
+ * <p>The cache is a fixed-size, two-way set associative table: each color
+ * can occupy one of exactly two slots, and a color is evicted when a third
+ * color needs the same pair of slots. Lookups never block, and the cache
+ * never holds more than {@link #capacity()} colors. The cache is safe to use
+ * from any number of threads.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorCache
+{
+  /**
+   * The largest useful capacity: one slot for every possible color.
+   */
+
+  public static final int MAXIMUM_CAPACITY = 1 << 24;
+
+  private final Entry[] entries;
+  private final int mask;
+  private final DmColorCacheEviction eviction;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+
+  private DmColorCache(
+    final int inCapacity,
+    final DmColorCacheEviction inEviction)
+  {
+    this.entries = new Entry[inCapacity];
+    this.mask = inCapacity - 1;
+    this.eviction = Objects.requireNonNull(inEviction, "eviction");
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.evictions = new LongAdder();
+  }
+
+  /**
+   * Create a new cache. The capacity is rounded up to the next power of two
+   * (and to at least two), and limited to {@link #MAXIMUM_CAPACITY}.
+   *
+   * @param capacity The requested capacity
+   * @param eviction The eviction policy
+   *
+   * @return A new cache
+   */
+
+  public static DmColorCache create(
+    final int capacity,
+    final DmColorCacheEviction eviction)
+  {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+        "Capacity %d must be positive".formatted(Integer.valueOf(capacity))
+      );
+    }
+
+    final var clamped =
+      Math.min(MAXIMUM_CAPACITY, Math.max(2, capacity));
+    final var rounded =
+      Integer.highestOneBit(clamped) == clamped
+        ? clamped
+        : Integer.highestOneBit(clamped) << 1;
+
+    return new DmColorCache(rounded, eviction);
+  }
+
+  /*
+   * Spread the bits of the color so that similar colors (which differ only
+   * in their low bits) do not all land in adjacent slots. The result is the
+   * index of the first of a pair of slots.
+   */
+
+  private int bucketOf(
+    final int rgb)
+  {
+    final var h = rgb * 0x9e3779b1;
+    return (h ^ (h >>> 16)) & this.mask & ~1;
+  }
+
+  /**
+   * Obtain the color with the given packed value, returning a shared
+   * instance if one is cached.
+   *
+   * @param rgb The color as {@code 0xrrggbb}
+   *
+   * @return A color
+   */
+
+  public DmColor color(
+    final int rgb)
+  {
+    final var key = rgb & 0xffffff;
+    final var bucket = this.bucketOf(key);
+
+    /*
+     * Entries are immutable and are published through final fields, so a
+     * racy read of the table always observes a complete entry. Racing
+     * writers can at worst lose an entry, which costs a later miss.
+     */
+
+    final var first = this.entries[bucket];
+    if (first != null && first.rgb == key) {
+      this.hits.increment();
+      return first.color;
+    }
+
+    final var second = this.entries[bucket + 1];
+    if (second != null && second.rgb == key) {
+      this.hits.increment();
+      return second.color;
+    }
+
+    this.misses.increment();
+    final var color = DmColorPacked.toColor(key);
+    this.insert(bucket, first, second, new Entry(key, color));
+    return color;
+  }
+
+  private void insert(
+    final int bucket,
+    final Entry first,
+    final Entry second,
+    final Entry entry)
+  {
+    if (first == null) {
+      this.entries[bucket] = entry;
+      return;
+    }
+
+    /*
+     * Slots are ordered newest first, so the first entry shifts along to
+     * make room for the new entry. If both slots are occupied, replacing
+     * evicts the entry in the second slot, which is the older one.
+     */
+
+    if (second != null) {
+      if (this.eviction != DmColorCacheEviction.EVICTION_REPLACE) {
+        return;
+      }
+      this.evictions.increment();
+    }
+
+    this.entries[bucket + 1] = first;
+    this.entries[bucket] = entry;
+  }
+
+  /**
+   * @return The maximum number of colors held by the cache
+   */
+
+  public int capacity()
+  {
+    return this.entries.length;
+  }
+
+  /**
+   * @return The eviction policy
+   */
+
+  public DmColorCacheEviction eviction()
+  {
+    return this.eviction;
+  }
+
+  /**
+   * @return The number of lookups that returned a cached color
+   */
+
+  public long hits()
+  {
+    return this.hits.sum();
+  }
+
+  /**
+   * @return The number of lookups that did not return a cached color
+   */
+
+  public long misses()
+  {
+    return this.misses.sum();
+  }
+
+  /**
+   * @return The number of colors evicted to make room for other colors
+   */
+
+  public long evictions()
+  {
+    return this.evictions.sum();
+  }
+
+  /**
+   * @return The fraction of lookups that returned a cached color, in the
+   * range {@code [0, 1]}
+   */
+
+  public double hitRate()
+  {
+    final var h = (double) this.hits();
+    final var total = h + (double) this.misses();
+    return total == 0.0 ? 0.0 : h / total;
+  }
+
+  /**
+   * Reset the hit, miss, and eviction counters. Cached colors are retained.
+   */
+
+  public void resetStatistics()
+  {
+    this.hits.reset();
+    this.misses.reset();
+    this.evictions.reset();
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[DmColorCache capacity=%d eviction=%s hits=%d misses=%d evictions=%d]",
+      Integer.valueOf(this.capacity()),
+      this.eviction,
+      Long.valueOf(this.hits()),
+      Long.valueOf(this.misses()),
+      Long.valueOf(this.evictions())
+    );
+  }
+
+  private static final class Entry
+  {
+    private final int rgb;
+    private final DmColor color;
+
+    Entry(
+      final int inRgb,
+      final DmColor inColor)
+    {
+      this.rgb = inRgb;
+      this.color = inColor;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+/**
+ * The eviction policy used by a color cache when a color maps to a pair of
+ * cache slots that are both occupied.
+ *
+ * @since 3.2.0
+ */
+
+public enum DmColorCacheEviction
+{
+  /**
+   * The new color replaces the older of the two colors in the slots. This
+   * suits documents whose palette drifts over time.
+   */
+
+  EVICTION_REPLACE,
+
+  /**
+   * The first colors stored in the slots stay there for the lifetime of the
+   * cache, and colliding colors are not cached. This suits documents with a
+   * fixed palette, and prevents frequent colors that share slots from
+   * repeatedly evicting each other.
+   */
+
+  EVICTION_KEEP_FIRST
+}
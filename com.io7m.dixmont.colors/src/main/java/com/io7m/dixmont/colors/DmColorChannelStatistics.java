@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.dixmont.colors;
+
+/**
+ * Statistics for one channel of a set of colors. Channel values are in the
+ * range {@code [0, 1]}, as with {@link DmColor}.
+ *
+ * @param minimum  The smallest channel value
+ * @param maximum  The largest channel value
+ * @param mean     The mean channel value
+ * @param variance The population variance of the channel values
+ *
+ * @see DmColorStatistics
+ * @since 3.2.0
+ */
+
+public record DmColorChannelStatistics(
+  double minimum,
+  double maximum,
+  double mean,
+  double variance)
+{
+  /**
+   * @return The population standard deviation of the channel values
+   */
+
+  public double standardDeviation()
+  {
+    return Math.sqrt(this.variance);
+  }
+}
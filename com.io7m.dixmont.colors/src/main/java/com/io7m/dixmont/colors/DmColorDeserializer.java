@@ -17,21 +17,33 @@
 package com.io7m.dixmont.colors;
 
 import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
 import tools.jackson.databind.DeserializationContext;
 import tools.jackson.databind.deser.std.StdDeserializer;
 import tools.jackson.databind.exc.MismatchedInputException;
 
-import java.util.regex.Pattern;
+import java.util.Objects;
 
 /**
  * A deserializer for color values.
+ *
+ * <p>By default, only {@code #rrggbb} strings are accepted (along with
+ * packed integers in binary formats). A deserializer created with the
+ * extended syntax enabled (see
+ * {@link DmColorModuleBuilderType#setExtendedSyntaxEnabled(boolean)})
+ * additionally accepts {@code #rgb}, {@code #rgba}, and {@code #rrggbbaa}
+ * strings, the CSS {@code rgb()}, {@code rgba()}, {@code hsl()}, and
+ * {@code hsla()} functions, CSS named colors, {@code {"r":r,"g":g,"b":b}}
+ * objects, and {@code [r,g,b]} arrays. Object and array components are
+ * real numbers in the range {@code [0, 1]}; components outside that range
+ * are rejected rather than clamped.</p>
  */
 
 public final class DmColorDeserializer
   extends StdDeserializer<DmColor>
 {
-  private static final Pattern COLOR_PATTERN =
-    Pattern.compile("#([a-fA-F0-9]{2})([a-fA-F0-9]{2})([a-fA-F0-9]{2})");
+  private final DmColorCache cache;
+  private final boolean extended;
 
   /**
    * A deserializer for color values.
@@ -42,6 +54,37 @@ public final class DmColorDeserializer
     this(DmColor.class);
   }
 
+  /**
+   * A deserializer for color values that returns shared instances from the
+   * given cache.
+   *
+   * @param inCache The color cache
+   *
+   * @since 3.2.0
+   */
+
+  public DmColorDeserializer(
+    final DmColorCache inCache)
+  {
+    this(Objects.requireNonNull(inCache, "cache"), false);
+  }
+
+  /**
+   * A deserializer for color values.
+   *
+   * @param inCache    The color cache, if any
+   * @param inExtended {@code true} if the extended syntax is accepted
+   */
+
+  DmColorDeserializer(
+    final DmColorCache inCache,
+    final boolean inExtended)
+  {
+    super(DmColor.class);
+    this.cache = inCache;
+    this.extended = inExtended;
+  }
+
   /**
    * A deserializer for color values.
    *
@@ -52,6 +95,8 @@ public final class DmColorDeserializer
     final Class<DmColor> t)
   {
     super(t);
+    this.cache = null;
+    this.extended = false;
   }
 
   @Override
@@ -59,24 +104,154 @@ public final class DmColorDeserializer
     final JsonParser p,
     final DeserializationContext ctxt)
   {
-    final var text = p.getValueAsString();
-
-    final var matcher = COLOR_PATTERN.matcher(text);
-    if (matcher.matches()) {
-      final var r = matcher.group(1);
-      final var g = matcher.group(2);
-      final var b = matcher.group(3);
-      return new DmColor(
-        (double) Integer.parseUnsignedInt(r, 16) / 255.0,
-        (double) Integer.parseUnsignedInt(g, 16) / 255.0,
-        (double) Integer.parseUnsignedInt(b, 16) / 255.0
-      );
+    if (this.extended) {
+      return this.deserializeExtended(p, ctxt);
+    }
+
+    /*
+     * The color is parsed directly from the parser's character buffer,
+     * so that successfully parsing a color allocates nothing other than
+     * the color itself (and nothing at all if the color is cached).
+     */
+
+    final var rgb = DmColorTokens.read(p, ctxt);
+    if (rgb >= 0) {
+      return this.colorOf(rgb);
     }
 
     throw MismatchedInputException.from(
       p,
       DmColor.class,
-      "Color values must match the pattern %s".formatted(COLOR_PATTERN)
+      DmColorHex.PATTERN_MESSAGE
     );
   }
+
+  private DmColor colorOf(
+    final int rgb)
+  {
+    return this.cache == null
+      ? DmColorPacked.toColor(rgb)
+      : this.cache.color(rgb);
+  }
+
+  private DmColor deserializeExtended(
+    final JsonParser p,
+    final DeserializationContext ctxt)
+  {
+    final var token = p.currentToken();
+    if (token == JsonToken.VALUE_STRING) {
+      final var color =
+        DmColorSyntax.parse(
+          p.getStringCharacters(),
+          p.getStringOffset(),
+          p.getStringLength(),
+          this.cache
+        );
+      if (color != null) {
+        return color;
+      }
+    } else if (token == JsonToken.START_ARRAY) {
+      return readArray(p);
+    } else if (token == JsonToken.START_OBJECT
+               || token == JsonToken.PROPERTY_NAME) {
+      return this.readObject(p, ctxt);
+    } else {
+      final var rgb = DmColorTokens.read(p, ctxt);
+      if (rgb >= 0) {
+        return this.colorOf(rgb);
+      }
+    }
+
+    throw MismatchedInputException.from(
+      p,
+      DmColor.class,
+      DmColorSyntax.EXTENDED_MESSAGE
+    );
+  }
+
+  private static double readComponent(
+    final JsonParser p)
+  {
+    if (p.hasToken(JsonToken.VALUE_NUMBER_INT)
+        || p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+      final var value = p.getDoubleValue();
+      if (value >= 0.0 && value <= 1.0) {
+        return value;
+      }
+
+      /*
+       * Components are not clamped: a component such as 128 is far more
+       * likely to be an 8-bit channel value than an intentionally
+       * saturated one, and clamping it would silently produce the wrong
+       * color.
+       */
+
+      throw MismatchedInputException.from(
+        p,
+        DmColor.class,
+        "Color components must be in the range [0, 1] (received %s)"
+          .formatted(p.getString())
+      );
+    }
+    throw MismatchedInputException.from(
+      p,
+      DmColor.class,
+      "Color components must be numbers"
+    );
+  }
+
+  private static DmColor readArray(
+    final JsonParser p)
+  {
+    p.nextToken();
+    final var r = readComponent(p);
+    p.nextToken();
+    final var g = readComponent(p);
+    p.nextToken();
+    final var b = readComponent(p);
+
+    if (p.nextToken() != JsonToken.END_ARRAY) {
+      throw MismatchedInputException.from(
+        p,
+        DmColor.class,
+        "Color arrays must contain exactly three components"
+      );
+    }
+    return new DmColor(r, g, b);
+  }
+
+  private DmColor readObject(
+    final JsonParser p,
+    final DeserializationContext ctxt)
+  {
+    if (p.isExpectedStartObjectToken()) {
+      p.nextToken();
+    }
+
+    var r = Double.NaN;
+    var g = Double.NaN;
+    var b = Double.NaN;
+
+    for (var token = p.currentToken();
+         token == JsonToken.PROPERTY_NAME;
+         token = p.nextToken()) {
+      final var name = p.currentName();
+      p.nextToken();
+      switch (name) {
+        case "r" -> r = readComponent(p);
+        case "g" -> g = readComponent(p);
+        case "b" -> b = readComponent(p);
+        default -> ctxt.handleUnknownProperty(p, this, DmColor.class, name);
+      }
+    }
+
+    if (Double.isNaN(r) || Double.isNaN(g) || Double.isNaN(b)) {
+      throw MismatchedInputException.from(
+        p,
+        DmColor.class,
+        "Color objects must have r, g, and b components"
+      );
+    }
+    return new DmColor(r, g, b);
+  }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import java.util.Arrays;
+
+/**
+ * Functions to encode and decode colors as {@code #rrggbb} hex strings.
+ */
+
+final class DmColorHex
+{
+  /**
+   * The length of an encoded color.
+   */
+
+  static final int ENCODED_LENGTH = 7;
+
+  /**
+   * The pattern that encoded colors must match.
+   */
+
+  static final String PATTERN =
+    "#([a-fA-F0-9]{2})([a-fA-F0-9]{2})([a-fA-F0-9]{2})";
+
+  /**
+   * The error message used when a color does not match the pattern.
+   */
+
+  static final String PATTERN_MESSAGE =
+    "Color values must match the pattern %s".formatted(PATTERN);
+
+  /*
+   * The two lowercase hex digits of each byte value, stored consecutively.
+   */
+
+  private static final char[] DIGITS = digits();
+
+  /*
+   * The value of each ASCII hex digit, or -1 for any other character.
+   */
+
+  private static final byte[] NIBBLES = nibbles();
+
+  private DmColorHex()
+  {
+
+  }
+
+  private static char[] digits()
+  {
+    final var hex = "0123456789abcdef";
+    final var table = new char[256 * 2];
+    for (int index = 0; index < 256; ++index) {
+      table[index * 2] = hex.charAt(index >>> 4);
+      table[index * 2 + 1] = hex.charAt(index & 0xf);
+    }
+    return table;
+  }
+
+  private static byte[] nibbles()
+  {
+    final var table = new byte[128];
+    Arrays.fill(table, (byte) -1);
+    for (int index = 0; index < 10; ++index) {
+      table['0' + index] = (byte) index;
+    }
+    for (int index = 0; index < 6; ++index) {
+      table['a' + index] = (byte) (10 + index);
+      table['A' + index] = (byte) (10 + index);
+    }
+    return table;
+  }
+
+  static int nibble(
+    final char c)
+  {
+    return c < NIBBLES.length ? NIBBLES[c] : -1;
+  }
+
+  /*
+   * Parse two hex digits, returning a negative value if either character
+   * is not a hex digit.
+   */
+
+  private static int hexByte(
+    final char high,
+    final char low)
+  {
+    return (nibble(high) << 4) | nibble(low);
+  }
+
+  /**
+   * Decode a color.
+   *
+   * @param chars  The input characters
+   * @param offset The offset of the color in the input
+   * @param length The length of the color in the input
+   *
+   * @return The color as a {@code 0xrrggbb} value, or {@code -1} if the
+   * input does not match {@link #PATTERN}
+   */
+
+  static int decode(
+    final char[] chars,
+    final int offset,
+    final int length)
+  {
+    if (length != ENCODED_LENGTH || chars[offset] != '#') {
+      return -1;
+    }
+
+    final var r = hexByte(chars[offset + 1], chars[offset + 2]);
+    final var g = hexByte(chars[offset + 3], chars[offset + 4]);
+    final var b = hexByte(chars[offset + 5], chars[offset + 6]);
+    if ((r | g | b) < 0) {
+      return -1;
+    }
+    return (r << 16) | (g << 8) | b;
+  }
+
+  /**
+   * Decode a color.
+   *
+   * @param text The input text
+   *
+   * @return The color as a {@code 0xrrggbb} value, or {@code -1} if the
+   * input does not match {@link #PATTERN}
+   */
+
+  static int decode(
+    final String text)
+  {
+    if (text.length() != ENCODED_LENGTH || text.charAt(0) != '#') {
+      return -1;
+    }
+
+    final var r = hexByte(text.charAt(1), text.charAt(2));
+    final var g = hexByte(text.charAt(3), text.charAt(4));
+    final var b = hexByte(text.charAt(5), text.charAt(6));
+    if ((r | g | b) < 0) {
+      return -1;
+    }
+    return (r << 16) | (g << 8) | b;
+  }
+
+  /**
+   * Quantize a channel value in the range {@code [0, 1]} to the range
+   * {@code [0, 255]}. Values are truncated rather than rounded, as they
+   * always have been.
+   *
+   * @param channel The channel value
+   *
+   * @return The quantized value
+   */
+
+  static int quantize(
+    final double channel)
+  {
+    return (int) (channel * 255.0);
+  }
+
+  /**
+   * Encode the given quantized channel values.
+   *
+   * @param r      The red channel
+   * @param g      The green channel
+   * @param b      The blue channel
+   * @param buffer The output buffer
+   * @param offset The offset into the output buffer
+   */
+
+  static void encode(
+    final int r,
+    final int g,
+    final int b,
+    final char[] buffer,
+    final int offset)
+  {
+    buffer[offset] = '#';
+    System.arraycopy(DIGITS, r * 2, buffer, offset + 1, 2);
+    System.arraycopy(DIGITS, g * 2, buffer, offset + 3, 2);
+    System.arraycopy(DIGITS, b * 2, buffer, offset + 5, 2);
+  }
+
+  /**
+   * Encode the given color.
+   *
+   * @param color  The color
+   * @param buffer The output buffer
+   * @param offset The offset into the output buffer
+   */
+
+  static void encode(
+    final DmColor color,
+    final char[] buffer,
+    final int offset)
+  {
+    encode(
+      quantize(color.red()),
+      quantize(color.green()),
+      quantize(color.blue()),
+      buffer,
+      offset
+    );
+  }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.dixmont.colors;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A concurrent histogram of colors, keyed by packed {@code 0xrrggbb}
+ * value.</p>
+ *
+ * <p>The histogram is a fixed-size, open-addressing table of primitive
+ * keys and counts. Any number of threads may add colors at once: adding a
+ * color never blocks, never allocates, and costs a single atomic addition
+ * once the color has been seen. The histogram never uses more memory than
+ * was allocated when it was created, so a color is searched for in at most
+ * {@link #MAXIMUM_PROBES} slots. A new color that cannot be placed in
+ * any of those slots is not recorded, and is counted in {@link #dropped()}
+ * instead. A histogram with a capacity comfortably larger than the number
+ * of distinct colors it will see rarely drops colors, and a histogram with
+ * {@link #MAXIMUM_CAPACITY} slots stores each color in its own slot and
+ * never drops colors.</p>
+ *
+ * <p>Queries are made on immutable snapshots. A snapshot taken while other
+ * threads are adding colors reflects each color's count at some point
+ * during the snapshot, but not necessarily the same point for every
+ * color.</p>
+ *
+ * @see DmColorHistogramSnapshot
+ * @since 3.2.0
+ */
+
+public final class DmColorHistogram
+{
+  /**
+   * The largest capacity. A histogram with this capacity indexes slots
+   * directly by color, with one slot for every possible color.
+   */
+
+  public static final int MAXIMUM_CAPACITY = 1 << 24;
+
+  /**
+   * The largest number of slots searched for a color.
+   */
+
+  public static final int MAXIMUM_PROBES = 64;
+
+  /*
+   * Keys are stored as rgb + 1, so that zero marks an empty slot. A slot is
+   * claimed by setting its key, and is never released, so a color always
+   * remains in the slot where it was first placed.
+   */
+
+  private final AtomicIntegerArray keys;
+  private final AtomicLongArray counts;
+  private final int mask;
+  private final int probes;
+  private final LongAdder dropped;
+  private final boolean direct;
+
+  private DmColorHistogram(
+    final int inCapacity)
+  {
+    this.keys = new AtomicIntegerArray(inCapacity);
+    this.counts = new AtomicLongArray(inCapacity);
+    this.mask = inCapacity - 1;
+    this.probes = Math.min(MAXIMUM_PROBES, inCapacity);
+    this.dropped = new LongAdder();
+    this.direct = inCapacity == MAXIMUM_CAPACITY;
+  }
+
+  /**
+   * Create a new histogram. The capacity is rounded up to the next power of
+   * two (and to at least two), and limited to {@link #MAXIMUM_CAPACITY}.
+   * The histogram uses twelve bytes per slot.
+   *
+   * @param capacity The requested capacity
+   *
+   * @return A new histogram
+   */
+
+  public static DmColorHistogram create(
+    final int capacity)
+  {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+        "Capacity %d must be positive".formatted(Integer.valueOf(capacity))
+      );
+    }
+
+    final var clamped =
+      Math.min(MAXIMUM_CAPACITY, Math.max(2, capacity));
+    final var rounded =
+      Integer.highestOneBit(clamped) == clamped
+        ? clamped
+        : Integer.highestOneBit(clamped) << 1;
+
+    return new DmColorHistogram(rounded);
+  }
+
+  /*
+   * Spread the bits of the key so that similar colors do not cluster. A
+   * histogram with a slot for every color places each color in its own
+   * slot, so adding a color never probes and never fails.
+   */
+
+  private int slotOf(
+    final int key)
+  {
+    if (this.direct) {
+      return key - 1;
+    }
+    final var h = key * 0x9e3779b1;
+    return (h ^ (h >>> 16)) & this.mask;
+  }
+
+  /*
+   * Claim the given slot for the given key if it is empty, returning true
+   * if the slot now holds the key.
+   */
+
+  private boolean claim(
+    final int slot,
+    final int key)
+  {
+    final var current = this.keys.get(slot);
+    if (current == key) {
+      return true;
+    }
+    if (current != 0) {
+      return false;
+    }
+    if (this.keys.compareAndSet(slot, 0, key)) {
+      return true;
+    }
+    return this.keys.get(slot) == key;
+  }
+
+  /**
+   * Count a color once.
+   *
+   * @param color The color
+   */
+
+  public void add(
+    final DmColor color)
+  {
+    this.addPacked(DmColorPacked.pack(color), 1L);
+  }
+
+  /**
+   * Count a color once. The upper eight bits of the value are ignored.
+   *
+   * @param rgb The color as {@code 0xrrggbb}
+   */
+
+  public void addPacked(
+    final int rgb)
+  {
+    this.addPacked(rgb, 1L);
+  }
+
+  /**
+   * Count a color the given number of times. The upper eight bits of the
+   * value are ignored.
+   *
+   * @param rgb   The color as {@code 0xrrggbb}
+   * @param count The number of times to count the color
+   */
+
+  public void addPacked(
+    final int rgb,
+    final long count)
+  {
+    if (count < 0L) {
+      throw new IllegalArgumentException(
+        "Count %d must be non-negative".formatted(Long.valueOf(count))
+      );
+    }
+
+    final var key = (rgb & 0xffffff) + 1;
+    final var home = this.slotOf(key);
+    for (int probe = 0; probe < this.probes; ++probe) {
+      final var slot = (home + probe) & this.mask;
+      if (this.claim(slot, key)) {
+        this.counts.getAndAdd(slot, count);
+        return;
+      }
+    }
+    this.dropped.add(count);
+  }
+
+  /**
+   * Count every color in the given range once. The upper eight bits of
+   * each value are ignored.
+   *
+   * @param rgb    The colors as {@code 0xrrggbb} values
+   * @param offset The index of the first color
+   * @param length The number of colors
+   */
+
+  public void addAllPacked(
+    final int[] rgb,
+    final int offset,
+    final int length)
+  {
+    Objects.checkFromIndexSize(offset, length, rgb.length);
+    for (int index = offset; index < offset + length; ++index) {
+      this.addPacked(rgb[index], 1L);
+    }
+  }
+
+  /**
+   * Count every color in the given array once.
+   *
+   * @param array The colors
+   */
+
+  public void addAll(
+    final DmColorArray array)
+  {
+    this.addAllPacked(array.storage(), 0, array.size());
+  }
+
+  /**
+   * Add the counts in the given snapshot to this histogram. Colors dropped
+   * by the snapshot's histogram are counted as dropped by this histogram.
+   *
+   * @param snapshot The snapshot
+   */
+
+  public void merge(
+    final DmColorHistogramSnapshot snapshot)
+  {
+    Objects.requireNonNull(snapshot, "snapshot");
+    for (int index = 0; index < snapshot.size(); ++index) {
+      this.addPacked(snapshot.rgb(index), snapshot.count(index));
+    }
+    this.dropped.add(snapshot.dropped());
+  }
+
+  /**
+   * Add the counts in the given histogram to this histogram.
+   *
+   * @param other The histogram
+   */
+
+  public void merge(
+    final DmColorHistogram other)
+  {
+    this.merge(other.snapshot());
+  }
+
+  /**
+   * @return The number of slots in the histogram
+   */
+
+  public int capacity()
+  {
+    return this.keys.length();
+  }
+
+  /**
+   * @return The number of times a color could not be recorded because the
+   * histogram had no room for it
+   */
+
+  public long dropped()
+  {
+    return this.dropped.sum();
+  }
+
+  /**
+   * Take a snapshot of the histogram.
+   *
+   * @return A snapshot
+   */
+
+  public DmColorHistogramSnapshot snapshot()
+  {
+    var rgb = new int[64];
+    var found = new long[64];
+    var size = 0;
+
+    for (int slot = 0; slot < this.keys.length(); ++slot) {
+      final var key = this.keys.get(slot);
+      if (key != 0) {
+        final var count = this.counts.get(slot);
+        if (count != 0L) {
+          if (size == rgb.length) {
+            rgb = Arrays.copyOf(rgb, size * 2);
+            found = Arrays.copyOf(found, size * 2);
+          }
+          rgb[size] = key - 1;
+          found[size] = count;
+          ++size;
+        }
+      }
+    }
+
+    return DmColorHistogramSnapshot.ofUnsorted(
+      rgb,
+      found,
+      size,
+      this.dropped()
+    );
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[DmColorHistogram capacity=%d dropped=%d]",
+      Integer.valueOf(this.capacity()),
+      Long.valueOf(this.dropped())
+    );
+  }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.dixmont.colors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>An immutable snapshot of a {@link DmColorHistogram}.</p>
+ *
+ * <p>The snapshot holds the colors with non-zero counts in ascending order
+ * of packed value, and answers count, top-K, and channel statistics
+ * queries. Snapshots may be merged with each other, and are safe to query
+ * from any number of threads.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorHistogramSnapshot
+{
+  private final int[] colors;
+  private final long[] counts;
+  private final long total;
+  private final long dropped;
+
+  private DmColorHistogramSnapshot(
+    final int[] inRgb,
+    final long[] inCounts,
+    final long inDropped)
+  {
+    this.colors = inRgb;
+    this.counts = inCounts;
+    this.dropped = inDropped;
+
+    var sum = 0L;
+    for (final var count : inCounts) {
+      sum += count;
+    }
+    this.total = sum;
+  }
+
+  /*
+   * Create a snapshot from the first size entries of the given arrays, in
+   * any order, with distinct colors.
+   */
+
+  static DmColorHistogramSnapshot ofUnsorted(
+    final int[] rgb,
+    final long[] counts,
+    final int size,
+    final long dropped)
+  {
+    final var order = new long[size];
+    for (int index = 0; index < size; ++index) {
+      order[index] = ((long) rgb[index] << 32) | (long) index;
+    }
+    Arrays.sort(order);
+
+    final var sortedRgb = new int[size];
+    final var sortedCounts = new long[size];
+    for (int index = 0; index < size; ++index) {
+      final var source = (int) order[index];
+      sortedRgb[index] = rgb[source];
+      sortedCounts[index] = counts[source];
+    }
+    return new DmColorHistogramSnapshot(sortedRgb, sortedCounts, dropped);
+  }
+
+  /**
+   * @return The number of distinct colors
+   */
+
+  public int size()
+  {
+    return this.colors.length;
+  }
+
+  /**
+   * @param index The index of the color, in ascending order of packed value
+   *
+   * @return The color at the given index as {@code 0xrrggbb}
+   */
+
+  public int rgb(
+    final int index)
+  {
+    return this.colors[index];
+  }
+
+  /**
+   * @param index The index of the color, in ascending order of packed value
+   *
+   * @return The count of the color at the given index
+   */
+
+  public long count(
+    final int index)
+  {
+    return this.counts[index];
+  }
+
+  /**
+   * @param rgb The color as {@code 0xrrggbb}
+   *
+   * @return The count of the given color, or zero if it was not counted
+   */
+
+  public long countOf(
+    final int rgb)
+  {
+    final var index = Arrays.binarySearch(this.colors, rgb & 0xffffff);
+    return index >= 0 ? this.counts[index] : 0L;
+  }
+
+  /**
+   * @return The sum of the counts of every color
+   */
+
+  public long total()
+  {
+    return this.total;
+  }
+
+  /**
+   * @return The number of times a color could not be recorded by the
+   * histogram
+   */
+
+  public long dropped()
+  {
+    return this.dropped;
+  }
+
+  /**
+   * @return Every color and its count, in ascending order of packed value
+   */
+
+  public List<DmColorHistogramEntry> entries()
+  {
+    final var result = new ArrayList<DmColorHistogramEntry>(this.size());
+    for (int index = 0; index < this.size(); ++index) {
+      result.add(new DmColorHistogramEntry(this.colors[index], this.counts[index]));
+    }
+    return List.copyOf(result);
+  }
+
+  /*
+   * Whether the entry at index x is ranked above the entry at index y:
+   * higher counts first, and then lower packed values.
+   */
+
+  private boolean ranksAbove(
+    final int x,
+    final int y)
+  {
+    final var cx = this.counts[x];
+    final var cy = this.counts[y];
+    return cx > cy || (cx == cy && this.colors[x] < this.colors[y]);
+  }
+
+  /**
+   * Find the most frequent colors. Colors with equal counts are ordered by
+   * ascending packed value.
+   *
+   * @param k The maximum number of colors
+   *
+   * @return At most {@code k} colors, in descending order of count
+   */
+
+  public List<DmColorHistogramEntry> top(
+    final int k)
+  {
+    if (k < 0) {
+      throw new IllegalArgumentException(
+        "Count %d must be non-negative".formatted(Integer.valueOf(k))
+      );
+    }
+
+    /*
+     * Keep the best k entries seen so far in a heap whose root is the
+     * lowest ranked of them.
+     */
+
+    final var limit = Math.min(k, this.size());
+    final var heap = new int[limit];
+    var heapSize = 0;
+    for (int index = 0; index < this.size(); ++index) {
+      if (heapSize < limit) {
+        heap[heapSize] = index;
+        this.siftUp(heap, heapSize);
+        ++heapSize;
+      } else if (limit > 0 && this.ranksAbove(index, heap[0])) {
+        heap[0] = index;
+        this.siftDown(heap, limit);
+      }
+    }
+
+    final var result = new DmColorHistogramEntry[limit];
+    for (int position = limit - 1; position >= 0; --position) {
+      final var index = heap[0];
+      result[position] =
+        new DmColorHistogramEntry(this.colors[index], this.counts[index]);
+      heap[0] = heap[position];
+      this.siftDown(heap, position);
+    }
+    return List.of(result);
+  }
+
+  private void siftUp(
+    final int[] heap,
+    final int start)
+  {
+    var child = start;
+    while (child > 0) {
+      final var parent = (child - 1) >>> 1;
+      if (!this.ranksAbove(heap[parent], heap[child])) {
+        return;
+      }
+      swap(heap, parent, child);
+      child = parent;
+    }
+  }
+
+  private void siftDown(
+    final int[] heap,
+    final int size)
+  {
+    var parent = 0;
+    while (true) {
+      final var left = parent * 2 + 1;
+      if (left >= size) {
+        return;
+      }
+      final var right = left + 1;
+      var lowest = left;
+      if (right < size && this.ranksAbove(heap[left], heap[right])) {
+        lowest = right;
+      }
+      if (!this.ranksAbove(heap[parent], heap[lowest])) {
+        return;
+      }
+      swap(heap, parent, lowest);
+      parent = lowest;
+    }
+  }
+
+  private static void swap(
+    final int[] heap,
+    final int x,
+    final int y)
+  {
+    final var t = heap[x];
+    heap[x] = heap[y];
+    heap[y] = t;
+  }
+
+  /**
+   * Compute channel statistics over every counted color, weighting each
+   * color by its count. If no colors were counted, every statistic is zero.
+   *
+   * @return The statistics
+   */
+
+  public DmColorStatistics statistics()
+  {
+    return new DmColorStatistics(
+      this.total,
+      this.channel(16),
+      this.channel(8),
+      this.channel(0)
+    );
+  }
+
+  private DmColorChannelStatistics channel(
+    final int shift)
+  {
+    if (this.total == 0L) {
+      return new DmColorChannelStatistics(0.0, 0.0, 0.0, 0.0);
+    }
+
+    var minimum = 255;
+    var maximum = 0;
+    var sum = 0.0;
+    for (int index = 0; index < this.size(); ++index) {
+      final var value = (this.colors[index] >>> shift) & 0xff;
+      minimum = Math.min(minimum, value);
+      maximum = Math.max(maximum, value);
+      sum += (double) this.counts[index] * (double) value;
+    }
+
+    final var n = (double) this.total;
+    final var mean = sum / n;
+    var squares = 0.0;
+    for (int index = 0; index < this.size(); ++index) {
+      final var d = (double) ((this.colors[index] >>> shift) & 0xff) - mean;
+      squares += (double) this.counts[index] * d * d;
+    }
+
+    return new DmColorChannelStatistics(
+      (double) minimum / 255.0,
+      (double) maximum / 255.0,
+      mean / 255.0,
+      squares / n / (255.0 * 255.0)
+    );
+  }
+
+  /**
+   * Merge this snapshot with another, summing the counts of colors present
+   * in both.
+   *
+   * @param other The other snapshot
+   *
+   * @return A new snapshot
+   */
+
+  public DmColorHistogramSnapshot merge(
+    final DmColorHistogramSnapshot other)
+  {
+    Objects.requireNonNull(other, "other");
+
+    final var capacity = this.size() + other.size();
+    final var mergedRgb = new int[capacity];
+    final var mergedCounts = new long[capacity];
+    var x = 0;
+    var y = 0;
+    var size = 0;
+    while (x < this.size() || y < other.size()) {
+      final var cx = x < this.size() ? this.colors[x] : Integer.MAX_VALUE;
+      final var cy = y < other.size() ? other.colors[y] : Integer.MAX_VALUE;
+      final var c = Math.min(cx, cy);
+      var count = 0L;
+      if (cx == c) {
+        count += this.counts[x];
+        ++x;
+      }
+      if (cy == c) {
+        count += other.counts[y];
+        ++y;
+      }
+      mergedRgb[size] = c;
+      mergedCounts[size] = count;
+      ++size;
+    }
+
+    return new DmColorHistogramSnapshot(
+      Arrays.copyOf(mergedRgb, size),
+      Arrays.copyOf(mergedCounts, size),
+      this.dropped + other.dropped
+    );
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[DmColorHistogramSnapshot size=%d total=%d dropped=%d]",
+      Integer.valueOf(this.size()),
+      Long.valueOf(this.total),
+      Long.valueOf(this.dropped)
+    );
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.KeyDeserializer;
+
+import java.util.Objects;
+
+/**
+ * A key deserializer for color values, allowing colors to be used as the
+ * keys of maps. Keys are parsed with the same syntax as the color
+ * deserializer.
+ *
+ * @see DmColorDeserializer
+ * @since 3.2.0
+ */
+
+public final class DmColorKeyDeserializer
+  extends KeyDeserializer
+{
+  private final DmColorCache cache;
+  private final boolean extended;
+
+  /**
+   * A key deserializer for color values.
+   */
+
+  public DmColorKeyDeserializer()
+  {
+    this(null, false);
+  }
+
+  /**
+   * A key deserializer for color values that returns shared instances from
+   * the given cache.
+   *
+   * @param inCache The color cache
+   */
+
+  public DmColorKeyDeserializer(
+    final DmColorCache inCache)
+  {
+    this(Objects.requireNonNull(inCache, "cache"), false);
+  }
+
+  /**
+   * A key deserializer for color values.
+   *
+   * @param inCache    The color cache, if any
+   * @param inExtended {@code true} if the extended syntax is accepted
+   */
+
+  DmColorKeyDeserializer(
+    final DmColorCache inCache,
+    final boolean inExtended)
+  {
+    this.cache = inCache;
+    this.extended = inExtended;
+  }
+
+  @Override
+  public Object deserializeKey(
+    final String key,
+    final DeserializationContext ctxt)
+  {
+    /*
+     * Keys are always delivered as strings, so every form is parsed
+     * directly from the string without copying it.
+     */
+
+    final var rgb = DmColorHex.decode(key);
+    if (rgb >= 0) {
+      return this.cache == null
+        ? DmColorPacked.toColor(rgb)
+        : this.cache.color(rgb);
+    }
+
+    if (this.extended) {
+      final var color =
+        DmColorSyntax.parse(key, this.cache);
+      if (color != null) {
+        return color;
+      }
+      return ctxt.handleWeirdKey(
+        DmColor.class,
+        key,
+        DmColorSyntax.EXTENDED_MESSAGE
+      );
+    }
+
+    return ctxt.handleWeirdKey(
+      DmColor.class,
+      key,
+      DmColorHex.PATTERN_MESSAGE
+    );
+  }
+}
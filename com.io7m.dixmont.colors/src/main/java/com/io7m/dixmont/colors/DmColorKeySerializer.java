@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * A key serializer for color values, allowing colors to be used as the
+ * keys of maps. Keys are always written as {@code #rrggbb} strings, as all
+ * formats require string keys.
+ *
+ * <p>Generators only accept names as strings, so the serializer keeps a
+ * small direct-mapped table of encoded names. Maps typically use a small
+ * set of colors as keys, and each name in the table is written without
+ * any allocation (and without being encoded again).</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorKeySerializer
+  extends StdSerializer<DmColor>
+{
+  private static final int NAME_SLOTS = 1024;
+
+  private final Name[] names;
+
+  /**
+   * A key serializer for color values.
+   */
+
+  public DmColorKeySerializer()
+  {
+    super(DmColor.class);
+    this.names = new Name[NAME_SLOTS];
+  }
+
+  @Override
+  public void serialize(
+    final DmColor value,
+    final JsonGenerator jgen,
+    final SerializationContext provider)
+  {
+    jgen.writeName(this.nameOf(DmColorPacked.pack(value)));
+  }
+
+  /*
+   * Names are immutable and are published through final fields, so a
+   * racy read of the table always observes a complete name. Racing
+   * writers can at worst replace a name, which costs a later miss.
+   */
+
+  private SerializableString nameOf(
+    final int rgb)
+  {
+    final var h = rgb * 0x9e3779b1;
+    final var slot = (h ^ (h >>> 16)) & (NAME_SLOTS - 1);
+    final var existing = this.names[slot];
+    if (existing != null && existing.rgb == rgb) {
+      return existing.name;
+    }
+
+    final var buffer = new char[DmColorHex.ENCODED_LENGTH];
+    DmColorHex.encode(
+      DmColorPacked.red(rgb),
+      DmColorPacked.green(rgb),
+      DmColorPacked.blue(rgb),
+      buffer,
+      0
+    );
+
+    final var name = new Name(rgb, new SerializedString(String.valueOf(buffer)));
+    this.names[slot] = name;
+    return name.name;
+  }
+
+  private static final class Name
+  {
+    private final int rgb;
+    private final SerializableString name;
+
+    Name(
+      final int inRgb,
+      final SerializableString inName)
+    {
+      this.rgb = inRgb;
+      this.name = inName;
+    }
+  }
+}
@@ -20,6 +20,8 @@ package com.io7m.dixmont.colors;
 import tools.jackson.databind.JacksonModule;
 import tools.jackson.databind.module.SimpleModule;
 
+import java.util.Objects;
+
 /**
  * The color module.
  */
@@ -38,10 +40,113 @@ public final class DmColorModule
    */
 
   public static JacksonModule create()
+  {
+    return builder().buildModule();
+  }
+
+  /**
+   * Create a new mutable builder for color modules.
+   *
+   * @return A new builder
+   *
+   * @since 3.2.0
+   */
+
+  public static DmColorModuleBuilderType builder()
+  {
+    return new Builder();
+  }
+
+  /**
+   * Create a color module that interns deserialized colors using the given
+   * cache. The cache may be shared between modules and mappers.
+   *
+   * @param cache The color cache
+   *
+   * @return The created module
+   *
+   * @since 3.2.0
+   */
+
+  public static JacksonModule create(
+    final DmColorCache cache)
+  {
+    return builder().setCache(cache).buildModule();
+  }
+
+  private static JacksonModule createWith(
+    final DmColorCache cache,
+    final boolean extendedSyntax,
+    final long rasterMaximumPixels)
   {
     final var module = new SimpleModule();
-    module.addDeserializer(DmColor.class, new DmColorDeserializer());
+    module.addDeserializer(
+      DmColor.class,
+      new DmColorDeserializer(cache, extendedSyntax)
+    );
     module.addSerializer(DmColor.class, new DmColorSerializer());
+    module.addKeyDeserializer(
+      DmColor.class,
+      new DmColorKeyDeserializer(cache, extendedSyntax)
+    );
+    module.addKeySerializer(DmColor.class, new DmColorKeySerializer());
+    module.addDeserializer(DmColorPacked.class, new DmColorPackedDeserializer());
+    module.addSerializer(DmColorPacked.class, new DmColorPackedSerializer());
+    module.addDeserializer(DmColorArray.class, new DmColorArrayDeserializer());
+    module.addSerializer(DmColorArray.class, new DmColorArraySerializer());
+    module.addDeserializer(DmColorRaster.class, new DmColorRasterDeserializer(rasterMaximumPixels));
+    module.addSerializer(DmColorRaster.class, new DmColorRasterSerializer());
+    module.addDeserializer(DmGradient.class, new DmGradientDeserializer());
+    module.addSerializer(DmGradient.class, new DmGradientSerializer());
     return module;
   }
+
+  private static final class Builder
+    implements DmColorModuleBuilderType
+  {
+    private DmColorCache cache;
+    private boolean extendedSyntax;
+    private long rasterMaximumPixels;
+
+    private Builder()
+    {
+      this.rasterMaximumPixels =
+        DmColorRasterDeserializer.DEFAULT_MAXIMUM_PIXELS;
+    }
+
+    @Override
+    public DmColorModuleBuilderType setCache(
+      final DmColorCache inCache)
+    {
+      this.cache = Objects.requireNonNull(inCache, "cache");
+      return this;
+    }
+
+    @Override
+    public DmColorModuleBuilderType setExtendedSyntaxEnabled(
+      final boolean enabled)
+    {
+      this.extendedSyntax = enabled;
+      return this;
+    }
+
+    @Override
+    public DmColorModuleBuilderType setRasterMaximumPixels(
+      final long pixels)
+    {
+      if (pixels < 1L) {
+        throw new IllegalArgumentException(
+          "Maximum pixel count %d must be positive".formatted(Long.valueOf(pixels))
+        );
+      }
+      this.rasterMaximumPixels = pixels;
+      return this;
+    }
+
+    @Override
+    public JacksonModule buildModule()
+    {
+      return createWith(this.cache, this.extendedSyntax, this.rasterMaximumPixels);
+    }
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import org.osgi.annotation.versioning.ProviderType;
+import tools.jackson.databind.JacksonModule;
+
+/**
+ * A mutable builder for color modules.
+ *
+ * @since 3.2.0
+ */
+
+@ProviderType
+public interface DmColorModuleBuilderType
+{
+  /**
+   * Set the cache used to intern deserialized colors. The cache may be
+   * shared between modules and mappers.
+   *
+   * @param cache The color cache
+   *
+   * @return this
+   */
+
+  DmColorModuleBuilderType setCache(DmColorCache cache);
+
+  /**
+   * Enable or disable the extended color syntax. If enabled, colors may
+   * be deserialized from short and alpha hex colors, CSS color functions,
+   * CSS named colors, objects, and arrays, in addition to {@code #rrggbb}
+   * strings. The extended syntax is disabled by default.
+   *
+   * @param enabled {@code true} if the extended syntax is accepted
+   *
+   * @return this
+   *
+   * @see DmColorDeserializer
+   */
+
+  DmColorModuleBuilderType setExtendedSyntaxEnabled(boolean enabled);
+
+  /**
+   * Set the maximum number of pixels in a raster allocated during
+   * deserialization. Rasters that are updated in place are not limited.
+   * The default is {@link DmColorRasterDeserializer#DEFAULT_MAXIMUM_PIXELS}.
+   *
+   * @param pixels The maximum number of pixels
+   *
+   * @return this
+   *
+   * @see DmColorRasterDeserializer
+   */
+
+  DmColorModuleBuilderType setRasterMaximumPixels(long pixels);
+
+  /**
+   * @return A module based on all the parameters given so far
+   */
+
+  JacksonModule buildModule();
+}
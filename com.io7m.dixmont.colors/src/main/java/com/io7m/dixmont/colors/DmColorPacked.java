@@ -0,0 +1,300 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import static java.lang.Double.max;
+import static java.lang.Double.min;
+
+/**
+ * <p>A color packed into the low 24 bits of an integer as {@code 0xrrggbb}.</p>
+ *
+ * <p>Packed colors have the same eight bits of precision per channel as the
+ * serialized form of {@link DmColor}, and so converting a packed color to a
+ * {@link DmColor} and back again is lossless. Converting a {@link DmColor}
+ * to a packed color quantizes each channel exactly as serialization does.</p>
+ *
+ * <p>Large collections of colors can be held as plain {@code int} values
+ * (for example, in an {@code int[]}) using the static functions on this
+ * class, at four bytes per color.</p>
+ *
+ * @param rgb The color as {@code 0xrrggbb}
+ *
+ * @since 3.2.0
+ */
+
+public record DmColorPacked(
+  int rgb)
+{
+  /**
+   * A packed color.
+   *
+   * @param rgb The color as {@code 0xrrggbb}; the upper eight bits are
+   *            ignored
+   */
+
+  public DmColorPacked
+  {
+    rgb = rgb & 0xffffff;
+  }
+
+  /**
+   * Create a packed color from the given channel values. Channel values are
+   * clamped to the range {@code [0, 255]}.
+   *
+   * @param r The red channel
+   * @param g The green channel
+   * @param b The blue channel
+   *
+   * @return A packed color
+   */
+
+  public static DmColorPacked of(
+    final int r,
+    final int g,
+    final int b)
+  {
+    return new DmColorPacked(pack(r, g, b));
+  }
+
+  /**
+   * Create a packed color from the given color.
+   *
+   * @param color The color
+   *
+   * @return A packed color
+   */
+
+  public static DmColorPacked ofColor(
+    final DmColor color)
+  {
+    return new DmColorPacked(pack(color));
+  }
+
+  /**
+   * Pack the given channel values. Channel values are clamped to the range
+   * {@code [0, 255]}.
+   *
+   * @param r The red channel
+   * @param g The green channel
+   * @param b The blue channel
+   *
+   * @return The color as {@code 0xrrggbb}
+   */
+
+  public static int pack(
+    final int r,
+    final int g,
+    final int b)
+  {
+    return (clamp(r) << 16) | (clamp(g) << 8) | clamp(b);
+  }
+
+  /**
+   * Pack the given color.
+   *
+   * @param color The color
+   *
+   * @return The color as {@code 0xrrggbb}
+   */
+
+  public static int pack(
+    final DmColor color)
+  {
+    return pack(
+      DmColorHex.quantize(color.red()),
+      DmColorHex.quantize(color.green()),
+      DmColorHex.quantize(color.blue())
+    );
+  }
+
+  /**
+   * @param rgb The color as {@code 0xrrggbb}
+   *
+   * @return The red channel of the given packed color
+   */
+
+  public static int red(
+    final int rgb)
+  {
+    return (rgb >>> 16) & 0xff;
+  }
+
+  /**
+   * @param rgb The color as {@code 0xrrggbb}
+   *
+   * @return The green channel of the given packed color
+   */
+
+  public static int green(
+    final int rgb)
+  {
+    return (rgb >>> 8) & 0xff;
+  }
+
+  /**
+   * @param rgb The color as {@code 0xrrggbb}
+   *
+   * @return The blue channel of the given packed color
+   */
+
+  public static int blue(
+    final int rgb)
+  {
+    return rgb & 0xff;
+  }
+
+  /**
+   * Unpack the given color.
+   *
+   * @param rgb The color as {@code 0xrrggbb}
+   *
+   * @return The color
+   */
+
+  public static DmColor toColor(
+    final int rgb)
+  {
+    return new DmColor(
+      (double) red(rgb) / 255.0,
+      (double) green(rgb) / 255.0,
+      (double) blue(rgb) / 255.0
+    );
+  }
+
+  /**
+   * Scale the given packed color by the given factor. The result is
+   * identical to unpacking the color, calling {@link DmColor#scale(double)},
+   * and packing the result.
+   *
+   * @param rgb    The color as {@code 0xrrggbb}
+   * @param factor The factor
+   *
+   * @return The color scaled
+   */
+
+  public static int scale(
+    final int rgb,
+    final double factor)
+  {
+    return (scaleChannel(red(rgb), factor) << 16)
+           | (scaleChannel(green(rgb), factor) << 8)
+           | scaleChannel(blue(rgb), factor);
+  }
+
+  private static int scaleChannel(
+    final int channel,
+    final double factor)
+  {
+    final var scaled = ((double) channel / 255.0) * factor;
+    return DmColorHex.quantize(min(1.0, max(0.0, scaled)));
+  }
+
+  private static int clamp(
+    final int channel)
+  {
+    return Math.min(255, Math.max(0, channel));
+  }
+
+  /**
+   * @return The red channel
+   */
+
+  public int red()
+  {
+    return red(this.rgb);
+  }
+
+  /**
+   * @return The green channel
+   */
+
+  public int green()
+  {
+    return green(this.rgb);
+  }
+
+  /**
+   * @return The blue channel
+   */
+
+  public int blue()
+  {
+    return blue(this.rgb);
+  }
+
+  /**
+   * @return This color as a {@link DmColor}
+   */
+
+  public DmColor toColor()
+  {
+    return toColor(this.rgb);
+  }
+
+  @Override
+  public String toString()
+  {
+    final var buffer = new char[DmColorHex.ENCODED_LENGTH];
+    DmColorHex.encode(this.red(), this.green(), this.blue(), buffer, 0);
+    return String.valueOf(buffer);
+  }
+
+  /**
+   * Scale this color by the given factor. Factors less than 1.0 make the color
+   * darker. Factors greater than 1.0 make the color lighter.
+   *
+   * @param factor The factor
+   *
+   * @return The color scaled
+   *
+   * @see DmColor#scale(double)
+   */
+
+  public DmColorPacked scale(
+    final double factor)
+  {
+    return new DmColorPacked(scale(this.rgb, factor));
+  }
+
+  /**
+   * Lighten this color.
+   *
+   * @param factor The factor
+   *
+   * @return A lightened color
+   */
+
+  public DmColorPacked lighter(
+    final double factor)
+  {
+    return this.scale(1.0 + factor);
+  }
+
+  /**
+   * Darken this color.
+   *
+   * @param factor The factor
+   *
+   * @return A darkened color
+   */
+
+  public DmColorPacked darker(
+    final double factor)
+  {
+    return this.scale(1.0 - factor);
+  }
+}
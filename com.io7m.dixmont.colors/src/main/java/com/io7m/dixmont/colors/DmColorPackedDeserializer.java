@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.deser.std.StdDeserializer;
+import tools.jackson.databind.exc.MismatchedInputException;
+
+/**
+ * A deserializer for packed color values.
+ */
+
+public final class DmColorPackedDeserializer
+  extends StdDeserializer<DmColorPacked>
+{
+  /**
+   * A deserializer for packed color values.
+   */
+
+  public DmColorPackedDeserializer()
+  {
+    this(DmColorPacked.class);
+  }
+
+  /**
+   * A deserializer for packed color values.
+   *
+   * @param t The deserialized class
+   */
+
+  public DmColorPackedDeserializer(
+    final Class<DmColorPacked> t)
+  {
+    super(t);
+  }
+
+  @Override
+  public DmColorPacked deserialize(
+    final JsonParser p,
+    final DeserializationContext ctxt)
+  {
+    final var rgb = DmColorTokens.read(p, ctxt);
+    if (rgb >= 0) {
+      return new DmColorPacked(rgb);
+    }
+
+    throw MismatchedInputException.from(
+      p,
+      DmColorPacked.class,
+      DmColorHex.PATTERN_MESSAGE
+    );
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * A serializer for packed color values.
+ */
+
+public final class DmColorPackedSerializer
+  extends StdSerializer<DmColorPacked>
+{
+  /**
+   * A serializer for packed color values.
+   */
+
+  public DmColorPackedSerializer()
+  {
+    this(null);
+  }
+
+  /**
+   * A serializer for packed color values.
+   *
+   * @param t The serialized class
+   */
+
+  public DmColorPackedSerializer(
+    final Class<DmColorPacked> t)
+  {
+    super(t);
+  }
+
+  @Override
+  public void serialize(
+    final DmColorPacked value,
+    final JsonGenerator jgen,
+    final SerializationContext provider)
+  {
+    if (DmColorTokens.isBinary(provider)) {
+      jgen.writeNumber(value.rgb());
+      return;
+    }
+
+    final var buffer = new char[DmColorHex.ENCODED_LENGTH];
+    DmColorHex.encode(value.red(), value.green(), value.blue(), buffer, 0);
+    jgen.writeString(buffer, 0, DmColorHex.ENCODED_LENGTH);
+  }
+}
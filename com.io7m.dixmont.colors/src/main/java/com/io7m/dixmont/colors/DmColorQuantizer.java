@@ -0,0 +1,568 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.dixmont.colors;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>A median-cut color quantizer that reduces large sets of colors to small
+ * palettes.</p>
+ *
+ * <p>The quantizer first builds a histogram of the input in which each
+ * channel is reduced to {@link #HISTOGRAM_BITS} bits. The input is divided
+ * into at most one part per thread of the fork-join pool, each part is
+ * counted into its own histogram in parallel, and the partial histograms
+ * are merged pairwise as the parts complete. The memory used is therefore
+ * proportional to the parallelism of the pool, and is independent of the
+ * size of the input. The histogram records the exact sum of the colors in
+ * each cell, so the result does not depend on the parallelism of the pool
+ * or on the order in which parts complete.</p>
+ *
+ * <p>The occupied region of the histogram is then repeatedly divided at
+ * the median of its longest axis, preferring the most populous boxes for
+ * the first half of the divisions and the boxes with the greatest product
+ * of population and volume for the remainder. Each palette color is the
+ * average of the input colors in one box, and palette colors appear in
+ * descending order of population.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorQuantizer
+{
+  /**
+   * The number of bits per channel retained in the histogram.
+   */
+
+  public static final int HISTOGRAM_BITS = 5;
+
+  /**
+   * The largest number of colors a palette may be asked to hold: one for
+   * every cell of the histogram.
+   */
+
+  public static final int MAXIMUM_COLORS =
+    1 << (HISTOGRAM_BITS * DmColorBatch.CHANNELS);
+
+  /*
+   * The histogram stores, for each cell, the number of colors followed by
+   * the sums of their red, green, and blue channels, so that a single
+   * update touches one cache line.
+   */
+
+  private static final int SIDE = 1 << HISTOGRAM_BITS;
+  private static final int FIELDS = 4;
+  private static final int HISTOGRAM_SIZE = MAXIMUM_COLORS * FIELDS;
+
+  /*
+   * The smallest number of colors worth counting on a separate thread.
+   */
+
+  private static final int MINIMUM_PART = 1 << 16;
+
+  private DmColorQuantizer()
+  {
+
+  }
+
+  private static void checkColors(
+    final int colors)
+  {
+    if (colors < 1 || colors > MAXIMUM_COLORS) {
+      throw new IllegalArgumentException(
+        "Color count %d must be in the range [1, %d]".formatted(
+          Integer.valueOf(colors),
+          Integer.valueOf(MAXIMUM_COLORS))
+      );
+    }
+  }
+
+  /**
+   * Quantize packed colors on the common fork-join pool.
+   *
+   * @param rgb    The colors as {@code 0xrrggbb} values
+   * @param offset The index of the first color
+   * @param length The number of colors
+   * @param colors The maximum number of palette colors
+   *
+   * @return A palette of at most {@code colors} colors
+   */
+
+  public static DmPalette quantize(
+    final int[] rgb,
+    final int offset,
+    final int length,
+    final int colors)
+  {
+    return quantize(ForkJoinPool.commonPool(), rgb, offset, length, colors);
+  }
+
+  /**
+   * Quantize packed colors on the given fork-join pool. The upper eight bits
+   * of each value are ignored.
+   *
+   * @param pool   The fork-join pool
+   * @param rgb    The colors as {@code 0xrrggbb} values
+   * @param offset The index of the first color
+   * @param length The number of colors
+   * @param colors The maximum number of palette colors
+   *
+   * @return A palette of at most {@code colors} colors
+   */
+
+  public static DmPalette quantize(
+    final ForkJoinPool pool,
+    final int[] rgb,
+    final int offset,
+    final int length,
+    final int colors)
+  {
+    Objects.requireNonNull(pool, "pool");
+    Objects.checkFromIndexSize(offset, length, rgb.length);
+    checkColors(colors);
+
+    final SourceType source = (histogram, lo, hi) -> {
+      accumulate(histogram, rgb, offset + lo, offset + hi);
+    };
+    return quantizeSource(pool, source, length, length, colors);
+  }
+
+  /**
+   * Quantize a color array on the common fork-join pool.
+   *
+   * @param array  The colors
+   * @param colors The maximum number of palette colors
+   *
+   * @return A palette of at most {@code colors} colors
+   */
+
+  public static DmPalette quantize(
+    final DmColorArray array,
+    final int colors)
+  {
+    return quantize(ForkJoinPool.commonPool(), array, colors);
+  }
+
+  /**
+   * Quantize a color array on the given fork-join pool.
+   *
+   * @param pool   The fork-join pool
+   * @param array  The colors
+   * @param colors The maximum number of palette colors
+   *
+   * @return A palette of at most {@code colors} colors
+   */
+
+  public static DmPalette quantize(
+    final ForkJoinPool pool,
+    final DmColorArray array,
+    final int colors)
+  {
+    Objects.requireNonNull(array, "array");
+    return quantize(pool, array.storage(), 0, array.size(), colors);
+  }
+
+  /**
+   * Quantize the pixels of a raster on the common fork-join pool.
+   *
+   * @param raster The raster
+   * @param colors The maximum number of palette colors
+   *
+   * @return A palette of at most {@code colors} colors
+   */
+
+  public static DmPalette quantize(
+    final DmColorRaster raster,
+    final int colors)
+  {
+    return quantize(ForkJoinPool.commonPool(), raster, colors);
+  }
+
+  /**
+   * Quantize the pixels of a raster on the given fork-join pool. The raster
+   * is divided into bands of rows, and must not be modified during
+   * quantization.
+   *
+   * @param pool   The fork-join pool
+   * @param raster The raster
+   * @param colors The maximum number of palette colors
+   *
+   * @return A palette of at most {@code colors} colors
+   */
+
+  public static DmPalette quantize(
+    final ForkJoinPool pool,
+    final DmColorRaster raster,
+    final int colors)
+  {
+    Objects.requireNonNull(pool, "pool");
+    Objects.requireNonNull(raster, "raster");
+    checkColors(colors);
+
+    final var width = raster.width();
+    final SourceType source = (histogram, lo, hi) -> {
+      final var row = new int[width];
+      for (int y = lo; y < hi; ++y) {
+        raster.readRow(y, row, 0);
+        accumulate(histogram, row, 0, width);
+      }
+    };
+
+    final var pixels = Math.multiplyExact(width, raster.height());
+    return quantizeSource(pool, source, raster.height(), pixels, colors);
+  }
+
+  private static DmPalette quantizeSource(
+    final ForkJoinPool pool,
+    final SourceType source,
+    final int units,
+    final int elements,
+    final int colors)
+  {
+    if (elements == 0) {
+      throw new IllegalArgumentException(
+        "At least one color is required to build a palette");
+    }
+
+    final var parts =
+      Math.max(1, Math.min(
+        Math.min(pool.getParallelism(), units),
+        (elements + MINIMUM_PART - 1) / MINIMUM_PART
+      ));
+
+    final long[] histogram;
+    if (parts == 1) {
+      histogram = new long[HISTOGRAM_SIZE];
+      source.accumulate(histogram, 0, units);
+    } else {
+      histogram = pool.invoke(new HistogramTask(source, units, parts, 0, parts));
+    }
+    return DmPalette.of(medianCut(histogram, colors));
+  }
+
+  private static int cellOf(
+    final int rgb)
+  {
+    final var r = (rgb >>> 9) & 0x7c00;
+    final var g = (rgb >>> 6) & 0x3e0;
+    return r | g | ((rgb >>> 3) & 0x1f);
+  }
+
+  private static int cellOf(
+    final int r,
+    final int g,
+    final int b)
+  {
+    return (r << (HISTOGRAM_BITS * 2)) | (g << HISTOGRAM_BITS) | b;
+  }
+
+  private static void accumulate(
+    final long[] histogram,
+    final int[] rgb,
+    final int lo,
+    final int hi)
+  {
+    for (int index = lo; index < hi; ++index) {
+      final var value = rgb[index];
+      final var base = cellOf(value) * FIELDS;
+      ++histogram[base];
+      histogram[base + 1] += (value >>> 16) & 0xff;
+      histogram[base + 2] += (value >>> 8) & 0xff;
+      histogram[base + 3] += value & 0xff;
+    }
+  }
+
+  private static ArrayList<DmColor> medianCut(
+    final long[] histogram,
+    final int colors)
+  {
+    final var boxes = new ArrayList<Box>(colors);
+    final var all = new Box(0, SIDE - 1, 0, SIDE - 1, 0, SIDE - 1);
+    all.shrink(histogram);
+    boxes.add(all);
+
+    while (boxes.size() < colors) {
+      final var byPopulation = boxes.size() < (colors + 1) / 2;
+      final var box = selectBox(boxes, byPopulation);
+      if (box == null) {
+        break;
+      }
+      boxes.add(box.split(histogram));
+    }
+
+    boxes.sort(Comparator.comparingLong((Box b) -> b.count).reversed());
+
+    final var result = new ArrayList<DmColor>(boxes.size());
+    for (final var box : boxes) {
+      result.add(box.average(histogram));
+    }
+    return result;
+  }
+
+  private static Box selectBox(
+    final ArrayList<Box> boxes,
+    final boolean byPopulation)
+  {
+    Box best = null;
+    var bestPriority = 0L;
+    for (final var box : boxes) {
+      if (box.isSplittable()) {
+        final var priority =
+          byPopulation ? box.count : box.count * (long) box.volume();
+        if (best == null || priority > bestPriority) {
+          best = box;
+          bestPriority = priority;
+        }
+      }
+    }
+    return best;
+  }
+
+  /*
+   * A source of colors divided into units (colors or rows) that can be
+   * counted independently.
+   */
+
+  private interface SourceType
+  {
+    void accumulate(
+      long[] histogram,
+      int lo,
+      int hi);
+  }
+
+  /*
+   * An axis-aligned box of histogram cells, with inclusive bounds.
+   */
+
+  private static final class Box
+  {
+    private final int[] lo;
+    private final int[] hi;
+    private long count;
+
+    Box(
+      final int r0,
+      final int r1,
+      final int g0,
+      final int g1,
+      final int b0,
+      final int b1)
+    {
+      this.lo = new int[]{r0, g0, b0};
+      this.hi = new int[]{r1, g1, b1};
+    }
+
+    boolean isSplittable()
+    {
+      return this.volume() > 1;
+    }
+
+    int volume()
+    {
+      return (this.hi[0] - this.lo[0] + 1)
+        * (this.hi[1] - this.lo[1] + 1)
+        * (this.hi[2] - this.lo[2] + 1);
+    }
+
+    /*
+     * Reduce the bounds to the smallest box containing every occupied cell,
+     * and recount the population.
+     */
+
+    void shrink(
+      final long[] histogram)
+    {
+      final var min = new int[]{SIDE, SIDE, SIDE};
+      final var max = new int[]{-1, -1, -1};
+      var total = 0L;
+
+      for (int r = this.lo[0]; r <= this.hi[0]; ++r) {
+        for (int g = this.lo[1]; g <= this.hi[1]; ++g) {
+          for (int b = this.lo[2]; b <= this.hi[2]; ++b) {
+            final var n = histogram[cellOf(r, g, b) * FIELDS];
+            if (n != 0L) {
+              total += n;
+              include(min, max, r, g, b);
+            }
+          }
+        }
+      }
+
+      System.arraycopy(min, 0, this.lo, 0, DmColorBatch.CHANNELS);
+      System.arraycopy(max, 0, this.hi, 0, DmColorBatch.CHANNELS);
+      this.count = total;
+    }
+
+    private static void include(
+      final int[] min,
+      final int[] max,
+      final int r,
+      final int g,
+      final int b)
+    {
+      min[0] = Math.min(min[0], r);
+      min[1] = Math.min(min[1], g);
+      min[2] = Math.min(min[2], b);
+      max[0] = Math.max(max[0], r);
+      max[1] = Math.max(max[1], g);
+      max[2] = Math.max(max[2], b);
+    }
+
+    /*
+     * Divide the box at the median of its longest axis, keeping the lower
+     * half and returning the upper half. Because the box has been shrunk,
+     * the first and last planes along every axis are occupied, and so both
+     * halves are non-empty.
+     */
+
+    Box split(
+      final long[] histogram)
+    {
+      final var axis = this.longestAxis();
+      final var planes = new long[this.hi[axis] - this.lo[axis] + 1];
+      final var cell = new int[DmColorBatch.CHANNELS];
+
+      for (cell[0] = this.lo[0]; cell[0] <= this.hi[0]; ++cell[0]) {
+        for (cell[1] = this.lo[1]; cell[1] <= this.hi[1]; ++cell[1]) {
+          for (cell[2] = this.lo[2]; cell[2] <= this.hi[2]; ++cell[2]) {
+            planes[cell[axis] - this.lo[axis]] +=
+              histogram[cellOf(cell[0], cell[1], cell[2]) * FIELDS];
+          }
+        }
+      }
+
+      var at = this.lo[axis];
+      var cumulative = planes[0];
+      while (cumulative * 2L < this.count && at < this.hi[axis] - 1) {
+        ++at;
+        cumulative += planes[at - this.lo[axis]];
+      }
+
+      final var upper =
+        new Box(this.lo[0], this.hi[0], this.lo[1], this.hi[1], this.lo[2], this.hi[2]);
+      upper.lo[axis] = at + 1;
+      this.hi[axis] = at;
+      this.shrink(histogram);
+      upper.shrink(histogram);
+      return upper;
+    }
+
+    private int longestAxis()
+    {
+      var axis = 0;
+      for (int index = 1; index < DmColorBatch.CHANNELS; ++index) {
+        if (this.hi[index] - this.lo[index] > this.hi[axis] - this.lo[axis]) {
+          axis = index;
+        }
+      }
+      return axis;
+    }
+
+    DmColor average(
+      final long[] histogram)
+    {
+      var r = 0L;
+      var g = 0L;
+      var b = 0L;
+      for (int cr = this.lo[0]; cr <= this.hi[0]; ++cr) {
+        for (int cg = this.lo[1]; cg <= this.hi[1]; ++cg) {
+          for (int cb = this.lo[2]; cb <= this.hi[2]; ++cb) {
+            final var base = cellOf(cr, cg, cb) * FIELDS;
+            r += histogram[base + 1];
+            g += histogram[base + 2];
+            b += histogram[base + 3];
+          }
+        }
+      }
+
+      final var half = this.count / 2L;
+      return DmColorPacked.toColor(DmColorPacked.pack(
+        (int) ((r + half) / this.count),
+        (int) ((g + half) / this.count),
+        (int) ((b + half) / this.count)
+      ));
+    }
+  }
+
+  /*
+   * A task that counts the parts [lo, hi) of a source into a histogram by
+   * splitting the range in half until a single part remains, and merging
+   * the histograms of the halves.
+   */
+
+  private static final class HistogramTask extends RecursiveTask<long[]>
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final transient SourceType source;
+    private final int units;
+    private final int parts;
+    private final int lo;
+    private final int hi;
+
+    HistogramTask(
+      final SourceType inSource,
+      final int inUnits,
+      final int inParts,
+      final int inLo,
+      final int inHi)
+    {
+      this.source = inSource;
+      this.units = inUnits;
+      this.parts = inParts;
+      this.lo = inLo;
+      this.hi = inHi;
+    }
+
+    @Override
+    protected long[] compute()
+    {
+      if (this.hi - this.lo > 1) {
+        final var mid = (this.lo + this.hi) >>> 1;
+        final var upper =
+          new HistogramTask(this.source, this.units, this.parts, mid, this.hi);
+        upper.fork();
+        final var lower =
+          new HistogramTask(this.source, this.units, this.parts, this.lo, mid)
+            .compute();
+        final var other = upper.join();
+        for (int index = 0; index < HISTOGRAM_SIZE; ++index) {
+          lower[index] += other[index];
+        }
+        return lower;
+      }
+
+      final var histogram = new long[HISTOGRAM_SIZE];
+      this.source.accumulate(
+        histogram,
+        this.boundary(this.lo),
+        this.boundary(this.hi)
+      );
+      return histogram;
+    }
+
+    private int boundary(
+      final int part)
+    {
+      return (int) ((long) this.units * (long) part / (long) this.parts);
+    }
+  }
+}
@@ -0,0 +1,479 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntUnaryOperator;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * <p>A mutable two-dimensional grid of colors held outside the Java
+ * heap.</p>
+ *
+ * <p>Each pixel is stored as a packed {@code 0x00rrggbb} value (see
+ * {@link DmColorPacked}) in four little-endian bytes, in row-major order
+ * with no padding. A raster is either allocated in direct memory, or mapped
+ * from a file in which case the file holds exactly that layout. Rasters are
+ * limited to {@link #MAXIMUM_PIXELS} pixels.</p>
+ *
+ * <p>Individual pixel reads and writes are not synchronized, but distinct
+ * pixels may be read and written concurrently. The tile operations divide
+ * the raster into rectangular tiles and process them in parallel on a
+ * fork-join pool.</p>
+ *
+ * <p>A raster serializes to, and deserializes from, an object holding its
+ * dimensions and an array of rows, with each row being an array of
+ * {@code #rrggbb} strings. Rows are streamed directly between the raster
+ * and the parser or generator without creating any per-pixel objects.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorRaster
+{
+  /**
+   * The number of bytes used to store each pixel.
+   */
+
+  public static final int BYTES_PER_PIXEL = 4;
+
+  /**
+   * The largest number of pixels that a raster can hold.
+   */
+
+  public static final long MAXIMUM_PIXELS = Integer.MAX_VALUE / BYTES_PER_PIXEL;
+
+  /**
+   * The default size of the square tiles used by the tile operations.
+   */
+
+  public static final int DEFAULT_TILE_SIZE = 64;
+
+  private final ByteBuffer data;
+  private final MappedByteBuffer mapped;
+  private final int width;
+  private final int height;
+
+  /*
+   * Direct byte buffers are also instances of MappedByteBuffer, so mapped
+   * buffers are passed separately.
+   */
+
+  private DmColorRaster(
+    final ByteBuffer inData,
+    final MappedByteBuffer inMapped,
+    final int inWidth,
+    final int inHeight)
+  {
+    this.data = inData.order(ByteOrder.LITTLE_ENDIAN);
+    this.mapped = inMapped;
+    this.width = inWidth;
+    this.height = inHeight;
+  }
+
+  private static int byteSize(
+    final int width,
+    final int height)
+  {
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException(
+        "Raster dimensions %dx%d must be positive".formatted(
+          Integer.valueOf(width),
+          Integer.valueOf(height))
+      );
+    }
+
+    final var pixels = (long) width * (long) height;
+    if (pixels > MAXIMUM_PIXELS) {
+      throw new IllegalArgumentException(
+        "Raster dimensions %dx%d exceed the maximum of %d pixels".formatted(
+          Integer.valueOf(width),
+          Integer.valueOf(height),
+          Long.valueOf(MAXIMUM_PIXELS))
+      );
+    }
+    return (int) pixels * BYTES_PER_PIXEL;
+  }
+
+  /**
+   * Allocate a raster in direct memory. All pixels are initially black.
+   *
+   * @param width  The width
+   * @param height The height
+   *
+   * @return A new raster
+   */
+
+  public static DmColorRaster allocate(
+    final int width,
+    final int height)
+  {
+    return new DmColorRaster(
+      ByteBuffer.allocateDirect(byteSize(width, height)),
+      null,
+      width,
+      height
+    );
+  }
+
+  /**
+   * Map a raster from a file, creating the file if it does not exist and
+   * extending it if it is too small. Changes to the raster are written to
+   * the file. Pixels in any extended region of the file are initially
+   * black. The upper eight bits of each pixel in the file are ignored.
+   *
+   * @param file   The file
+   * @param width  The width
+   * @param height The height
+   *
+   * @return A new raster
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static DmColorRaster map(
+    final Path file,
+    final int width,
+    final int height)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+    final var size = byteSize(width, height);
+    try (var channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+      final var buffer =
+        channel.map(FileChannel.MapMode.READ_WRITE, 0L, size);
+      return new DmColorRaster(buffer, buffer, width, height);
+    }
+  }
+
+  /**
+   * @return The width of the raster
+   */
+
+  public int width()
+  {
+    return this.width;
+  }
+
+  /**
+   * @return The height of the raster
+   */
+
+  public int height()
+  {
+    return this.height;
+  }
+
+  /**
+   * @return {@code true} if the raster is mapped from a file
+   */
+
+  public boolean isMapped()
+  {
+    return this.mapped != null;
+  }
+
+  /**
+   * Write any changes to a mapped raster to its file. This has no effect
+   * on rasters that are not mapped.
+   */
+
+  public void force()
+  {
+    if (this.mapped != null) {
+      this.mapped.force();
+    }
+  }
+
+  private int offsetOf(
+    final int x,
+    final int y)
+  {
+    Objects.checkIndex(x, this.width);
+    Objects.checkIndex(y, this.height);
+    return (y * this.width + x) * BYTES_PER_PIXEL;
+  }
+
+  /**
+   * @param x The X coordinate
+   * @param y The Y coordinate
+   *
+   * @return The pixel at the given coordinates as {@code 0xrrggbb}
+   */
+
+  public int get(
+    final int x,
+    final int y)
+  {
+    return this.data.getInt(this.offsetOf(x, y)) & 0xffffff;
+  }
+
+  /**
+   * Set the pixel at the given coordinates. The upper eight bits of the
+   * value are ignored.
+   *
+   * @param x   The X coordinate
+   * @param y   The Y coordinate
+   * @param rgb The color as {@code 0xrrggbb}
+   */
+
+  public void set(
+    final int x,
+    final int y,
+    final int rgb)
+  {
+    this.data.putInt(this.offsetOf(x, y), rgb & 0xffffff);
+  }
+
+  /**
+   * @param x The X coordinate
+   * @param y The Y coordinate
+   *
+   * @return The pixel at the given coordinates
+   */
+
+  public DmColor color(
+    final int x,
+    final int y)
+  {
+    return DmColorPacked.toColor(this.get(x, y));
+  }
+
+  /**
+   * Set the pixel at the given coordinates. The color is quantized as by
+   * {@link DmColorPacked#pack(DmColor)}.
+   *
+   * @param x     The X coordinate
+   * @param y     The Y coordinate
+   * @param color The color
+   */
+
+  public void setColor(
+    final int x,
+    final int y,
+    final DmColor color)
+  {
+    this.set(x, y, DmColorPacked.pack(color));
+  }
+
+  /**
+   * Copy a row of pixels into an array.
+   *
+   * @param y      The row
+   * @param target The target array
+   * @param offset The offset in the target array
+   */
+
+  public void readRow(
+    final int y,
+    final int[] target,
+    final int offset)
+  {
+    Objects.checkFromIndexSize(offset, this.width, target.length);
+    final var base = this.offsetOf(0, y);
+    for (int x = 0; x < this.width; ++x) {
+      target[offset + x] = this.data.getInt(base + x * BYTES_PER_PIXEL) & 0xffffff;
+    }
+  }
+
+  /**
+   * Copy a row of pixels from an array. The upper eight bits of each value
+   * are ignored.
+   *
+   * @param y      The row
+   * @param source The source array
+   * @param offset The offset in the source array
+   */
+
+  public void writeRow(
+    final int y,
+    final int[] source,
+    final int offset)
+  {
+    Objects.checkFromIndexSize(offset, this.width, source.length);
+    final var base = this.offsetOf(0, y);
+    for (int x = 0; x < this.width; ++x) {
+      this.data.putInt(base + x * BYTES_PER_PIXEL, source[offset + x] & 0xffffff);
+    }
+  }
+
+  /**
+   * Set every pixel to the given color.
+   *
+   * @param rgb The color as {@code 0xrrggbb}
+   */
+
+  public void fill(
+    final int rgb)
+  {
+    final var value = rgb & 0xffffff;
+    this.forEachTile(DEFAULT_TILE_SIZE, (raster, x, y, w, h) -> {
+      for (int py = y; py < y + h; ++py) {
+        final var base = raster.offsetOf(x, py);
+        for (int px = 0; px < w; ++px) {
+          raster.data.putInt(base + px * BYTES_PER_PIXEL, value);
+        }
+      }
+    });
+  }
+
+  /**
+   * Replace every pixel with the result of applying the given function to
+   * it, processing tiles in parallel on the common fork-join pool. The
+   * upper eight bits of each result are ignored.
+   *
+   * @param function The function
+   */
+
+  public void transform(
+    final IntUnaryOperator function)
+  {
+    Objects.requireNonNull(function, "function");
+    this.forEachTile(DEFAULT_TILE_SIZE, (raster, x, y, w, h) -> {
+      for (int py = y; py < y + h; ++py) {
+        final var base = raster.offsetOf(x, py);
+        for (int px = 0; px < w; ++px) {
+          final var offset = base + px * BYTES_PER_PIXEL;
+          raster.data.putInt(
+            offset,
+            function.applyAsInt(raster.data.getInt(offset) & 0xffffff) & 0xffffff
+          );
+        }
+      }
+    });
+  }
+
+  /**
+   * Process the raster as square tiles in parallel on the common fork-join
+   * pool.
+   *
+   * @param tileSize  The width and height of each tile
+   * @param processor The tile processor
+   */
+
+  public void forEachTile(
+    final int tileSize,
+    final DmColorRasterTileProcessorType processor)
+  {
+    this.forEachTile(ForkJoinPool.commonPool(), tileSize, processor);
+  }
+
+  /**
+   * Process the raster as square tiles in parallel on the given fork-join
+   * pool. Tiles at the right and bottom edges are truncated to fit the
+   * raster. The method returns when every tile has been processed, and
+   * rethrows the first exception raised by the processor, if any.
+   *
+   * @param pool      The fork-join pool
+   * @param tileSize  The width and height of each tile
+   * @param processor The tile processor
+   */
+
+  public void forEachTile(
+    final ForkJoinPool pool,
+    final int tileSize,
+    final DmColorRasterTileProcessorType processor)
+  {
+    Objects.requireNonNull(pool, "pool");
+    Objects.requireNonNull(processor, "processor");
+    if (tileSize < 1) {
+      throw new IllegalArgumentException(
+        "Tile size %d must be positive".formatted(Integer.valueOf(tileSize))
+      );
+    }
+
+    final var tilesX = (this.width + tileSize - 1) / tileSize;
+    final var tilesY = (this.height + tileSize - 1) / tileSize;
+    pool.invoke(new TileTask(this, processor, tileSize, tilesX, 0, tilesX * tilesY));
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[DmColorRaster %dx%d]".formatted(
+      Integer.valueOf(this.width),
+      Integer.valueOf(this.height)
+    );
+  }
+
+  /*
+   * A task that processes the tiles [lo, hi), numbered in row-major order,
+   * by splitting the range in half until a single tile remains.
+   */
+
+  private static final class TileTask extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final transient DmColorRaster raster;
+    private final transient DmColorRasterTileProcessorType processor;
+    private final int tileSize;
+    private final int tilesX;
+    private final int lo;
+    private final int hi;
+
+    TileTask(
+      final DmColorRaster inRaster,
+      final DmColorRasterTileProcessorType inProcessor,
+      final int inTileSize,
+      final int inTilesX,
+      final int inLo,
+      final int inHi)
+    {
+      this.raster = inRaster;
+      this.processor = inProcessor;
+      this.tileSize = inTileSize;
+      this.tilesX = inTilesX;
+      this.lo = inLo;
+      this.hi = inHi;
+    }
+
+    @Override
+    protected void compute()
+    {
+      if (this.hi - this.lo > 1) {
+        final var mid = (this.lo + this.hi) >>> 1;
+        invokeAll(
+          new TileTask(this.raster, this.processor, this.tileSize, this.tilesX, this.lo, mid),
+          new TileTask(this.raster, this.processor, this.tileSize, this.tilesX, mid, this.hi)
+        );
+        return;
+      }
+
+      final var x = (this.lo % this.tilesX) * this.tileSize;
+      final var y = (this.lo / this.tilesX) * this.tileSize;
+      this.processor.process(
+        this.raster,
+        x,
+        y,
+        Math.min(this.tileSize, this.raster.width - x),
+        Math.min(this.tileSize, this.raster.height - y)
+      );
+    }
+  }
+}
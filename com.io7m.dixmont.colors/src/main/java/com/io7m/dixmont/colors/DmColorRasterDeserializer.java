@@ -0,0 +1,238 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.deser.std.StdDeserializer;
+import tools.jackson.databind.exc.MismatchedInputException;
+
+/**
+ * <p>A deserializer for color rasters. Rows are decoded directly from the
+ * parser's character buffer and copied into the raster one at a time.</p>
+ *
+ * <p>The raster dimensions must appear before the rows. Unless the
+ * deserializer is updating an existing raster (such as one mapped from a
+ * file, passed to {@code ObjectMapper.readerForUpdating()}), it allocates a
+ * new raster in direct memory, and rejects rasters larger than a configured
+ * number of pixels before allocating any memory.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorRasterDeserializer
+  extends StdDeserializer<DmColorRaster>
+{
+  /**
+   * The default maximum number of pixels in a new raster.
+   */
+
+  public static final long DEFAULT_MAXIMUM_PIXELS = 1L << 24;
+
+  private final long maximumPixels;
+
+  /**
+   * A deserializer for color rasters that accepts at most
+   * {@link #DEFAULT_MAXIMUM_PIXELS} pixels.
+   */
+
+  public DmColorRasterDeserializer()
+  {
+    this(DEFAULT_MAXIMUM_PIXELS);
+  }
+
+  /**
+   * A deserializer for color rasters.
+   *
+   * @param inMaximumPixels The maximum number of pixels in a new raster
+   */
+
+  public DmColorRasterDeserializer(
+    final long inMaximumPixels)
+  {
+    super(DmColorRaster.class);
+    this.maximumPixels = inMaximumPixels;
+  }
+
+  @Override
+  public Boolean supportsUpdate(
+    final DeserializationConfig config)
+  {
+    return Boolean.TRUE;
+  }
+
+  @Override
+  public DmColorRaster deserialize(
+    final JsonParser p,
+    final DeserializationContext ctxt)
+  {
+    return this.read(p, ctxt, null);
+  }
+
+  @Override
+  public DmColorRaster deserialize(
+    final JsonParser p,
+    final DeserializationContext ctxt,
+    final DmColorRaster intoValue)
+  {
+    return this.read(p, ctxt, intoValue);
+  }
+
+  private static MismatchedInputException error(
+    final JsonParser p,
+    final String message)
+  {
+    return MismatchedInputException.from(p, DmColorRaster.class, message);
+  }
+
+  private DmColorRaster read(
+    final JsonParser p,
+    final DeserializationContext ctxt,
+    final DmColorRaster existing)
+  {
+    if (p.isExpectedStartObjectToken()) {
+      p.nextToken();
+    }
+    if (!p.hasToken(JsonToken.PROPERTY_NAME) && !p.hasToken(JsonToken.END_OBJECT)) {
+      throw error(p, "Color rasters must be objects");
+    }
+
+    var width = 0;
+    var height = 0;
+    DmColorRaster raster = null;
+
+    for (var token = p.currentToken();
+         token == JsonToken.PROPERTY_NAME;
+         token = p.nextToken()) {
+      final var name = p.currentName();
+      p.nextToken();
+      switch (name) {
+        case "width" -> width = readDimension(p);
+        case "height" -> height = readDimension(p);
+        case "rows" -> {
+          if (raster != null) {
+            throw error(p, "Color rasters must contain a single array of rows");
+          }
+          raster = this.target(p, existing, width, height);
+          readRows(p, ctxt, raster);
+        }
+        default -> ctxt.handleUnknownProperty(p, this, DmColorRaster.class, name);
+      }
+    }
+
+    if (raster == null) {
+      throw error(p, "Color rasters must contain an array of rows");
+    }
+    return raster;
+  }
+
+  private static int readDimension(
+    final JsonParser p)
+  {
+    if (p.hasToken(JsonToken.VALUE_NUMBER_INT)
+        && p.getNumberType() == JsonParser.NumberType.INT) {
+      final var value = p.getIntValue();
+      if (value > 0) {
+        return value;
+      }
+    }
+    throw error(p, "Color raster dimensions must be positive integers");
+  }
+
+  private DmColorRaster target(
+    final JsonParser p,
+    final DmColorRaster existing,
+    final int width,
+    final int height)
+  {
+    if (width == 0 || height == 0) {
+      throw error(p, "Color raster dimensions must appear before the rows");
+    }
+
+    if (existing != null) {
+      if (existing.width() != width || existing.height() != height) {
+        throw error(p, "Color raster dimensions %dx%d do not match the existing %dx%d raster".formatted(
+          Integer.valueOf(width),
+          Integer.valueOf(height),
+          Integer.valueOf(existing.width()),
+          Integer.valueOf(existing.height())
+        ));
+      }
+      return existing;
+    }
+
+    final var pixels = (long) width * (long) height;
+    if (pixels > Math.min(this.maximumPixels, DmColorRaster.MAXIMUM_PIXELS)) {
+      throw error(p, "Color raster dimensions %dx%d exceed the maximum of %d pixels".formatted(
+        Integer.valueOf(width),
+        Integer.valueOf(height),
+        Long.valueOf(Math.min(this.maximumPixels, DmColorRaster.MAXIMUM_PIXELS))
+      ));
+    }
+    return DmColorRaster.allocate(width, height);
+  }
+
+  private static void readRows(
+    final JsonParser p,
+    final DeserializationContext ctxt,
+    final DmColorRaster raster)
+  {
+    final var width = raster.width();
+    final var height = raster.height();
+
+    if (!p.isExpectedStartArrayToken()) {
+      throw error(p, "Color raster rows must be an array");
+    }
+
+    final var row = new int[width];
+    for (int y = 0; y < height; ++y) {
+      if (p.nextToken() != JsonToken.START_ARRAY) {
+        throw error(p, "Color rasters must contain %d rows".formatted(Integer.valueOf(height)));
+      }
+      readRow(p, ctxt, row);
+      raster.writeRow(y, row, 0);
+    }
+
+    if (p.nextToken() != JsonToken.END_ARRAY) {
+      throw error(p, "Color rasters must contain %d rows".formatted(Integer.valueOf(height)));
+    }
+  }
+
+  private static void readRow(
+    final JsonParser p,
+    final DeserializationContext ctxt,
+    final int[] row)
+  {
+    final var width = row.length;
+    for (int x = 0; x < width; ++x) {
+      if (p.nextToken() == JsonToken.END_ARRAY) {
+        throw error(p, "Color raster rows must contain %d colors".formatted(Integer.valueOf(width)));
+      }
+      final var rgb = DmColorTokens.read(p, ctxt);
+      if (rgb < 0) {
+        throw MismatchedInputException.from(p, DmColor.class, DmColorHex.PATTERN_MESSAGE);
+      }
+      row[x] = rgb;
+    }
+
+    if (p.nextToken() != JsonToken.END_ARRAY) {
+      throw error(p, "Color raster rows must contain %d colors".formatted(Integer.valueOf(width)));
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * A serializer for color rasters. Rows are copied out of the raster one at
+ * a time and encoded through a single reused character buffer (or as packed
+ * integers, for binary formats).
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorRasterSerializer
+  extends StdSerializer<DmColorRaster>
+{
+  /**
+   * A serializer for color rasters.
+   */
+
+  public DmColorRasterSerializer()
+  {
+    super(DmColorRaster.class);
+  }
+
+  @Override
+  public void serialize(
+    final DmColorRaster value,
+    final JsonGenerator jgen,
+    final SerializationContext provider)
+  {
+    final var width = value.width();
+    final var height = value.height();
+
+    jgen.writeStartObject(value);
+    jgen.writeNumberProperty("width", width);
+    jgen.writeNumberProperty("height", height);
+    jgen.writeName("rows");
+    jgen.writeStartArray(value, height);
+
+    final var binary = DmColorTokens.isBinary(provider);
+    final var row = new int[width];
+    final var buffer = new char[DmColorHex.ENCODED_LENGTH];
+    for (int y = 0; y < height; ++y) {
+      value.readRow(y, row, 0);
+      jgen.writeStartArray(null, width);
+      if (binary) {
+        for (int x = 0; x < width; ++x) {
+          jgen.writeNumber(row[x]);
+        }
+      } else {
+        for (int x = 0; x < width; ++x) {
+          final var rgb = row[x];
+          DmColorHex.encode(
+            DmColorPacked.red(rgb),
+            DmColorPacked.green(rgb),
+            DmColorPacked.blue(rgb),
+            buffer,
+            0
+          );
+          jgen.writeString(buffer, 0, DmColorHex.ENCODED_LENGTH);
+        }
+      }
+      jgen.writeEndArray();
+    }
+
+    jgen.writeEndArray();
+    jgen.writeEndObject();
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+/**
+ * A procedure applied to a rectangular tile of a raster.
+ *
+ * <p>Tiles of a raster are processed concurrently, and a processor may be
+ * called from any number of threads at once. Each call receives a distinct
+ * tile, and a processor must only read and write pixels within that
+ * tile.</p>
+ *
+ * @since 3.2.0
+ */
+
+@FunctionalInterface
+public interface DmColorRasterTileProcessorType
+{
+  /**
+   * Process a tile.
+   *
+   * @param raster The raster
+   * @param x      The X coordinate of the top-left corner of the tile
+   * @param y      The Y coordinate of the top-left corner of the tile
+   * @param width  The width of the tile
+   * @param height The height of the tile
+   */
+
+  void process(
+    DmColorRaster raster,
+    int x,
+    int y,
+    int width,
+    int height);
+}
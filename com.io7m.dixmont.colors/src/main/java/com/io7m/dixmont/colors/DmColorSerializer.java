@@ -55,6 +55,18 @@ public final class DmColorSerializer
     final JsonGenerator jgen,
     final SerializationContext provider)
   {
-    jgen.writeString(value.toString());
+    if (DmColorTokens.isBinary(provider)) {
+      jgen.writeNumber(DmColorPacked.pack(value));
+      return;
+    }
+
+    /*
+     * The generator copies the characters into its own output buffer, so
+     * the only allocation here is the small temporary buffer.
+     */
+
+    final var buffer = new char[DmColorHex.ENCODED_LENGTH];
+    DmColorHex.encode(value, buffer, 0);
+    jgen.writeString(buffer, 0, DmColorHex.ENCODED_LENGTH);
   }
 }
@@ -0,0 +1,899 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import java.util.Objects;
+
+import static java.lang.Double.max;
+import static java.lang.Double.min;
+
+/**
+ * <p>Conversions between color spaces.</p>
+ *
+ * <p>{@link DmColor} values are taken to be in the sRGB color space. This
+ * class converts them to and from linear RGB, HSL, HSV, and CIE L*a*b*
+ * (D65 white point). Each conversion is available for single colors, and
+ * for buffers of colors laid out as described in {@link DmColorBatch}; the
+ * buffer versions do not allocate, and the target buffer may be the same
+ * array as the source buffer.</p>
+ *
+ * <p>Conversions of double-precision channels use the exact sRGB transfer
+ * functions. Conversions of 8-bit channels (such as packed colors) use
+ * precomputed lookup tables, and produce exactly the values that the
+ * transfer functions would produce, rounded to the nearest 8-bit value
+ * where the result is 8-bit.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmColorSpaces
+{
+  private static final double WHITE_X = 0.95047;
+  private static final double WHITE_Y = 1.0;
+  private static final double WHITE_Z = 1.08883;
+  private static final double LAB_DELTA = 6.0 / 29.0;
+  private static final double LAB_DELTA_CUBED =
+    LAB_DELTA * LAB_DELTA * LAB_DELTA;
+  private static final double LAB_SLOPE =
+    3.0 * LAB_DELTA * LAB_DELTA;
+
+  /*
+   * The linear value of each 8-bit sRGB value.
+   */
+
+  private static final double[] DECODE = decodeTable();
+
+  /*
+   * Element k is the linear value at which the nearest 8-bit sRGB value
+   * changes from k to k + 1.
+   */
+
+  private static final double[] ENCODE_THRESHOLDS = encodeThresholds();
+
+  /*
+   * Element i is the 8-bit sRGB value nearest to the linear value
+   * i / ENCODE_BUCKETS. The buckets are narrow enough that finding the
+   * exact nearest value from here takes at most a couple of comparisons.
+   */
+
+  private static final int ENCODE_BUCKETS = 4096;
+  private static final short[] ENCODE_START = encodeStart();
+
+  private DmColorSpaces()
+  {
+
+  }
+
+  private static double[] decodeTable()
+  {
+    final var table = new double[256];
+    for (int index = 0; index < 256; ++index) {
+      table[index] = srgbToLinear((double) index / 255.0);
+    }
+    return table;
+  }
+
+  private static double[] encodeThresholds()
+  {
+    final var table = new double[255];
+    for (int index = 0; index < 255; ++index) {
+      table[index] = srgbToLinear(((double) index + 0.5) / 255.0);
+    }
+    return table;
+  }
+
+  private static short[] encodeStart()
+  {
+    final var table = new short[ENCODE_BUCKETS + 1];
+    var code = 0;
+    for (int index = 0; index <= ENCODE_BUCKETS; ++index) {
+      final var x = (double) index / (double) ENCODE_BUCKETS;
+      while (code < 255 && x >= ENCODE_THRESHOLDS[code]) {
+        ++code;
+      }
+      table[index] = (short) code;
+    }
+    return table;
+  }
+
+  private static int checkBuffer(
+    final double[] buffer,
+    final int count)
+  {
+    final var length = Math.multiplyExact(count, DmColorBatch.CHANNELS);
+    Objects.checkFromIndexSize(0, length, buffer.length);
+    return length;
+  }
+
+  /**
+   * The sRGB electro-optical transfer function.
+   *
+   * @param c An sRGB channel value in the range {@code [0, 1]}
+   *
+   * @return The linear channel value
+   */
+
+  public static double srgbToLinear(
+    final double c)
+  {
+    if (c <= 0.04045) {
+      return c / 12.92;
+    }
+    return Math.pow((c + 0.055) / 1.055, 2.4);
+  }
+
+  /**
+   * The inverse of the sRGB electro-optical transfer function.
+   *
+   * @param c A linear channel value in the range {@code [0, 1]}
+   *
+   * @return The sRGB channel value
+   */
+
+  public static double linearToSrgb(
+    final double c)
+  {
+    if (c <= 0.0031308) {
+      return c * 12.92;
+    }
+    return 1.055 * Math.pow(c, 1.0 / 2.4) - 0.055;
+  }
+
+  /**
+   * Convert an 8-bit sRGB channel value to a linear value using a lookup
+   * table.
+   *
+   * @param c An sRGB channel value in the range {@code [0, 255]}
+   *
+   * @return The linear channel value
+   */
+
+  public static double srgb8ToLinear(
+    final int c)
+  {
+    return DECODE[Objects.checkIndex(c, 256)];
+  }
+
+  /**
+   * Convert a linear channel value to the nearest 8-bit sRGB value using a
+   * lookup table. Values outside the range {@code [0, 1]} (and NaN) are
+   * clamped.
+   *
+   * @param c A linear channel value
+   *
+   * @return The sRGB channel value in the range {@code [0, 255]}
+   */
+
+  public static int linearToSrgb8(
+    final double c)
+  {
+    if (!(c > 0.0)) {
+      return 0;
+    }
+    if (c >= 1.0) {
+      return 255;
+    }
+
+    var code = (int) ENCODE_START[(int) (c * (double) ENCODE_BUCKETS)];
+    while (code < 255 && c >= ENCODE_THRESHOLDS[code]) {
+      ++code;
+    }
+    return code;
+  }
+
+  /**
+   * Convert an sRGB color to linear RGB.
+   *
+   * @param color The color
+   *
+   * @return The color with linear channel values
+   */
+
+  public static DmColor toLinear(
+    final DmColor color)
+  {
+    return new DmColor(
+      srgbToLinear(color.red()),
+      srgbToLinear(color.green()),
+      srgbToLinear(color.blue())
+    );
+  }
+
+  /**
+   * Convert a linear RGB color to sRGB.
+   *
+   * @param color The color with linear channel values
+   *
+   * @return The sRGB color
+   */
+
+  public static DmColor fromLinear(
+    final DmColor color)
+  {
+    return new DmColor(
+      linearToSrgb(color.red()),
+      linearToSrgb(color.green()),
+      linearToSrgb(color.blue())
+    );
+  }
+
+  /**
+   * Convert a color to HSL.
+   *
+   * @param color The color
+   *
+   * @return The HSL color
+   */
+
+  public static DmColorHSL toHSL(
+    final DmColor color)
+  {
+    final var out = new double[DmColorBatch.CHANNELS];
+    rgbToHSL(color.red(), color.green(), color.blue(), out, 0);
+    return new DmColorHSL(out[0], out[1], out[2]);
+  }
+
+  /**
+   * Convert an HSL color to RGB.
+   *
+   * @param color The HSL color
+   *
+   * @return The color
+   */
+
+  public static DmColor fromHSL(
+    final DmColorHSL color)
+  {
+    final var out = new double[DmColorBatch.CHANNELS];
+    hslToRGB(color.hue(), color.saturation(), color.lightness(), out, 0);
+    return new DmColor(out[0], out[1], out[2]);
+  }
+
+  /**
+   * Convert a color to HSV.
+   *
+   * @param color The color
+   *
+   * @return The HSV color
+   */
+
+  public static DmColorHSV toHSV(
+    final DmColor color)
+  {
+    final var out = new double[DmColorBatch.CHANNELS];
+    rgbToHSV(color.red(), color.green(), color.blue(), out, 0);
+    return new DmColorHSV(out[0], out[1], out[2]);
+  }
+
+  /**
+   * Convert an HSV color to RGB.
+   *
+   * @param color The HSV color
+   *
+   * @return The color
+   */
+
+  public static DmColor fromHSV(
+    final DmColorHSV color)
+  {
+    final var out = new double[DmColorBatch.CHANNELS];
+    hsvToRGB(color.hue(), color.saturation(), color.value(), out, 0);
+    return new DmColor(out[0], out[1], out[2]);
+  }
+
+  /**
+   * Convert a color to CIE L*a*b*.
+   *
+   * @param color The color
+   *
+   * @return The L*a*b* color
+   */
+
+  public static DmColorLab toLab(
+    final DmColor color)
+  {
+    final var out = new double[DmColorBatch.CHANNELS];
+    linearToLab(
+      srgbToLinear(color.red()),
+      srgbToLinear(color.green()),
+      srgbToLinear(color.blue()),
+      out,
+      0
+    );
+    return new DmColorLab(out[0], out[1], out[2]);
+  }
+
+  /*
+   * Convert an sRGB color to CIE L*a*b*, writing the result to the given
+   * offset in the output array.
+   */
+
+  static void srgbToLab(
+    final double r,
+    final double g,
+    final double b,
+    final double[] out,
+    final int offset)
+  {
+    linearToLab(srgbToLinear(r), srgbToLinear(g), srgbToLinear(b), out, offset);
+  }
+
+  /*
+   * Convert a packed sRGB color to CIE L*a*b*, writing the result to the
+   * given offset in the output array.
+   */
+
+  static void packedToLab(
+    final int rgb,
+    final double[] out,
+    final int offset)
+  {
+    linearToLab(
+      DECODE[DmColorPacked.red(rgb)],
+      DECODE[DmColorPacked.green(rgb)],
+      DECODE[DmColorPacked.blue(rgb)],
+      out,
+      offset
+    );
+  }
+
+  /**
+   * Convert a CIE L*a*b* color to RGB. Colors outside the sRGB gamut are
+   * clamped.
+   *
+   * @param color The L*a*b* color
+   *
+   * @return The color
+   */
+
+  public static DmColor fromLab(
+    final DmColorLab color)
+  {
+    final var out = new double[DmColorBatch.CHANNELS];
+    labToLinear(color.lightness(), color.a(), color.b(), out, 0);
+    return new DmColor(
+      linearToSrgb(clamp(out[0])),
+      linearToSrgb(clamp(out[1])),
+      linearToSrgb(clamp(out[2]))
+    );
+  }
+
+  /**
+   * @param color The color
+   *
+   * @return The relative luminance of the color, as defined by WCAG
+   */
+
+  public static double relativeLuminance(
+    final DmColor color)
+  {
+    return 0.2126 * srgbToLinear(color.red())
+           + 0.7152 * srgbToLinear(color.green())
+           + 0.0722 * srgbToLinear(color.blue());
+  }
+
+  /**
+   * @param color0 The first color
+   * @param color1 The second color
+   *
+   * @return The contrast ratio between the colors, as defined by WCAG, in the
+   * range {@code [1, 21]}
+   */
+
+  public static double contrastRatio(
+    final DmColor color0,
+    final DmColor color1)
+  {
+    final var l0 = relativeLuminance(color0);
+    final var l1 = relativeLuminance(color1);
+    return (max(l0, l1) + 0.05) / (min(l0, l1) + 0.05);
+  }
+
+  /**
+   * Convert sRGB colors to linear RGB.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   */
+
+  public static void toLinear(
+    final double[] source,
+    final double[] target,
+    final int count)
+  {
+    final var length = checkBuffer(source, count);
+    checkBuffer(target, count);
+
+    for (int index = 0; index < length; ++index) {
+      target[index] = srgbToLinear(source[index]);
+    }
+  }
+
+  /**
+   * Convert linear RGB colors to sRGB.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   */
+
+  public static void fromLinear(
+    final double[] source,
+    final double[] target,
+    final int count)
+  {
+    final var length = checkBuffer(source, count);
+    checkBuffer(target, count);
+
+    for (int index = 0; index < length; ++index) {
+      target[index] = linearToSrgb(source[index]);
+    }
+  }
+
+  /**
+   * Convert packed sRGB colors to linear RGB using lookup tables.
+   *
+   * @param source The packed colors
+   * @param target The target buffer
+   * @param count  The number of colors
+   */
+
+  public static void packedToLinear(
+    final int[] source,
+    final double[] target,
+    final int count)
+  {
+    Objects.checkFromIndexSize(0, count, source.length);
+    checkBuffer(target, count);
+
+    for (int index = 0; index < count; ++index) {
+      final var rgb = source[index];
+      final var base = index * DmColorBatch.CHANNELS;
+      target[base] = DECODE[DmColorPacked.red(rgb)];
+      target[base + 1] = DECODE[DmColorPacked.green(rgb)];
+      target[base + 2] = DECODE[DmColorPacked.blue(rgb)];
+    }
+  }
+
+  /**
+   * Convert linear RGB colors to packed sRGB colors using lookup tables.
+   * Each channel is rounded to the nearest 8-bit value.
+   *
+   * @param source The source buffer
+   * @param target The packed colors
+   * @param count  The number of colors
+   */
+
+  public static void linearToPacked(
+    final double[] source,
+    final int[] target,
+    final int count)
+  {
+    checkBuffer(source, count);
+    Objects.checkFromIndexSize(0, count, target.length);
+
+    for (int index = 0; index < count; ++index) {
+      final var base = index * DmColorBatch.CHANNELS;
+      target[index] =
+        (linearToSrgb8(source[base]) << 16)
+        | (linearToSrgb8(source[base + 1]) << 8)
+        | linearToSrgb8(source[base + 2]);
+    }
+  }
+
+  /**
+   * Convert colors to HSL.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   */
+
+  public static void toHSL(
+    final double[] source,
+    final double[] target,
+    final int count)
+  {
+    final var length = checkBuffer(source, count);
+    checkBuffer(target, count);
+
+    for (int base = 0; base < length; base += DmColorBatch.CHANNELS) {
+      rgbToHSL(source[base], source[base + 1], source[base + 2], target, base);
+    }
+  }
+
+  /**
+   * Convert HSL colors to RGB.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   */
+
+  public static void fromHSL(
+    final double[] source,
+    final double[] target,
+    final int count)
+  {
+    final var length = checkBuffer(source, count);
+    checkBuffer(target, count);
+
+    for (int base = 0; base < length; base += DmColorBatch.CHANNELS) {
+      hslToRGB(source[base], source[base + 1], source[base + 2], target, base);
+    }
+  }
+
+  /**
+   * Convert colors to HSV.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   */
+
+  public static void toHSV(
+    final double[] source,
+    final double[] target,
+    final int count)
+  {
+    final var length = checkBuffer(source, count);
+    checkBuffer(target, count);
+
+    for (int base = 0; base < length; base += DmColorBatch.CHANNELS) {
+      rgbToHSV(source[base], source[base + 1], source[base + 2], target, base);
+    }
+  }
+
+  /**
+   * Convert HSV colors to RGB.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   */
+
+  public static void fromHSV(
+    final double[] source,
+    final double[] target,
+    final int count)
+  {
+    final var length = checkBuffer(source, count);
+    checkBuffer(target, count);
+
+    for (int base = 0; base < length; base += DmColorBatch.CHANNELS) {
+      hsvToRGB(source[base], source[base + 1], source[base + 2], target, base);
+    }
+  }
+
+  /**
+   * Convert colors to CIE L*a*b*.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   */
+
+  public static void toLab(
+    final double[] source,
+    final double[] target,
+    final int count)
+  {
+    final var length = checkBuffer(source, count);
+    checkBuffer(target, count);
+
+    for (int base = 0; base < length; base += DmColorBatch.CHANNELS) {
+      linearToLab(
+        srgbToLinear(source[base]),
+        srgbToLinear(source[base + 1]),
+        srgbToLinear(source[base + 2]),
+        target,
+        base
+      );
+    }
+  }
+
+  /**
+   * Convert packed colors to CIE L*a*b* using lookup tables for the sRGB
+   * transfer function.
+   *
+   * @param source The packed colors
+   * @param target The target buffer
+   * @param count  The number of colors
+   */
+
+  public static void packedToLab(
+    final int[] source,
+    final double[] target,
+    final int count)
+  {
+    Objects.checkFromIndexSize(0, count, source.length);
+    checkBuffer(target, count);
+
+    for (int index = 0; index < count; ++index) {
+      final var rgb = source[index];
+      linearToLab(
+        DECODE[DmColorPacked.red(rgb)],
+        DECODE[DmColorPacked.green(rgb)],
+        DECODE[DmColorPacked.blue(rgb)],
+        target,
+        index * DmColorBatch.CHANNELS
+      );
+    }
+  }
+
+  /**
+   * Convert CIE L*a*b* colors to RGB. Colors outside the sRGB gamut are
+   * clamped.
+   *
+   * @param source The source buffer
+   * @param target The target buffer
+   * @param count  The number of colors
+   */
+
+  public static void fromLab(
+    final double[] source,
+    final double[] target,
+    final int count)
+  {
+    final var length = checkBuffer(source, count);
+    checkBuffer(target, count);
+
+    for (int base = 0; base < length; base += DmColorBatch.CHANNELS) {
+      labToLinear(source[base], source[base + 1], source[base + 2], target, base);
+      target[base] = linearToSrgb(clamp(target[base]));
+      target[base + 1] = linearToSrgb(clamp(target[base + 1]));
+      target[base + 2] = linearToSrgb(clamp(target[base + 2]));
+    }
+  }
+
+  private static double clamp(
+    final double x)
+  {
+    return min(1.0, max(0.0, x));
+  }
+
+  private static double hue(
+    final double r,
+    final double g,
+    final double b,
+    final double maximum,
+    final double delta)
+  {
+    if (delta == 0.0) {
+      return 0.0;
+    }
+
+    final double sector;
+    if (maximum == r) {
+      final var h = (g - b) / delta;
+      sector = h < 0.0 ? h + 6.0 : h;
+    } else if (maximum == g) {
+      sector = (b - r) / delta + 2.0;
+    } else {
+      sector = (r - g) / delta + 4.0;
+    }
+    return sector * 60.0;
+  }
+
+  private static void rgbToHSL(
+    final double r,
+    final double g,
+    final double b,
+    final double[] out,
+    final int offset)
+  {
+    final var maximum = max(r, max(g, b));
+    final var minimum = min(r, min(g, b));
+    final var delta = maximum - minimum;
+    final var lightness = (maximum + minimum) / 2.0;
+    final var divisor = 1.0 - Math.abs(2.0 * lightness - 1.0);
+
+    out[offset] = hue(r, g, b, maximum, delta);
+    out[offset + 1] = delta == 0.0 ? 0.0 : min(1.0, delta / divisor);
+    out[offset + 2] = lightness;
+  }
+
+  private static void rgbToHSV(
+    final double r,
+    final double g,
+    final double b,
+    final double[] out,
+    final int offset)
+  {
+    final var maximum = max(r, max(g, b));
+    final var minimum = min(r, min(g, b));
+    final var delta = maximum - minimum;
+
+    out[offset] = hue(r, g, b, maximum, delta);
+    out[offset + 1] = maximum == 0.0 ? 0.0 : delta / maximum;
+    out[offset + 2] = maximum;
+  }
+
+  private static void hslToRGB(
+    final double hue,
+    final double saturation,
+    final double lightness,
+    final double[] out,
+    final int offset)
+  {
+    final var chroma =
+      (1.0 - Math.abs(2.0 * lightness - 1.0)) * saturation;
+    fromChroma(hue, chroma, lightness - chroma / 2.0, out, offset);
+  }
+
+  private static void hsvToRGB(
+    final double hue,
+    final double saturation,
+    final double value,
+    final double[] out,
+    final int offset)
+  {
+    final var chroma = value * saturation;
+    fromChroma(hue, chroma, value - chroma, out, offset);
+  }
+
+  private static void fromChroma(
+    final double hue,
+    final double chroma,
+    final double m,
+    final double[] out,
+    final int offset)
+  {
+    final var h = (((hue % 360.0) + 360.0) % 360.0) / 60.0;
+    final var x = chroma * (1.0 - Math.abs(h % 2.0 - 1.0));
+    final var sector = (int) h;
+
+    final double r;
+    final double g;
+    final double b;
+    switch (sector) {
+      case 0 -> {
+        r = chroma;
+        g = x;
+        b = 0.0;
+      }
+      case 1 -> {
+        r = x;
+        g = chroma;
+        b = 0.0;
+      }
+      case 2 -> {
+        r = 0.0;
+        g = chroma;
+        b = x;
+      }
+      case 3 -> {
+        r = 0.0;
+        g = x;
+        b = chroma;
+      }
+      case 4 -> {
+        r = x;
+        g = 0.0;
+        b = chroma;
+      }
+      default -> {
+        r = chroma;
+        g = 0.0;
+        b = x;
+      }
+    }
+
+    out[offset] = r + m;
+    out[offset + 1] = g + m;
+    out[offset + 2] = b + m;
+  }
+
+  private static double labF(
+    final double t)
+  {
+    if (t > LAB_DELTA_CUBED) {
+      return Math.cbrt(t);
+    }
+    return t / LAB_SLOPE + 4.0 / 29.0;
+  }
+
+  private static double labFInverse(
+    final double t)
+  {
+    if (t > LAB_DELTA) {
+      return t * t * t;
+    }
+    return LAB_SLOPE * (t - 4.0 / 29.0);
+  }
+
+  /*
+   * The L*a*b* function of each CIE XYZ component of a linear RGB color.
+   * These allow callers to compute L*a*b* coordinates as scalars:
+   * L* = 116 fy - 16, a* = 500 (fx - fy), b* = 200 (fy - fz).
+   */
+
+  static double labFX(
+    final double r,
+    final double g,
+    final double b)
+  {
+    return labF((0.4124564 * r + 0.3575761 * g + 0.1804375 * b) / WHITE_X);
+  }
+
+  static double labFY(
+    final double r,
+    final double g,
+    final double b)
+  {
+    return labF((0.2126729 * r + 0.7151522 * g + 0.0721750 * b) / WHITE_Y);
+  }
+
+  static double labFZ(
+    final double r,
+    final double g,
+    final double b)
+  {
+    return labF((0.0193339 * r + 0.1191920 * g + 0.9503041 * b) / WHITE_Z);
+  }
+
+  private static void linearToLab(
+    final double r,
+    final double g,
+    final double b,
+    final double[] out,
+    final int offset)
+  {
+    final var fx = labFX(r, g, b);
+    final var fy = labFY(r, g, b);
+    final var fz = labFZ(r, g, b);
+
+    out[offset] = 116.0 * fy - 16.0;
+    out[offset + 1] = 500.0 * (fx - fy);
+    out[offset + 2] = 200.0 * (fy - fz);
+  }
+
+  private static void labToLinear(
+    final double lightness,
+    final double a,
+    final double b,
+    final double[] out,
+    final int offset)
+  {
+    final var fy = (lightness + 16.0) / 116.0;
+    final var fx = fy + a / 500.0;
+    final var fz = fy - b / 200.0;
+
+    final var x = WHITE_X * labFInverse(fx);
+    final var y = WHITE_Y * labFInverse(fy);
+    final var z = WHITE_Z * labFInverse(fz);
+
+    /*
+     * The exact inverse of the matrix used in linearToLab(), rather than the
+     * commonly published rounded inverse, so that conversions round trip.
+     */
+
+    out[offset] =
+      3.2404548360214083 * x
+      - 1.5371388501025751 * y
+      - 0.4985315468684809 * z;
+    out[offset + 1] =
+      -0.9692663898756537 * x
+      + 1.8760109288424913 * y
+      + 0.041556082346673524 * z;
+    out[offset + 2] =
+      0.05564341960421366 * x
+      - 0.20402585426769815 * y
+      + 1.0572251624579287 * z;
+  }
+}
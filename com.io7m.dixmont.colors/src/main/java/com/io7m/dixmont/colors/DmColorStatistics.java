@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.dixmont.colors;
+
+import java.util.Objects;
+
+/**
+ * Channel statistics for a set of colors.
+ *
+ * @param count The number of colors
+ * @param red   The statistics for the red channel
+ * @param green The statistics for the green channel
+ * @param blue  The statistics for the blue channel
+ *
+ * @see DmColorHistogramSnapshot#statistics()
+ * @since 3.2.0
+ */
+
+public record DmColorStatistics(
+  long count,
+  DmColorChannelStatistics red,
+  DmColorChannelStatistics green,
+  DmColorChannelStatistics blue)
+{
+  /**
+   * Channel statistics for a set of colors.
+   *
+   * @param count The number of colors
+   * @param red   The statistics for the red channel
+   * @param green The statistics for the green channel
+   * @param blue  The statistics for the blue channel
+   */
+
+  public DmColorStatistics
+  {
+    Objects.requireNonNull(red, "red");
+    Objects.requireNonNull(green, "green");
+    Objects.requireNonNull(blue, "blue");
+  }
+
+  /**
+   * @return The mean color
+   */
+
+  public DmColor mean()
+  {
+    return new DmColor(this.red.mean(), this.green.mean(), this.blue.mean());
+  }
+}
@@ -0,0 +1,815 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+/**
+ * <p>Functions to parse colors written in the extended syntax: hex colors
+ * with three, four, six, or eight digits, the CSS {@code rgb()},
+ * {@code rgba()}, {@code hsl()}, and {@code hsla()} functions, and CSS named
+ * colors.</p>
+ *
+ * <p>Parsing dispatches on the first character and reads the input in
+ * place, from either a character array or a character sequence, without
+ * copying it or creating any intermediate strings. Named colors are found
+ * with a perfect hash table. Alpha values must be in the range {@code [0, 1]}
+ * (or {@code [0%, 100%]}), and are then discarded, as colors are
+ * opaque.</p>
+ */
+
+final class DmColorSyntax
+{
+  /**
+   * The error message used when a color is not valid in the extended
+   * syntax.
+   */
+
+  static final String EXTENDED_MESSAGE =
+    "Color values must be hex colors (#rgb, #rgba, #rrggbb, or #rrggbbaa), "
+    + "rgb(), rgba(), hsl(), or hsla() functions, or CSS named colors";
+
+  /*
+   * The CSS named colors, as pairs of names and hex values.
+   */
+
+  private static final String[] NAMED = {
+    "aliceblue", "f0f8ff",
+    "antiquewhite", "faebd7",
+    "aqua", "00ffff",
+    "aquamarine", "7fffd4",
+    "azure", "f0ffff",
+    "beige", "f5f5dc",
+    "bisque", "ffe4c4",
+    "black", "000000",
+    "blanchedalmond", "ffebcd",
+    "blue", "0000ff",
+    "blueviolet", "8a2be2",
+    "brown", "a52a2a",
+    "burlywood", "deb887",
+    "cadetblue", "5f9ea0",
+    "chartreuse", "7fff00",
+    "chocolate", "d2691e",
+    "coral", "ff7f50",
+    "cornflowerblue", "6495ed",
+    "cornsilk", "fff8dc",
+    "crimson", "dc143c",
+    "cyan", "00ffff",
+    "darkblue", "00008b",
+    "darkcyan", "008b8b",
+    "darkgoldenrod", "b8860b",
+    "darkgray", "a9a9a9",
+    "darkgreen", "006400",
+    "darkgrey", "a9a9a9",
+    "darkkhaki", "bdb76b",
+    "darkmagenta", "8b008b",
+    "darkolivegreen", "556b2f",
+    "darkorange", "ff8c00",
+    "darkorchid", "9932cc",
+    "darkred", "8b0000",
+    "darksalmon", "e9967a",
+    "darkseagreen", "8fbc8f",
+    "darkslateblue", "483d8b",
+    "darkslategray", "2f4f4f",
+    "darkslategrey", "2f4f4f",
+    "darkturquoise", "00ced1",
+    "darkviolet", "9400d3",
+    "deeppink", "ff1493",
+    "deepskyblue", "00bfff",
+    "dimgray", "696969",
+    "dimgrey", "696969",
+    "dodgerblue", "1e90ff",
+    "firebrick", "b22222",
+    "floralwhite", "fffaf0",
+    "forestgreen", "228b22",
+    "fuchsia", "ff00ff",
+    "gainsboro", "dcdcdc",
+    "ghostwhite", "f8f8ff",
+    "gold", "ffd700",
+    "goldenrod", "daa520",
+    "gray", "808080",
+    "green", "008000",
+    "greenyellow", "adff2f",
+    "grey", "808080",
+    "honeydew", "f0fff0",
+    "hotpink", "ff69b4",
+    "indianred", "cd5c5c",
+    "indigo", "4b0082",
+    "ivory", "fffff0",
+    "khaki", "f0e68c",
+    "lavender", "e6e6fa",
+    "lavenderblush", "fff0f5",
+    "lawngreen", "7cfc00",
+    "lemonchiffon", "fffacd",
+    "lightblue", "add8e6",
+    "lightcoral", "f08080",
+    "lightcyan", "e0ffff",
+    "lightgoldenrodyellow", "fafad2",
+    "lightgray", "d3d3d3",
+    "lightgreen", "90ee90",
+    "lightgrey", "d3d3d3",
+    "lightpink", "ffb6c1",
+    "lightsalmon", "ffa07a",
+    "lightseagreen", "20b2aa",
+    "lightskyblue", "87cefa",
+    "lightslategray", "778899",
+    "lightslategrey", "778899",
+    "lightsteelblue", "b0c4de",
+    "lightyellow", "ffffe0",
+    "lime", "00ff00",
+    "limegreen", "32cd32",
+    "linen", "faf0e6",
+    "magenta", "ff00ff",
+    "maroon", "800000",
+    "mediumaquamarine", "66cdaa",
+    "mediumblue", "0000cd",
+    "mediumorchid", "ba55d3",
+    "mediumpurple", "9370db",
+    "mediumseagreen", "3cb371",
+    "mediumslateblue", "7b68ee",
+    "mediumspringgreen", "00fa9a",
+    "mediumturquoise", "48d1cc",
+    "mediumvioletred", "c71585",
+    "midnightblue", "191970",
+    "mintcream", "f5fffa",
+    "mistyrose", "ffe4e1",
+    "moccasin", "ffe4b5",
+    "navajowhite", "ffdead",
+    "navy", "000080",
+    "oldlace", "fdf5e6",
+    "olive", "808000",
+    "olivedrab", "6b8e23",
+    "orange", "ffa500",
+    "orangered", "ff4500",
+    "orchid", "da70d6",
+    "palegoldenrod", "eee8aa",
+    "palegreen", "98fb98",
+    "paleturquoise", "afeeee",
+    "palevioletred", "db7093",
+    "papayawhip", "ffefd5",
+    "peachpuff", "ffdab9",
+    "peru", "cd853f",
+    "pink", "ffc0cb",
+    "plum", "dda0dd",
+    "powderblue", "b0e0e6",
+    "purple", "800080",
+    "rebeccapurple", "663399",
+    "red", "ff0000",
+    "rosybrown", "bc8f8f",
+    "royalblue", "4169e1",
+    "saddlebrown", "8b4513",
+    "salmon", "fa8072",
+    "sandybrown", "f4a460",
+    "seagreen", "2e8b57",
+    "seashell", "fff5ee",
+    "sienna", "a0522d",
+    "silver", "c0c0c0",
+    "skyblue", "87ceeb",
+    "slateblue", "6a5acd",
+    "slategray", "708090",
+    "slategrey", "708090",
+    "snow", "fffafa",
+    "springgreen", "00ff7f",
+    "steelblue", "4682b4",
+    "tan", "d2b48c",
+    "teal", "008080",
+    "thistle", "d8bfd8",
+    "tomato", "ff6347",
+    "turquoise", "40e0d0",
+    "violet", "ee82ee",
+    "wheat", "f5deb3",
+    "white", "ffffff",
+    "whitesmoke", "f5f5f5",
+    "yellow", "ffff00",
+    "yellowgreen", "9acd32",
+  };
+
+  private static final int NAME_SLOT_BITS = 12;
+  private static final int NAME_MAXIMUM_LENGTH = 20;
+  private static final int NAME_SEED = nameSeed();
+  private static final short[] NAME_SLOTS = nameSlots();
+
+  /*
+   * The packed value of each named color, in the order of the names.
+   */
+
+  private static final int[] NAME_VALUES = nameValues();
+
+  /*
+   * Exact powers of ten, used to convert decimal numbers.
+   */
+
+  private static final double[] POWERS_OF_TEN = {
+    1.0e0, 1.0e1, 1.0e2, 1.0e3, 1.0e4, 1.0e5, 1.0e6, 1.0e7, 1.0e8, 1.0e9,
+    1.0e10, 1.0e11, 1.0e12, 1.0e13, 1.0e14, 1.0e15, 1.0e16, 1.0e17, 1.0e18,
+    1.0e19, 1.0e20, 1.0e21, 1.0e22,
+  };
+
+  private static final int MAXIMUM_DIGITS = 18;
+
+  private DmColorSyntax()
+  {
+
+  }
+
+  private static int nameSlot(
+    final int hash,
+    final int seed)
+  {
+    return (hash * seed) >>> (Integer.SIZE - NAME_SLOT_BITS);
+  }
+
+  private static int nameHash(
+    final String name)
+  {
+    var hash = 0;
+    for (int index = 0; index < name.length(); ++index) {
+      hash = hash * 31 + name.charAt(index);
+    }
+    return hash;
+  }
+
+  /*
+   * Find a multiplier that maps every name to a distinct slot.
+   */
+
+  private static int nameSeed()
+  {
+    final var used = new boolean[1 << NAME_SLOT_BITS];
+    for (int seed = 0x9e3779b1; seed != 0x9e3779af; seed += 2) {
+      if (isPerfect(seed, used)) {
+        return seed;
+      }
+    }
+    throw new IllegalStateException("No perfect hash exists for the named colors");
+  }
+
+  private static boolean isPerfect(
+    final int seed,
+    final boolean[] used)
+  {
+    java.util.Arrays.fill(used, false);
+    for (int index = 0; index < NAMED.length; index += 2) {
+      final var slot = nameSlot(nameHash(NAMED[index]), seed);
+      if (used[slot]) {
+        return false;
+      }
+      used[slot] = true;
+    }
+    return true;
+  }
+
+  private static short[] nameSlots()
+  {
+    final var slots = new short[1 << NAME_SLOT_BITS];
+    for (int index = 0; index < NAMED.length; index += 2) {
+      slots[nameSlot(nameHash(NAMED[index]), NAME_SEED)] = (short) (index + 1);
+    }
+    return slots;
+  }
+
+  private static int[] nameValues()
+  {
+    final var values = new int[NAMED.length / 2];
+    for (int index = 0; index < values.length; ++index) {
+      values[index] = Integer.parseInt(NAMED[index * 2 + 1], 16);
+    }
+    return values;
+  }
+
+  /**
+   * Parse a color.
+   *
+   * @param chars  The input characters
+   * @param offset The offset of the color in the input
+   * @param length The length of the color in the input
+   * @param cache  The cache used for colors with 8-bit channels, if any
+   *
+   * @return The color, or {@code null} if the input is not a valid color
+   */
+
+  static DmColor parse(
+    final char[] chars,
+    final int offset,
+    final int length,
+    final DmColorCache cache)
+  {
+    return parseSource(chars, offset, length, cache);
+  }
+
+  /**
+   * Parse a color.
+   *
+   * @param text  The input text
+   * @param cache The cache used for colors with 8-bit channels, if any
+   *
+   * @return The color, or {@code null} if the input is not a valid color
+   */
+
+  static DmColor parse(
+    final CharSequence text,
+    final DmColorCache cache)
+  {
+    return parseSource(text, 0, text.length(), cache);
+  }
+
+  /*
+   * The parser reads from either a char[] or a CharSequence, so that
+   * neither needs to be copied into the other. The source is only ever
+   * accessed through this method.
+   */
+
+  private static char charAt(
+    final Object source,
+    final int index)
+  {
+    if (source instanceof char[]) {
+      return ((char[]) source)[index];
+    }
+    return ((CharSequence) source).charAt(index);
+  }
+
+  private static DmColor parseSource(
+    final Object source,
+    final int offset,
+    final int length,
+    final DmColorCache cache)
+  {
+    if (length == 0) {
+      return null;
+    }
+
+    if (charAt(source, offset) == '#') {
+      return colorOf(parseHex(source, offset + 1, length - 1), cache);
+    }
+
+    /*
+     * Hash the leading run of letters. If it covers the whole input, it
+     * names a color; if it is followed by a parenthesis, it names a
+     * function.
+     */
+
+    final var end = offset + length;
+    var hash = 0;
+    var index = offset;
+    while (index < end && isLetter(charAt(source, index))) {
+      hash = hash * 31 + (charAt(source, index) | 0x20);
+      ++index;
+    }
+
+    if (index == end) {
+      return colorOf(parseName(source, offset, length, hash), cache);
+    }
+    if (charAt(source, index) == '(') {
+      return parseFunction(source, offset, index, index + 1, end);
+    }
+    return null;
+  }
+
+  private static DmColor colorOf(
+    final int rgb,
+    final DmColorCache cache)
+  {
+    if (rgb < 0) {
+      return null;
+    }
+    return cache == null ? DmColorPacked.toColor(rgb) : cache.color(rgb);
+  }
+
+  private static boolean isLetter(
+    final char c)
+  {
+    final var lower = c | 0x20;
+    return lower >= 'a' && lower <= 'z';
+  }
+
+  private static int parseName(
+    final Object source,
+    final int offset,
+    final int length,
+    final int hash)
+  {
+    if (length > NAME_MAXIMUM_LENGTH) {
+      return -1;
+    }
+
+    final var entry = NAME_SLOTS[nameSlot(hash, NAME_SEED)] - 1;
+    if (entry < 0) {
+      return -1;
+    }
+
+    final var name = NAMED[entry];
+    if (name.length() != length) {
+      return -1;
+    }
+    for (int index = 0; index < length; ++index) {
+      if ((charAt(source, offset + index) | 0x20) != name.charAt(index)) {
+        return -1;
+      }
+    }
+    return NAME_VALUES[entry / 2];
+  }
+
+  /*
+   * Parse the digits of a hex color, after the '#'.
+   */
+
+  private static int parseHex(
+    final Object source,
+    final int offset,
+    final int length)
+  {
+    return switch (length) {
+      case 3, 4 -> {
+        final var r = DmColorHex.nibble(charAt(source, offset));
+        final var g = DmColorHex.nibble(charAt(source, offset + 1));
+        final var b = DmColorHex.nibble(charAt(source, offset + 2));
+        final var a = length == 4 ? DmColorHex.nibble(charAt(source, offset + 3)) : 0;
+        if ((r | g | b | a) < 0) {
+          yield -1;
+        }
+        yield (r * 0x11 << 16) | (g * 0x11 << 8) | (b * 0x11);
+      }
+      case 6, 8 -> {
+        var rgb = 0;
+        for (int index = 0; index < length; ++index) {
+          final var n = DmColorHex.nibble(charAt(source, offset + index));
+          if (n < 0) {
+            yield -1;
+          }
+          if (index < 6) {
+            rgb = (rgb << 4) | n;
+          }
+        }
+        yield rgb;
+      }
+      default -> -1;
+    };
+  }
+
+  /*
+   * Determine if the characters [start, end) name the given function or
+   * its variant with an alpha argument ("rgb" or "rgba", for example),
+   * ignoring case.
+   */
+
+  private static boolean isFunction(
+    final Object source,
+    final int start,
+    final int end,
+    final String name)
+  {
+    final var length = end - start;
+    if (length == name.length() + 1) {
+      if ((charAt(source, end - 1) | 0x20) != 'a') {
+        return false;
+      }
+    } else if (length != name.length()) {
+      return false;
+    }
+
+    for (int index = 0; index < name.length(); ++index) {
+      if ((charAt(source, start + index) | 0x20) != name.charAt(index)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /*
+   * Parse the arguments of a function. The arguments are located first,
+   * as ranges of characters, and are then evaluated. Every position is
+   * negative if the input is not valid.
+   */
+
+  private static DmColor parseFunction(
+    final Object source,
+    final int nameStart,
+    final int nameEnd,
+    final int start,
+    final int end)
+  {
+    final var rgb = isFunction(source, nameStart, nameEnd, "rgb");
+    if (!rgb && !isFunction(source, nameStart, nameEnd, "hsl")) {
+      return null;
+    }
+    if (charAt(source, end - 1) != ')') {
+      return null;
+    }
+
+    final var close = end - 1;
+    final var s0 = skipSpace(source, start, close);
+    final var e0 = argumentEnd(source, s0, close);
+    final var s1 = separator(source, e0, close);
+    final var e1 = argumentEnd(source, s1, close);
+    final var s2 = separator(source, e1, close);
+    final var e2 = argumentEnd(source, s2, close);
+    if (e2 < 0 || !isAlphaValid(source, skipSpace(source, e2, close), close)) {
+      return null;
+    }
+
+    if (rgb) {
+      return rgbOf(
+        channel(source, s0, e0, 255.0),
+        channel(source, s1, e1, 255.0),
+        channel(source, s2, e2, 255.0)
+      );
+    }
+    return hslOf(
+      hue(source, s0, e0),
+      channel(source, s1, e1, 100.0),
+      channel(source, s2, e2, 100.0)
+    );
+  }
+
+  private static DmColor rgbOf(
+    final double r,
+    final double g,
+    final double b)
+  {
+    if (Double.isNaN(r + g + b)) {
+      return null;
+    }
+    return new DmColor(r, g, b);
+  }
+
+  private static DmColor hslOf(
+    final double h,
+    final double s,
+    final double l)
+  {
+    if (Double.isNaN(h + s + l)) {
+      return null;
+    }
+    return DmColorSpaces.fromHSL(
+      new DmColorHSL(
+        h,
+        Math.min(1.0, Math.max(0.0, s)),
+        Math.min(1.0, Math.max(0.0, l))
+      )
+    );
+  }
+
+  /*
+   * Check the optional alpha argument, which starts at the given position
+   * and must end at the closing parenthesis. The alpha value must be in
+   * the range [0, 1] (or [0%, 100%]); it is then discarded, as colors are
+   * opaque.
+   */
+
+  private static boolean isAlphaValid(
+    final Object source,
+    final int position,
+    final int close)
+  {
+    if (position == close) {
+      return true;
+    }
+
+    final var c = charAt(source, position);
+    if (c != ',' && c != '/') {
+      return false;
+    }
+
+    final var start = skipSpace(source, position + 1, close);
+    final var end = argumentEnd(source, start, close);
+    if (skipSpace(source, end, close) != close) {
+      return false;
+    }
+
+    final var alpha = channel(source, start, end, 1.0);
+    return alpha >= 0.0 && alpha <= 1.0;
+  }
+
+  private static boolean isSpace(
+    final char c)
+  {
+    return Character.isWhitespace(c);
+  }
+
+  private static int skipSpace(
+    final Object source,
+    final int position,
+    final int end)
+  {
+    var index = position;
+    while (index < end && isSpace(charAt(source, index))) {
+      ++index;
+    }
+    return index;
+  }
+
+  /*
+   * Find the end of the argument starting at the given position: the
+   * first whitespace, separator, or the end of the arguments.
+   */
+
+  private static int argumentEnd(
+    final Object source,
+    final int position,
+    final int end)
+  {
+    if (position < 0) {
+      return position;
+    }
+
+    var index = position;
+    while (index < end) {
+      final var c = charAt(source, index);
+      if (isSpace(c) || c == ',' || c == '/') {
+        break;
+      }
+      ++index;
+    }
+    return index;
+  }
+
+  /*
+   * Skip the separator between two arguments: a comma, or whitespace.
+   * The result is the start of the next argument.
+   */
+
+  private static int separator(
+    final Object source,
+    final int position,
+    final int end)
+  {
+    if (position < 0) {
+      return position;
+    }
+
+    final var index = skipSpace(source, position, end);
+    if (index < end && charAt(source, index) == ',') {
+      return skipSpace(source, index + 1, end);
+    }
+    return index == position ? -1 : index;
+  }
+
+  /*
+   * A number or a percentage, scaled so that a number equal to the given
+   * maximum (or 100%) yields 1.0.
+   */
+
+  private static double channel(
+    final Object source,
+    final int start,
+    final int end,
+    final double maximum)
+  {
+    if (end > start && charAt(source, end - 1) == '%') {
+      return number(source, start, end - 1) / 100.0;
+    }
+    return number(source, start, end) / maximum;
+  }
+
+  /*
+   * A hue: a number of degrees, with an optional "deg" unit.
+   */
+
+  private static double hue(
+    final Object source,
+    final int start,
+    final int end)
+  {
+    final var unit = end - 3;
+    if (unit > start && isFunction(source, unit, end, "deg")) {
+      return number(source, start, unit);
+    }
+    return number(source, start, end);
+  }
+
+  private static int signEnd(
+    final Object source,
+    final int position,
+    final int end)
+  {
+    if (position < end) {
+      final var c = charAt(source, position);
+      if (c == '+' || c == '-') {
+        return position + 1;
+      }
+    }
+    return position;
+  }
+
+  private static int digitsEnd(
+    final Object source,
+    final int position,
+    final int end)
+  {
+    var index = position;
+    while (index < end) {
+      final var c = charAt(source, index);
+      if (c < '0' || c > '9') {
+        break;
+      }
+      ++index;
+    }
+    return index;
+  }
+
+  private static long accumulate(
+    final Object source,
+    final int start,
+    final int end,
+    final long mantissa)
+  {
+    var result = mantissa;
+    for (int index = start; index < end; ++index) {
+      result = result * 10L + (charAt(source, index) - '0');
+    }
+    return result;
+  }
+
+  /*
+   * A decimal number with an optional sign, fraction, and exponent,
+   * occupying exactly the characters [start, end). The result is exact for
+   * numbers with up to 18 significant digits and small exponents, and NaN
+   * for anything else.
+   */
+
+  private static double number(
+    final Object source,
+    final int start,
+    final int end)
+  {
+    final var integerStart = signEnd(source, start, end);
+    final var negative =
+      integerStart != start && charAt(source, start) == '-';
+    final var integerEnd = digitsEnd(source, integerStart, end);
+
+    var fractionStart = integerEnd;
+    var fractionEnd = integerEnd;
+    if (integerEnd < end && charAt(source, integerEnd) == '.') {
+      fractionStart = integerEnd + 1;
+      fractionEnd = digitsEnd(source, fractionStart, end);
+      if (fractionEnd == fractionStart) {
+        return Double.NaN;
+      }
+    }
+
+    final var fractionDigits = fractionEnd - fractionStart;
+    final var count = (integerEnd - integerStart) + fractionDigits;
+    if (count == 0 || count > MAXIMUM_DIGITS) {
+      return Double.NaN;
+    }
+
+    final var exponent = exponent(source, fractionEnd, end) - fractionDigits;
+    if (Math.abs(exponent) >= POWERS_OF_TEN.length) {
+      return Double.NaN;
+    }
+
+    final var mantissa =
+      accumulate(
+        source,
+        fractionStart,
+        fractionEnd,
+        accumulate(source, integerStart, integerEnd, 0L)
+      );
+
+    final var magnitude = exponent >= 0
+      ? (double) mantissa * POWERS_OF_TEN[exponent]
+      : (double) mantissa / POWERS_OF_TEN[-exponent];
+    return negative ? -magnitude : magnitude;
+  }
+
+  /*
+   * An optional exponent occupying exactly the characters [start, end).
+   * The result is out of range if the exponent is not valid.
+   */
+
+  private static int exponent(
+    final Object source,
+    final int start,
+    final int end)
+  {
+    if (start == end) {
+      return 0;
+    }
+    if ((charAt(source, start) | 0x20) != 'e') {
+      return Integer.MAX_VALUE / 2;
+    }
+
+    final var digitsStart = signEnd(source, start + 1, end);
+    final var digitsEnd = digitsEnd(source, digitsStart, end);
+    final var count = digitsEnd - digitsStart;
+    if (digitsEnd != end || count == 0 || count > 3) {
+      return Integer.MAX_VALUE / 2;
+    }
+
+    final var value = (int) accumulate(source, digitsStart, digitsEnd, 0L);
+    return charAt(source, start + 1) == '-' ? -value : value;
+  }
+}
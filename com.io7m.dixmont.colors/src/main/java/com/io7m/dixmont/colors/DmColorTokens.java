@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.ObjectWriteContext;
+
+/**
+ * Functions to read and write colors as tokens.
+ *
+ * <p>Colors are written as {@code #rrggbb} strings to textual formats such
+ * as JSON. Mappers for binary formats (such as Smile and CBOR) write colors
+ * as packed {@code 0xrrggbb} integers instead, and accept packed integers
+ * and three-byte binary values in addition to strings when reading.</p>
+ */
+
+final class DmColorTokens
+{
+  private DmColorTokens()
+  {
+
+  }
+
+  /**
+   * @param context The read context
+   *
+   * @return {@code true} if the context reads a binary format
+   */
+
+  static boolean isBinary(
+    final ObjectReadContext context)
+  {
+    return context.tokenStreamFactory().canHandleBinaryNatively();
+  }
+
+  /**
+   * @param context The write context
+   *
+   * @return {@code true} if the context writes a binary format
+   */
+
+  static boolean isBinary(
+    final ObjectWriteContext context)
+  {
+    return context.tokenStreamFactory().canHandleBinaryNatively();
+  }
+
+  /**
+   * Read a color from the current token.
+   *
+   * @param p       The parser
+   * @param context The read context
+   *
+   * @return The color as {@code 0xrrggbb}, or {@code -1} if the current
+   * token is not a valid color
+   */
+
+  static int read(
+    final JsonParser p,
+    final ObjectReadContext context)
+  {
+    if (p.hasToken(JsonToken.VALUE_STRING)) {
+      return DmColorHex.decode(
+        p.getStringCharacters(),
+        p.getStringOffset(),
+        p.getStringLength()
+      );
+    }
+
+    if (isBinary(context)) {
+      return readBinary(p);
+    }
+    return -1;
+  }
+
+  private static int readBinary(
+    final JsonParser p)
+  {
+    if (p.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+      if (p.getNumberType() == JsonParser.NumberType.INT) {
+        final var value = p.getIntValue();
+        return (value & 0xff000000) == 0 ? value : -1;
+      }
+      return -1;
+    }
+
+    if (p.hasToken(JsonToken.VALUE_EMBEDDED_OBJECT)) {
+      final var bytes = p.getBinaryValue();
+      if (bytes != null && bytes.length == 3) {
+        return DmColorPacked.pack(bytes[0] & 0xff, bytes[1] & 0xff, bytes[2] & 0xff);
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import java.util.Objects;
+
+/**
+ * <p>A gradient baked into a fixed-resolution lookup table.</p>
+ *
+ * <p>Baking evaluates the gradient definition once at each of
+ * {@link DmGradientDefinition#resolution()} evenly spaced positions. Sampling
+ * then rounds a position to the nearest table entry and returns it, without
+ * any interpolation or allocation. Gradients are immutable and safe to
+ * sample from any number of threads.</p>
+ *
+ * <p>Positions before the first stop take the color of the first stop, and
+ * positions after the last stop take the color of the last stop.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmGradient
+{
+  private final DmGradientDefinition definition;
+  private final DmColor[] colors;
+  private final int[] packed;
+  private final double scale;
+
+  private DmGradient(
+    final DmGradientDefinition inDefinition,
+    final DmColor[] inColors,
+    final int[] inPacked)
+  {
+    this.definition = inDefinition;
+    this.colors = inColors;
+    this.packed = inPacked;
+    this.scale = (double) (inColors.length - 1);
+  }
+
+  /**
+   * Bake a gradient. Consider using a {@link DmGradientCache} to share
+   * gradients with identical definitions.
+   *
+   * @param definition The gradient definition
+   *
+   * @return A baked gradient
+   */
+
+  public static DmGradient bake(
+    final DmGradientDefinition definition)
+  {
+    Objects.requireNonNull(definition, "definition");
+
+    final var stops = definition.stops();
+    final var interpolation = definition.interpolation();
+    final var resolution = definition.resolution();
+    final var colors = new DmColor[resolution];
+    final var packed = new int[resolution];
+
+    /*
+     * Positions increase monotonically, so the current segment only ever
+     * moves forwards. Stops at equal positions form a hard edge: positions
+     * at or past a stop use the segment that starts at the last such stop.
+     */
+
+    var segment = 0;
+    for (int index = 0; index < resolution; ++index) {
+      final var position = (double) index / (double) (resolution - 1);
+      while (segment < stops.size() && stops.get(segment).position() <= position) {
+        ++segment;
+      }
+
+      final DmColor color;
+      if (segment == 0) {
+        color = stops.get(0).color();
+      } else if (segment == stops.size()) {
+        color = stops.get(segment - 1).color();
+      } else {
+        final var s0 = stops.get(segment - 1);
+        final var s1 = stops.get(segment);
+        final var factor =
+          (position - s0.position()) / (s1.position() - s0.position());
+        color = interpolate(interpolation, s0.color(), s1.color(), factor);
+      }
+
+      colors[index] = color;
+      packed[index] = DmColorPacked.pack(color);
+    }
+
+    return new DmGradient(definition, colors, packed);
+  }
+
+  private static DmColor interpolate(
+    final DmGradientInterpolation interpolation,
+    final DmColor c0,
+    final DmColor c1,
+    final double factor)
+  {
+    return switch (interpolation) {
+      case INTERPOLATION_SRGB -> c0.lerp(c1, factor);
+      case INTERPOLATION_LINEAR -> {
+        final var linear =
+          DmColorSpaces.toLinear(c0).lerp(DmColorSpaces.toLinear(c1), factor);
+        yield DmColorSpaces.fromLinear(linear);
+      }
+    };
+  }
+
+  /**
+   * @return The gradient definition
+   */
+
+  public DmGradientDefinition definition()
+  {
+    return this.definition;
+  }
+
+  /**
+   * @return The number of entries in the lookup table
+   */
+
+  public int resolution()
+  {
+    return this.colors.length;
+  }
+
+  /**
+   * Obtain the lookup table index nearest to the given position. Positions
+   * are clamped to the range {@code [0, 1]}.
+   *
+   * @param position The position
+   *
+   * @return The table index
+   */
+
+  public int indexOf(
+    final double position)
+  {
+    final var index = (int) (position * this.scale + 0.5);
+    return Math.max(0, Math.min(this.colors.length - 1, index));
+  }
+
+  /**
+   * @param index The table index
+   *
+   * @return The color at the given table index
+   */
+
+  public DmColor color(
+    final int index)
+  {
+    return this.colors[index];
+  }
+
+  /**
+   * @param index The table index
+   *
+   * @return The color at the given table index as {@code 0xrrggbb}
+   */
+
+  public int packed(
+    final int index)
+  {
+    return this.packed[index];
+  }
+
+  /**
+   * Sample the gradient.
+   *
+   * @param position The position
+   *
+   * @return The color at the nearest table entry
+   */
+
+  public DmColor sample(
+    final double position)
+  {
+    return this.colors[this.indexOf(position)];
+  }
+
+  /**
+   * Sample the gradient.
+   *
+   * @param position The position
+   *
+   * @return The color at the nearest table entry as {@code 0xrrggbb}
+   */
+
+  public int samplePacked(
+    final double position)
+  {
+    return this.packed[this.indexOf(position)];
+  }
+
+  /**
+   * Sample the gradient at each of the given positions.
+   *
+   * @param positions The positions
+   * @param target    The colors as {@code 0xrrggbb} values
+   * @param count     The number of positions
+   */
+
+  public void samplePacked(
+    final double[] positions,
+    final int[] target,
+    final int count)
+  {
+    Objects.checkFromIndexSize(0, count, positions.length);
+    Objects.checkFromIndexSize(0, count, target.length);
+
+    for (int index = 0; index < count; ++index) {
+      target[index] = this.packed[this.indexOf(positions[index])];
+    }
+  }
+
+  /**
+   * Sample the gradient at each of the given positions, writing the
+   * results to a channel buffer (see {@link DmColorBatch}).
+   *
+   * @param positions The positions
+   * @param target    The target buffer
+   * @param count     The number of positions
+   */
+
+  public void sample(
+    final double[] positions,
+    final double[] target,
+    final int count)
+  {
+    Objects.checkFromIndexSize(0, count, positions.length);
+    Objects.checkFromIndexSize(
+      0,
+      Math.multiplyExact(count, DmColorBatch.CHANNELS),
+      target.length
+    );
+
+    for (int index = 0; index < count; ++index) {
+      final var color = this.colors[this.indexOf(positions[index])];
+      final var base = index * DmColorBatch.CHANNELS;
+      target[base] = color.red();
+      target[base + 1] = color.green();
+      target[base + 2] = color.blue();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[DmGradient %d stops, %d entries]".formatted(
+      Integer.valueOf(this.definition.stops().size()),
+      Integer.valueOf(this.colors.length)
+    );
+  }
+}
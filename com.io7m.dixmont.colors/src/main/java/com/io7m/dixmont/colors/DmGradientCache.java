@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>A bounded cache of baked gradients, keyed by definition.</p>
+ *
+ * <p>Baking the same definition twice through a cache yields the same
+ * {@link DmGradient} instance, as long as the definition has not been
+ * evicted in the meantime. When the cache is full, the least recently used
+ * gradient is evicted. The cache is safe to use from any number of
+ * threads; gradients are baked outside of any lock.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmGradientCache
+{
+  /**
+   * The default cache capacity.
+   */
+
+  public static final int DEFAULT_CAPACITY = 64;
+
+  private final Map<DmGradientDefinition, DmGradient> gradients;
+  private final int capacity;
+
+  private DmGradientCache(
+    final int inCapacity)
+  {
+    this.capacity = inCapacity;
+    this.gradients = new LinkedHashMap<>(16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(
+        final Map.Entry<DmGradientDefinition, DmGradient> eldest)
+      {
+        return this.size() > inCapacity;
+      }
+    };
+  }
+
+  /**
+   * Create a new cache.
+   *
+   * @param capacity The maximum number of gradients held
+   *
+   * @return A new cache
+   */
+
+  public static DmGradientCache create(
+    final int capacity)
+  {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+        "Capacity %d must be positive".formatted(Integer.valueOf(capacity))
+      );
+    }
+    return new DmGradientCache(capacity);
+  }
+
+  /**
+   * @return The maximum number of gradients held
+   */
+
+  public int capacity()
+  {
+    return this.capacity;
+  }
+
+  /**
+   * @return The number of gradients currently held
+   */
+
+  public int size()
+  {
+    synchronized (this.gradients) {
+      return this.gradients.size();
+    }
+  }
+
+  /**
+   * Obtain the baked gradient for the given definition, baking it if it is
+   * not already cached.
+   *
+   * @param definition The gradient definition
+   *
+   * @return A baked gradient
+   */
+
+  public DmGradient bake(
+    final DmGradientDefinition definition)
+  {
+    Objects.requireNonNull(definition, "definition");
+
+    synchronized (this.gradients) {
+      final var existing = this.gradients.get(definition);
+      if (existing != null) {
+        return existing;
+      }
+    }
+
+    final var baked = DmGradient.bake(definition);
+    synchronized (this.gradients) {
+      final var existing = this.gradients.putIfAbsent(definition, baked);
+      if (existing != null) {
+        return existing;
+      }
+      return baked;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>The definition of a gradient.</p>
+ *
+ * <p>Stops are sorted by position, keeping stops with equal positions in
+ * the order given, so that two stops at the same position produce a hard
+ * edge. Definitions with the same stops, interpolation, and resolution are
+ * equal, and bake to identical gradients.</p>
+ *
+ * @param stops         The stops
+ * @param interpolation The interpolation space
+ * @param resolution    The number of entries in the baked lookup table
+ *
+ * @see DmGradient
+ * @since 3.2.0
+ */
+
+public record DmGradientDefinition(
+  List<DmGradientStop> stops,
+  DmGradientInterpolation interpolation,
+  int resolution)
+{
+  /**
+   * The default lookup table resolution.
+   */
+
+  public static final int DEFAULT_RESOLUTION = 256;
+
+  /**
+   * The smallest lookup table resolution.
+   */
+
+  public static final int MINIMUM_RESOLUTION = 2;
+
+  /**
+   * The largest lookup table resolution.
+   */
+
+  public static final int MAXIMUM_RESOLUTION = 65536;
+
+  /**
+   * The definition of a gradient.
+   *
+   * @param stops         The stops
+   * @param interpolation The interpolation space
+   * @param resolution    The number of entries in the baked lookup table
+   */
+
+  public DmGradientDefinition
+  {
+    Objects.requireNonNull(interpolation, "interpolation");
+
+    final var sorted = new ArrayList<>(stops);
+    if (sorted.isEmpty()) {
+      throw new IllegalArgumentException("A gradient must have at least one stop");
+    }
+    sorted.sort(Comparator.comparingDouble(DmGradientStop::position));
+    stops = List.copyOf(sorted);
+
+    if (resolution < MINIMUM_RESOLUTION || resolution > MAXIMUM_RESOLUTION) {
+      throw new IllegalArgumentException(
+        "Resolution %d must be in the range [%d, %d]".formatted(
+          Integer.valueOf(resolution),
+          Integer.valueOf(MINIMUM_RESOLUTION),
+          Integer.valueOf(MAXIMUM_RESOLUTION))
+      );
+    }
+  }
+
+  /**
+   * Define a gradient that interpolates in sRGB space with the default
+   * resolution.
+   *
+   * @param stops The stops
+   *
+   * @return A gradient definition
+   */
+
+  public static DmGradientDefinition of(
+    final List<DmGradientStop> stops)
+  {
+    return new DmGradientDefinition(
+      stops,
+      DmGradientInterpolation.INTERPOLATION_SRGB,
+      DEFAULT_RESOLUTION
+    );
+  }
+
+  /**
+   * Define a gradient with evenly spaced stops, interpolating in sRGB space
+   * with the default resolution.
+   *
+   * @param colors The colors
+   *
+   * @return A gradient definition
+   */
+
+  public static DmGradientDefinition evenlySpaced(
+    final List<DmColor> colors)
+  {
+    final var size = colors.size();
+    final var stops = new ArrayList<DmGradientStop>(size);
+    for (int index = 0; index < size; ++index) {
+      final var position =
+        size == 1 ? 0.0 : (double) index / (double) (size - 1);
+      stops.add(new DmGradientStop(position, colors.get(index)));
+    }
+    return of(stops);
+  }
+}
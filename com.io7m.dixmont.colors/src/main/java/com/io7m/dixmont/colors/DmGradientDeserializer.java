@@ -0,0 +1,219 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.deser.std.StdDeserializer;
+import tools.jackson.databind.exc.MismatchedInputException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>A deserializer for gradients. Gradient definitions are read and then
+ * baked through a {@link DmGradientCache}, so that documents that repeat
+ * the same gradient share a single lookup table.</p>
+ *
+ * <p>The {@code interpolation} ({@code "srgb"} or {@code "linear"}) and
+ * {@code resolution} properties are optional, and default to
+ * {@code "srgb"} and {@link DmGradientDefinition#DEFAULT_RESOLUTION}. The
+ * {@code stops} property is required, and holds an array of objects with
+ * {@code position} and {@code color} properties.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmGradientDeserializer
+  extends StdDeserializer<DmGradient>
+{
+  private final DmGradientCache cache;
+
+  /**
+   * A deserializer for gradients using a new cache of
+   * {@link DmGradientCache#DEFAULT_CAPACITY} gradients.
+   */
+
+  public DmGradientDeserializer()
+  {
+    this(DmGradientCache.create(DmGradientCache.DEFAULT_CAPACITY));
+  }
+
+  /**
+   * A deserializer for gradients.
+   *
+   * @param inCache The gradient cache
+   */
+
+  public DmGradientDeserializer(
+    final DmGradientCache inCache)
+  {
+    super(DmGradient.class);
+    this.cache = Objects.requireNonNull(inCache, "cache");
+  }
+
+  private static MismatchedInputException error(
+    final JsonParser p,
+    final String message)
+  {
+    return MismatchedInputException.from(p, DmGradient.class, message);
+  }
+
+  private static void startObject(
+    final JsonParser p,
+    final String message)
+  {
+    if (p.isExpectedStartObjectToken()) {
+      p.nextToken();
+    }
+    if (!p.hasToken(JsonToken.PROPERTY_NAME) && !p.hasToken(JsonToken.END_OBJECT)) {
+      throw error(p, message);
+    }
+  }
+
+  @Override
+  public DmGradient deserialize(
+    final JsonParser p,
+    final DeserializationContext ctxt)
+  {
+    startObject(p, "Gradients must be objects");
+
+    var interpolation = DmGradientInterpolation.INTERPOLATION_SRGB;
+    var resolution = DmGradientDefinition.DEFAULT_RESOLUTION;
+    List<DmGradientStop> stops = null;
+
+    for (var token = p.currentToken();
+         token == JsonToken.PROPERTY_NAME;
+         token = p.nextToken()) {
+      final var name = p.currentName();
+      p.nextToken();
+      switch (name) {
+        case "interpolation" -> interpolation = readInterpolation(p);
+        case "resolution" -> resolution = readResolution(p);
+        case "stops" -> stops = this.readStops(p, ctxt);
+        default -> ctxt.handleUnknownProperty(p, this, DmGradient.class, name);
+      }
+    }
+
+    if (stops == null) {
+      throw error(p, "Gradients must contain an array of stops");
+    }
+
+    final DmGradientDefinition definition;
+    try {
+      definition = new DmGradientDefinition(stops, interpolation, resolution);
+    } catch (final IllegalArgumentException e) {
+      throw error(p, e.getMessage());
+    }
+    return this.cache.bake(definition);
+  }
+
+  private static DmGradientInterpolation readInterpolation(
+    final JsonParser p)
+  {
+    if (p.hasToken(JsonToken.VALUE_STRING)) {
+      final var text = p.getString();
+      if ("srgb".equals(text)) {
+        return DmGradientInterpolation.INTERPOLATION_SRGB;
+      }
+      if ("linear".equals(text)) {
+        return DmGradientInterpolation.INTERPOLATION_LINEAR;
+      }
+    }
+    throw error(p, "Gradient interpolation must be one of \"srgb\" or \"linear\"");
+  }
+
+  private static int readResolution(
+    final JsonParser p)
+  {
+    if (p.hasToken(JsonToken.VALUE_NUMBER_INT)
+        && p.getNumberType() == JsonParser.NumberType.INT) {
+      return p.getIntValue();
+    }
+    throw error(p, "Gradient resolutions must be integers");
+  }
+
+  private List<DmGradientStop> readStops(
+    final JsonParser p,
+    final DeserializationContext ctxt)
+  {
+    if (!p.isExpectedStartArrayToken()) {
+      throw error(p, "Gradient stops must be an array");
+    }
+
+    final var stops = new ArrayList<DmGradientStop>();
+    while (p.nextToken() != JsonToken.END_ARRAY) {
+      stops.add(this.readStop(p, ctxt));
+    }
+    return stops;
+  }
+
+  private DmGradientStop readStop(
+    final JsonParser p,
+    final DeserializationContext ctxt)
+  {
+    startObject(p, "Gradient stops must be objects");
+
+    var position = Double.NaN;
+    DmColor color = null;
+
+    for (var token = p.currentToken();
+         token == JsonToken.PROPERTY_NAME;
+         token = p.nextToken()) {
+      final var name = p.currentName();
+      p.nextToken();
+      switch (name) {
+        case "position" -> position = readPosition(p);
+        case "color" -> color = readColor(p, ctxt);
+        default -> ctxt.handleUnknownProperty(p, this, DmGradientStop.class, name);
+      }
+    }
+
+    if (Double.isNaN(position) || color == null) {
+      throw error(p, "Gradient stops must have a position and a color");
+    }
+
+    try {
+      return new DmGradientStop(position, color);
+    } catch (final IllegalArgumentException e) {
+      throw error(p, e.getMessage());
+    }
+  }
+
+  private static double readPosition(
+    final JsonParser p)
+  {
+    if (p.hasToken(JsonToken.VALUE_NUMBER_INT)
+        || p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+      return p.getDoubleValue();
+    }
+    throw error(p, "Gradient stop positions must be numbers");
+  }
+
+  private static DmColor readColor(
+    final JsonParser p,
+    final DeserializationContext ctxt)
+  {
+    final var rgb = DmColorTokens.read(p, ctxt);
+    if (rgb < 0) {
+      throw MismatchedInputException.from(p, DmColor.class, DmColorHex.PATTERN_MESSAGE);
+    }
+    return DmColorPacked.toColor(rgb);
+  }
+}
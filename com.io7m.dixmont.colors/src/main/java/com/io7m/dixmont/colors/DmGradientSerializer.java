@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * A serializer for gradients. Gradients are written as their definitions.
+ *
+ * @since 3.2.0
+ */
+
+public final class DmGradientSerializer
+  extends StdSerializer<DmGradient>
+{
+  /**
+   * A serializer for gradients.
+   */
+
+  public DmGradientSerializer()
+  {
+    super(DmGradient.class);
+  }
+
+  private static String interpolationName(
+    final DmGradientInterpolation interpolation)
+  {
+    return switch (interpolation) {
+      case INTERPOLATION_SRGB -> "srgb";
+      case INTERPOLATION_LINEAR -> "linear";
+    };
+  }
+
+  @Override
+  public void serialize(
+    final DmGradient value,
+    final JsonGenerator jgen,
+    final SerializationContext provider)
+  {
+    final var definition = value.definition();
+    final var stops = definition.stops();
+    final var binary = DmColorTokens.isBinary(provider);
+    final var buffer = new char[DmColorHex.ENCODED_LENGTH];
+
+    jgen.writeStartObject(value);
+    jgen.writeStringProperty(
+      "interpolation",
+      interpolationName(definition.interpolation())
+    );
+    jgen.writeNumberProperty("resolution", definition.resolution());
+    jgen.writeName("stops");
+    jgen.writeStartArray(stops, stops.size());
+
+    for (final var stop : stops) {
+      jgen.writeStartObject(stop);
+      jgen.writeNumberProperty("position", stop.position());
+      jgen.writeName("color");
+      if (binary) {
+        jgen.writeNumber(DmColorPacked.pack(stop.color()));
+      } else {
+        DmColorHex.encode(stop.color(), buffer, 0);
+        jgen.writeString(buffer, 0, DmColorHex.ENCODED_LENGTH);
+      }
+      jgen.writeEndObject();
+    }
+
+    jgen.writeEndArray();
+    jgen.writeEndObject();
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import java.util.Objects;
+
+/**
+ * A color stop in a gradient.
+ *
+ * @param position The position of the stop in the range [0, 1]
+ * @param color    The color at the stop
+ *
+ * @since 3.2.0
+ */
+
+public record DmGradientStop(
+  double position,
+  DmColor color)
+{
+  /**
+   * A color stop in a gradient.
+   *
+   * @param position The position of the stop in the range [0, 1]
+   * @param color    The color at the stop
+   */
+
+  public DmGradientStop
+  {
+    Objects.requireNonNull(color, "color");
+    if (!(position >= 0.0 && position <= 1.0)) {
+      throw new IllegalArgumentException(
+        "Stop position %s must be in the range [0, 1]".formatted(
+          Double.valueOf(position))
+      );
+    }
+  }
+}
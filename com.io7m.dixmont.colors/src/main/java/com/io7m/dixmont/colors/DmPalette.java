@@ -0,0 +1,579 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.colors;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>An immutable palette of colors that answers nearest-color queries.</p>
+ *
+ * <p>The palette divides the space selected by its
+ * {@link DmPaletteDistance} into a uniform grid of cells and, for each cell,
+ * precomputes the short list of palette colors that could be the nearest
+ * color to any point in that cell. A query examines only the candidates for
+ * the cell containing it, rather than every color in the palette. Queries
+ * that lie outside the grid (such as colors with channels outside the range
+ * {@code [0, 1]}) examine every color in the palette instead. The result of
+ * a query is always identical to that of a linear scan over the palette:
+ * the nearest color, with ties resolved in favour of the color that
+ * appears first.</p>
+ *
+ * <p>A palette is never modified after construction, and is safe to query
+ * from any number of threads.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmPalette
+{
+  private static final int CHANNELS = DmColorBatch.CHANNELS;
+
+  /*
+   * The bounds of the space containing every color. The CIE L*a*b* bounds
+   * contain the whole sRGB gamut.
+   */
+
+  private static final double[] RGB_ORIGIN = {0.0, 0.0, 0.0};
+  private static final double[] RGB_EXTENT = {1.0, 1.0, 1.0};
+  private static final double[] LAB_ORIGIN = {0.0, -128.0, -128.0};
+  private static final double[] LAB_EXTENT = {100.0, 256.0, 256.0};
+
+  private final List<DmColor> colors;
+  private final int[] packed;
+  private final DmPaletteDistance distance;
+  private final double[] points;
+  private final double[] origin;
+  private final double[] limit;
+  private final double[] cellScale;
+  private final int cells;
+  private final int[] cellStart;
+  private final int[] cellEntries;
+
+  private DmPalette(
+    final List<DmColor> inColors,
+    final DmPaletteDistance inDistance)
+  {
+    this.colors = inColors;
+    this.distance = inDistance;
+
+    final var size = inColors.size();
+    this.packed = new int[size];
+    this.points = new double[size * CHANNELS];
+    for (int index = 0; index < size; ++index) {
+      final var color = inColors.get(index);
+      this.packed[index] = DmColorPacked.pack(color);
+      toPoint(inDistance, color.red(), color.green(), color.blue(), this.points, index * CHANNELS);
+    }
+
+    this.origin = switch (inDistance) {
+      case DISTANCE_RGB -> RGB_ORIGIN;
+      case DISTANCE_LAB -> LAB_ORIGIN;
+    };
+    final var extent = switch (inDistance) {
+      case DISTANCE_RGB -> RGB_EXTENT;
+      case DISTANCE_LAB -> LAB_EXTENT;
+    };
+
+    /*
+     * Aim for a few palette colors per cell along each axis. Finer grids
+     * give shorter candidate lists at the cost of construction time.
+     */
+
+    this.cells = Math.max(8, Math.min(32, (int) Math.ceil(Math.cbrt(size) * 4.0)));
+    this.cellScale = new double[CHANNELS];
+    this.limit = new double[CHANNELS];
+    for (int axis = 0; axis < CHANNELS; ++axis) {
+      this.cellScale[axis] = (double) this.cells / extent[axis];
+      this.limit[axis] = this.origin[axis] + extent[axis];
+    }
+
+    this.cellStart = new int[this.cells * this.cells * this.cells + 1];
+    this.cellEntries = this.buildCells(extent);
+  }
+
+  /**
+   * Create a palette that measures distance in RGB space.
+   *
+   * @param colors The colors
+   *
+   * @return A palette
+   *
+   * @see DmPaletteDistance#DISTANCE_RGB
+   */
+
+  public static DmPalette of(
+    final Collection<DmColor> colors)
+  {
+    return of(colors, DmPaletteDistance.DISTANCE_RGB);
+  }
+
+  /**
+   * Create a palette.
+   *
+   * @param colors   The colors
+   * @param distance The distance measure
+   *
+   * @return A palette
+   */
+
+  public static DmPalette of(
+    final Collection<DmColor> colors,
+    final DmPaletteDistance distance)
+  {
+    Objects.requireNonNull(distance, "distance");
+
+    final var copy = List.copyOf(colors);
+    if (copy.isEmpty()) {
+      throw new IllegalArgumentException("A palette must contain at least one color");
+    }
+    return new DmPalette(copy, distance);
+  }
+
+  private static void toPoint(
+    final DmPaletteDistance distance,
+    final double r,
+    final double g,
+    final double b,
+    final double[] out,
+    final int offset)
+  {
+    switch (distance) {
+      case DISTANCE_RGB -> {
+        out[offset] = r;
+        out[offset + 1] = g;
+        out[offset + 2] = b;
+      }
+      case DISTANCE_LAB -> {
+        DmColorSpaces.srgbToLab(r, g, b, out, offset);
+      }
+    }
+  }
+
+  /*
+   * Compute the candidate list for every cell. For a cell, find the
+   * smallest distance within which some palette color is guaranteed to lie
+   * from every point in the cell; any palette color that could be nearest to
+   * a point in the cell must be at least that close to some part of the
+   * cell.
+   */
+
+  private int[] buildCells(
+    final double[] extent)
+  {
+    final var size = this.colors.size();
+    final var lo = new double[CHANNELS];
+    final var hi = new double[CHANNELS];
+    final var minimums = new double[size];
+    var entries = new int[Math.max(16, size)];
+    var entryCount = 0;
+
+    final var total = this.cells * this.cells * this.cells;
+    for (int cell = 0; cell < total; ++cell) {
+      this.cellBounds(
+        extent,
+        cell / (this.cells * this.cells),
+        (cell / this.cells) % this.cells,
+        cell % this.cells,
+        lo,
+        hi
+      );
+
+      final var bound = this.candidateBound(lo, hi, minimums);
+      this.cellStart[cell] = entryCount;
+      for (int index = 0; index < size; ++index) {
+        if (minimums[index] <= bound) {
+          if (entryCount == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length << 1);
+          }
+          entries[entryCount] = index;
+          ++entryCount;
+        }
+      }
+    }
+
+    this.cellStart[total] = entryCount;
+    return Arrays.copyOf(entries, entryCount);
+  }
+
+  /*
+   * Compute the distance of each palette color from the given cell, and
+   * return the distance within which some palette color is guaranteed to
+   * lie from every point in the cell.
+   */
+
+  private double candidateBound(
+    final double[] lo,
+    final double[] hi,
+    final double[] minimums)
+  {
+    var bound = Double.POSITIVE_INFINITY;
+    for (int index = 0; index < minimums.length; ++index) {
+      minimums[index] = this.boxDistance(index, lo, hi, false);
+      bound = Math.min(bound, this.boxDistance(index, lo, hi, true));
+    }
+
+    /*
+     * Allow for rounding error in the bounds.
+     */
+
+    return bound * (1.0 + 1.0e-9) + 1.0e-12;
+  }
+
+  private void cellBounds(
+    final double[] extent,
+    final int c0,
+    final int c1,
+    final int c2,
+    final double[] lo,
+    final double[] hi)
+  {
+    lo[0] = this.origin[0] + extent[0] * c0 / this.cells;
+    lo[1] = this.origin[1] + extent[1] * c1 / this.cells;
+    lo[2] = this.origin[2] + extent[2] * c2 / this.cells;
+    hi[0] = this.origin[0] + extent[0] * (c0 + 1) / this.cells;
+    hi[1] = this.origin[1] + extent[1] * (c1 + 1) / this.cells;
+    hi[2] = this.origin[2] + extent[2] * (c2 + 1) / this.cells;
+  }
+
+  /*
+   * The squared distance from a palette color to the nearest (or furthest)
+   * point of a box.
+   */
+
+  private double boxDistance(
+    final int index,
+    final double[] lo,
+    final double[] hi,
+    final boolean furthest)
+  {
+    var sum = 0.0;
+    for (int axis = 0; axis < CHANNELS; ++axis) {
+      final var p = this.points[index * CHANNELS + axis];
+      final double d;
+      if (furthest) {
+        d = Math.max(p - lo[axis], hi[axis] - p);
+      } else {
+        d = Math.max(0.0, Math.max(lo[axis] - p, p - hi[axis]));
+      }
+      sum += d * d;
+    }
+    return sum;
+  }
+
+  /**
+   * @return The colors in the palette
+   */
+
+  public List<DmColor> colors()
+  {
+    return this.colors;
+  }
+
+  /**
+   * @return The number of colors in the palette
+   */
+
+  public int size()
+  {
+    return this.colors.size();
+  }
+
+  /**
+   * @return The distance measure used to find the nearest color
+   */
+
+  public DmPaletteDistance distance()
+  {
+    return this.distance;
+  }
+
+  /**
+   * @param index The palette index
+   *
+   * @return The color at the given index
+   */
+
+  public DmColor color(
+    final int index)
+  {
+    return this.colors.get(index);
+  }
+
+  /**
+   * @param index The palette index
+   *
+   * @return The color at the given index as {@code 0xrrggbb}
+   */
+
+  public int packed(
+    final int index)
+  {
+    Objects.checkIndex(index, this.packed.length);
+    return this.packed[index];
+  }
+
+  /**
+   * Find the palette color nearest to the given color.
+   *
+   * @param color The color
+   *
+   * @return The index of the nearest palette color
+   */
+
+  public int nearestIndex(
+    final DmColor color)
+  {
+    final var r = color.red();
+    final var g = color.green();
+    final var b = color.blue();
+    return switch (this.distance) {
+      case DISTANCE_RGB -> this.nearestIndexOf(r, g, b);
+      case DISTANCE_LAB -> this.nearestIndexOfLinear(
+        DmColorSpaces.srgbToLinear(r),
+        DmColorSpaces.srgbToLinear(g),
+        DmColorSpaces.srgbToLinear(b)
+      );
+    };
+  }
+
+  /**
+   * Find the palette color nearest to the given color.
+   *
+   * @param color The color
+   *
+   * @return The nearest palette color
+   */
+
+  public DmColor nearest(
+    final DmColor color)
+  {
+    return this.colors.get(this.nearestIndex(color));
+  }
+
+  /**
+   * Find the palette color nearest to the given packed color.
+   *
+   * @param rgb The color as {@code 0xrrggbb}
+   *
+   * @return The index of the nearest palette color
+   */
+
+  public int nearestIndexPacked(
+    final int rgb)
+  {
+    final var r = DmColorPacked.red(rgb);
+    final var g = DmColorPacked.green(rgb);
+    final var b = DmColorPacked.blue(rgb);
+    return switch (this.distance) {
+      case DISTANCE_RGB -> this.nearestIndexOf(
+        (double) r / 255.0,
+        (double) g / 255.0,
+        (double) b / 255.0
+      );
+      case DISTANCE_LAB -> this.nearestIndexOfLinear(
+        DmColorSpaces.srgb8ToLinear(r),
+        DmColorSpaces.srgb8ToLinear(g),
+        DmColorSpaces.srgb8ToLinear(b)
+      );
+    };
+  }
+
+  /*
+   * Find the palette color nearest to the given linear RGB color, converting
+   * it to L*a*b* as scalars so that single queries do not allocate.
+   */
+
+  private int nearestIndexOfLinear(
+    final double r,
+    final double g,
+    final double b)
+  {
+    final var fx = DmColorSpaces.labFX(r, g, b);
+    final var fy = DmColorSpaces.labFY(r, g, b);
+    final var fz = DmColorSpaces.labFZ(r, g, b);
+    return this.nearestIndexOf(
+      116.0 * fy - 16.0,
+      500.0 * (fx - fy),
+      200.0 * (fy - fz)
+    );
+  }
+
+  /**
+   * Find the palette colors nearest to each of the colors in a channel
+   * buffer (see {@link DmColorBatch}).
+   *
+   * @param source The source buffer
+   * @param target The palette indices
+   * @param count  The number of colors
+   */
+
+  public void nearestIndices(
+    final double[] source,
+    final int[] target,
+    final int count)
+  {
+    Objects.checkFromIndexSize(0, Math.multiplyExact(count, CHANNELS), source.length);
+    Objects.checkFromIndexSize(0, count, target.length);
+
+    final var query = new double[CHANNELS];
+    for (int index = 0; index < count; ++index) {
+      final var base = index * CHANNELS;
+      toPoint(this.distance, source[base], source[base + 1], source[base + 2], query, 0);
+      target[index] = this.nearestIndexOf(query[0], query[1], query[2]);
+    }
+  }
+
+  /**
+   * Find the palette colors nearest to each of the given packed colors.
+   *
+   * @param source The colors as {@code 0xrrggbb} values
+   * @param target The palette indices
+   * @param count  The number of colors
+   */
+
+  public void nearestIndicesPacked(
+    final int[] source,
+    final int[] target,
+    final int count)
+  {
+    Objects.checkFromIndexSize(0, count, source.length);
+    Objects.checkFromIndexSize(0, count, target.length);
+
+    for (int index = 0; index < count; ++index) {
+      target[index] = this.nearestIndexPacked(source[index]);
+    }
+  }
+
+  /**
+   * Replace each of the given packed colors with the nearest palette color.
+   * The target may be the same array as the source.
+   *
+   * @param source The colors as {@code 0xrrggbb} values
+   * @param target The nearest palette colors as {@code 0xrrggbb} values
+   * @param count  The number of colors
+   */
+
+  public void mapPacked(
+    final int[] source,
+    final int[] target,
+    final int count)
+  {
+    this.nearestIndicesPacked(source, target, count);
+    for (int index = 0; index < count; ++index) {
+      target[index] = this.packed[target[index]];
+    }
+  }
+
+  private int cellCoordinate(
+    final double q,
+    final int axis)
+  {
+    final var c = (int) ((q - this.origin[axis]) * this.cellScale[axis]);
+    return Math.min(this.cells - 1, c);
+  }
+
+  /*
+   * Determine if a query lies within the grid along the given axis. NaN
+   * channel values are never within the grid.
+   */
+
+  private boolean isInside(
+    final double q,
+    final int axis)
+  {
+    return q >= this.origin[axis] && q <= this.limit[axis];
+  }
+
+  private int nearestIndexOf(
+    final double q0,
+    final double q1,
+    final double q2)
+  {
+    /*
+     * The candidate lists only account for queries within the grid, so
+     * queries elsewhere fall back to examining every color.
+     */
+
+    if (!(this.isInside(q0, 0) && this.isInside(q1, 1) && this.isInside(q2, 2))) {
+      return this.nearestIndexOfRange(q0, q1, q2, null, 0, this.packed.length);
+    }
+
+    final var cell =
+      (this.cellCoordinate(q0, 0) * this.cells
+       + this.cellCoordinate(q1, 1)) * this.cells
+      + this.cellCoordinate(q2, 2);
+
+    return this.nearestIndexOfRange(
+      q0,
+      q1,
+      q2,
+      this.cellEntries,
+      this.cellStart[cell],
+      this.cellStart[cell + 1]
+    );
+  }
+
+  /*
+   * Find the nearest of the palette colors listed in entries [start, end),
+   * or of the palette colors [start, end) if there are no entries.
+   * Candidates are in palette order, so the first of several equally near
+   * colors is kept.
+   */
+
+  private int nearestIndexOfRange(
+    final double q0,
+    final double q1,
+    final double q2,
+    final int[] entries,
+    final int start,
+    final int end)
+  {
+    var best = -1;
+    var bestDistance = Double.POSITIVE_INFINITY;
+    for (int entry = start; entry < end; ++entry) {
+      final var index = entries == null ? entry : entries[entry];
+      final var base = index * CHANNELS;
+      final var d0 = q0 - this.points[base];
+      final var d1 = q1 - this.points[base + 1];
+      final var d2 = q2 - this.points[base + 2];
+      final var d = d0 * d0 + d1 * d1 + d2 * d2;
+      if (d < bestDistance) {
+        bestDistance = d;
+        best = index;
+      }
+    }
+
+    /*
+     * No distance compares as less than infinity if the query contains NaN
+     * channel values.
+     */
+
+    return Math.max(0, best);
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[DmPalette %d %s]".formatted(
+      Integer.valueOf(this.colors.size()),
+      this.distance
+    );
+  }
+}
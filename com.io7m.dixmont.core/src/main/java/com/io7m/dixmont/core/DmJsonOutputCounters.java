@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import tools.jackson.core.io.IOContext;
+import tools.jackson.core.io.OutputDecorator;
+
+import java.io.FilterOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Outputs that count the bytes written through them, so that guarded
+ * generators can measure the size of their output. Character outputs count
+ * the length of the UTF-8 encoding of the characters written through them,
+ * so that the same value measures the same regardless of the output.
+ */
+
+final class DmJsonOutputCounters
+{
+  private DmJsonOutputCounters()
+  {
+
+  }
+
+  /**
+   * An output that counts the values written through it.
+   */
+
+  interface CountingType
+  {
+    /**
+     * @return The number of bytes written so far
+     */
+
+    long count();
+  }
+
+  /**
+   * An output decorator that wraps outputs in counting outputs. Any
+   * existing decorator is applied first, so that the count reflects exactly
+   * what the generator writes.
+   */
+
+  static final class Decorator extends OutputDecorator
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final OutputDecorator previous;
+
+    Decorator(
+      final OutputDecorator inPrevious)
+    {
+      this.previous = inPrevious;
+    }
+
+    @Override
+    public OutputStream decorate(
+      final IOContext context,
+      final OutputStream out)
+    {
+      final var inner =
+        this.previous == null ? out : this.previous.decorate(context, out);
+      return new CountingOutputStream(inner);
+    }
+
+    @Override
+    public Writer decorate(
+      final IOContext context,
+      final Writer w)
+    {
+      final var inner =
+        this.previous == null ? w : this.previous.decorate(context, w);
+      return new CountingWriter(inner);
+    }
+  }
+
+  private static final class CountingOutputStream
+    extends FilterOutputStream implements CountingType
+  {
+    private long count;
+
+    CountingOutputStream(
+      final OutputStream out)
+    {
+      super(out);
+    }
+
+    @Override
+    public void write(
+      final int b)
+      throws IOException
+    {
+      this.out.write(b);
+      ++this.count;
+    }
+
+    @Override
+    public void write(
+      final byte[] b,
+      final int off,
+      final int len)
+      throws IOException
+    {
+      this.out.write(b, off, len);
+      this.count += len;
+    }
+
+    @Override
+    public long count()
+    {
+      return this.count;
+    }
+  }
+
+  private static final class CountingWriter
+    extends FilterWriter implements CountingType
+  {
+    private long count;
+
+    CountingWriter(
+      final Writer out)
+    {
+      super(out);
+    }
+
+    /*
+     * The number of bytes needed to encode the given character in UTF-8.
+     * A surrogate pair takes four bytes, and so all four are counted against
+     * the high surrogate, and none against the low surrogate. Counting each
+     * character independently means that a pair split across two writes is
+     * still counted correctly.
+     */
+
+    private static int encodedLength(
+      final char c)
+    {
+      if (c < 0x80) {
+        return 1;
+      }
+      if (c < 0x800) {
+        return 2;
+      }
+      if (Character.isHighSurrogate(c)) {
+        return 4;
+      }
+      if (Character.isLowSurrogate(c)) {
+        return 0;
+      }
+      return 3;
+    }
+
+    @Override
+    public void write(
+      final int c)
+      throws IOException
+    {
+      this.out.write(c);
+      this.count += encodedLength((char) c);
+    }
+
+    @Override
+    public void write(
+      final char[] cbuf,
+      final int off,
+      final int len)
+      throws IOException
+    {
+      this.out.write(cbuf, off, len);
+
+      long bytes = 0L;
+      for (int index = off; index < off + len; ++index) {
+        bytes += encodedLength(cbuf[index]);
+      }
+      this.count += bytes;
+    }
+
+    @Override
+    public void write(
+      final String str,
+      final int off,
+      final int len)
+      throws IOException
+    {
+      this.out.write(str, off, len);
+
+      long bytes = 0L;
+      for (int index = off; index < off + len; ++index) {
+        bytes += encodedLength(str.charAt(index));
+      }
+      this.count += bytes;
+    }
+
+    @Override
+    public long count()
+    {
+      return this.count;
+    }
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.TokenStreamFactory;
+import tools.jackson.core.base.DecorableTSFactory;
+import tools.jackson.core.util.JsonGeneratorDecorator;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>An output guard that limits the size of serialized outputs. The guard
+ * is installed on a stream factory builder with
+ * {@link #configure(DecorableTSFactory.DecorableTSFBuilder)}, after which
+ * every generator created by the factory counts the bytes, elements, and
+ * nesting depth that it writes, and raises
+ * {@link DmJsonOutputLimitExceededException} as soon as any limit is
+ * exceeded. Outputs are never buffered in their entirety before being
+ * checked.</p>
+ *
+ * <p>The guard is the serialization counterpart of the restricted
+ * deserializers, and guards may be shared between factories and
+ * mappers.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmJsonOutputGuard
+{
+  private final long maximumBytes;
+  private final long maximumElements;
+  private final int maximumDepth;
+  private final LongAdder outputs;
+  private final LongAdder exceeded;
+  private final LongAccumulator largestBytes;
+  private final LongAccumulator largestElements;
+  private final LongAccumulator deepest;
+
+  private DmJsonOutputGuard(
+    final long inMaximumBytes,
+    final long inMaximumElements,
+    final int inMaximumDepth)
+  {
+    this.maximumBytes = inMaximumBytes;
+    this.maximumElements = inMaximumElements;
+    this.maximumDepth = inMaximumDepth;
+    this.outputs = new LongAdder();
+    this.exceeded = new LongAdder();
+    this.largestBytes = new LongAccumulator(Math::max, 0L);
+    this.largestElements = new LongAccumulator(Math::max, 0L);
+    this.deepest = new LongAccumulator(Math::max, 0L);
+  }
+
+  /**
+   * Create a new output guard builder.
+   *
+   * @return The builder
+   */
+
+  public static DmJsonOutputGuardBuilderType builder()
+  {
+    return new Builder();
+  }
+
+  /**
+   * Install this guard on the given stream factory builder. Any output
+   * decorator already present on the builder is retained.
+   *
+   * @param builder The stream factory builder
+   * @param <F>     The type of stream factory
+   * @param <B>     The type of builder
+   *
+   * @return The builder
+   */
+
+  public <F extends TokenStreamFactory, B extends DecorableTSFactory.DecorableTSFBuilder<F, B>>
+  B configure(
+    final B builder)
+  {
+    builder.outputDecorator(
+      new DmJsonOutputCounters.Decorator(builder.outputDecorator())
+    );
+    return builder.addDecorator(new GeneratorDecorator(this));
+  }
+
+  /**
+   * @return The maximum number of bytes that may be written to an output
+   */
+
+  public long maximumBytes()
+  {
+    return this.maximumBytes;
+  }
+
+  /**
+   * @return The maximum number of elements that may be written to an output
+   */
+
+  public long maximumElements()
+  {
+    return this.maximumElements;
+  }
+
+  /**
+   * @return The maximum depth of nested arrays and objects
+   */
+
+  public int maximumDepth()
+  {
+    return this.maximumDepth;
+  }
+
+  /**
+   * @return The statistics for all outputs written so far
+   */
+
+  public DmJsonOutputStatistics statistics()
+  {
+    return new DmJsonOutputStatistics(
+      this.outputs.sum(),
+      this.exceeded.sum(),
+      this.largestBytes.get(),
+      this.largestElements.get(),
+      (int) this.deepest.get()
+    );
+  }
+
+  void record(
+    final long bytes,
+    final long elements,
+    final int depth,
+    final boolean wasExceeded)
+  {
+    this.outputs.increment();
+    if (wasExceeded) {
+      this.exceeded.increment();
+    }
+    this.largestBytes.accumulate(bytes);
+    this.largestElements.accumulate(elements);
+    this.deepest.accumulate(depth);
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[DmJsonOutputGuard bytes=%d elements=%d depth=%d %s]",
+      Long.valueOf(this.maximumBytes),
+      Long.valueOf(this.maximumElements),
+      Integer.valueOf(this.maximumDepth),
+      this.statistics()
+    );
+  }
+
+  private static final class GeneratorDecorator
+    implements JsonGeneratorDecorator
+  {
+    private final DmJsonOutputGuard guard;
+
+    GeneratorDecorator(
+      final DmJsonOutputGuard inGuard)
+    {
+      this.guard = inGuard;
+    }
+
+    @Override
+    public JsonGenerator decorate(
+      final TokenStreamFactory factory,
+      final JsonGenerator generator)
+    {
+      final var target = generator.streamWriteOutputTarget();
+      final var counter =
+        target instanceof final DmJsonOutputCounters.CountingType c
+          ? c
+          : null;
+      return new DmJsonOutputGuardedGenerator(this.guard, generator, counter);
+    }
+  }
+
+  private static final class Builder
+    implements DmJsonOutputGuardBuilderType
+  {
+    private long maximumBytes;
+    private long maximumElements;
+    private int maximumDepth;
+
+    private Builder()
+    {
+      this.maximumBytes = Long.MAX_VALUE;
+      this.maximumElements = Long.MAX_VALUE;
+      this.maximumDepth = Integer.MAX_VALUE;
+    }
+
+    private static void checkPositive(
+      final String name,
+      final long value)
+    {
+      if (value < 1L) {
+        throw new IllegalArgumentException(
+          "Maximum %s %d must be positive".formatted(name, Long.valueOf(value))
+        );
+      }
+    }
+
+    @Override
+    public DmJsonOutputGuardBuilderType setMaximumBytes(
+      final long bytes)
+    {
+      checkPositive("bytes", bytes);
+      this.maximumBytes = bytes;
+      return this;
+    }
+
+    @Override
+    public DmJsonOutputGuardBuilderType setMaximumElements(
+      final long elements)
+    {
+      checkPositive("elements", elements);
+      this.maximumElements = elements;
+      return this;
+    }
+
+    @Override
+    public DmJsonOutputGuardBuilderType setMaximumDepth(
+      final int depth)
+    {
+      checkPositive("depth", depth);
+      this.maximumDepth = depth;
+      return this;
+    }
+
+    @Override
+    public DmJsonOutputGuard build()
+    {
+      return new DmJsonOutputGuard(
+        this.maximumBytes,
+        this.maximumElements,
+        this.maximumDepth
+      );
+    }
+  }
+}
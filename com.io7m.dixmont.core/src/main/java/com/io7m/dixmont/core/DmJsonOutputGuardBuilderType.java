@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * A mutable builder for output guards. All limits are unbounded unless
+ * set.
+ *
+ * @since 3.2.0
+ */
+
+@ProviderType
+public interface DmJsonOutputGuardBuilderType
+{
+  /**
+   * Set the maximum number of bytes that may be written to an output.
+   *
+   * @param bytes The maximum number of bytes
+   *
+   * @return this
+   *
+   * @see DmJsonOutputLimit#LIMIT_BYTES
+   */
+
+  DmJsonOutputGuardBuilderType setMaximumBytes(long bytes);
+
+  /**
+   * Set the maximum number of elements that may be written to an output.
+   *
+   * @param elements The maximum number of elements
+   *
+   * @return this
+   *
+   * @see DmJsonOutputLimit#LIMIT_ELEMENTS
+   */
+
+  DmJsonOutputGuardBuilderType setMaximumElements(long elements);
+
+  /**
+   * Set the maximum depth of nested arrays and objects.
+   *
+   * @param depth The maximum depth
+   *
+   * @return this
+   *
+   * @see DmJsonOutputLimit#LIMIT_DEPTH
+   */
+
+  DmJsonOutputGuardBuilderType setMaximumDepth(int depth);
+
+  /**
+   * @return An output guard based on all the parameters given so far
+   */
+
+  DmJsonOutputGuard build();
+}
@@ -0,0 +1,595 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import tools.jackson.core.Base64Variant;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.util.JsonGeneratorDelegate;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A generator that enforces the limits of an output guard. Element and
+ * depth limits are checked before each value is written, so that values
+ * beyond the limits are never written at all. The byte limit is checked
+ * after each value is written, and covers both the bytes that have reached
+ * the output and the bytes still held in the generator's buffer. The
+ * statistics recorded for an output cover only what was written.
+ */
+
+final class DmJsonOutputGuardedGenerator extends JsonGeneratorDelegate
+{
+  private final DmJsonOutputGuard guard;
+  private final DmJsonOutputCounters.CountingType counter;
+  private long elements;
+  private int depth;
+  private int deepest;
+  private boolean exceeded;
+  private boolean closed;
+
+  DmJsonOutputGuardedGenerator(
+    final DmJsonOutputGuard inGuard,
+    final JsonGenerator inDelegate,
+    final DmJsonOutputCounters.CountingType inCounter)
+  {
+    super(inDelegate, false);
+    this.guard = inGuard;
+    this.counter = inCounter;
+  }
+
+  /*
+   * For character outputs, characters still in the generator's buffer are
+   * counted as one byte each; their encoded length is counted once they are
+   * flushed to the counting output.
+   */
+
+  private long bytes()
+  {
+    final var buffered = Math.max(0, this.delegate.streamWriteOutputBuffered());
+    final var written = this.counter == null ? 0L : this.counter.count();
+    return written + buffered;
+  }
+
+  private DmJsonOutputLimitExceededException exceed(
+    final DmJsonOutputLimit limit,
+    final long maximum,
+    final long observed)
+  {
+    this.exceeded = true;
+    return new DmJsonOutputLimitExceededException(this, limit, maximum, observed);
+  }
+
+  private void countElements(
+    final long count)
+  {
+    final var next = this.elements + count;
+    if (next > this.guard.maximumElements()) {
+      throw this.exceed(
+        DmJsonOutputLimit.LIMIT_ELEMENTS,
+        this.guard.maximumElements(),
+        next
+      );
+    }
+    this.elements = next;
+  }
+
+  private void startContainer()
+  {
+    final var next = this.depth + 1;
+    if (next > this.guard.maximumDepth()) {
+      throw this.exceed(
+        DmJsonOutputLimit.LIMIT_DEPTH,
+        this.guard.maximumDepth(),
+        next
+      );
+    }
+    this.countElements(1L);
+    this.depth = next;
+    this.deepest = Math.max(this.deepest, next);
+  }
+
+  private void checkBytes()
+  {
+    final var bytes = this.bytes();
+    if (bytes > this.guard.maximumBytes()) {
+      throw this.exceed(
+        DmJsonOutputLimit.LIMIT_BYTES,
+        this.guard.maximumBytes(),
+        bytes
+      );
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+
+    final var buffered = this.bytes();
+    try {
+      super.close();
+    } finally {
+      final var bytes =
+        this.counter == null ? buffered : this.counter.count();
+      this.guard.record(bytes, this.elements, this.deepest, this.exceeded);
+    }
+  }
+
+  @Override
+  public JsonGenerator writeStartArray()
+  {
+    this.startContainer();
+    super.writeStartArray();
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartArray(
+    final Object currentValue)
+  {
+    this.startContainer();
+    super.writeStartArray(currentValue);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartArray(
+    final Object currentValue,
+    final int size)
+  {
+    this.startContainer();
+    super.writeStartArray(currentValue, size);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeEndArray()
+  {
+    super.writeEndArray();
+    --this.depth;
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject()
+  {
+    this.startContainer();
+    super.writeStartObject();
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject(
+    final Object currentValue)
+  {
+    this.startContainer();
+    super.writeStartObject(currentValue);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject(
+    final Object currentValue,
+    final int size)
+  {
+    this.startContainer();
+    super.writeStartObject(currentValue, size);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeEndObject()
+  {
+    super.writeEndObject();
+    --this.depth;
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeName(
+    final String name)
+  {
+    super.writeName(name);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeName(
+    final SerializableString name)
+  {
+    super.writeName(name);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writePropertyId(
+    final long id)
+  {
+    super.writePropertyId(id);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeArray(
+    final int[] array,
+    final int offset,
+    final int length)
+  {
+    this.startContainer();
+    this.countElements(length);
+    super.writeArray(array, offset, length);
+    --this.depth;
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeArray(
+    final long[] array,
+    final int offset,
+    final int length)
+  {
+    this.startContainer();
+    this.countElements(length);
+    super.writeArray(array, offset, length);
+    --this.depth;
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeArray(
+    final double[] array,
+    final int offset,
+    final int length)
+  {
+    this.startContainer();
+    this.countElements(length);
+    super.writeArray(array, offset, length);
+    --this.depth;
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeArray(
+    final String[] array,
+    final int offset,
+    final int length)
+  {
+    this.startContainer();
+    this.countElements(length);
+    super.writeArray(array, offset, length);
+    --this.depth;
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeString(
+    final String text)
+  {
+    this.countElements(1L);
+    super.writeString(text);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeString(
+    final Reader reader,
+    final int len)
+  {
+    this.countElements(1L);
+    super.writeString(reader, len);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeString(
+    final char[] text,
+    final int offset,
+    final int len)
+  {
+    this.countElements(1L);
+    super.writeString(text, offset, len);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeString(
+    final SerializableString text)
+  {
+    this.countElements(1L);
+    super.writeString(text);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeRawUTF8String(
+    final byte[] text,
+    final int offset,
+    final int length)
+  {
+    this.countElements(1L);
+    super.writeRawUTF8String(text, offset, length);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeUTF8String(
+    final byte[] text,
+    final int offset,
+    final int length)
+  {
+    this.countElements(1L);
+    super.writeUTF8String(text, offset, length);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeRaw(
+    final String text)
+  {
+    super.writeRaw(text);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeRaw(
+    final String text,
+    final int offset,
+    final int len)
+  {
+    super.writeRaw(text, offset, len);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeRaw(
+    final SerializableString raw)
+  {
+    super.writeRaw(raw);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeRaw(
+    final char[] text,
+    final int offset,
+    final int len)
+  {
+    super.writeRaw(text, offset, len);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeRaw(
+    final char c)
+  {
+    super.writeRaw(c);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeRawValue(
+    final String text)
+  {
+    this.countElements(1L);
+    super.writeRawValue(text);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeRawValue(
+    final String text,
+    final int offset,
+    final int len)
+  {
+    this.countElements(1L);
+    super.writeRawValue(text, offset, len);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeRawValue(
+    final char[] text,
+    final int offset,
+    final int len)
+  {
+    this.countElements(1L);
+    super.writeRawValue(text, offset, len);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeBinary(
+    final Base64Variant b64variant,
+    final byte[] data,
+    final int offset,
+    final int len)
+  {
+    this.countElements(1L);
+    super.writeBinary(b64variant, data, offset, len);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNumber(
+    final short v)
+  {
+    this.countElements(1L);
+    super.writeNumber(v);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNumber(
+    final int v)
+  {
+    this.countElements(1L);
+    super.writeNumber(v);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNumber(
+    final long v)
+  {
+    this.countElements(1L);
+    super.writeNumber(v);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNumber(
+    final BigInteger v)
+  {
+    this.countElements(1L);
+    super.writeNumber(v);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNumber(
+    final double v)
+  {
+    this.countElements(1L);
+    super.writeNumber(v);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNumber(
+    final float v)
+  {
+    this.countElements(1L);
+    super.writeNumber(v);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNumber(
+    final BigDecimal v)
+  {
+    this.countElements(1L);
+    super.writeNumber(v);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNumber(
+    final String encodedValue)
+  {
+    this.countElements(1L);
+    super.writeNumber(encodedValue);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNumber(
+    final char[] encodedValueBuffer,
+    final int offset,
+    final int len)
+  {
+    this.countElements(1L);
+    super.writeNumber(encodedValueBuffer, offset, len);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeBoolean(
+    final boolean state)
+  {
+    this.countElements(1L);
+    super.writeBoolean(state);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNull()
+  {
+    this.countElements(1L);
+    super.writeNull();
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeEmbeddedObject(
+    final Object object)
+  {
+    this.countElements(1L);
+    super.writeEmbeddedObject(object);
+    this.checkBytes();
+    return this;
+  }
+
+  @Override
+  public int writeBinary(
+    final Base64Variant b64variant,
+    final InputStream data,
+    final int dataLength)
+  {
+    this.countElements(1L);
+    final var written = super.writeBinary(b64variant, data, dataLength);
+    this.checkBytes();
+    return written;
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+/**
+ * The limits enforced by an output guard.
+ *
+ * @see DmJsonOutputGuard
+ * @since 3.2.0
+ */
+
+public enum DmJsonOutputLimit
+{
+  /**
+   * The number of bytes written. For outputs that consume characters rather
+   * than bytes, the length of the UTF-8 encoding of the characters is
+   * counted instead.
+   */
+
+  LIMIT_BYTES,
+
+  /**
+   * The number of elements written. Every scalar value, array, and object
+   * counts as one element; property names do not.
+   */
+
+  LIMIT_ELEMENTS,
+
+  /**
+   * The depth of nested arrays and objects.
+   */
+
+  LIMIT_DEPTH
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.exc.StreamWriteException;
+
+import java.util.Objects;
+
+/**
+ * An exception raised when serialization exceeds one of the limits of an
+ * output guard. The exception is raised as soon as the limit is exceeded,
+ * and so the output is incomplete.
+ *
+ * @see DmJsonOutputGuard
+ * @since 3.2.0
+ */
+
+public final class DmJsonOutputLimitExceededException
+  extends StreamWriteException
+{
+  private static final long serialVersionUID = 1L;
+
+  private final DmJsonOutputLimit limit;
+  private final long maximum;
+  private final long observed;
+
+  /**
+   * An exception raised when serialization exceeds a limit.
+   *
+   * @param generator  The generator
+   * @param inLimit    The limit that was exceeded
+   * @param inMaximum  The maximum value of the limit
+   * @param inObserved The value that exceeded the limit
+   */
+
+  public DmJsonOutputLimitExceededException(
+    final JsonGenerator generator,
+    final DmJsonOutputLimit inLimit,
+    final long inMaximum,
+    final long inObserved)
+  {
+    super(
+      generator,
+      "Output limit %s exceeded: %d > %d".formatted(
+        Objects.requireNonNull(inLimit, "limit"),
+        Long.valueOf(inObserved),
+        Long.valueOf(inMaximum)
+      )
+    );
+    this.limit = inLimit;
+    this.maximum = inMaximum;
+    this.observed = inObserved;
+  }
+
+  /**
+   * @return The limit that was exceeded
+   */
+
+  public DmJsonOutputLimit limit()
+  {
+    return this.limit;
+  }
+
+  /**
+   * @return The maximum value of the limit
+   */
+
+  public long maximum()
+  {
+    return this.maximum;
+  }
+
+  /**
+   * @return The value that exceeded the limit
+   */
+
+  public long observed()
+  {
+    return this.observed;
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+/**
+ * Statistics for the outputs written through an output guard. The largest
+ * values can be compared against the configured limits to see how close
+ * outputs come to being rejected.
+ *
+ * @param outputs         The number of outputs written
+ * @param exceeded        The number of outputs that exceeded a limit
+ * @param largestBytes    The largest number of bytes written to an output
+ * @param largestElements The largest number of elements written to an output
+ * @param deepest         The deepest nesting written to an output
+ *
+ * @see DmJsonOutputGuard
+ * @since 3.2.0
+ */
+
+public record DmJsonOutputStatistics(
+  long outputs,
+  long exceeded,
+  long largestBytes,
+  long largestElements,
+  int deepest)
+{
+
+}
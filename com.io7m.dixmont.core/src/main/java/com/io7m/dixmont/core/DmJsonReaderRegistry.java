@@ -0,0 +1,206 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.exc.MismatchedInputException;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>A registry of readers for a single mapper. Each registered type has
+ * its deserializer resolved when it is registered, and so types that are
+ * not allowed by a restricted mapper are rejected at registration time
+ * rather than on first use. The resulting readers are retained and handed
+ * out with a single lookup in an immutable map, without constructing any
+ * types or readers.</p>
+ *
+ * <p>Readers are keyed by their Java type, and so a reader registered
+ * with a {@link TypeReference} can be retrieved with any other
+ * {@link TypeReference} for the same type.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmJsonReaderRegistry
+{
+  private final ObjectMapper mapper;
+  private final Map<Type, ObjectReader> readers;
+
+  private DmJsonReaderRegistry(
+    final ObjectMapper inMapper,
+    final Map<Type, ObjectReader> inReaders)
+  {
+    this.mapper = Objects.requireNonNull(inMapper, "mapper");
+    this.readers = Objects.requireNonNull(inReaders, "readers");
+  }
+
+  /**
+   * Create a new registry builder for the given mapper.
+   *
+   * @param mapper The mapper
+   *
+   * @return The builder
+   */
+
+  public static DmJsonReaderRegistryBuilderType builder(
+    final ObjectMapper mapper)
+  {
+    return new Builder(mapper);
+  }
+
+  /**
+   * @return The mapper that created the readers
+   */
+
+  public ObjectMapper mapper()
+  {
+    return this.mapper;
+  }
+
+  /**
+   * @param type The type
+   *
+   * @return {@code true} if a reader is registered for the given type
+   */
+
+  public boolean isRegistered(
+    final Type type)
+  {
+    return this.readers.containsKey(type);
+  }
+
+  /**
+   * Retrieve the reader for the given type.
+   *
+   * @param type The type
+   *
+   * @return The reader
+   *
+   * @throws IllegalArgumentException If no reader is registered for the type
+   */
+
+  public ObjectReader reader(
+    final Type type)
+    throws IllegalArgumentException
+  {
+    final var reader = this.readers.get(type);
+    if (reader == null) {
+      throw new IllegalArgumentException(
+        String.format("No reader is registered for type %s", type)
+      );
+    }
+    return reader;
+  }
+
+  /**
+   * Retrieve the reader for the given class.
+   *
+   * @param clazz The class
+   *
+   * @return The reader
+   *
+   * @throws IllegalArgumentException If no reader is registered for the type
+   */
+
+  public ObjectReader reader(
+    final Class<?> clazz)
+    throws IllegalArgumentException
+  {
+    return this.reader((Type) clazz);
+  }
+
+  /**
+   * Retrieve the reader for the given type.
+   *
+   * @param type The type
+   *
+   * @return The reader
+   *
+   * @throws IllegalArgumentException If no reader is registered for the type
+   */
+
+  public ObjectReader reader(
+    final TypeReference<?> type)
+    throws IllegalArgumentException
+  {
+    return this.reader(type.getType());
+  }
+
+  private static final class Builder
+    implements DmJsonReaderRegistryBuilderType
+  {
+    private final ObjectMapper mapper;
+    private final HashMap<Type, ObjectReader> readers;
+
+    private Builder(
+      final ObjectMapper inMapper)
+    {
+      this.mapper = Objects.requireNonNull(inMapper, "mapper");
+      this.readers = new HashMap<>();
+    }
+
+    @Override
+    public DmJsonReaderRegistryBuilderType register(
+      final Type type)
+    {
+      Objects.requireNonNull(type, "type");
+      if (this.readers.containsKey(type)) {
+        return this;
+      }
+
+      /*
+       * Readers only prefetch their deserializers on a best-effort basis,
+       * and silently defer any failure to the first read. Reading a null
+       * value resolves the root deserializer before any input is consumed,
+       * and so surfaces the failure here, and leaves the deserializer in
+       * the mapper's cache for the retained reader to pick up. A type
+       * that merely rejects null values has nonetheless been resolved.
+       */
+
+      final var javaType = this.mapper.constructType(type);
+      try {
+        this.mapper.readerFor(javaType).readValue("null");
+      } catch (final MismatchedInputException e) {
+        // The deserializer was resolved, but does not accept null values.
+      } catch (final JacksonException | IllegalArgumentException e) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Values of type %s cannot be deserialized: %s",
+            javaType.toCanonical(),
+            e.getMessage()),
+          e
+        );
+      }
+
+      this.readers.put(type, this.mapper.readerFor(javaType));
+      return this;
+    }
+
+    @Override
+    public DmJsonReaderRegistry build()
+    {
+      return new DmJsonReaderRegistry(this.mapper, Map.copyOf(this.readers));
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+import tools.jackson.core.type.TypeReference;
+
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * A mutable builder for reader registries.
+ *
+ * @since 3.2.0
+ */
+
+@ProviderType
+public interface DmJsonReaderRegistryBuilderType
+{
+  /**
+   * Register a reader for the given type. The deserializer for the type is
+   * resolved immediately.
+   *
+   * @param type The type
+   *
+   * @return this
+   *
+   * @throws IllegalArgumentException If the mapper cannot deserialize the
+   *                                  type, or the type is not allowed
+   */
+
+  DmJsonReaderRegistryBuilderType register(Type type)
+    throws IllegalArgumentException;
+
+  /**
+   * Register a reader for the given class.
+   *
+   * @param clazz The class
+   *
+   * @return this
+   *
+   * @throws IllegalArgumentException If the mapper cannot deserialize the
+   *                                  type, or the type is not allowed
+   */
+
+  default DmJsonReaderRegistryBuilderType register(
+    final Class<?> clazz)
+    throws IllegalArgumentException
+  {
+    return this.register((Type) Objects.requireNonNull(clazz, "clazz"));
+  }
+
+  /**
+   * Register a reader for the given type.
+   *
+   * @param type The type
+   *
+   * @return this
+   *
+   * @throws IllegalArgumentException If the mapper cannot deserialize the
+   *                                  type, or the type is not allowed
+   */
+
+  default DmJsonReaderRegistryBuilderType register(
+    final TypeReference<?> type)
+    throws IllegalArgumentException
+  {
+    return this.register(Objects.requireNonNull(type, "type").getType());
+  }
+
+  /**
+   * @return A registry containing all the readers registered so far
+   */
+
+  DmJsonReaderRegistry build();
+}
@@ -0,0 +1,660 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.AnnotationIntrospector;
+import tools.jackson.databind.BeanDescription;
+import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.deser.std.StdDeserializer;
+import tools.jackson.databind.introspect.Annotated;
+import tools.jackson.databind.introspect.AnnotatedConstructor;
+import tools.jackson.databind.introspect.AnnotatedMember;
+import tools.jackson.databind.introspect.BeanPropertyDefinition;
+import tools.jackson.databind.jsontype.TypeDeserializer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A deserializer for record types that binds properties directly to the
+ * canonical constructor of the record using a precomputed method handle.
+ * Instances are only created for records that do not use any of the binding
+ * features that this deserializer does not implement; all other records are
+ * left to the standard bean deserializer.
+ */
+
+final class DmJsonRecordDeserializer extends StdDeserializer<Object>
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(DmJsonRecordDeserializer.class);
+
+  private static final Object MISSING = new Object();
+
+  private final MethodHandle constructor;
+  private final String[] names;
+  private final JavaType[] types;
+  private final boolean[] required;
+  private final PropertyTable table;
+  private final Set<String> ignored;
+  private final boolean ignoreUnknown;
+  private ValueDeserializer<Object>[] deserializers;
+  private TypeDeserializer[] typeDeserializers;
+
+  private DmJsonRecordDeserializer(
+    final JavaType inType,
+    final MethodHandle inConstructor,
+    final String[] inNames,
+    final JavaType[] inTypes,
+    final boolean[] inRequired,
+    final PropertyTable inTable,
+    final Set<String> inIgnored,
+    final boolean inIgnoreUnknown)
+  {
+    super(inType);
+
+    this.constructor =
+      Objects.requireNonNull(inConstructor, "constructor");
+    this.names =
+      Objects.requireNonNull(inNames, "names");
+    this.types =
+      Objects.requireNonNull(inTypes, "types");
+    this.required =
+      Objects.requireNonNull(inRequired, "required");
+    this.table =
+      Objects.requireNonNull(inTable, "table");
+    this.ignored =
+      Objects.requireNonNull(inIgnored, "ignored");
+    this.ignoreUnknown =
+      inIgnoreUnknown;
+  }
+
+  /**
+   * Try to create a record deserializer for the given type.
+   *
+   * @param type     The type
+   * @param config   The deserialization config
+   * @param beanDesc The bean description
+   *
+   * @return A deserializer, or {@code null} if the type is not a record
+   * that can be handled by this deserializer
+   */
+
+  static ValueDeserializer<?> create(
+    final JavaType type,
+    final DeserializationConfig config,
+    final BeanDescription.Supplier beanDesc)
+  {
+    final var clazz = type.getRawClass();
+    if (!clazz.isRecord() || clazz.getTypeParameters().length != 0) {
+      return null;
+    }
+    if (config.isEnabled(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)) {
+      return null;
+    }
+
+    final var description = beanDesc.get();
+    final var introspector = config.getAnnotationIntrospector();
+    final var components = clazz.getRecordComponents();
+    if (!isPlainRecord(config, introspector, description, components)) {
+      LOG.trace("{}: record uses unsupported binding features", clazz);
+      return null;
+    }
+
+    final var properties =
+      Properties.collect(config, introspector, description, components.length);
+    if (properties == null) {
+      LOG.trace("{}: record properties use unsupported features", clazz);
+      return null;
+    }
+
+    final PropertyTable table;
+    final MethodHandle constructor;
+    try {
+      table = PropertyTable.create(properties.names, properties.aliases);
+      constructor = canonicalConstructor(clazz, components);
+    } catch (final IllegalArgumentException
+                   | NoSuchMethodException
+                   | IllegalAccessException e) {
+      LOG.trace("{}: {}", clazz, e.getMessage());
+      return null;
+    }
+
+    final var ignorals =
+      config.getDefaultPropertyIgnorals(clazz, description.getClassInfo());
+
+    return new DmJsonRecordDeserializer(
+      type,
+      constructor,
+      properties.names,
+      properties.types,
+      properties.required,
+      table,
+      Set.copyOf(ignorals.findIgnoredForDeserialization()),
+      ignorals.getIgnoreUnknown()
+    );
+  }
+
+  private static MethodHandle canonicalConstructor(
+    final Class<?> clazz,
+    final RecordComponent[] components)
+    throws NoSuchMethodException, IllegalAccessException
+  {
+    final var parameterTypes = new Class<?>[components.length];
+    for (int index = 0; index < components.length; ++index) {
+      parameterTypes[index] = components[index].getType();
+    }
+
+    final var handle =
+      MethodHandles.publicLookup()
+        .unreflectConstructor(clazz.getConstructor(parameterTypes));
+
+    return handle.asSpreader(Object[].class, components.length)
+      .asType(MethodType.methodType(Object.class, Object[].class));
+  }
+
+  private static boolean isPlainRecord(
+    final DeserializationConfig config,
+    final AnnotationIntrospector introspector,
+    final BeanDescription description,
+    final RecordComponent[] components)
+  {
+    return !hasCustomClassHandling(config, introspector, description)
+           && !hasCustomAccessors(description)
+           && !hasCustomCreators(config, introspector, description, components);
+  }
+
+  private static boolean hasCustomClassHandling(
+    final DeserializationConfig config,
+    final AnnotationIntrospector introspector,
+    final BeanDescription description)
+  {
+    final var classInfo = description.getClassInfo();
+    if (introspector.findPOJOBuilder(config, classInfo) != null) {
+      return true;
+    }
+    if (introspector.findPolymorphicTypeInfo(config, classInfo) != null) {
+      return true;
+    }
+    return description.getObjectIdInfo() != null;
+  }
+
+  private static boolean hasCustomAccessors(
+    final BeanDescription description)
+  {
+    if (description.findAnySetterAccessor() != null) {
+      return true;
+    }
+    if (description.findJsonValueAccessor() != null) {
+      return true;
+    }
+    final var injectables = description.findInjectables();
+    if (injectables != null && !injectables.isEmpty()) {
+      return true;
+    }
+    final var backReferences = description.findBackReferences();
+    return backReferences != null && !backReferences.isEmpty();
+  }
+
+  private static boolean hasCustomCreators(
+    final DeserializationConfig config,
+    final AnnotationIntrospector introspector,
+    final BeanDescription description,
+    final RecordComponent[] components)
+  {
+    for (final var factory : description.getFactoryMethods()) {
+      if (introspector.findCreatorAnnotation(config, factory) != null) {
+        return true;
+      }
+    }
+
+    for (final var constructor : description.getConstructors()) {
+      final var mode =
+        introspector.findCreatorAnnotation(config, constructor);
+      if (mode == null) {
+        continue;
+      }
+      if (mode == JsonCreator.Mode.DELEGATING) {
+        return true;
+      }
+      if (!isCanonical(constructor, components)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isCanonical(
+    final AnnotatedConstructor constructor,
+    final RecordComponent[] components)
+  {
+    if (constructor.getParameterCount() != components.length) {
+      return false;
+    }
+    for (int index = 0; index < components.length; ++index) {
+      final var parameterType = constructor.getRawParameterType(index);
+      if (!parameterType.equals(components[index].getType())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasCustomHandling(
+    final DeserializationConfig config,
+    final AnnotationIntrospector introspector,
+    final BeanPropertyDefinition property)
+  {
+    final var members = new ArrayList<AnnotatedMember>(3);
+    members.add(property.getConstructorParameter());
+    if (property.hasField()) {
+      members.add(property.getField());
+    }
+    if (property.hasGetter()) {
+      members.add(property.getGetter());
+    }
+
+    for (final var member : members) {
+      if (hasCustomMemberHandling(config, introspector, member)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasCustomMemberHandling(
+    final DeserializationConfig config,
+    final AnnotationIntrospector introspector,
+    final AnnotatedMember member)
+  {
+    if (hasCustomValueHandling(config, introspector, member)) {
+      return true;
+    }
+    if (hasContextualAnnotations(config, introspector, member)) {
+      return true;
+    }
+    if (introspector.findUnwrappingNameTransformer(config, member) != null) {
+      return true;
+    }
+    if (introspector.findInjectableValue(config, member) != null) {
+      return true;
+    }
+    if (introspector.findPolymorphicTypeInfo(config, member) != null) {
+      return true;
+    }
+    if (introspector.findMergeInfo(config, member) != null) {
+      return true;
+    }
+    if (introspector.findViews(config, member) != null) {
+      return true;
+    }
+    return !JsonSetter.Value.empty()
+      .equals(introspector.findSetterInfo(config, member));
+  }
+
+  /*
+   * Component deserializers are resolved without a property, so any
+   * annotation that a deserializer would read from its property when
+   * contextualized must leave the record to the standard bean deserializer.
+   */
+
+  private static boolean hasContextualAnnotations(
+    final DeserializationConfig config,
+    final AnnotationIntrospector introspector,
+    final Annotated member)
+  {
+    final var format = introspector.findFormat(config, member);
+    if (format != null && !JsonFormat.Value.empty().equals(format)) {
+      return true;
+    }
+
+    final var ignorals = introspector.findPropertyIgnoralByName(config, member);
+    if (ignorals != null && !JsonIgnoreProperties.Value.empty().equals(ignorals)) {
+      return true;
+    }
+
+    final var inclusions = introspector.findPropertyInclusionByName(config, member);
+    return inclusions != null && !JsonIncludeProperties.Value.all().equals(inclusions);
+  }
+
+  private static boolean hasCustomValueHandling(
+    final DeserializationConfig config,
+    final AnnotationIntrospector introspector,
+    final Annotated member)
+  {
+    if (introspector.findDeserializer(config, member) != null) {
+      return true;
+    }
+    if (introspector.findContentDeserializer(config, member) != null) {
+      return true;
+    }
+    if (introspector.findKeyDeserializer(config, member) != null) {
+      return true;
+    }
+    return introspector.findDeserializationConverter(config, member) != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void resolve(
+    final DeserializationContext ctxt)
+  {
+    final var count = this.types.length;
+    final var newDeserializers = new ValueDeserializer[count];
+    final var newTypeDeserializers = new TypeDeserializer[count];
+
+    for (int index = 0; index < count; ++index) {
+      final var type = this.types[index];
+      newDeserializers[index] =
+        ctxt.findContextualValueDeserializer(type, null);
+      newTypeDeserializers[index] =
+        ctxt.findTypeDeserializer(type);
+    }
+
+    this.deserializers = newDeserializers;
+    this.typeDeserializers = newTypeDeserializers;
+  }
+
+  @Override
+  public boolean isCachable()
+  {
+    return true;
+  }
+
+  @Override
+  public Collection<Object> getKnownPropertyNames()
+  {
+    return List.of((Object[]) this.names);
+  }
+
+  @Override
+  public Object deserialize(
+    final JsonParser p,
+    final DeserializationContext ctxt)
+  {
+    String name;
+    if (p.isExpectedStartObjectToken()) {
+      name = p.nextName();
+    } else if (p.hasToken(JsonToken.PROPERTY_NAME)) {
+      name = p.currentName();
+    } else if (p.hasToken(JsonToken.END_OBJECT)) {
+      name = null;
+    } else {
+      return ctxt.handleUnexpectedToken(this.handledType(), p);
+    }
+
+    final var arguments = new Object[this.names.length];
+    Arrays.fill(arguments, MISSING);
+
+    while (name != null) {
+      p.nextToken();
+
+      final var index = this.table.indexOf(name);
+      if (index >= 0) {
+        arguments[index] = this.deserializeProperty(p, ctxt, index);
+      } else {
+        this.handleUnknown(p, ctxt, name);
+      }
+      name = p.nextName();
+    }
+
+    this.fillMissing(ctxt, arguments);
+
+    try {
+      return (Object) this.constructor.invokeExact(arguments);
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable e) {
+      return ctxt.handleInstantiationProblem(this.handledType(), arguments, e);
+    }
+  }
+
+  private Object deserializeProperty(
+    final JsonParser p,
+    final DeserializationContext ctxt,
+    final int index)
+  {
+    final var deserializer = this.deserializers[index];
+    if (p.hasToken(JsonToken.VALUE_NULL)) {
+      return deserializer.getNullValue(ctxt);
+    }
+
+    final var typeDeserializer = this.typeDeserializers[index];
+    if (typeDeserializer != null) {
+      return deserializer.deserializeWithType(p, ctxt, typeDeserializer);
+    }
+    return deserializer.deserialize(p, ctxt);
+  }
+
+  private void handleUnknown(
+    final JsonParser p,
+    final DeserializationContext ctxt,
+    final String name)
+  {
+    if (this.ignoreUnknown || this.ignored.contains(name)) {
+      p.skipChildren();
+      return;
+    }
+    ctxt.handleUnknownProperty(p, this, this.handledType(), name);
+  }
+
+  private void fillMissing(
+    final DeserializationContext ctxt,
+    final Object[] arguments)
+  {
+    final var failOnMissing =
+      ctxt.isEnabled(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES);
+    final var failOnNull =
+      ctxt.isEnabled(DeserializationFeature.FAIL_ON_NULL_CREATOR_PROPERTIES);
+
+    for (int index = 0; index < arguments.length; ++index) {
+      if (arguments[index] == MISSING) {
+        if (this.required[index] || failOnMissing) {
+          ctxt.reportInputMismatch(
+            this,
+            "Missing required creator property '%s' (index %d)",
+            this.names[index],
+            Integer.valueOf(index)
+          );
+        }
+        arguments[index] = this.deserializers[index].getAbsentValue(ctxt);
+      }
+
+      if (arguments[index] == null && failOnNull) {
+        ctxt.reportInputMismatch(
+          this,
+          "Null value for creator property '%s' (index %d)",
+          this.names[index],
+          Integer.valueOf(index)
+        );
+      }
+    }
+  }
+
+  /**
+   * The bound properties of a record, indexed by constructor argument.
+   */
+
+  private static final class Properties
+  {
+    private final String[] names;
+    private final JavaType[] types;
+    private final boolean[] required;
+    private final List<List<String>> aliases;
+
+    private Properties(
+      final int count)
+    {
+      this.names = new String[count];
+      this.types = new JavaType[count];
+      this.required = new boolean[count];
+      this.aliases = new ArrayList<>(count);
+      for (int index = 0; index < count; ++index) {
+        this.aliases.add(List.of());
+      }
+    }
+
+    static Properties collect(
+      final DeserializationConfig config,
+      final AnnotationIntrospector introspector,
+      final BeanDescription description,
+      final int count)
+    {
+      final var properties = new Properties(count);
+      for (final var property : description.findProperties()) {
+        if (!property.hasConstructorParameter()) {
+          continue;
+        }
+        if (hasCustomHandling(config, introspector, property)) {
+          return null;
+        }
+        if (!properties.add(property)) {
+          return null;
+        }
+      }
+
+      for (int index = 0; index < count; ++index) {
+        if (properties.names[index] == null) {
+          return null;
+        }
+      }
+      return properties;
+    }
+
+    private boolean add(
+      final BeanPropertyDefinition property)
+    {
+      final var parameter = property.getConstructorParameter();
+      final var index = parameter.getIndex();
+      if (index < 0 || index >= this.names.length) {
+        return false;
+      }
+      if (this.names[index] != null) {
+        return false;
+      }
+
+      this.names[index] = property.getName();
+      this.types[index] = parameter.getType();
+      this.required[index] = property.isRequired();
+
+      final var propertyAliases = new ArrayList<String>();
+      for (final var alias : property.findAliases()) {
+        propertyAliases.add(alias.getSimpleName());
+      }
+      this.aliases.set(index, List.copyOf(propertyAliases));
+      return true;
+    }
+  }
+
+  /**
+   * An open-addressed table mapping property names (and aliases) to
+   * constructor argument indices.
+   */
+
+  private static final class PropertyTable
+  {
+    private final String[] keys;
+    private final int[] values;
+    private final int mask;
+
+    private PropertyTable(
+      final String[] inKeys,
+      final int[] inValues)
+    {
+      this.keys = inKeys;
+      this.values = inValues;
+      this.mask = inKeys.length - 1;
+    }
+
+    static PropertyTable create(
+      final String[] names,
+      final List<List<String>> aliases)
+    {
+      var entries = names.length;
+      for (final var aliasList : aliases) {
+        entries += aliasList.size();
+      }
+
+      final var capacity =
+        Integer.highestOneBit(Math.max(2, entries * 2) - 1) << 1;
+      final var table =
+        new PropertyTable(new String[capacity], new int[capacity]);
+
+      for (int index = 0; index < names.length; ++index) {
+        table.put(names[index], index);
+        for (final var alias : aliases.get(index)) {
+          table.put(alias, index);
+        }
+      }
+      return table;
+    }
+
+    private void put(
+      final String name,
+      final int index)
+    {
+      var slot = name.hashCode() & this.mask;
+      while (this.keys[slot] != null) {
+        if (this.keys[slot].equals(name)) {
+          throw new IllegalArgumentException(
+            "Duplicate property name: %s".formatted(name)
+          );
+        }
+        slot = (slot + 1) & this.mask;
+      }
+      this.keys[slot] = name;
+      this.values[slot] = index;
+    }
+
+    int indexOf(
+      final String name)
+    {
+      var slot = name.hashCode() & this.mask;
+      while (true) {
+        final var key = this.keys[slot];
+        if (key == null) {
+          return -1;
+        }
+        if (key == name || key.equals(name)) {
+          return this.values[slot];
+        }
+        slot = (slot + 1) & this.mask;
+      }
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import tools.jackson.databind.BeanDescription;
+import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.deser.ValueDeserializerModifier;
+import tools.jackson.databind.deser.bean.BeanDeserializer;
+
+/**
+ * A deserializer modifier that replaces the standard bean deserializers of
+ * record types with record deserializers. Deserializers that were not
+ * produced by the standard bean deserializer factory (such as those
+ * registered by other modules) are never replaced.
+ */
+
+final class DmJsonRecordDeserializerModifier
+  extends ValueDeserializerModifier
+{
+  DmJsonRecordDeserializerModifier()
+  {
+
+  }
+
+  @Override
+  public ValueDeserializer<?> modifyDeserializer(
+    final DeserializationConfig config,
+    final BeanDescription.Supplier beanDesc,
+    final ValueDeserializer<?> deserializer)
+  {
+    if (deserializer.getClass() != BeanDeserializer.class) {
+      return deserializer;
+    }
+    if (!beanDesc.isRecordType()) {
+      return deserializer;
+    }
+
+    final var recordDeserializer =
+      DmJsonRecordDeserializer.create(beanDesc.getType(), config, beanDesc);
+    if (recordDeserializer == null) {
+      return deserializer;
+    }
+    return recordDeserializer;
+  }
+}
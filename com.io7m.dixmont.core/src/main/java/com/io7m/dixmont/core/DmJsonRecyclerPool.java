@@ -0,0 +1,292 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import tools.jackson.core.util.BufferRecycler;
+import tools.jackson.core.util.RecyclerPool;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>A buffer recycler pool suited to large numbers of short-lived
+ * threads, such as virtual threads.</p>
+ *
+ * <p>Thread-local pools do not work with virtual threads, as each thread
+ * has its own (empty) pool and so every parse allocates fresh buffers.
+ * Jackson's default deque pool is shared, but every thread contends on the
+ * head of a single deque, and the deque retains every recycler ever
+ * released to it. This pool instead divides a fixed number of slots into
+ * stripes, and threads acquire and release recyclers in the stripe selected
+ * by their thread ID, using only atomic compare-and-set operations. A
+ * recycler released when its stripe is full is discarded, and so the pool
+ * retains at most {@link #capacity()} recyclers.</p>
+ *
+ * @since 3.2.0
+ */
+
+public final class DmJsonRecyclerPool
+  implements RecyclerPool<BufferRecycler>
+{
+  /**
+   * The default number of slots in each stripe.
+   */
+
+  public static final int DEFAULT_SLOTS_PER_STRIPE = 4;
+
+  /**
+   * The maximum number of stripes.
+   */
+
+  public static final int MAXIMUM_STRIPES = 1 << 12;
+
+  /**
+   * The maximum number of slots in each stripe.
+   */
+
+  public static final int MAXIMUM_SLOTS_PER_STRIPE = 64;
+
+  private static final long serialVersionUID = 1L;
+
+  /*
+   * The slots of each stripe start on a separate cache line (assuming
+   * 64-byte lines and compressed references), so that threads working in
+   * different stripes do not contend.
+   */
+
+  private static final int STRIDE_ALIGNMENT = 16;
+
+  private static final DmJsonRecyclerPool SHARED =
+    create(defaultStripes(), DEFAULT_SLOTS_PER_STRIPE);
+
+  private final int stripes;
+  private final int slotsPerStripe;
+  private final transient int stripeBits;
+  private final transient int stride;
+  private final transient AtomicReferenceArray<BufferRecycler> slots;
+
+  private DmJsonRecyclerPool(
+    final int inStripes,
+    final int inSlotsPerStripe)
+  {
+    this.stripes = inStripes;
+    this.slotsPerStripe = inSlotsPerStripe;
+    this.stripeBits = Integer.numberOfTrailingZeros(inStripes);
+    this.stride =
+      (inSlotsPerStripe + STRIDE_ALIGNMENT - 1) & -STRIDE_ALIGNMENT;
+    this.slots =
+      new AtomicReferenceArray<>(inStripes * this.stride);
+  }
+
+  private static int defaultStripes()
+  {
+    final var processors = Runtime.getRuntime().availableProcessors();
+    return Math.min(
+      MAXIMUM_STRIPES,
+      Integer.highestOneBit(Math.max(1, processors * 2 - 1)) << 1
+    );
+  }
+
+  /**
+   * Create a new pool. The number of stripes is rounded up to the next
+   * power of two.
+   *
+   * @param stripes        The number of stripes
+   * @param slotsPerStripe The number of slots in each stripe
+   *
+   * @return A new pool
+   */
+
+  public static DmJsonRecyclerPool create(
+    final int stripes,
+    final int slotsPerStripe)
+  {
+    if (stripes < 1 || stripes > MAXIMUM_STRIPES) {
+      throw new IllegalArgumentException(
+        "Stripes %d must be in the range [1, %d]".formatted(
+          Integer.valueOf(stripes),
+          Integer.valueOf(MAXIMUM_STRIPES))
+      );
+    }
+    if (slotsPerStripe < 1 || slotsPerStripe > MAXIMUM_SLOTS_PER_STRIPE) {
+      throw new IllegalArgumentException(
+        "Slots per stripe %d must be in the range [1, %d]".formatted(
+          Integer.valueOf(slotsPerStripe),
+          Integer.valueOf(MAXIMUM_SLOTS_PER_STRIPE))
+      );
+    }
+
+    final var rounded =
+      Integer.highestOneBit(stripes) == stripes
+        ? stripes
+        : Integer.highestOneBit(stripes) << 1;
+
+    return new DmJsonRecyclerPool(rounded, slotsPerStripe);
+  }
+
+  /**
+   * The shared pool has twice as many stripes as there are processors
+   * (rounded up to a power of two), and {@link #DEFAULT_SLOTS_PER_STRIPE}
+   * slots per stripe.
+   *
+   * @return The shared pool
+   */
+
+  public static DmJsonRecyclerPool shared()
+  {
+    return SHARED;
+  }
+
+  /**
+   * @return The number of stripes
+   */
+
+  public int stripes()
+  {
+    return this.stripes;
+  }
+
+  /**
+   * @return The number of slots in each stripe
+   */
+
+  public int slotsPerStripe()
+  {
+    return this.slotsPerStripe;
+  }
+
+  /**
+   * @return The maximum number of recyclers that the pool retains
+   */
+
+  public int capacity()
+  {
+    return this.stripes * this.slotsPerStripe;
+  }
+
+  /*
+   * Select the first slot of the stripe for the current thread. Thread IDs
+   * are sequential, so they are mixed to spread neighbouring threads across
+   * stripes.
+   */
+
+  @SuppressWarnings("deprecation")
+  private int stripeBase()
+  {
+    if (this.stripeBits == 0) {
+      return 0;
+    }
+    final var id = Thread.currentThread().getId();
+    final var hash = (int) (id ^ (id >>> 32)) * 0x9e3779b9;
+    return (hash >>> (Integer.SIZE - this.stripeBits)) * this.stride;
+  }
+
+  private int nextBase(
+    final int base)
+  {
+    final var next = base + this.stride;
+    return next == this.slots.length() ? 0 : next;
+  }
+
+  private BufferRecycler takeFrom(
+    final int base)
+  {
+    for (int index = base; index < base + this.slotsPerStripe; ++index) {
+      final var recycler = this.slots.get(index);
+      if (recycler != null && this.slots.compareAndSet(index, recycler, null)) {
+        return recycler;
+      }
+    }
+    return null;
+  }
+
+  private boolean putInto(
+    final int base,
+    final BufferRecycler recycler)
+  {
+    for (int index = base; index < base + this.slotsPerStripe; ++index) {
+      if (this.slots.get(index) == null
+          && this.slots.compareAndSet(index, null, recycler)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /*
+   * Threads first try their own stripe, and then the stripe after it, so
+   * that a recycler released by one thread is likely to be found by another
+   * thread that happens to have a neighbouring stripe.
+   */
+
+  @Override
+  public BufferRecycler acquirePooled()
+  {
+    final var base = this.stripeBase();
+    var recycler = this.takeFrom(base);
+    if (recycler == null) {
+      recycler = this.takeFrom(this.nextBase(base));
+    }
+    return recycler == null ? new BufferRecycler() : recycler;
+  }
+
+  @Override
+  public void releasePooled(
+    final BufferRecycler recycler)
+  {
+    final var base = this.stripeBase();
+    if (!this.putInto(base, recycler)) {
+      this.putInto(this.nextBase(base), recycler);
+    }
+  }
+
+  @Override
+  public int pooledCount()
+  {
+    var count = 0;
+    for (int index = 0; index < this.slots.length(); ++index) {
+      if (this.slots.get(index) != null) {
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public boolean clear()
+  {
+    for (int index = 0; index < this.slots.length(); ++index) {
+      this.slots.set(index, null);
+    }
+    return true;
+  }
+
+  private Object readResolve()
+  {
+    return new DmJsonRecyclerPool(this.stripes, this.slotsPerStripe);
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "[DmJsonRecyclerPool stripes=%d slots=%d pooled=%d]",
+      Integer.valueOf(this.stripes),
+      Integer.valueOf(this.slotsPerStripe),
+      Integer.valueOf(this.pooledCount())
+    );
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+/**
+ * A fragment of an allowlist. Modules that know which of their own types
+ * may be deserialized can provide fragments as services, and restricted
+ * deserializers built with
+ * {@link DmJsonRestrictedDeserializerBuilderType#allowServiceLoaderFragments()}
+ * will merge every available fragment into their allowlist.
+ *
+ * @since 3.2.0
+ */
+
+public interface DmJsonRestrictedAllowlistFragmentType
+{
+  /**
+   * Contribute to an allowlist.
+   *
+   * @param allowlist The allowlist
+   */
+
+  void contribute(DmJsonRestrictedAllowlistType allowlist);
+}
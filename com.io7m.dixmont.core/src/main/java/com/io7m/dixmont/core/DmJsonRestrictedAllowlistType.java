@@ -0,0 +1,225 @@
+/*
+ * Copyright © 2021 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+/**
+ * An allowlist to which fragments contribute class names.
+ *
+ * @see DmJsonRestrictedAllowlistFragmentType
+ * @since 3.2.0
+ */
+
+@ProviderType
+public interface DmJsonRestrictedAllowlistType
+{
+  /**
+   * Allow access to the given class.
+   *
+   * @param clazz The class
+   *
+   * @return this
+   */
+
+  default DmJsonRestrictedAllowlistType allowClass(
+    final Class<?> clazz)
+  {
+    Objects.requireNonNull(clazz, "clazz");
+    return this.allowClassName(clazz.getCanonicalName());
+  }
+
+  /**
+   * Allow access to the given class name.
+   *
+   * @param name The class name
+   *
+   * @return this
+   */
+
+  DmJsonRestrictedAllowlistType allowClassName(String name);
+
+  /**
+   * Allow access to the given class names.
+   *
+   * @param names The class names
+   *
+   * @return this
+   */
+
+  default DmJsonRestrictedAllowlistType allowClassNames(
+    final Set<String> names)
+  {
+    for (final var name : names) {
+      this.allowClassName(name);
+    }
+    return this;
+  }
+
+  /**
+   * Allow access to the given classes.
+   *
+   * @param classes The classes
+   *
+   * @return this
+   */
+
+  default DmJsonRestrictedAllowlistType allowClasses(
+    final Set<Class<?>> classes)
+  {
+    for (final var clazz : classes) {
+      this.allowClass(clazz);
+    }
+    return this;
+  }
+
+  /**
+   * Allow access to optionals of the given class.
+   *
+   * @param clazz The class
+   *
+   * @return this
+   */
+
+  default DmJsonRestrictedAllowlistType allowOptionalOfClass(
+    final Class<?> clazz)
+  {
+    return this.allowClass(clazz)
+      .allowClassName(
+        "%s<%s>".formatted(
+          Optional.class.getCanonicalName(),
+          clazz.getCanonicalName()
+        )
+      );
+  }
+
+  /**
+   * Allow access to lists of the given class.
+   *
+   * @param clazz The class
+   *
+   * @return this
+   */
+
+  default DmJsonRestrictedAllowlistType allowListsOfClass(
+    final Class<?> clazz)
+  {
+    return this.allowClass(clazz)
+      .allowClassName(
+        "%s<%s>".formatted(
+          List.class.getCanonicalName(),
+          clazz.getCanonicalName()
+        )
+      );
+  }
+
+  /**
+   * Allow access to sets of the given class.
+   *
+   * @param clazz The class
+   *
+   * @return this
+   */
+
+  default DmJsonRestrictedAllowlistType allowSetsOfClass(
+    final Class<?> clazz)
+  {
+    return this.allowClass(clazz)
+      .allowClassName(
+        "%s<%s>".formatted(
+          Set.class.getCanonicalName(),
+          clazz.getCanonicalName()
+        )
+      );
+  }
+
+  /**
+   * Allow access to maps of the given key and value classes.
+   *
+   * @param keyClass   The key class
+   * @param valueClass The value class
+   *
+   * @return this
+   */
+
+  default DmJsonRestrictedAllowlistType allowMapsOfClass(
+    final Class<?> keyClass,
+    final Class<?> valueClass)
+  {
+    return this.allowClass(keyClass)
+      .allowClass(valueClass)
+      .allowClassName(
+        "%s<%s,%s>".formatted(
+          Map.class.getCanonicalName(),
+          keyClass.getCanonicalName(),
+          valueClass.getCanonicalName()
+        )
+      );
+  }
+
+  /**
+   * Allow access to sets of the given class.
+   *
+   * @param clazz The class
+   *
+   * @return this
+   */
+
+  default DmJsonRestrictedAllowlistType allowSortedSetsOfClass(
+    final Class<?> clazz)
+  {
+    return this.allowClass(clazz)
+      .allowClassName(
+        "%s<%s>".formatted(
+          SortedSet.class.getCanonicalName(),
+          clazz.getCanonicalName()
+        )
+      );
+  }
+
+  /**
+   * Allow access to maps of the given key and value classes.
+   *
+   * @param keyClass   The key class
+   * @param valueClass The value class
+   *
+   * @return this
+   */
+
+  default DmJsonRestrictedAllowlistType allowSortedMapsOfClass(
+    final Class<?> keyClass,
+    final Class<?> valueClass)
+  {
+    return this.allowClass(keyClass)
+      .allowClass(valueClass)
+      .allowClassName(
+        "%s<%s,%s>".formatted(
+          SortedMap.class.getCanonicalName(),
+          keyClass.getCanonicalName(),
+          valueClass.getCanonicalName()
+        )
+      );
+  }
+}
@@ -16,6 +16,8 @@
 
 package com.io7m.dixmont.core;
 
+import org.osgi.annotation.versioning.ProviderType;
+import tools.jackson.databind.JacksonModule;
 import tools.jackson.databind.module.SimpleDeserializers;
 
 import java.util.List;
@@ -30,6 +32,7 @@ import java.util.SortedSet;
  * A mutable builder for restricted deserializers.
  */
 
+@ProviderType
 public interface DmJsonRestrictedDeserializerBuilderType
 {
   /**
@@ -231,9 +234,91 @@ public interface DmJsonRestrictedDeserializerBuilderType
       );
   }
 
+  /**
+   * Allow access to the classes contributed by the given allowlist fragment.
+   * The fragment is not evaluated until the resulting deserializers are first
+   * asked to check a type.
+   *
+   * @param fragment The fragment
+   *
+   * @return this
+   *
+   * @since 3.2.0
+   */
+
+  DmJsonRestrictedDeserializerBuilderType allowFragment(
+    DmJsonRestrictedAllowlistFragmentType fragment);
+
+  /**
+   * Allow access to the classes contributed by all allowlist fragments
+   * available from {@link java.util.ServiceLoader}. Modules provide fragments
+   * by declaring {@code provides} clauses for
+   * {@link DmJsonRestrictedAllowlistFragmentType}. The fragments are not
+   * loaded until the resulting deserializers are first asked to check a type,
+   * but are always loaded using the context class loader of the thread that
+   * calls this method (or the class loader of this library, if the thread
+   * has no context class loader).
+   *
+   * @return this
+   *
+   * @since 3.2.0
+   */
+
+  DmJsonRestrictedDeserializerBuilderType allowServiceLoaderFragments();
+
+  /**
+   * Enable or disable the specialized record deserializers. When enabled,
+   * allowed record types are deserialized by binding properties directly to
+   * the canonical constructor of the record, bypassing the general bean
+   * deserializer. Records that use binding features that the specialized
+   * deserializers do not support (such as custom creators, polymorphic type
+   * information, or per-property deserializers) continue to use the bean
+   * deserializer, as do records for which other modules provide
+   * deserializers. Disabled by default. This setting only affects modules
+   * produced by {@link #buildModule()}.
+   *
+   * @param enabled {@code true} if record deserializers should be used
+   *
+   * @return this
+   *
+   * @since 3.2.0
+   */
+
+  DmJsonRestrictedDeserializerBuilderType setRecordDeserializersEnabled(
+    boolean enabled);
+
   /**
    * @return The simple deserializer
    */
 
   SimpleDeserializers build();
+
+  /**
+   * Build a module that installs the restricted deserializers produced by
+   * {@link #build()}, along with any supporting components enabled on this
+   * builder.
+   *
+   * @return The module
+   *
+   * @since 3.2.0
+   */
+
+  JacksonModule buildModule();
+
+  /**
+   * Build a filter that checks polymorphic type IDs against the allowlist
+   * given so far, as documents are parsed. The filter checks the values of
+   * the given type ID properties. Unlike {@link #build()}, this method does
+   * not reset the builder, and so it should be called before
+   * {@link #build()} or {@link #buildModule()} in order to share the same
+   * allowlist.
+   *
+   * @param properties The names of the properties that hold type IDs
+   *
+   * @return The filter
+   *
+   * @since 3.2.0
+   */
+
+  DmJsonRestrictedTypeIdFilter buildTypeIdFilter(Set<String> properties);
 }
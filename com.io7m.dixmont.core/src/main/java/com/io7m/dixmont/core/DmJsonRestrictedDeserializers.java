@@ -20,11 +20,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tools.jackson.databind.BeanDescription;
 import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.JacksonModule;
 import tools.jackson.databind.JavaType;
 import tools.jackson.databind.KeyDeserializer;
 import tools.jackson.databind.ValueDeserializer;
 import tools.jackson.databind.jsontype.TypeDeserializer;
 import tools.jackson.databind.module.SimpleDeserializers;
+import tools.jackson.databind.module.SimpleModule;
 import tools.jackson.databind.type.ArrayType;
 import tools.jackson.databind.type.CollectionLikeType;
 import tools.jackson.databind.type.CollectionType;
@@ -32,9 +34,12 @@ import tools.jackson.databind.type.MapLikeType;
 import tools.jackson.databind.type.MapType;
 import tools.jackson.databind.type.ReferenceType;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A restricted serializer that only allows deserializing values from a fixed
@@ -46,13 +51,22 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
   private static final Logger LOG =
     LoggerFactory.getLogger(DmJsonRestrictedDeserializers.class);
 
-  private final Set<String> allowClasses;
+  private final DmJsonRestrictedPolicy policy;
+  private final Set<JavaType> allowedCanonical;
+  private final Set<Class<?>> allowedRaw;
+  private final Set<JavaType> allowedTypeNames;
 
   private DmJsonRestrictedDeserializers(
-    final Set<String> inAllowClasses)
+    final DmJsonRestrictedPolicy inPolicy)
   {
-    this.allowClasses =
-      Objects.requireNonNull(inAllowClasses, "allowClasses");
+    this.policy =
+      Objects.requireNonNull(inPolicy, "policy");
+    this.allowedCanonical =
+      ConcurrentHashMap.newKeySet();
+    this.allowedRaw =
+      ConcurrentHashMap.newKeySet();
+    this.allowedTypeNames =
+      ConcurrentHashMap.newKeySet();
   }
 
   /**
@@ -66,12 +80,50 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
     return new Builder();
   }
 
+  /*
+   * Types that have passed a check are remembered, so that repeated checks
+   * of the same type do not need to compute (and allocate) the type name.
+   * The caches can only ever contain types whose names are in the allowlist.
+   * Types are cached separately for each naming scheme used by the checks;
+   * bean types are checked by raw class name and so are cached by raw class,
+   * as caching arbitrary parameterizations of an allowed class would allow
+   * the cache to grow without bound.
+   */
+
+  private void checkAllowedCanonical(
+    final JavaType type)
+  {
+    if (!this.allowedCanonical.contains(type)) {
+      this.checkAllowed(type.toCanonical());
+      this.allowedCanonical.add(type);
+    }
+  }
+
+  private void checkAllowedRaw(
+    final JavaType type)
+  {
+    final var clazz = type.getRawClass();
+    if (!this.allowedRaw.contains(clazz)) {
+      this.checkAllowed(clazz.getCanonicalName());
+      this.allowedRaw.add(clazz);
+    }
+  }
+
+  private void checkAllowedTypeName(
+    final JavaType type)
+  {
+    if (!this.allowedTypeNames.contains(type)) {
+      this.checkAllowed(type.getTypeName());
+      this.allowedTypeNames.add(type);
+    }
+  }
+
   private void checkAllowed(
     final String name)
   {
     LOG.trace("checkAllowed: {}", name);
 
-    if (!this.allowClasses.contains(name)) {
+    if (!this.policy.isAllowed(name)) {
       throw new IllegalArgumentException(
         String.format("Deserializing a value of type %s is not allowed", name)
       );
@@ -86,7 +138,7 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
     final TypeDeserializer elementTypeDeserializer,
     final ValueDeserializer<?> elementDeserializer)
   {
-    this.checkAllowed(type.toCanonical());
+    this.checkAllowedCanonical(type);
     return super.findArrayDeserializer(
       type,
       config,
@@ -101,7 +153,7 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
     final DeserializationConfig config,
     final BeanDescription.Supplier beanDesc)
   {
-    this.checkAllowed(type.getRawClass().getCanonicalName());
+    this.checkAllowedRaw(type);
     return super.findBeanDeserializer(type, config, beanDesc);
   }
 
@@ -113,7 +165,7 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
     final TypeDeserializer elementTypeDeserializer,
     final ValueDeserializer<?> elementDeserializer)
   {
-    this.checkAllowed(type.toCanonical());
+    this.checkAllowedCanonical(type);
     return super.findCollectionDeserializer(
       type,
       config,
@@ -130,7 +182,7 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
     final TypeDeserializer elementTypeDeserializer,
     final ValueDeserializer<?> elementDeserializer)
   {
-    this.checkAllowed(type.toCanonical());
+    this.checkAllowedCanonical(type);
     return super.findCollectionLikeDeserializer(
       type,
       config,
@@ -145,7 +197,7 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
     final DeserializationConfig config,
     final BeanDescription.Supplier beanDesc)
   {
-    this.checkAllowed(type.toCanonical());
+    this.checkAllowedCanonical(type);
     return super.findEnumDeserializer(type, config, beanDesc);
   }
 
@@ -155,7 +207,7 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
     final DeserializationConfig config,
     final BeanDescription.Supplier beanDesc)
   {
-    this.checkAllowed(nodeType.getTypeName());
+    this.checkAllowedTypeName(nodeType);
     return super.findTreeNodeDeserializer(nodeType, config, beanDesc);
   }
 
@@ -167,7 +219,7 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
     final TypeDeserializer contentTypeDeserializer,
     final ValueDeserializer<?> contentDeserializer)
   {
-    this.checkAllowed(refType.toCanonical());
+    this.checkAllowedCanonical(refType);
     return super.findReferenceDeserializer(
       refType,
       config,
@@ -185,7 +237,7 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
     final TypeDeserializer elementTypeDeserializer,
     final ValueDeserializer<?> elementDeserializer)
   {
-    this.checkAllowed(type.toCanonical());
+    this.checkAllowedCanonical(type);
     return super.findMapDeserializer(
       type,
       config,
@@ -204,7 +256,7 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
     final TypeDeserializer elementTypeDeserializer,
     final ValueDeserializer<?> elementDeserializer)
   {
-    this.checkAllowed(type.toCanonical());
+    this.checkAllowedCanonical(type);
     return super.findMapLikeDeserializer(
       type,
       config,
@@ -218,10 +270,42 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
     implements DmJsonRestrictedDeserializerBuilderType
   {
     private final HashSet<String> allowClasses;
+    private final ArrayList<DmJsonRestrictedAllowlistFragmentType> fragments;
+    private boolean recordDeserializers;
+    private ClassLoader serviceLoader;
 
     private Builder()
     {
       this.allowClasses = new HashSet<>();
+      this.fragments = new ArrayList<>();
+    }
+
+    @Override
+    public DmJsonRestrictedDeserializerBuilderType allowFragment(
+      final DmJsonRestrictedAllowlistFragmentType fragment)
+    {
+      Objects.requireNonNull(fragment, "fragment");
+      this.fragments.add(fragment);
+      return this;
+    }
+
+    @Override
+    public DmJsonRestrictedDeserializerBuilderType allowServiceLoaderFragments()
+    {
+      final var context = Thread.currentThread().getContextClassLoader();
+      this.serviceLoader =
+        context != null
+          ? context
+          : DmJsonRestrictedDeserializers.class.getClassLoader();
+      return this;
+    }
+
+    @Override
+    public DmJsonRestrictedDeserializerBuilderType setRecordDeserializersEnabled(
+      final boolean enabled)
+    {
+      this.recordDeserializers = enabled;
+      return this;
     }
 
     @Override
@@ -233,12 +317,44 @@ public final class DmJsonRestrictedDeserializers extends SimpleDeserializers
       return this;
     }
 
+    private DmJsonRestrictedPolicy policy()
+    {
+      return new DmJsonRestrictedPolicy(
+        Set.copyOf(this.allowClasses),
+        List.copyOf(this.fragments),
+        this.serviceLoader
+      );
+    }
+
+    @Override
+    public DmJsonRestrictedTypeIdFilter buildTypeIdFilter(
+      final Set<String> properties)
+    {
+      Objects.requireNonNull(properties, "properties");
+      return new DmJsonRestrictedTypeIdFilter(this.policy(), properties);
+    }
+
     @Override
     public SimpleDeserializers build()
     {
-      final var copyAllowClasses = Set.copyOf(this.allowClasses);
+      final var policy = this.policy();
+
       this.allowClasses.clear();
-      return new DmJsonRestrictedDeserializers(copyAllowClasses);
+      this.fragments.clear();
+      this.serviceLoader = null;
+      this.recordDeserializers = false;
+      return new DmJsonRestrictedDeserializers(policy);
+    }
+
+    @Override
+    public JacksonModule buildModule()
+    {
+      final var module = new SimpleModule();
+      if (this.recordDeserializers) {
+        module.setDeserializerModifier(new DmJsonRecordDeserializerModifier());
+      }
+      module.setDeserializers(this.build());
+      return module;
     }
   }
 }
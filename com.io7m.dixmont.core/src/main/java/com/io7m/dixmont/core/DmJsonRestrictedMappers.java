@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import tools.jackson.core.json.JsonFactory;
+import tools.jackson.core.util.BufferRecycler;
+import tools.jackson.core.util.RecyclerPool;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Objects;
+
+/**
+ * Functions to create mappers that use restricted deserializers and a
+ * {@link DmJsonRecyclerPool}.
+ *
+ * @since 3.2.0
+ */
+
+public final class DmJsonRestrictedMappers
+{
+  private DmJsonRestrictedMappers()
+  {
+
+  }
+
+  /**
+   * Create a mapper builder that uses the shared recycler pool, with a
+   * restricted deserializer module built from the given builder. Further
+   * modules (such as the color module) may be added to the returned
+   * builder.
+   *
+   * @param deserializers The restricted deserializer builder
+   *
+   * @return A mapper builder
+   *
+   * @see DmJsonRecyclerPool#shared()
+   */
+
+  public static JsonMapper.Builder builder(
+    final DmJsonRestrictedDeserializerBuilderType deserializers)
+  {
+    return builder(deserializers, DmJsonRecyclerPool.shared());
+  }
+
+  /**
+   * Create a mapper builder that uses the given recycler pool, with a
+   * restricted deserializer module built from the given builder.
+   *
+   * @param deserializers The restricted deserializer builder
+   * @param pool          The recycler pool
+   *
+   * @return A mapper builder
+   */
+
+  public static JsonMapper.Builder builder(
+    final DmJsonRestrictedDeserializerBuilderType deserializers,
+    final RecyclerPool<BufferRecycler> pool)
+  {
+    Objects.requireNonNull(deserializers, "deserializers");
+    Objects.requireNonNull(pool, "pool");
+
+    final var factory =
+      JsonFactory.builder()
+        .recyclerPool(pool)
+        .build();
+
+    return JsonMapper.builder(factory)
+      .addModule(deserializers.buildModule());
+  }
+}
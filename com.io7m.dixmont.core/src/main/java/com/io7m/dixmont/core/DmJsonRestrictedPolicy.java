@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The set of allowed class names for a restricted deserializer. The set is
+ * the union of the names given directly to the builder, and the names
+ * contributed by any allowlist fragments. Fragments are not evaluated until
+ * the first time the policy is consulted, at which point all names are
+ * merged into a single immutable set. Service loader fragments are loaded
+ * using the class loader captured when the builder requested them (a
+ * {@code null} loader means that no service loader fragments are used), so
+ * the result does not depend on which thread consults the policy first.
+ */
+
+final class DmJsonRestrictedPolicy
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(DmJsonRestrictedPolicy.class);
+
+  private final ReentrantLock lock;
+  private final Set<String> names;
+  private final List<DmJsonRestrictedAllowlistFragmentType> fragments;
+  private final ClassLoader serviceLoader;
+  private volatile Set<String> merged;
+
+  DmJsonRestrictedPolicy(
+    final Set<String> inNames,
+    final List<DmJsonRestrictedAllowlistFragmentType> inFragments,
+    final ClassLoader inServiceLoader)
+  {
+    this.names =
+      Objects.requireNonNull(inNames, "names");
+    this.fragments =
+      Objects.requireNonNull(inFragments, "fragments");
+    this.serviceLoader =
+      inServiceLoader;
+    this.lock =
+      new ReentrantLock();
+
+    if (this.fragments.isEmpty() && this.serviceLoader == null) {
+      this.merged = this.names;
+    }
+  }
+
+  /**
+   * @param name The class name
+   *
+   * @return {@code true} if the given class name is allowed
+   */
+
+  boolean isAllowed(
+    final String name)
+  {
+    return this.allowed().contains(name);
+  }
+
+  private Set<String> allowed()
+  {
+    final var current = this.merged;
+    if (current != null) {
+      return current;
+    }
+
+    this.lock.lock();
+    try {
+      if (this.merged == null) {
+        this.merged = this.merge();
+      }
+      return this.merged;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private Set<String> merge()
+  {
+    final var collector = new Collector(this.names);
+    for (final var fragment : this.fragments) {
+      collector.contributeFrom(fragment);
+    }
+
+    if (this.serviceLoader != null) {
+      final var loader =
+        ServiceLoader.load(
+          DmJsonRestrictedAllowlistFragmentType.class,
+          this.serviceLoader
+        );
+      for (final var fragment : loader) {
+        collector.contributeFrom(fragment);
+      }
+    }
+
+    final var result = Set.copyOf(collector.names);
+    LOG.debug(
+      "merged allowlist: {} names, {} from fragments",
+      Integer.valueOf(result.size()),
+      Integer.valueOf(result.size() - this.names.size())
+    );
+    return result;
+  }
+
+  /**
+   * An allowlist that collects the names contributed by fragments. Names
+   * that are already present are not added again, and so each distinct name
+   * is retained exactly once.
+   */
+
+  private static final class Collector
+    implements DmJsonRestrictedAllowlistType
+  {
+    private final HashSet<String> names;
+
+    Collector(
+      final Set<String> inNames)
+    {
+      this.names = new HashSet<>(inNames);
+    }
+
+    void contributeFrom(
+      final DmJsonRestrictedAllowlistFragmentType fragment)
+    {
+      LOG.debug("loading allowlist fragment {}", fragment.getClass());
+      fragment.contribute(this);
+    }
+
+    @Override
+    public DmJsonRestrictedAllowlistType allowClassName(
+      final String name)
+    {
+      Objects.requireNonNull(name, "name");
+      this.names.add(name);
+      return this;
+    }
+  }
+}
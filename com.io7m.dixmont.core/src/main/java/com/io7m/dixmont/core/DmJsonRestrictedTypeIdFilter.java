@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.exc.InvalidTypeIdException;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>A filter that checks polymorphic type IDs against the allowlist of a
+ * restricted deserializer as the tokens of a document are read.</p>
+ *
+ * <p>Without the filter, a disallowed type ID is only detected once Jackson
+ * has buffered the tokens of the value and started to resolve
+ * deserializers for it. A parser wrapped by {@link #filter(JsonParser)}
+ * inspects the values of the configured type ID properties (such as
+ * {@code @class}) as they are read, and raises
+ * {@link InvalidTypeIdException} as soon as a type ID is not in the
+ * allowlist, before any further tokens are read.</p>
+ *
+ * <p>Type IDs are checked as class names, with the {@code $} separators of
+ * nested class names replaced by {@code .} so that they match canonical
+ * names. Logical type names (as used with {@code JsonTypeInfo.Id.NAME}) can
+ * be allowed by adding them to the allowlist with
+ * {@link DmJsonRestrictedDeserializerBuilderType#allowClassName(String)}.</p>
+ *
+ * @see DmJsonRestrictedDeserializerBuilderType#buildTypeIdFilter(Set)
+ * @since 3.2.0
+ */
+
+public final class DmJsonRestrictedTypeIdFilter
+{
+  private final DmJsonRestrictedPolicy policy;
+  private final Set<String> properties;
+
+  DmJsonRestrictedTypeIdFilter(
+    final DmJsonRestrictedPolicy inPolicy,
+    final Set<String> inProperties)
+  {
+    this.policy = Objects.requireNonNull(inPolicy, "policy");
+    this.properties = Set.copyOf(inProperties);
+  }
+
+  /**
+   * @return The names of the properties that hold type IDs
+   */
+
+  public Set<String> properties()
+  {
+    return this.properties;
+  }
+
+  /**
+   * Wrap the given parser so that type IDs are checked as they are read.
+   *
+   * @param parser The parser
+   *
+   * @return The filtering parser
+   */
+
+  public JsonParser filter(
+    final JsonParser parser)
+  {
+    return new DmJsonRestrictedTypeIdParser(
+      Objects.requireNonNull(parser, "parser"),
+      this
+    );
+  }
+
+  boolean isTypeIdProperty(
+    final String name)
+  {
+    return this.properties.contains(name);
+  }
+
+  void check(
+    final JsonParser parser,
+    final String typeId)
+  {
+    final var name = typeId.replace('$', '.');
+    if (!this.policy.isAllowed(name)) {
+      throw InvalidTypeIdException.from(
+        parser,
+        String.format("Type ID %s is not allowed", typeId),
+        null,
+        typeId
+      );
+    }
+  }
+}
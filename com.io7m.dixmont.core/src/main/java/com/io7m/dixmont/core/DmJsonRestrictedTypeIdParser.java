@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.core;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.sym.PropertyNameMatcher;
+import tools.jackson.core.util.JsonParserDelegate;
+
+/**
+ * A parser that checks type IDs as they are read. Every method that
+ * advances the parser is routed through {@link #observe(JsonToken)}, which
+ * notes when a type ID property name has been read, and checks the string
+ * value that follows it.
+ */
+
+final class DmJsonRestrictedTypeIdParser extends JsonParserDelegate
+{
+  private final DmJsonRestrictedTypeIdFilter filter;
+  private boolean typeIdPending;
+
+  DmJsonRestrictedTypeIdParser(
+    final JsonParser inDelegate,
+    final DmJsonRestrictedTypeIdFilter inFilter)
+  {
+    super(inDelegate);
+    this.filter = inFilter;
+  }
+
+  private void observe(
+    final JsonToken token)
+  {
+    if (token == JsonToken.PROPERTY_NAME) {
+      this.typeIdPending =
+        this.filter.isTypeIdProperty(this.delegate.currentName());
+      return;
+    }
+
+    if (this.typeIdPending) {
+      this.typeIdPending = false;
+      if (token == JsonToken.VALUE_STRING) {
+        this.filter.check(this, this.delegate.getString());
+      }
+    }
+  }
+
+  @Override
+  public JsonToken nextToken()
+  {
+    final var token = this.delegate.nextToken();
+    this.observe(token);
+    return token;
+  }
+
+  @Override
+  public JsonToken nextValue()
+  {
+    final var token = this.nextToken();
+    if (token == JsonToken.PROPERTY_NAME) {
+      return this.nextToken();
+    }
+    return token;
+  }
+
+  @Override
+  public String nextName()
+  {
+    final var name = this.delegate.nextName();
+    this.observe(this.delegate.currentToken());
+    return name;
+  }
+
+  @Override
+  public boolean nextName(
+    final SerializableString str)
+  {
+    final var matched = this.delegate.nextName(str);
+    this.observe(this.delegate.currentToken());
+    return matched;
+  }
+
+  @Override
+  public int nextNameMatch(
+    final PropertyNameMatcher matcher)
+  {
+    final var match = this.delegate.nextNameMatch(matcher);
+    this.observe(this.delegate.currentToken());
+    return match;
+  }
+}
@@ -23,9 +23,12 @@ module com.io7m.dixmont.core
   requires static org.osgi.annotation.bundle;
   requires static org.osgi.annotation.versioning;
 
+  requires com.fasterxml.jackson.annotation;
   requires tools.jackson.core;
   requires tools.jackson.databind;
   requires org.slf4j;
 
+  uses com.io7m.dixmont.core.DmJsonRestrictedAllowlistFragmentType;
+
   exports com.io7m.dixmont.core;
 }
\ No newline at end of file
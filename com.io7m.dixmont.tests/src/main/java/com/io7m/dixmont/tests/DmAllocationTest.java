@@ -0,0 +1,732 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import ch.qos.logback.classic.Level;
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorAccumulator;
+import com.io7m.dixmont.colors.DmColorArray;
+import com.io7m.dixmont.colors.DmColorBatch;
+import com.io7m.dixmont.colors.DmColorCache;
+import com.io7m.dixmont.colors.DmColorCacheEviction;
+import com.io7m.dixmont.colors.DmColorHistogram;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.colors.DmColorRaster;
+import com.io7m.dixmont.colors.DmColorSpaces;
+import com.io7m.dixmont.colors.DmPalette;
+import com.io7m.dixmont.colors.DmPaletteDistance;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allocation regression tests for the hot paths. Each test measures the
+ * number of bytes allocated per operation (or per element) in the steady
+ * state, and fails if the number exceeds a fixed bound. The bounds are
+ * deliberately tight; a test failing here usually means that something on a
+ * hot path has started allocating again.
+ */
+
+public final class DmAllocationTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(DmAllocationTest.class);
+
+  private static final int WARMUP = 20_000;
+  private static final int ITERATIONS = 100_000;
+  private static final int ELEMENTS = 100_000;
+
+  /**
+   * The bound for a repeated restricted type check.
+   */
+
+  private static final double BOUND_RESTRICTED_CHECK = 1.0;
+
+  /**
+   * The bound for reading one color from a large array. This covers the
+   * color itself (40 bytes), a slot in the result array, and the
+   * deserializer's temporary storage. Parsing the color text must not
+   * allocate.
+   */
+
+  private static final double BOUND_COLOR_READ = 64.0;
+
+  /**
+   * The bound for reading one color from a large array of colors drawn from
+   * a small palette, with a color cache. This covers a slot in the result
+   * array, the deserializer's temporary storage, and the occasional color
+   * that is not cached.
+   */
+
+  private static final double BOUND_COLOR_READ_CACHED = 16.0;
+
+  /**
+   * The bound for reading one color into a color array. This covers the
+   * packed storage, including the spare capacity left by growing it.
+   */
+
+  private static final double BOUND_COLOR_ARRAY_READ = 16.0;
+
+  /**
+   * The bound for writing one color from a color array.
+   */
+
+  private static final double BOUND_COLOR_ARRAY_WRITE = 1.0;
+
+  /**
+   * The bound for applying a chain of operations to one color.
+   */
+
+  private static final double BOUND_COLOR_ACCUMULATOR = 1.0;
+
+  /**
+   * The bound for reading or writing one pixel of a raster.
+   */
+
+  private static final double BOUND_COLOR_RASTER = 1.0;
+
+  /**
+   * The bound for converting one color in a buffer between color spaces.
+   */
+
+  private static final double BOUND_COLOR_SPACE = 1.0;
+
+  /**
+   * The bound for finding the nearest palette entry for one color.
+   */
+
+  private static final double BOUND_PALETTE_QUERY = 1.0;
+
+  /**
+   * The bound for counting one color in a histogram.
+   */
+
+  private static final double BOUND_COLOR_HISTOGRAM = 1.0;
+
+  /**
+   * The bound for writing one color into a large array. This covers the
+   * serializer's seven-character temporary buffer (32 bytes), which the
+   * compiler does not always eliminate.
+   */
+
+  private static final double BOUND_COLOR_WRITE = 40.0;
+
+  /**
+   * The bound for writing one color as a map key, once its name has been
+   * encoded. The key serializer allocates nothing, but the measurement
+   * occasionally includes a few hundred kilobytes allocated elsewhere in
+   * the serialization machinery during a run.
+   */
+
+  private static final double BOUND_COLOR_KEY_WRITE = 4.0;
+
+  /**
+   * The bound for reading one integer from a large array. This covers the
+   * array element and the deserializer's temporary storage.
+   */
+
+  private static final double BOUND_INT_READ = 16.0;
+
+  private Level savedLevel;
+
+  private static ch.qos.logback.classic.Logger restrictedLogger()
+  {
+    return (ch.qos.logback.classic.Logger)
+      LoggerFactory.getLogger(DmJsonRestrictedDeserializers.class);
+  }
+
+  /*
+   * Trace logging allocates, and the test suite enables trace logging
+   * globally.
+   */
+
+  @BeforeEach
+  public void setup()
+  {
+    this.savedLevel = restrictedLogger().getLevel();
+    restrictedLogger().setLevel(Level.INFO);
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    restrictedLogger().setLevel(this.savedLevel);
+  }
+
+  private static ObjectMapper colorMapper()
+  {
+    return colorMapper(DmColorModule.create());
+  }
+
+  private static ObjectMapper colorMapper(
+    final JacksonModule colorModule)
+  {
+    final var module =
+      DmJsonRestrictedDeserializers.builder()
+        .allowClass(DmColor.class)
+        .allowClass(int.class)
+        .allowClass(DmColorArray.class)
+        .allowClass(DmColorRaster.class)
+        .allowClassName(DmColor[].class.getName())
+        .allowClassName(int[].class.getName())
+        .allowListsOfClass(DmColor.class)
+        .allowMapsOfClass(String.class, Integer.class)
+        .buildModule();
+
+    return JsonMapper.builder()
+      .addModule(colorModule)
+      .addModule(module)
+      .build();
+  }
+
+  private static DmColor[] colors()
+  {
+    final var colors = new DmColor[ELEMENTS];
+    for (int index = 0; index < ELEMENTS; ++index) {
+      colors[index] = new DmColor(
+        (double) (index & 0xff) / 255.0,
+        (double) ((index >> 8) & 0xff) / 255.0,
+        (double) ((index >> 16) & 0xff) / 255.0
+      );
+    }
+    return colors;
+  }
+
+  private static DmColor[] paletteColors()
+  {
+    final var colors = new DmColor[ELEMENTS];
+    for (int index = 0; index < ELEMENTS; ++index) {
+      final var entry = (index * 7) & 0xff;
+      colors[index] = new DmColor(
+        (double) entry / 255.0,
+        (double) (255 - entry) / 255.0,
+        (double) ((entry * 3) & 0xff) / 255.0
+      );
+    }
+    return colors;
+  }
+
+  private static void checkBound(
+    final String name,
+    final double bound,
+    final double measured)
+  {
+    LOG.info("{}: {} bytes (bound {})", name, measured, bound);
+    assertTrue(
+      measured <= bound,
+      "%s: %f bytes exceeds bound of %f bytes".formatted(name, measured, bound)
+    );
+  }
+
+  /**
+   * Repeated checks of already-allowed types do not allocate.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRestrictedCheckCached()
+    throws Exception
+  {
+    final var deserializers =
+      DmJsonRestrictedDeserializers.builder()
+        .allowClass(Integer.class)
+        .allowClass(String.class)
+        .allowListsOfClass(Integer.class)
+        .allowMapsOfClass(String.class, Integer.class)
+        .build();
+
+    final var mapper =
+      JsonMapper.builder().build();
+    final var config =
+      mapper.deserializationConfig();
+    final var types =
+      mapper.getTypeFactory();
+
+    final var listType =
+      types.constructCollectionType(List.class, Integer.class);
+    final var mapType =
+      types.constructMapType(Map.class, String.class, Integer.class);
+    final var beanType =
+      types.constructType(Integer.class);
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(WARMUP, ITERATIONS, () -> {
+        deserializers.findCollectionDeserializer(
+          listType, config, null, null, null);
+        deserializers.findMapDeserializer(
+          mapType, config, null, null, null, null);
+        deserializers.findBeanDeserializer(
+          beanType, config, null);
+      });
+
+    checkBound("restricted check", BOUND_RESTRICTED_CHECK, bytes);
+  }
+
+  /**
+   * Reading colors allocates a bounded number of bytes per color.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorArrayRead()
+    throws Exception
+  {
+    final var mapper = colorMapper();
+    final var text = mapper.writeValueAsBytes(colors());
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        mapper.readValue(text, DmColor[].class);
+      });
+
+    checkBound("color read", BOUND_COLOR_READ, bytes / ELEMENTS);
+  }
+
+  /**
+   * Reading cached colors allocates nothing for the colors themselves.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorArrayReadCached()
+    throws Exception
+  {
+    final var cache =
+      DmColorCache.create(1024, DmColorCacheEviction.EVICTION_REPLACE);
+    final var mapper =
+      colorMapper(DmColorModule.create(cache));
+    final var text =
+      mapper.writeValueAsBytes(paletteColors());
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        mapper.readValue(text, DmColor[].class);
+      });
+
+    LOG.info("{}", cache);
+    checkBound("color read (cached)", BOUND_COLOR_READ_CACHED, bytes / ELEMENTS);
+  }
+
+  /**
+   * Reading cached named and short hex colors in the extended syntax
+   * allocates nothing for the colors themselves.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorArrayReadExtended()
+    throws Exception
+  {
+    final var cache =
+      DmColorCache.create(1024, DmColorCacheEviction.EVICTION_REPLACE);
+    final var mapper =
+      colorMapper(
+        DmColorModule.builder()
+          .setCache(cache)
+          .setExtendedSyntaxEnabled(true)
+          .buildModule()
+      );
+
+    final var names = new String[]{"red", "#36c", "RebeccaPurple", "#0f08"};
+    final var textBuilder = new StringBuilder(ELEMENTS * 16);
+    textBuilder.append('[');
+    for (int index = 0; index < ELEMENTS; ++index) {
+      if (index > 0) {
+        textBuilder.append(',');
+      }
+      textBuilder.append('"');
+      textBuilder.append(names[index % names.length]);
+      textBuilder.append('"');
+    }
+    textBuilder.append(']');
+    final var text =
+      textBuilder.toString().getBytes(StandardCharsets.UTF_8);
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        mapper.readValue(text, DmColor[].class);
+      });
+
+    checkBound("color read (extended)", BOUND_COLOR_READ_CACHED, bytes / ELEMENTS);
+  }
+
+  /**
+   * Reading colors written as color functions allocates nothing per color
+   * beyond the color itself.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorFunctionRead()
+    throws Exception
+  {
+    final var mapper =
+      colorMapper(
+        DmColorModule.builder()
+          .setExtendedSyntaxEnabled(true)
+          .buildModule()
+      );
+
+    final var functions = new String[]{
+      "rgb(51, 102, 204)",
+      "RGBA(10%, 20%, 30%, 0.5)",
+      "rgb(25.5 2.55e1 255e-1 / 50%)",
+    };
+    final var textBuilder = new StringBuilder(ELEMENTS * 32);
+    textBuilder.append('[');
+    for (int index = 0; index < ELEMENTS; ++index) {
+      if (index > 0) {
+        textBuilder.append(',');
+      }
+      textBuilder.append('"');
+      textBuilder.append(functions[index % functions.length]);
+      textBuilder.append('"');
+    }
+    textBuilder.append(']');
+    final var text =
+      textBuilder.toString().getBytes(StandardCharsets.UTF_8);
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        mapper.readValue(text, DmColor[].class);
+      });
+
+    checkBound("color read (functions)", BOUND_COLOR_READ, bytes / ELEMENTS);
+  }
+
+  /**
+   * Reading color arrays allocates nothing per color beyond packed storage.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorArrayPackedRead()
+    throws Exception
+  {
+    final var mapper = colorMapper();
+    final var text = mapper.writeValueAsBytes(colors());
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        mapper.readValue(text, DmColorArray.class);
+      });
+
+    checkBound("color array read", BOUND_COLOR_ARRAY_READ, bytes / ELEMENTS);
+  }
+
+  /**
+   * Writing color arrays allocates nothing per color.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorArrayPackedWrite()
+    throws Exception
+  {
+    final var mapper = colorMapper();
+    final var colors = DmColorArray.ofColors(List.of(colors()));
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        mapper.writeValue(OutputStream.nullOutputStream(), colors);
+      });
+
+    checkBound("color array write", BOUND_COLOR_ARRAY_WRITE, bytes / ELEMENTS);
+  }
+
+  /**
+   * Reading a raster into an existing raster allocates very little per
+   * pixel.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorRasterRead()
+    throws Exception
+  {
+    final var mapper = colorMapper();
+    final var raster = DmColorRaster.allocate(1000, ELEMENTS / 1000);
+    raster.forEachTile(DmColorRaster.DEFAULT_TILE_SIZE, (r, x, y, w, h) -> {
+      for (int py = y; py < y + h; ++py) {
+        for (int px = x; px < x + w; ++px) {
+          r.set(px, py, px * 0x10101 + py);
+        }
+      }
+    });
+
+    final var text = mapper.writeValueAsBytes(raster);
+    final var reader = mapper.readerForUpdating(raster);
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        reader.readValue(text);
+      });
+
+    checkBound("color raster read", BOUND_COLOR_RASTER, bytes / ELEMENTS);
+  }
+
+  /**
+   * Writing a raster allocates very little per pixel.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorRasterWrite()
+    throws Exception
+  {
+    final var mapper = colorMapper();
+    final var raster = DmColorRaster.allocate(1000, ELEMENTS / 1000);
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        mapper.writeValue(OutputStream.nullOutputStream(), raster);
+      });
+
+    checkBound("color raster write", BOUND_COLOR_RASTER, bytes / ELEMENTS);
+  }
+
+  /**
+   * Chains of operations on an accumulator do not allocate.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorAccumulator()
+    throws Exception
+  {
+    final var colors = colors();
+    final var packed = new int[ELEMENTS];
+    final var other = new DmColor(0.9, 0.8, 0.7);
+    final var accumulator = DmColorAccumulator.create();
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        for (int index = 0; index < ELEMENTS; ++index) {
+          packed[index] =
+            accumulator.set(colors[index])
+              .darker(0.1)
+              .lerp(other, 0.3)
+              .scale(0.9)
+              .lighter(0.2)
+              .darker(0.05)
+              .toPacked();
+        }
+      });
+
+    checkBound("color accumulator", BOUND_COLOR_ACCUMULATOR, bytes / ELEMENTS);
+  }
+
+  /**
+   * Color space conversions over buffers do not allocate.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorSpaceBuffers()
+    throws Exception
+  {
+    final var packed = DmColorArray.ofColors(List.of(colors())).toPackedArray();
+    final var buffer = DmColorBatch.allocate(ELEMENTS);
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        DmColorSpaces.packedToLinear(packed, buffer, ELEMENTS);
+        DmColorSpaces.linearToPacked(buffer, packed, ELEMENTS);
+        DmColorSpaces.packedToLab(packed, buffer, ELEMENTS);
+        DmColorSpaces.fromLab(buffer, buffer, ELEMENTS);
+        DmColorSpaces.toHSL(buffer, buffer, ELEMENTS);
+        DmColorSpaces.fromHSL(buffer, buffer, ELEMENTS);
+      });
+
+    checkBound("color space conversion", BOUND_COLOR_SPACE, bytes / ELEMENTS);
+  }
+
+  /**
+   * Single palette queries do not allocate.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPaletteQuery()
+    throws Exception
+  {
+    final var colors = colors();
+    final var packed = DmColorArray.ofColors(List.of(colors)).toPackedArray();
+    final var palette =
+      DmPalette.of(List.of(colors).subList(0, 256), DmPaletteDistance.DISTANCE_LAB);
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        for (int index = 0; index < ELEMENTS; ++index) {
+          palette.nearestIndex(colors[index]);
+          palette.nearestIndexPacked(packed[index]);
+        }
+      });
+
+    checkBound("palette query", BOUND_PALETTE_QUERY, bytes / ELEMENTS);
+  }
+
+  /**
+   * Counting colors in a histogram does not allocate.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorHistogram()
+    throws Exception
+  {
+    final var colors = colors();
+    final var packed = DmColorArray.ofColors(List.of(colors)).toPackedArray();
+    final var histogram = DmColorHistogram.create(ELEMENTS * 2);
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        histogram.addAllPacked(packed, 0, ELEMENTS);
+        for (int index = 0; index < ELEMENTS; ++index) {
+          histogram.add(colors[index]);
+        }
+      });
+
+    checkBound("color histogram", BOUND_COLOR_HISTOGRAM, bytes / ELEMENTS);
+  }
+
+  /**
+   * Reading lists of colors allocates a bounded number of bytes per color.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorListRead()
+    throws Exception
+  {
+    final var mapper = colorMapper();
+    final var text = mapper.writeValueAsBytes(colors());
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        mapper.readValue(text, new TypeReference<List<DmColor>>() { });
+      });
+
+    checkBound("color list read", BOUND_COLOR_READ, bytes / ELEMENTS);
+  }
+
+  /**
+   * Writing colors allocates a bounded number of bytes per color.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorArrayWrite()
+    throws Exception
+  {
+    final var mapper = colorMapper();
+    final var colors = colors();
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        mapper.writeValue(OutputStream.nullOutputStream(), colors);
+      });
+
+    checkBound("color write", BOUND_COLOR_WRITE, bytes / ELEMENTS);
+  }
+
+  /**
+   * Writing colors as map keys allocates nothing per key once the key
+   * names have been encoded.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColorKeyWrite()
+    throws Exception
+  {
+    final var mapper = colorMapper();
+    final var colors = colors();
+    final var map = new LinkedHashMap<DmColor, Integer>();
+    for (int index = 0; index < 16; ++index) {
+      map.put(colors[index * 4099], Integer.valueOf(index));
+    }
+    final var maps = new ArrayList<Map<DmColor, Integer>>();
+    for (int index = 0; index < ELEMENTS / map.size(); ++index) {
+      maps.add(map);
+    }
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        mapper.writeValue(OutputStream.nullOutputStream(), maps);
+      });
+
+    checkBound("color key write", BOUND_COLOR_KEY_WRITE, bytes / ELEMENTS);
+  }
+
+  /**
+   * Reading integers allocates a bounded number of bytes per integer.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testIntArrayRead()
+    throws Exception
+  {
+    final var mapper = colorMapper();
+    final var values = new int[ELEMENTS];
+    for (int index = 0; index < ELEMENTS; ++index) {
+      values[index] = index;
+    }
+    final var text = mapper.writeValueAsBytes(values);
+
+    final var bytes =
+      DmAllocations.bytesPerOperation(5, 5, () -> {
+        mapper.readValue(text, int[].class);
+      });
+
+    checkBound("int read", BOUND_INT_READ, bytes / ELEMENTS);
+  }
+}
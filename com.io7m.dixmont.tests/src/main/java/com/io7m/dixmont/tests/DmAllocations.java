@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Assumptions;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Functions to measure the number of bytes allocated by the current thread.
+ */
+
+public final class DmAllocations
+{
+  private static final ThreadMXBean THREADS =
+    (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private DmAllocations()
+  {
+
+  }
+
+  /**
+   * An operation to be measured.
+   */
+
+  public interface OperationType
+  {
+    /**
+     * Execute the operation.
+     *
+     * @throws Exception On errors
+     */
+
+    void execute()
+      throws Exception;
+  }
+
+  /**
+   * Skip the current test if allocation measurement is not supported.
+   */
+
+  public static void assumeSupported()
+  {
+    Assumptions.assumeTrue(
+      THREADS.isThreadAllocatedMemorySupported(),
+      "Thread allocation measurement must be supported"
+    );
+    THREADS.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  /**
+   * Execute the given operation {@code warmup} times, and then measure the
+   * number of bytes allocated by executing it {@code iterations} more times.
+   *
+   * @param warmup     The number of unmeasured iterations
+   * @param iterations The number of measured iterations
+   * @param operation  The operation
+   *
+   * @return The mean number of bytes allocated per measured iteration
+   *
+   * @throws Exception On errors
+   */
+
+  public static double bytesPerOperation(
+    final int warmup,
+    final int iterations,
+    final OperationType operation)
+    throws Exception
+  {
+    assumeSupported();
+
+    for (int index = 0; index < warmup; ++index) {
+      operation.execute();
+    }
+
+    final var before = THREADS.getCurrentThreadAllocatedBytes();
+    for (int index = 0; index < iterations; ++index) {
+      operation.execute();
+    }
+    final var after = THREADS.getCurrentThreadAllocatedBytes();
+    return (double) (after - before) / (double) iterations;
+  }
+}
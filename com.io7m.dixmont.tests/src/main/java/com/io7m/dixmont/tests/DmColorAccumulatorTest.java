@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorAccumulator;
+import com.io7m.dixmont.colors.DmColorPacked;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class DmColorAccumulatorTest
+{
+  private static final double[] FACTORS = {
+    0.0, -0.0, 0.1, 0.5, 0.9, 1.0, 1.5, 3.0, -0.5, -2.0,
+  };
+
+  private static double factor(
+    final Random random)
+  {
+    if (random.nextBoolean()) {
+      return FACTORS[random.nextInt(FACTORS.length)];
+    }
+    return random.nextDouble() * 4.0 - 2.0;
+  }
+
+  private static DmColor randomColor(
+    final Random random)
+  {
+    return new DmColor(random.nextDouble(), random.nextDouble(), random.nextDouble());
+  }
+
+  /**
+   * Random chains of operations give exactly the same results as the
+   * immutable operations.
+   */
+
+  @Test
+  public void testSameAsImmutable()
+  {
+    final var random = new Random(0x41L);
+    final var accumulator = DmColorAccumulator.create();
+
+    for (int chain = 0; chain < 100_000; ++chain) {
+      var expected = randomColor(random);
+      accumulator.set(expected);
+
+      final var length = 1 + random.nextInt(10);
+      for (int step = 0; step < length; ++step) {
+        final var f = factor(random);
+        switch (random.nextInt(4)) {
+          case 0 -> {
+            expected = expected.scale(f);
+            accumulator.scale(f);
+          }
+          case 1 -> {
+            expected = expected.lighter(f);
+            accumulator.lighter(f);
+          }
+          case 2 -> {
+            expected = expected.darker(f);
+            accumulator.darker(f);
+          }
+          default -> {
+            final var other = randomColor(random);
+            expected = expected.lerp(other, f);
+            accumulator.lerp(other, f);
+          }
+        }
+
+        if (random.nextInt(4) == 0) {
+          assertEquals(expected.red(), accumulator.red());
+          assertEquals(expected.green(), accumulator.green());
+          assertEquals(expected.blue(), accumulator.blue());
+        }
+      }
+
+      assertEquals(DmColorPacked.pack(expected), accumulator.toPacked());
+      assertEquals(expected.toString(), accumulator.toString());
+      assertEquals(expected, accumulator.toColor());
+    }
+  }
+
+  /**
+   * Unclamped initial values are clamped as by the color constructor.
+   */
+
+  @Test
+  public void testSetUnclamped()
+  {
+    final var accumulator = DmColorAccumulator.create();
+    assertEquals(new DmColor(0.0, 0.0, 0.0), accumulator.toColor());
+
+    accumulator.set(2.0, -1.0, 0.5).scale(0.5);
+    assertEquals(new DmColor(2.0, -1.0, 0.5).scale(0.5), accumulator.toColor());
+
+    accumulator.set(2.0, -1.0, 0.5);
+    assertEquals(1.0, accumulator.red());
+    assertEquals(0.0, accumulator.green());
+    assertEquals(0.5, accumulator.blue());
+  }
+
+  /**
+   * Packed values round trip.
+   */
+
+  @Test
+  public void testPacked()
+  {
+    final var accumulator = DmColorAccumulator.create();
+    for (int rgb = 0; rgb <= 0xffffff; rgb += 0x010101) {
+      accumulator.setPacked(rgb);
+      assertEquals(rgb, accumulator.toPacked());
+      assertEquals(DmColorPacked.toColor(rgb), accumulator.toColor());
+    }
+
+    assertEquals(
+      DmColorPacked.toColor(0x102030).lighter(0.5).lerp(new DmColor(1.0, 1.0, 1.0), 0.25),
+      DmColorAccumulator.of(DmColorPacked.toColor(0x102030))
+        .lighter(0.5)
+        .lerp(new DmColor(1.0, 1.0, 1.0), 0.25)
+        .clamp()
+        .toColor()
+    );
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorArray;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.exc.MismatchedInputException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class DmColorArrayTest
+{
+  public record Theme(
+    @JsonProperty(value = "Name", required = true)
+    String name,
+    @JsonProperty(value = "Colors", required = true)
+    DmColorArray colors)
+  {
+
+  }
+
+  private static ObjectMapper createMapper()
+  {
+    return JsonMapper.builder()
+      .addModule(DmColorModule.create())
+      .build();
+  }
+
+  /**
+   * Color arrays serialize identically to lists of colors.
+   */
+
+  @Test
+  public void testSameAsList()
+  {
+    final var mapper = createMapper();
+    final var colors = List.of(
+      new DmColor(0.2, 0.3, 0.4),
+      new DmColor(1.0, 0.0, 0.5),
+      new DmColor(0.0, 0.0, 0.0)
+    );
+
+    final var array = DmColorArray.ofColors(colors);
+    final var text = mapper.writeValueAsString(array);
+    assertEquals(mapper.writeValueAsString(colors), text);
+    assertEquals("[\"#334c66\",\"#ff007f\",\"#000000\"]", text);
+
+    final var read = mapper.readValue(text, DmColorArray.class);
+    assertEquals(array, read);
+    assertEquals(array.hashCode(), read.hashCode());
+    assertEquals(
+      mapper.readValue(text, new TypeReference<List<DmColor>>() { }),
+      read.toColors()
+    );
+  }
+
+  /**
+   * Large arrays round trip.
+   */
+
+  @Test
+  public void testLarge()
+  {
+    final var mapper = createMapper();
+    final var values = new int[10_000];
+    for (int index = 0; index < values.length; ++index) {
+      values[index] = index * 1677;
+    }
+
+    final var array = DmColorArray.ofPacked(values);
+    final var read =
+      mapper.readValue(mapper.writeValueAsString(array), DmColorArray.class);
+
+    assertEquals(values.length, read.size());
+    assertArrayEquals(array.toPackedArray(), read.toPackedArray());
+    for (int index = 0; index < values.length; ++index) {
+      assertEquals(values[index] & 0xffffff, read.packed(index));
+    }
+  }
+
+  /**
+   * Arrays of sizes on either side of the storage growth and trimming
+   * thresholds round trip.
+   */
+
+  @Test
+  public void testSizes()
+  {
+    final var mapper = createMapper();
+    for (int size = 1; size <= 70; ++size) {
+      final var values = new int[size];
+      for (int index = 0; index < size; ++index) {
+        values[index] = index * 104729;
+      }
+
+      final var array = DmColorArray.ofPacked(values);
+      final var read =
+        mapper.readValue(mapper.writeValueAsString(array), DmColorArray.class);
+
+      assertEquals(array, read);
+      assertEquals(array.hashCode(), read.hashCode());
+      assertArrayEquals(array.toPackedArray(), read.toPackedArray());
+    }
+  }
+
+  /**
+   * Color arrays work as record components.
+   */
+
+  @Test
+  public void testRecord()
+  {
+    final var mapper = createMapper();
+    final var theme =
+      new Theme("x", DmColorArray.ofPacked(0x102030, 0x405060));
+    final var text =
+      mapper.writeValueAsString(theme);
+
+    assertEquals(
+      "{\"Name\":\"x\",\"Colors\":[\"#102030\",\"#405060\"]}",
+      text
+    );
+    assertEquals(theme, mapper.readValue(text, Theme.class));
+  }
+
+  /**
+   * Empty arrays work.
+   */
+
+  @Test
+  public void testEmpty()
+  {
+    final var mapper = createMapper();
+    assertSame(DmColorArray.empty(), mapper.readValue("[]", DmColorArray.class));
+    assertEquals("[]", mapper.writeValueAsString(DmColorArray.empty()));
+    assertTrue(DmColorArray.ofPacked().isEmpty());
+    assertEquals(DmColorArray.empty(), DmColorArray.ofPacked());
+  }
+
+  /**
+   * Accessors behave.
+   */
+
+  @Test
+  public void testAccessors()
+  {
+    final var array = DmColorArray.ofPacked(0xff102030, 0x405060);
+    assertEquals(2, array.size());
+    assertEquals(0x102030, array.packed(0));
+    assertEquals(new DmColor(0x40 / 255.0, 0x50 / 255.0, 0x60 / 255.0), array.color(1));
+    assertEquals("[#102030, #405060]", array.toString());
+    assertNotEquals(array, DmColorArray.ofPacked(0x102030));
+
+    final var target = new int[3];
+    array.copyTo(0, target, 1, 2);
+    assertArrayEquals(new int[] {0, 0x102030, 0x405060}, target);
+
+    assertThrows(IndexOutOfBoundsException.class, () -> array.packed(2));
+    assertThrows(IndexOutOfBoundsException.class, () -> array.copyTo(1, target, 0, 2));
+  }
+
+  /**
+   * Invalid arrays are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    final var mapper = createMapper();
+    for (final var text : List.of(
+      "[\"#102030\",null]",
+      "[\"#102030\",23]",
+      "[\"#10203\"]",
+      "[[\"#102030\"]]",
+      "\"#102030\"",
+      "{}")) {
+      assertThrows(MismatchedInputException.class, () -> {
+        mapper.readValue(text, DmColorArray.class);
+      }, text);
+    }
+  }
+
+  /**
+   * Color arrays can be used with restricted mappers.
+   */
+
+  @Test
+  public void testRestricted()
+  {
+    final var allowed =
+      JsonMapper.builder()
+        .addModule(DmColorModule.create())
+        .addModule(
+          DmJsonRestrictedDeserializers.builder()
+            .allowClass(Theme.class)
+            .allowClass(String.class)
+            .allowClass(DmColorArray.class)
+            .buildModule())
+        .build();
+
+    final var text = "{\"Name\":\"x\",\"Colors\":[\"#102030\"]}";
+    assertEquals(
+      new Theme("x", DmColorArray.ofPacked(0x102030)),
+      allowed.readValue(text, Theme.class)
+    );
+
+    final var denied =
+      JsonMapper.builder()
+        .addModule(DmColorModule.create())
+        .addModule(
+          DmJsonRestrictedDeserializers.builder()
+            .allowClass(Theme.class)
+            .allowClass(String.class)
+            .buildModule())
+        .build();
+
+    assertThrows(JacksonException.class, () -> {
+      denied.readValue(text, Theme.class);
+    });
+  }
+}
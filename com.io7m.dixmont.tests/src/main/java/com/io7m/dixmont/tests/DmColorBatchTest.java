@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorArray;
+import com.io7m.dixmont.colors.DmColorBatch;
+import com.io7m.dixmont.colors.DmColorPacked;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class DmColorBatchTest
+{
+  private static final int COUNT = 10_007;
+
+  private static final double[] FACTORS = {
+    0.0, 0.1, 0.5, 0.99, 1.0, 1.01, 2.0, -0.5, 1.0e-300, Double.MAX_VALUE,
+  };
+
+  private static List<DmColor> randomColors(
+    final long seed)
+  {
+    final var random = new Random(seed);
+    final var colors = new ArrayList<DmColor>(COUNT);
+    for (int index = 0; index < COUNT; ++index) {
+      colors.add(new DmColor(
+        random.nextDouble(),
+        random.nextDouble(),
+        random.nextDouble()
+      ));
+    }
+    colors.set(0, new DmColor(0.0, 0.0, 0.0));
+    colors.set(1, new DmColor(1.0, 1.0, 1.0));
+    return colors;
+  }
+
+  private static double[] load(
+    final List<DmColor> colors)
+  {
+    final var buffer = DmColorBatch.allocate(colors.size());
+    DmColorBatch.load(colors, buffer);
+    return buffer;
+  }
+
+  private static void checkSame(
+    final List<DmColor> colors,
+    final UnaryOperator<DmColor> expected,
+    final double[] result)
+  {
+    for (int index = 0; index < colors.size(); ++index) {
+      final var e = expected.apply(colors.get(index));
+      final var r = DmColorBatch.get(result, index);
+      assertEquals(e, r);
+      assertEquals(Double.doubleToRawLongBits(e.red()), Double.doubleToRawLongBits(r.red()));
+      assertEquals(Double.doubleToRawLongBits(e.green()), Double.doubleToRawLongBits(r.green()));
+      assertEquals(Double.doubleToRawLongBits(e.blue()), Double.doubleToRawLongBits(r.blue()));
+    }
+  }
+
+  /**
+   * Batch scaling is identical to scaling each color.
+   */
+
+  @Test
+  public void testScale()
+  {
+    final var colors = randomColors(0x10L);
+    final var source = load(colors);
+    final var target = DmColorBatch.allocate(COUNT);
+
+    for (final var factor : FACTORS) {
+      DmColorBatch.scale(source, target, COUNT, factor);
+      checkSame(colors, c -> c.scale(factor), target);
+      DmColorBatch.lighter(source, target, COUNT, factor);
+      checkSame(colors, c -> c.lighter(factor), target);
+      DmColorBatch.darker(source, target, COUNT, factor);
+      checkSame(colors, c -> c.darker(factor), target);
+    }
+  }
+
+  /**
+   * Batch scaling works in place.
+   */
+
+  @Test
+  public void testScaleInPlace()
+  {
+    final var colors = randomColors(0x11L);
+    final var buffer = load(colors);
+    DmColorBatch.scale(buffer, buffer, COUNT, 1.5);
+    checkSame(colors, c -> c.scale(1.5), buffer);
+  }
+
+  /**
+   * Batch clamping is identical to constructing each color.
+   */
+
+  @Test
+  public void testClamp()
+  {
+    final var random = new Random(0x12L);
+    final var source = DmColorBatch.allocate(COUNT);
+    for (int index = 0; index < source.length; ++index) {
+      source[index] = random.nextGaussian();
+    }
+    source[0] = Double.NaN;
+    source[1] = -0.0;
+    source[2] = Double.POSITIVE_INFINITY;
+
+    final var target = DmColorBatch.allocate(COUNT);
+    DmColorBatch.clamp(source, target, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      final var base = index * DmColorBatch.CHANNELS;
+      assertEquals(
+        new DmColor(source[base], source[base + 1], source[base + 2]),
+        DmColorBatch.get(target, index)
+      );
+    }
+  }
+
+  /**
+   * Batch interpolation is identical to interpolating each color.
+   */
+
+  @Test
+  public void testLerp()
+  {
+    final var colors0 = randomColors(0x13L);
+    final var colors1 = randomColors(0x14L);
+    final var source0 = load(colors0);
+    final var source1 = load(colors1);
+    final var target = DmColorBatch.allocate(COUNT);
+
+    for (final var factor : FACTORS) {
+      DmColorBatch.lerp(source0, source1, target, COUNT, factor);
+      for (int index = 0; index < COUNT; ++index) {
+        assertEquals(
+          colors0.get(index).lerp(colors1.get(index), factor),
+          DmColorBatch.get(target, index)
+        );
+      }
+    }
+  }
+
+  /**
+   * Batch blending is identical to interpolating each color.
+   */
+
+  @Test
+  public void testBlend()
+  {
+    final var colors0 = randomColors(0x15L);
+    final var colors1 = randomColors(0x16L);
+    final var source0 = load(colors0);
+    final var source1 = load(colors1);
+    final var target = DmColorBatch.allocate(COUNT);
+
+    final var random = new Random(0x17L);
+    final var factors = new double[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      factors[index] = random.nextDouble() * 1.5 - 0.25;
+    }
+
+    DmColorBatch.blend(source0, source1, factors, target, COUNT);
+    for (int index = 0; index < COUNT; ++index) {
+      assertEquals(
+        colors0.get(index).lerp(colors1.get(index), factors[index]),
+        DmColorBatch.get(target, index)
+      );
+    }
+  }
+
+  /**
+   * Packing and unpacking color arrays is identical to the packed color
+   * conversions.
+   */
+
+  @Test
+  public void testPackUnpack()
+  {
+    final var colors = randomColors(0x18L);
+    final var packed = DmColorArray.ofColors(colors);
+    final var buffer = DmColorBatch.allocate(COUNT);
+
+    DmColorBatch.load(packed, buffer);
+    for (int index = 0; index < COUNT; ++index) {
+      assertEquals(packed.color(index), DmColorBatch.get(buffer, index));
+    }
+
+    assertEquals(packed, DmColorBatch.pack(load(colors), COUNT));
+
+    DmColorBatch.scale(buffer, buffer, COUNT, 1.3);
+    final var scaled = DmColorBatch.pack(buffer, COUNT);
+    for (int index = 0; index < COUNT; ++index) {
+      assertEquals(
+        DmColorPacked.scale(packed.packed(index), 1.3),
+        scaled.packed(index)
+      );
+    }
+  }
+
+  /**
+   * Buffers that are too small are rejected.
+   */
+
+  @Test
+  public void testBounds()
+  {
+    final var small = new double[5];
+    final var large = new double[6];
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      DmColorBatch.scale(small, large, 2, 1.0);
+    });
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      DmColorBatch.scale(large, small, 2, 1.0);
+    });
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      DmColorBatch.blend(large, large, new double[1], large, 2);
+    });
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      DmColorBatch.get(large, 2);
+    });
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorArray;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.colors.DmColorPacked;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.exc.MismatchedInputException;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class DmColorBinaryTest
+{
+  private static final List<DmColor> COLORS =
+    List.of(
+      new DmColor(0x33 / 255.0, 0x4c / 255.0, 0x66 / 255.0),
+      new DmColor(1.0, 0.0, 0.0),
+      new DmColor(0.0, 0.0, 0.0),
+      new DmColor(1.0, 1.0, 1.0)
+    );
+
+  public record Swatch(
+    String name,
+    DmColor color,
+    DmColorPacked packed,
+    DmColorArray palette)
+  {
+
+  }
+
+  private static Map<String, ObjectMapper> binaryMappers()
+  {
+    return Map.of(
+      "cbor",
+      CBORMapper.builder().addModule(DmColorModule.create()).build(),
+      "smile",
+      SmileMapper.builder().addModule(DmColorModule.create()).build()
+    );
+  }
+
+  private static ObjectMapper jsonMapper()
+  {
+    return JsonMapper.builder()
+      .addModule(DmColorModule.create())
+      .build();
+  }
+
+  private static Swatch swatch()
+  {
+    return new Swatch(
+      "x",
+      COLORS.get(0),
+      new DmColorPacked(0x102030),
+      DmColorArray.ofColors(COLORS)
+    );
+  }
+
+  /**
+   * Colors round trip through binary formats.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testRoundTrip()
+  {
+    return binaryMappers().entrySet().stream().map(e -> {
+      return DynamicTest.dynamicTest("testRoundTrip_" + e.getKey(), () -> {
+        final var mapper = e.getValue();
+        final var swatch = swatch();
+        assertEquals(
+          swatch,
+          mapper.readValue(mapper.writeValueAsBytes(swatch), Swatch.class)
+        );
+        assertEquals(
+          COLORS,
+          mapper.readValue(
+            mapper.writeValueAsBytes(COLORS),
+            new TypeReference<List<DmColor>>() { })
+        );
+      });
+    });
+  }
+
+  /**
+   * Colors are written as packed integers in binary formats, which are
+   * smaller than strings.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testWrittenAsIntegers()
+  {
+    return binaryMappers().entrySet().stream().map(e -> {
+      return DynamicTest.dynamicTest("testWrittenAsIntegers_" + e.getKey(), () -> {
+        final var mapper = e.getValue();
+        final var bytes = mapper.writeValueAsBytes(COLORS);
+
+        assertEquals(
+          List.of(0x334c66, 0xff0000, 0x000000, 0xffffff),
+          mapper.readValue(bytes, new TypeReference<List<Integer>>() { })
+        );
+
+        final var strings =
+          mapper.writeValueAsBytes(
+            COLORS.stream().map(DmColor::toString).toList());
+        assertTrue(
+          bytes.length < strings.length,
+          "%d < %d".formatted(
+            Integer.valueOf(bytes.length),
+            Integer.valueOf(strings.length))
+        );
+
+        assertArrayEquals(
+          bytes,
+          mapper.writeValueAsBytes(DmColorArray.ofColors(COLORS))
+        );
+      });
+    });
+  }
+
+  /**
+   * Binary formats still accept strings and three-byte binary values.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testReadAlternatives()
+  {
+    return binaryMappers().entrySet().stream().map(e -> {
+      return DynamicTest.dynamicTest("testReadAlternatives_" + e.getKey(), () -> {
+        final var mapper = e.getValue();
+        final var text =
+          mapper.writeValueAsBytes(List.of("#334c66", "#FF0000"));
+        final var binary =
+          mapper.writeValueAsBytes(
+            List.of(new byte[] {0x33, 0x4c, 0x66}, new byte[] {(byte) 0xff, 0, 0}));
+
+        for (final var bytes : List.of(text, binary)) {
+          assertEquals(
+            COLORS.subList(0, 2),
+            mapper.readValue(bytes, new TypeReference<List<DmColor>>() { })
+          );
+          assertEquals(
+            DmColorArray.ofColors(COLORS.subList(0, 2)),
+            mapper.readValue(bytes, DmColorArray.class)
+          );
+          assertEquals(
+            List.of(new DmColorPacked(0x334c66), new DmColorPacked(0xff0000)),
+            mapper.readValue(bytes, new TypeReference<List<DmColorPacked>>() { })
+          );
+        }
+      });
+    });
+  }
+
+  /**
+   * Binary formats reject invalid values.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testReadInvalid()
+  {
+    return binaryMappers().entrySet().stream().map(e -> {
+      return DynamicTest.dynamicTest("testReadInvalid_" + e.getKey(), () -> {
+        final var mapper = e.getValue();
+        final var values = List.<Object>of(
+          Integer.valueOf(-1),
+          Integer.valueOf(0x1000000),
+          Long.valueOf(0x100000000L),
+          Double.valueOf(1.0),
+          new byte[] {1, 2},
+          "#12345"
+        );
+
+        for (final var value : values) {
+          final var bytes = mapper.writeValueAsBytes(value);
+          assertThrows(MismatchedInputException.class, () -> {
+            mapper.readValue(bytes, DmColor.class);
+          }, value.toString());
+          assertThrows(MismatchedInputException.class, () -> {
+            mapper.readValue(bytes, DmColorPacked.class);
+          }, value.toString());
+        }
+      });
+    });
+  }
+
+  /**
+   * JSON output is unchanged, and JSON does not accept integers.
+   */
+
+  @Test
+  public void testJsonUnchanged()
+  {
+    final var mapper = jsonMapper();
+    assertEquals(
+      "{\"name\":\"x\",\"color\":\"#334c66\",\"packed\":\"#102030\","
+      + "\"palette\":[\"#334c66\",\"#ff0000\",\"#000000\",\"#ffffff\"]}",
+      mapper.writeValueAsString(swatch())
+    );
+
+    assertThrows(MismatchedInputException.class, () -> {
+      mapper.readValue("3361894", DmColor.class);
+    });
+    assertThrows(MismatchedInputException.class, () -> {
+      mapper.readValue("[3361894]", DmColorArray.class);
+    });
+    assertEquals(
+      "\"#334c66\"",
+      mapper.valueToTree(COLORS.get(0)).toString()
+    );
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorCache;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.colors.DmColorPacked;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.dixmont.colors.DmColorCacheEviction.EVICTION_KEEP_FIRST;
+import static com.io7m.dixmont.colors.DmColorCacheEviction.EVICTION_REPLACE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class DmColorCacheTest
+{
+  private static ObjectMapper createMapper(
+    final DmColorCache cache)
+  {
+    return JsonMapper.builder()
+      .addModule(DmColorModule.create(cache))
+      .build();
+  }
+
+  /**
+   * Repeated colors in a document are the same instance.
+   */
+
+  @Test
+  public void testInterned()
+  {
+    final var cache = DmColorCache.create(64, EVICTION_REPLACE);
+    final var mapper = createMapper(cache);
+
+    final var colors =
+      mapper.readValue(
+        "[\"#ff0000\",\"#00ff00\",\"#FF0000\",\"#ff0000\"]",
+        DmColor[].class
+      );
+
+    assertEquals(new DmColor(1.0, 0.0, 0.0), colors[0]);
+    assertEquals(new DmColor(0.0, 1.0, 0.0), colors[1]);
+    assertSame(colors[0], colors[2]);
+    assertSame(colors[0], colors[3]);
+
+    assertEquals(2L, cache.hits());
+    assertEquals(2L, cache.misses());
+    assertEquals(0.5, cache.hitRate());
+
+    cache.resetStatistics();
+    assertEquals(0L, cache.hits());
+    assertEquals(0L, cache.misses());
+    assertEquals(0.0, cache.hitRate());
+    assertSame(colors[0], mapper.readValue("\"#ff0000\"", DmColor.class));
+  }
+
+  /**
+   * Cached colors are identical to uncached colors.
+   */
+
+  @Test
+  public void testSameAsUncached()
+  {
+    final var cache = DmColorCache.create(256, EVICTION_REPLACE);
+    for (int rgb = 0; rgb <= 0xffffff; rgb += 0x0103) {
+      assertEquals(DmColorPacked.toColor(rgb), cache.color(rgb));
+      assertEquals(DmColorPacked.toColor(rgb), cache.color(rgb));
+    }
+  }
+
+  /**
+   * Capacities are rounded and validated.
+   */
+
+  @Test
+  public void testCapacity()
+  {
+    assertEquals(2, DmColorCache.create(1, EVICTION_REPLACE).capacity());
+    assertEquals(128, DmColorCache.create(100, EVICTION_REPLACE).capacity());
+    assertEquals(128, DmColorCache.create(128, EVICTION_REPLACE).capacity());
+    assertEquals(
+      DmColorCache.MAXIMUM_CAPACITY,
+      DmColorCache.create(Integer.MAX_VALUE, EVICTION_REPLACE).capacity()
+    );
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmColorCache.create(0, EVICTION_REPLACE);
+    });
+  }
+
+  /**
+   * The replacing policy evicts the oldest of three colors in a bucket.
+   */
+
+  @Test
+  public void testEvictionReplace()
+  {
+    final var cache = DmColorCache.create(2, EVICTION_REPLACE);
+    final var a = cache.color(0x112233);
+    final var b = cache.color(0x445566);
+    final var c = cache.color(0x778899);
+    assertEquals(1L, cache.evictions());
+
+    assertSame(c, cache.color(0x778899));
+    assertSame(b, cache.color(0x445566));
+    assertNotSame(a, cache.color(0x112233));
+    assertEquals(2L, cache.evictions());
+    assertEquals(2L, cache.hits());
+    assertEquals(4L, cache.misses());
+  }
+
+  /**
+   * The keep-first policy keeps the first colors.
+   */
+
+  @Test
+  public void testEvictionKeepFirst()
+  {
+    final var cache = DmColorCache.create(2, EVICTION_KEEP_FIRST);
+    final var a = cache.color(0x112233);
+    final var b = cache.color(0x445566);
+    final var c = cache.color(0x778899);
+    assertSame(a, cache.color(0x112233));
+    assertSame(b, cache.color(0x445566));
+    assertNotSame(c, cache.color(0x778899));
+    assertEquals(0L, cache.evictions());
+    assertEquals(2L, cache.hits());
+    assertEquals(4L, cache.misses());
+  }
+
+  /**
+   * Concurrent lookups always return the correct colors.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testConcurrent()
+    throws Exception
+  {
+    final var cache = DmColorCache.create(16, EVICTION_REPLACE);
+    final var executor = Executors.newFixedThreadPool(8);
+    try {
+      final var futures = new ArrayList<Future<?>>();
+      for (int thread = 0; thread < 8; ++thread) {
+        final var seed = thread;
+        futures.add(executor.submit(() -> {
+          for (int index = 0; index < 100_000; ++index) {
+            final var rgb = ((index * 31 + seed) % 64) * 0x010101;
+            assertEquals(DmColorPacked.toColor(rgb), cache.color(rgb));
+          }
+        }));
+      }
+      for (final var future : futures) {
+        future.get(60L, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(60L, TimeUnit.SECONDS));
+    }
+
+    assertEquals(800_000L, cache.hits() + cache.misses());
+  }
+}
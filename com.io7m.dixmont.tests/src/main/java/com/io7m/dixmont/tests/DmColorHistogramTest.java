@@ -0,0 +1,418 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColorArray;
+import com.io7m.dixmont.colors.DmColorHistogram;
+import com.io7m.dixmont.colors.DmColorHistogramEntry;
+import com.io7m.dixmont.colors.DmColorHistogramSnapshot;
+import com.io7m.dixmont.colors.DmColorPacked;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class DmColorHistogramTest
+{
+  /*
+   * Colors drawn from a small palette with a skewed distribution, so that
+   * counts differ.
+   */
+
+  private static int[] skewed(
+    final Random random,
+    final int size,
+    final int distinct)
+  {
+    final var palette = new int[distinct];
+    for (int index = 0; index < distinct; ++index) {
+      palette[index] = random.nextInt(0x1000000);
+    }
+
+    final var result = new int[size];
+    for (int index = 0; index < size; ++index) {
+      final var x = random.nextDouble();
+      result[index] = palette[(int) (x * x * distinct)];
+    }
+    return result;
+  }
+
+  private static Map<Integer, Long> reference(
+    final int[] colors)
+  {
+    final var result = new HashMap<Integer, Long>();
+    for (final var color : colors) {
+      result.merge(Integer.valueOf(color & 0xffffff), Long.valueOf(1L), Long::sum);
+    }
+    return result;
+  }
+
+  private static void checkMatches(
+    final Map<Integer, Long> expected,
+    final DmColorHistogramSnapshot snapshot)
+  {
+    assertEquals(expected.size(), snapshot.size());
+    for (int index = 0; index < snapshot.size(); ++index) {
+      if (index > 0) {
+        assertTrue(snapshot.rgb(index - 1) < snapshot.rgb(index));
+      }
+      assertEquals(
+        expected.get(Integer.valueOf(snapshot.rgb(index))),
+        Long.valueOf(snapshot.count(index))
+      );
+    }
+    assertEquals(
+      expected.values().stream().mapToLong(Long::longValue).sum(),
+      snapshot.total()
+    );
+  }
+
+  /**
+   * Counts match a reference map.
+   */
+
+  @Test
+  public void testCounts()
+  {
+    final var colors = skewed(new Random(0x50L), 100_000, 500);
+    final var histogram = DmColorHistogram.create(1024);
+    histogram.addAllPacked(colors, 0, colors.length);
+
+    final var snapshot = histogram.snapshot();
+    final var expected = reference(colors);
+    checkMatches(expected, snapshot);
+    assertEquals(0L, snapshot.dropped());
+    expected.forEach((color, count) -> {
+      assertEquals(count.longValue(), snapshot.countOf(color.intValue()));
+    });
+  }
+
+  /**
+   * Colors and arrays of colors are counted by packed value.
+   */
+
+  @Test
+  public void testColors()
+  {
+    final var histogram = DmColorHistogram.create(16);
+    histogram.add(DmColorPacked.toColor(0x334c66));
+    histogram.addPacked(0xff334c66);
+    histogram.addAll(DmColorArray.ofPacked(0x334c66, 0x102030));
+    histogram.addPacked(0x102030, 3L);
+    histogram.addPacked(0x000000, 0L);
+
+    final var snapshot = histogram.snapshot();
+    assertEquals(2, snapshot.size());
+    assertEquals(3L, snapshot.countOf(0x334c66));
+    assertEquals(4L, snapshot.countOf(0x102030));
+    assertEquals(0L, snapshot.countOf(0x000000));
+    assertEquals(
+      List.of(
+        new DmColorHistogramEntry(0x102030, 4L),
+        new DmColorHistogramEntry(0x334c66, 3L)),
+      snapshot.entries()
+    );
+    assertEquals(
+      DmColorPacked.toColor(0x102030),
+      snapshot.entries().get(0).color()
+    );
+  }
+
+  /**
+   * Concurrent updates are never lost.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testConcurrent()
+    throws Exception
+  {
+    final var threads = 8;
+    final var colors = skewed(new Random(0x51L), 200_000, 2000);
+    final var histogram = DmColorHistogram.create(4096);
+    final var start = new CountDownLatch(1);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final var futures = new ArrayList<Future<?>>();
+      for (int thread = 0; thread < threads; ++thread) {
+        final var offset = thread * 997;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int index = 0; index < colors.length; ++index) {
+            histogram.addPacked(colors[(index + offset) % colors.length]);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (final var future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    final var expected = new HashMap<Integer, Long>();
+    reference(colors).forEach((color, count) -> {
+      expected.put(color, Long.valueOf(count.longValue() * threads));
+    });
+    checkMatches(expected, histogram.snapshot());
+  }
+
+  /**
+   * Colors that do not fit are counted as dropped.
+   */
+
+  @Test
+  public void testDropped()
+  {
+    final var histogram = DmColorHistogram.create(8);
+    for (int color = 0; color < 100; ++color) {
+      histogram.addPacked(color, 2L);
+    }
+
+    final var snapshot = histogram.snapshot();
+    assertEquals(8, histogram.capacity());
+    assertEquals(8, snapshot.size());
+    assertEquals(184L, histogram.dropped());
+    assertEquals(184L, snapshot.dropped());
+    assertEquals(200L, snapshot.total() + snapshot.dropped());
+  }
+
+  /**
+   * A histogram with the maximum capacity records every color.
+   */
+
+  @Test
+  public void testMaximumCapacity()
+  {
+    final var histogram = DmColorHistogram.create(DmColorHistogram.MAXIMUM_CAPACITY);
+    for (int color = 0; color < DmColorHistogram.MAXIMUM_CAPACITY; ++color) {
+      histogram.addPacked(color, 1L);
+    }
+    histogram.addPacked(0xffffff, 2L);
+
+    final var snapshot = histogram.snapshot();
+    assertEquals(0L, histogram.dropped());
+    assertEquals(DmColorHistogram.MAXIMUM_CAPACITY, snapshot.size());
+    assertEquals(1L, snapshot.countOf(0x000000));
+    assertEquals(1L, snapshot.countOf(0x123456));
+    assertEquals(3L, snapshot.countOf(0xffffff));
+  }
+
+  /**
+   * The most frequent colors match a full sort of the reference.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testTop()
+  {
+    final var colors = skewed(new Random(0x52L), 50_000, 300);
+    final var histogram = DmColorHistogram.create(1024);
+    histogram.addAllPacked(colors, 0, colors.length);
+    final var snapshot = histogram.snapshot();
+
+    final var sorted =
+      reference(colors)
+        .entrySet()
+        .stream()
+        .map(e -> new DmColorHistogramEntry(
+          e.getKey().intValue(),
+          e.getValue().longValue()))
+        .sorted(Comparator.comparingLong(DmColorHistogramEntry::count)
+                  .reversed()
+                  .thenComparingInt(DmColorHistogramEntry::rgb))
+        .toList();
+
+    return IntStream.of(0, 1, 2, 10, 299, 300, 1000)
+      .mapToObj(k -> DynamicTest.dynamicTest("testTop_" + k, () -> {
+        assertEquals(
+          sorted.subList(0, Math.min(k, sorted.size())),
+          snapshot.top(k)
+        );
+      }));
+  }
+
+  /**
+   * Ties are broken by packed value.
+   */
+
+  @Test
+  public void testTopTies()
+  {
+    final var histogram = DmColorHistogram.create(16);
+    histogram.addPacked(0x30, 2L);
+    histogram.addPacked(0x10, 2L);
+    histogram.addPacked(0x20, 5L);
+    histogram.addPacked(0x40, 2L);
+
+    assertEquals(
+      List.of(
+        new DmColorHistogramEntry(0x20, 5L),
+        new DmColorHistogramEntry(0x10, 2L),
+        new DmColorHistogramEntry(0x30, 2L)),
+      histogram.snapshot().top(3)
+    );
+  }
+
+  /**
+   * Channel statistics match a direct computation.
+   */
+
+  @Test
+  public void testStatistics()
+  {
+    final var colors = skewed(new Random(0x53L), 20_000, 100);
+    final var histogram = DmColorHistogram.create(256);
+    histogram.addAllPacked(colors, 0, colors.length);
+    final var statistics = histogram.snapshot().statistics();
+
+    assertEquals(colors.length, statistics.count());
+    final var channels = List.of(
+      statistics.red(), statistics.green(), statistics.blue());
+    final var shifts = new int[]{16, 8, 0};
+    for (int channel = 0; channel < 3; ++channel) {
+      var min = 1.0;
+      var max = 0.0;
+      var sum = 0.0;
+      for (final var color : colors) {
+        final var v = ((color >>> shifts[channel]) & 0xff) / 255.0;
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+        sum += v;
+      }
+      final var mean = sum / colors.length;
+      var squares = 0.0;
+      for (final var color : colors) {
+        final var d = ((color >>> shifts[channel]) & 0xff) / 255.0 - mean;
+        squares += d * d;
+      }
+
+      final var s = channels.get(channel);
+      assertEquals(min, s.minimum(), 1.0e-12);
+      assertEquals(max, s.maximum(), 1.0e-12);
+      assertEquals(mean, s.mean(), 1.0e-9);
+      assertEquals(squares / colors.length, s.variance(), 1.0e-9);
+      assertEquals(Math.sqrt(s.variance()), s.standardDeviation(), 1.0e-12);
+    }
+
+    assertEquals(statistics.red().mean(), statistics.mean().red(), 1.0e-12);
+  }
+
+  /**
+   * Statistics of an empty histogram are zero.
+   */
+
+  @Test
+  public void testStatisticsEmpty()
+  {
+    final var statistics = DmColorHistogram.create(4).snapshot().statistics();
+    assertEquals(0L, statistics.count());
+    assertEquals(0.0, statistics.red().mean());
+    assertEquals(0.0, statistics.blue().variance());
+  }
+
+  /**
+   * Merging snapshots and merging histograms agree with counting
+   * everything in one histogram.
+   */
+
+  @Test
+  public void testMerge()
+  {
+    final var random = new Random(0x54L);
+    final var a = skewed(random, 10_000, 200);
+    final var b = skewed(random, 10_000, 200);
+
+    final var all = DmColorHistogram.create(1024);
+    all.addAllPacked(a, 0, a.length);
+    all.addAllPacked(b, 0, b.length);
+
+    final var ha = DmColorHistogram.create(512);
+    ha.addAllPacked(a, 0, a.length);
+    final var hb = DmColorHistogram.create(512);
+    hb.addAllPacked(b, 0, b.length);
+
+    final var merged = ha.snapshot().merge(hb.snapshot());
+    assertEquals(all.snapshot().entries(), merged.entries());
+    assertEquals(a.length + b.length, merged.total());
+
+    final var target = DmColorHistogram.create(1024);
+    target.merge(ha);
+    target.merge(hb.snapshot());
+    assertEquals(all.snapshot().entries(), target.snapshot().entries());
+  }
+
+  /**
+   * Merging carries dropped counts.
+   */
+
+  @Test
+  public void testMergeDropped()
+  {
+    final var small = DmColorHistogram.create(2);
+    for (int color = 0; color < 10; ++color) {
+      small.addPacked(color);
+    }
+
+    final var target = DmColorHistogram.create(64);
+    target.merge(small);
+    assertEquals(small.dropped(), target.dropped());
+    assertEquals(2 * small.dropped(), small.snapshot().merge(small.snapshot()).dropped());
+  }
+
+  /**
+   * Invalid arguments are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmColorHistogram.create(0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmColorHistogram.create(4).addPacked(0, -1L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmColorHistogram.create(4).snapshot().top(-1);
+    });
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      DmColorHistogram.create(4).addAllPacked(new int[2], 1, 2);
+    });
+    assertEquals(8, DmColorHistogram.create(5).capacity());
+  }
+}
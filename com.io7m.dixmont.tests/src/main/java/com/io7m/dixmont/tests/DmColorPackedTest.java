@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.colors.DmColorPacked;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.exc.MismatchedInputException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class DmColorPackedTest
+{
+  private static ObjectMapper createMapper()
+  {
+    return JsonMapper.builder()
+      .addModule(DmColorModule.create())
+      .build();
+  }
+
+  /**
+   * Converting every packed color to a color and back is lossless.
+   */
+
+  @Test
+  public void testRoundTripAll()
+  {
+    for (int rgb = 0; rgb <= 0xffffff; ++rgb) {
+      final var color = DmColorPacked.toColor(rgb);
+      final var packed = DmColorPacked.pack(color);
+      if (packed != rgb) {
+        assertEquals(rgb, packed, "0x%06x".formatted(Integer.valueOf(rgb)));
+      }
+    }
+  }
+
+  /**
+   * Packing a color quantizes it exactly as serialization does.
+   */
+
+  @Test
+  public void testPackMatchesSerialization()
+  {
+    final var colors = List.of(
+      new DmColor(0.2, 0.3, 0.4),
+      new DmColor(1.0, 0.0, 0.5),
+      new DmColor(0.999, 0.001, 0.123456),
+      new DmColor(2.0, -1.0, Double.NaN)
+    );
+
+    for (final var color : colors) {
+      assertEquals(
+        color.toString(),
+        DmColorPacked.ofColor(color).toString()
+      );
+    }
+  }
+
+  /**
+   * Channel accessors and constructors behave.
+   */
+
+  @Test
+  public void testChannels()
+  {
+    final var c = DmColorPacked.of(0x12, 0x34, 0x56);
+    assertEquals(0x123456, c.rgb());
+    assertEquals(0x12, c.red());
+    assertEquals(0x34, c.green());
+    assertEquals(0x56, c.blue());
+    assertEquals("#123456", c.toString());
+
+    assertEquals(0xff00ff, DmColorPacked.of(300, -4, 255).rgb());
+    assertEquals(0x123456, new DmColorPacked(0xff123456).rgb());
+    assertEquals(new DmColorPacked(0x123456), new DmColorPacked(0xab123456));
+  }
+
+  /**
+   * Scaling a packed color is identical to scaling the unpacked color.
+   */
+
+  @Test
+  public void testScaleMatchesColor()
+  {
+    final var factors = new double[] {
+      0.0, 0.1, 0.5, 0.9, 1.0, 1.1, 1.5, 3.0, -1.0,
+    };
+
+    for (int rgb = 0; rgb <= 0xffffff; rgb += 0x010307) {
+      final var packed = new DmColorPacked(rgb);
+      final var color = packed.toColor();
+      for (final var factor : factors) {
+        assertEquals(
+          DmColorPacked.ofColor(color.scale(factor)),
+          packed.scale(factor)
+        );
+        assertEquals(
+          DmColorPacked.ofColor(color.lighter(factor)),
+          packed.lighter(factor)
+        );
+        assertEquals(
+          DmColorPacked.ofColor(color.darker(factor)),
+          packed.darker(factor)
+        );
+      }
+    }
+  }
+
+  /**
+   * Packed colors serialize identically to colors.
+   */
+
+  @Test
+  public void testSerialization()
+  {
+    final var mapper = createMapper();
+    final var packed = List.of(
+      new DmColorPacked(0x000000),
+      new DmColorPacked(0x334c66),
+      new DmColorPacked(0xffffff)
+    );
+    final var colors =
+      packed.stream().map(DmColorPacked::toColor).toList();
+
+    final var text = mapper.writeValueAsString(packed);
+    assertEquals("[\"#000000\",\"#334c66\",\"#ffffff\"]", text);
+    assertEquals(mapper.writeValueAsString(colors), text);
+
+    assertEquals(
+      packed,
+      mapper.readValue(text, new TypeReference<List<DmColorPacked>>() { })
+    );
+    assertEquals(
+      new DmColorPacked(0xabcdef),
+      mapper.readValue("\"#ABCDEF\"", DmColorPacked.class)
+    );
+  }
+
+  /**
+   * Invalid packed colors are rejected.
+   */
+
+  @Test
+  public void testDeserializeInvalid()
+  {
+    final var mapper = createMapper();
+    for (final var text : List.of("\"#12345\"", "\"#12345g\"", "23", "{}")) {
+      final var ex =
+        assertThrows(MismatchedInputException.class, () -> {
+          mapper.readValue(text, DmColorPacked.class);
+        });
+      assertTrue(ex.getMessage().startsWith("Color values must match"));
+    }
+  }
+}
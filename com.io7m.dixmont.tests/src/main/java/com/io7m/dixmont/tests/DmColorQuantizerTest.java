@@ -0,0 +1,295 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorArray;
+import com.io7m.dixmont.colors.DmColorPacked;
+import com.io7m.dixmont.colors.DmColorQuantizer;
+import com.io7m.dixmont.colors.DmColorRaster;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class DmColorQuantizerTest
+{
+  private static final int[] CENTERS = {
+    0x102030,
+    0xe0c040,
+    0x30a060,
+    0x8020c0,
+    0xf0f0f0,
+    0x000000,
+  };
+
+  private static ForkJoinPool SEQUENTIAL;
+  private static ForkJoinPool PARALLEL;
+
+  @BeforeAll
+  public static void setupOnce()
+  {
+    SEQUENTIAL = new ForkJoinPool(1);
+    PARALLEL = new ForkJoinPool(8);
+  }
+
+  @AfterAll
+  public static void tearDownOnce()
+  {
+    SEQUENTIAL.shutdown();
+    PARALLEL.shutdown();
+  }
+
+  /*
+   * Colors scattered closely around a few centers.
+   */
+
+  private static int[] clusters(
+    final Random random,
+    final int size)
+  {
+    final var result = new int[size];
+    for (int index = 0; index < size; ++index) {
+      final var center = CENTERS[random.nextInt(CENTERS.length)];
+      result[index] = DmColorPacked.pack(
+        DmColorPacked.red(center) + random.nextInt(9) - 4,
+        DmColorPacked.green(center) + random.nextInt(9) - 4,
+        DmColorPacked.blue(center) + random.nextInt(9) - 4
+      );
+    }
+    return result;
+  }
+
+  private static int[] noise(
+    final Random random,
+    final int size)
+  {
+    final var result = new int[size];
+    for (int index = 0; index < size; ++index) {
+      result[index] = random.nextInt(0x1000000);
+    }
+    return result;
+  }
+
+  private static int distance(
+    final int x,
+    final int y)
+  {
+    final var dr = DmColorPacked.red(x) - DmColorPacked.red(y);
+    final var dg = DmColorPacked.green(x) - DmColorPacked.green(y);
+    final var db = DmColorPacked.blue(x) - DmColorPacked.blue(y);
+    return Math.max(Math.abs(dr), Math.max(Math.abs(dg), Math.abs(db)));
+  }
+
+  /**
+   * Inputs with few distinct colors are reproduced exactly, in descending
+   * order of population.
+   */
+
+  @Test
+  public void testFewColorsExact()
+  {
+    final var input = new int[]{
+      0x00ff00, 0xff0000, 0x00ff00, 0x0000ff, 0x00ff00, 0xff0000,
+    };
+
+    final var palette = DmColorQuantizer.quantize(input, 0, input.length, 16);
+    assertEquals(
+      List.of(
+        DmColorPacked.toColor(0x00ff00),
+        DmColorPacked.toColor(0xff0000),
+        DmColorPacked.toColor(0x0000ff)),
+      palette.colors()
+    );
+  }
+
+  /**
+   * A single color produces a single-color palette.
+   */
+
+  @Test
+  public void testSingleColor()
+  {
+    final var palette =
+      DmColorQuantizer.quantize(DmColorArray.ofPacked(0x334c66), 256);
+    assertEquals(List.of(DmColorPacked.toColor(0x334c66)), palette.colors());
+  }
+
+  /**
+   * Palettes never exceed the requested size, and reach it when the input
+   * has enough distinct colors.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testPaletteSize()
+  {
+    final var input = noise(new Random(0x49L), 200_000);
+    return IntStream.of(1, 2, 3, 16, 255, 256, 1024)
+      .mapToObj(size -> DynamicTest.dynamicTest("testPaletteSize_" + size, () -> {
+        final var palette =
+          DmColorQuantizer.quantize(PARALLEL, input, 0, input.length, size);
+        assertEquals(size, palette.size());
+      }));
+  }
+
+  /**
+   * Clustered input produces a palette color near each cluster.
+   */
+
+  @Test
+  public void testClusters()
+  {
+    final var input = clusters(new Random(0x50L), 300_000);
+    final var palette =
+      DmColorQuantizer.quantize(PARALLEL, input, 0, input.length, 16);
+
+    assertEquals(16, palette.size());
+    for (final var center : CENTERS) {
+      final var nearest = palette.nearestIndexPacked(center);
+      final var found = palette.packed(nearest);
+      assertTrue(
+        distance(center, found) <= 3,
+        "%06x near %06x".formatted(Integer.valueOf(center), Integer.valueOf(found))
+      );
+    }
+  }
+
+  /**
+   * The result does not depend on the parallelism of the pool.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testParallelismIndependent()
+  {
+    return Stream.of(Integer.valueOf(10), Integer.valueOf(70_000), Integer.valueOf(1_000_003))
+      .map(size -> DynamicTest.dynamicTest("testParallelismIndependent_" + size, () -> {
+        final var input = noise(new Random(size.longValue()), size.intValue());
+        final var sequential =
+          DmColorQuantizer.quantize(SEQUENTIAL, input, 0, input.length, 64);
+        final var parallel =
+          DmColorQuantizer.quantize(PARALLEL, input, 0, input.length, 64);
+        assertEquals(sequential.colors(), parallel.colors());
+      }));
+  }
+
+  /**
+   * Arrays, rasters, and ranges of packed values containing the same colors
+   * produce the same palettes.
+   */
+
+  @Test
+  public void testSourcesAgree()
+  {
+    final var width = 301;
+    final var height = 997;
+    final var input = clusters(new Random(0x51L), width * height);
+
+    final var raster = DmColorRaster.allocate(width, height);
+    for (int y = 0; y < height; ++y) {
+      raster.writeRow(y, input, y * width);
+    }
+
+    final var padded = new int[input.length + 20];
+    System.arraycopy(input, 0, padded, 10, input.length);
+    for (int index = 0; index < 10; ++index) {
+      padded[index] = 0xffffff;
+      padded[padded.length - 1 - index] = 0xffffff;
+    }
+
+    final var expected =
+      DmColorQuantizer.quantize(SEQUENTIAL, input, 0, input.length, 32).colors();
+
+    assertEquals(
+      expected,
+      DmColorQuantizer.quantize(PARALLEL, padded, 10, input.length, 32).colors());
+    assertEquals(
+      expected,
+      DmColorQuantizer.quantize(PARALLEL, DmColorArray.ofPacked(input), 32).colors());
+    assertEquals(
+      expected,
+      DmColorQuantizer.quantize(PARALLEL, raster, 32).colors());
+  }
+
+  /**
+   * Each palette color is the average of the colors it replaces.
+   */
+
+  @Test
+  public void testAverage()
+  {
+    final var input = new int[]{0x000000, 0x000002, 0x000004, 0xff0000};
+    final var palette = DmColorQuantizer.quantize(input, 0, input.length, 2);
+    assertEquals(
+      List.of(DmColorPacked.toColor(0x000002), DmColorPacked.toColor(0xff0000)),
+      palette.colors()
+    );
+  }
+
+  /**
+   * Invalid arguments are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    final var input = new int[]{0x102030};
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmColorQuantizer.quantize(input, 0, 0, 16);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmColorQuantizer.quantize(input, 0, 1, 0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmColorQuantizer.quantize(input, 0, 1, DmColorQuantizer.MAXIMUM_COLORS + 1);
+    });
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      DmColorQuantizer.quantize(input, 1, 1, 16);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmColorQuantizer.quantize(DmColorArray.empty(), 16);
+    });
+  }
+
+  /**
+   * The palette colors are ordinary colors.
+   */
+
+  @Test
+  public void testColorsQuantized()
+  {
+    final var input = noise(new Random(0x52L), 1000);
+    final var palette = DmColorQuantizer.quantize(input, 0, input.length, 40);
+    for (final DmColor color : palette.colors()) {
+      assertEquals(color, DmColorPacked.toColor(DmColorPacked.pack(color)));
+    }
+  }
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.colors.DmColorRaster;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.exc.MismatchedInputException;
+import tools.jackson.databind.exc.UnrecognizedPropertyException;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tools.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
+
+public final class DmColorRasterTest
+{
+  private static ObjectMapper createMapper()
+  {
+    return JsonMapper.builder()
+      .addModule(DmColorModule.create())
+      .build();
+  }
+
+  private static DmColorRaster pattern(
+    final int width,
+    final int height)
+  {
+    final var raster = DmColorRaster.allocate(width, height);
+    for (int y = 0; y < height; ++y) {
+      for (int x = 0; x < width; ++x) {
+        raster.set(x, y, (y * width + x) * 0x010307);
+      }
+    }
+    return raster;
+  }
+
+  private static void assertRastersEqual(
+    final DmColorRaster expected,
+    final DmColorRaster received)
+  {
+    assertEquals(expected.width(), received.width());
+    assertEquals(expected.height(), received.height());
+    for (int y = 0; y < expected.height(); ++y) {
+      for (int x = 0; x < expected.width(); ++x) {
+        assertEquals(expected.get(x, y), received.get(x, y));
+      }
+    }
+  }
+
+  /**
+   * Pixels can be read and written.
+   */
+
+  @Test
+  public void testPixels()
+  {
+    final var raster = DmColorRaster.allocate(3, 2);
+    assertEquals(3, raster.width());
+    assertEquals(2, raster.height());
+    assertFalse(raster.isMapped());
+    assertEquals(0, raster.get(2, 1));
+
+    raster.set(2, 1, 0xff102030);
+    assertEquals(0x102030, raster.get(2, 1));
+    assertEquals(0, raster.get(1, 1));
+
+    raster.setColor(0, 0, new DmColor(1.0, 0.0, 0.2));
+    assertEquals(new DmColor(1.0, 0.0, 0.2).toString(), raster.color(0, 0).toString());
+
+    final var row = new int[5];
+    raster.readRow(1, row, 2);
+    assertEquals(0, row[2]);
+    assertEquals(0x102030, row[4]);
+
+    raster.writeRow(0, new int[]{1, 2, 3}, 0);
+    assertEquals(3, raster.get(2, 0));
+
+    raster.fill(0x0a0b0c);
+    assertEquals(0x0a0b0c, raster.get(0, 0));
+    assertEquals(0x0a0b0c, raster.get(2, 1));
+
+    assertThrows(IndexOutOfBoundsException.class, () -> raster.get(3, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> raster.set(0, 2, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> raster.get(-1, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> raster.readRow(0, row, 3));
+  }
+
+  /**
+   * Invalid dimensions are rejected.
+   */
+
+  @Test
+  public void testDimensions()
+  {
+    assertThrows(IllegalArgumentException.class, () -> DmColorRaster.allocate(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> DmColorRaster.allocate(1, -1));
+    assertThrows(IllegalArgumentException.class, () -> DmColorRaster.allocate(65536, 65536));
+  }
+
+  /**
+   * Mapped rasters are stored in files.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMapped(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var file = directory.resolve("raster.bin");
+    final var raster = DmColorRaster.map(file, 7, 5);
+    assertTrue(raster.isMapped());
+    assertEquals(0, raster.get(6, 4));
+
+    raster.set(1, 0, 0x112233);
+    raster.set(6, 4, 0x445566);
+    raster.force();
+
+    final var bytes = Files.readAllBytes(file);
+    assertEquals(7 * 5 * DmColorRaster.BYTES_PER_PIXEL, bytes.length);
+    final var buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(0x112233, buffer.getInt(4));
+    assertEquals(0x445566, buffer.getInt(bytes.length - 4));
+
+    final var again = DmColorRaster.map(file, 7, 5);
+    assertRastersEqual(raster, again);
+  }
+
+  /**
+   * The upper eight bits of pixels in mapped files are ignored.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMappedUpperBits(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var buffer =
+      ByteBuffer.allocate(3 * DmColorRaster.BYTES_PER_PIXEL)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(0xff112233);
+    buffer.putInt(0x80445566);
+    buffer.putInt(0x01778899);
+
+    final var file = directory.resolve("raster.bin");
+    Files.write(file, buffer.array());
+
+    final var raster = DmColorRaster.map(file, 3, 1);
+    assertEquals(0x112233, raster.get(0, 0));
+    assertEquals(0x445566, raster.get(1, 0));
+    assertEquals(0x778899, raster.get(2, 0));
+
+    final var row = new int[3];
+    raster.readRow(0, row, 0);
+    assertEquals(0x112233, row[0]);
+    assertEquals(0x445566, row[1]);
+    assertEquals(0x778899, row[2]);
+
+    assertEquals(
+      "{\"width\":3,\"height\":1,\"rows\":[[\"#112233\",\"#445566\",\"#778899\"]]}",
+      createMapper().writeValueAsString(raster)
+    );
+
+    raster.transform(rgb -> {
+      assertEquals(0, rgb & 0xff000000);
+      return rgb;
+    });
+  }
+
+  /**
+   * Every pixel is visited exactly once by tile operations.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testTiles()
+  {
+    return Stream.of(
+      new int[]{1, 1, 1},
+      new int[]{1, 1, 64},
+      new int[]{100, 1, 7},
+      new int[]{1, 100, 7},
+      new int[]{130, 67, 64},
+      new int[]{128, 128, 64},
+      new int[]{257, 3, 16}
+    ).map(params -> {
+      final var width = params[0];
+      final var height = params[1];
+      final var tileSize = params[2];
+      return DynamicTest.dynamicTest(
+        "testTiles_%d_%d_%d".formatted(params[0], params[1], params[2]),
+        () -> {
+          final var raster = DmColorRaster.allocate(width, height);
+          final var visits = new AtomicIntegerArray(width * height);
+          raster.forEachTile(tileSize, (r, x, y, w, h) -> {
+            assertSame(raster, r);
+            assertTrue(w > 0 && w <= tileSize);
+            assertTrue(h > 0 && h <= tileSize);
+            for (int py = y; py < y + h; ++py) {
+              for (int px = x; px < x + w; ++px) {
+                visits.incrementAndGet(py * width + px);
+              }
+            }
+          });
+          for (int index = 0; index < width * height; ++index) {
+            assertEquals(1, visits.get(index));
+          }
+        });
+    });
+  }
+
+  /**
+   * Parallel transforms give the same results as sequential ones.
+   */
+
+  @Test
+  public void testTransform()
+  {
+    final var raster = pattern(300, 200);
+    final var expected = pattern(300, 200);
+    for (int y = 0; y < 200; ++y) {
+      for (int x = 0; x < 300; ++x) {
+        expected.set(x, y, expected.get(x, y) ^ 0xffffff);
+      }
+    }
+
+    raster.transform(rgb -> rgb ^ 0xffffffff);
+    assertRastersEqual(expected, raster);
+  }
+
+  /**
+   * Exceptions raised by tile processors are propagated.
+   */
+
+  @Test
+  public void testTileFailure()
+  {
+    final var raster = DmColorRaster.allocate(100, 100);
+    final var pool = new ForkJoinPool(4);
+    try {
+      assertThrows(IllegalStateException.class, () -> {
+        raster.forEachTile(pool, 10, (r, x, y, w, h) -> {
+          if (x == 50 && y == 50) {
+            throw new IllegalStateException();
+          }
+        });
+      });
+    } finally {
+      pool.shutdown();
+    }
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      raster.forEachTile(0, (r, x, y, w, h) -> { });
+    });
+  }
+
+  /**
+   * Rasters serialize as rows of colors and round trip.
+   */
+
+  @Test
+  public void testSerialization()
+  {
+    final var mapper = createMapper();
+    final var raster = DmColorRaster.allocate(2, 2);
+    raster.set(0, 0, 0x334c66);
+    raster.set(1, 0, 0xff007f);
+    raster.set(1, 1, 0xffffff);
+
+    final var text = mapper.writeValueAsString(raster);
+    assertEquals(
+      "{\"width\":2,\"height\":2,\"rows\":[[\"#334c66\",\"#ff007f\"],[\"#000000\",\"#ffffff\"]]}",
+      text
+    );
+    assertRastersEqual(raster, mapper.readValue(text, DmColorRaster.class));
+
+    final var large = pattern(513, 77);
+    assertRastersEqual(
+      large,
+      mapper.readValue(mapper.writeValueAsBytes(large), DmColorRaster.class)
+    );
+  }
+
+  /**
+   * Rasters round trip through binary formats.
+   */
+
+  @Test
+  public void testSerializationBinary()
+  {
+    final var mapper =
+      CBORMapper.builder()
+        .addModule(DmColorModule.create())
+        .build();
+
+    final var raster = pattern(31, 17);
+    assertRastersEqual(
+      raster,
+      mapper.readValue(mapper.writeValueAsBytes(raster), DmColorRaster.class)
+    );
+  }
+
+  /**
+   * Rasters can be read into existing (mapped) rasters.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadForUpdating(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var mapper = createMapper();
+    final var source = pattern(40, 30);
+    final var text = mapper.writeValueAsBytes(source);
+
+    final var target = DmColorRaster.map(directory.resolve("raster.bin"), 40, 30);
+    final DmColorRaster read =
+      mapper.readerForUpdating(target).readValue(text);
+
+    assertSame(target, read);
+    assertRastersEqual(source, target);
+
+    final var wrongSize = DmColorRaster.allocate(30, 40);
+    assertThrows(MismatchedInputException.class, () -> {
+      mapper.readerForUpdating(wrongSize).readValue(text);
+    });
+  }
+
+  /**
+   * Rasters with too many pixels are rejected before allocation.
+   */
+
+  @Test
+  public void testTooLarge()
+  {
+    final var mapper =
+      JsonMapper.builder()
+        .addModule(DmColorModule.builder().setRasterMaximumPixels(100L).buildModule())
+        .build();
+
+    final var ex = assertThrows(MismatchedInputException.class, () -> {
+      mapper.readValue("{\"width\":11,\"height\":10,\"rows\":[]}", DmColorRaster.class);
+    });
+    assertTrue(ex.getMessage().contains("exceed the maximum of 100 pixels"));
+
+    assertThrows(MismatchedInputException.class, () -> {
+      createMapper().readValue(
+        "{\"width\":65536,\"height\":65536,\"rows\":[]}",
+        DmColorRaster.class
+      );
+    });
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmColorModule.builder().setRasterMaximumPixels(0L);
+    });
+  }
+
+  /**
+   * Malformed rasters are rejected.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testInvalid()
+  {
+    return Stream.of(
+      "[]",
+      "23",
+      "{}",
+      "{\"width\":1,\"height\":1}",
+      "{\"rows\":[[\"#000000\"]],\"width\":1,\"height\":1}",
+      "{\"width\":0,\"height\":1,\"rows\":[]}",
+      "{\"width\":1.5,\"height\":1,\"rows\":[]}",
+      "{\"width\":\"1\",\"height\":1,\"rows\":[]}",
+      "{\"width\":1,\"height\":1,\"rows\":{}}",
+      "{\"width\":1,\"height\":1,\"rows\":[]}",
+      "{\"width\":1,\"height\":1,\"rows\":[[]]}",
+      "{\"width\":1,\"height\":1,\"rows\":[[\"#000000\",\"#000000\"]]}",
+      "{\"width\":1,\"height\":1,\"rows\":[[\"#000000\"],[\"#000000\"]]}",
+      "{\"width\":1,\"height\":1,\"rows\":[[\"#00000g\"]]}",
+      "{\"width\":1,\"height\":1,\"rows\":[[23]]}",
+      "{\"width\":1,\"height\":1,\"rows\":[[\"#000000\"]],\"rows\":[[\"#000000\"]]}"
+    ).map(text -> {
+      return DynamicTest.dynamicTest("testInvalid_" + text, () -> {
+        assertThrows(MismatchedInputException.class, () -> {
+          createMapper().readValue(text, DmColorRaster.class);
+        });
+      });
+    });
+  }
+
+  /**
+   * Unknown properties are handled according to the mapper configuration.
+   */
+
+  @Test
+  public void testUnknownProperties()
+  {
+    final var text =
+      "{\"width\":1,\"x\":[1,{}],\"height\":1,\"rows\":[[\"#010203\"]]}";
+
+    final var lenient =
+      createMapper()
+        .rebuild()
+        .disable(FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+    assertEquals(0x010203, lenient.readValue(text, DmColorRaster.class).get(0, 0));
+
+    final var strict =
+      createMapper()
+        .rebuild()
+        .enable(FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+    assertThrows(UnrecognizedPropertyException.class, () -> {
+      strict.readValue(text, DmColorRaster.class);
+    });
+  }
+
+  /**
+   * Rasters are subject to restricted deserialization.
+   */
+
+  @Test
+  public void testRestricted()
+  {
+    final var text = "{\"width\":1,\"height\":1,\"rows\":[[\"#010203\"]]}";
+
+    final var allowed =
+      JsonMapper.builder()
+        .addModule(DmColorModule.create())
+        .addModule(
+          DmJsonRestrictedDeserializers.builder()
+            .allowClass(DmColorRaster.class)
+            .buildModule())
+        .build();
+    assertEquals(0x010203, allowed.readValue(text, DmColorRaster.class).get(0, 0));
+
+    final var denied =
+      JsonMapper.builder()
+        .addModule(DmColorModule.create())
+        .addModule(DmJsonRestrictedDeserializers.builder().buildModule())
+        .build();
+    assertThrows(JacksonException.class, () -> {
+      denied.readValue(text, DmColorRaster.class);
+    });
+  }
+}
@@ -22,11 +22,26 @@ import tools.jackson.databind.annotation.JsonSerialize;
 import tools.jackson.databind.json.JsonMapper;
 import com.io7m.dixmont.colors.DmColor;
 import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.colors.DmColorPacked;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.exc.InvalidFormatException;
+import tools.jackson.databind.exc.MismatchedInputException;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class DmColorSerializationTest
 {
@@ -72,4 +87,296 @@ public final class DmColorSerializationTest
 
     assertEquals(v0.toString(), rec.toString());
   }
+
+  private static ObjectMapper createMapper()
+  {
+    return JsonMapper.builder()
+      .addModule(DmColorModule.create())
+      .build();
+  }
+
+  /**
+   * Valid colors are accepted.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testDeserializeValid()
+  {
+    final var mapper = createMapper();
+    return Map.of(
+      "\"#000000\"", new DmColor(0.0, 0.0, 0.0),
+      "\"#ffffff\"", new DmColor(1.0, 1.0, 1.0),
+      "\"#FFFFFF\"", new DmColor(1.0, 1.0, 1.0),
+      "\"#aB09fF\"", new DmColor(0xab / 255.0, 0x09 / 255.0, 0xff / 255.0),
+      "\"#\\u0033\\u0033\\u0034c66\"", new DmColor(0x33 / 255.0, 0x4c / 255.0, 0x66 / 255.0)
+    ).entrySet().stream().map(e -> {
+      return DynamicTest.dynamicTest("testDeserializeValid_" + e.getKey(), () -> {
+        assertEquals(e.getValue(), mapper.readValue(e.getKey(), DmColor.class));
+      });
+    });
+  }
+
+  /**
+   * Invalid colors are rejected.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testDeserializeInvalid()
+  {
+    final var mapper = createMapper();
+    return Stream.of(
+      "\"\"",
+      "\"#\"",
+      "\"#33\"",
+      "\"#334c6\"",
+      "\"#334c666\"",
+      "\"334c66\"",
+      "\"334c66f\"",
+      "\" #334c66\"",
+      "\"#334c6g\"",
+      "\"#33 4c6\"",
+      "\"#g34c66\"",
+      "\"#334c6\\u0000\"",
+      "\"#\uff13\uff13\uff14c66\"",
+      "\"#33\u00e94c6\"",
+      "23",
+      "true",
+      "{}",
+      "[]"
+    ).map(text -> {
+      return DynamicTest.dynamicTest("testDeserializeInvalid_" + text, () -> {
+        final var ex =
+          assertThrows(MismatchedInputException.class, () -> {
+            mapper.readValue(text, DmColor.class);
+          });
+        assertTrue(
+          ex.getMessage().startsWith(
+            "Color values must match the pattern #([a-fA-F0-9]{2})([a-fA-F0-9]{2})([a-fA-F0-9]{2})"),
+          ex.getMessage()
+        );
+      });
+    });
+  }
+
+  private static String formatted(
+    final DmColor color)
+  {
+    return String.format(
+      "#%02x%02x%02x",
+      Integer.valueOf((int) (color.red() * 255.0)),
+      Integer.valueOf((int) (color.green() * 255.0)),
+      Integer.valueOf((int) (color.blue() * 255.0))
+    );
+  }
+
+  /**
+   * Serialized colors are identical to the original formatted output for
+   * every channel value, including values that fall between quantization
+   * steps.
+   */
+
+  @Test
+  public void testSerializeIdenticalToFormat()
+  {
+    final var mapper = createMapper();
+    final var offsets = new double[] {
+      0.0, 1.0e-9, 0.25, 0.5, 0.999, 0.999999999, -1.0e-9,
+    };
+
+    for (int index = 0; index < 256; ++index) {
+      for (final var offset : offsets) {
+        final var value = ((double) index + offset) / 255.0;
+        final var colors = new DmColor[] {
+          new DmColor(value, 0.0, 0.0),
+          new DmColor(0.0, value, 1.0),
+          new DmColor(1.0, 0.5, value),
+          new DmColor(value, value, value),
+        };
+        for (final var color : colors) {
+          final var expected = formatted(color);
+          assertEquals(expected, color.toString());
+          assertEquals("\"" + expected + "\"", mapper.writeValueAsString(color));
+        }
+      }
+    }
+
+    final var nan = new DmColor(Double.NaN, 2.0, -1.0);
+    assertEquals(formatted(nan), nan.toString());
+    assertEquals("\"" + formatted(nan) + "\"", mapper.writeValueAsString(nan));
+  }
+
+  /**
+   * Colors can be used as map keys.
+   */
+
+  @Test
+  public void testMapKeys()
+  {
+    final var mapper = createMapper();
+    final var map = new LinkedHashMap<DmColor, Integer>();
+    map.put(new DmColor(0.2, 0.3, 0.4), Integer.valueOf(1));
+    map.put(new DmColor(1.0, 0.0, 0.0), Integer.valueOf(2));
+
+    final var text = mapper.writeValueAsString(map);
+    assertEquals("{\"#334c66\":1,\"#ff0000\":2}", text);
+
+    final var received =
+      mapper.readValue(text, new TypeReference<Map<DmColor, Integer>>()
+      {
+      });
+
+    assertEquals(
+      Map.of(
+        new DmColor(0x33 / 255.0, 0x4c / 255.0, 0x66 / 255.0),
+        Integer.valueOf(1),
+        new DmColor(1.0, 0.0, 0.0),
+        Integer.valueOf(2)
+      ),
+      received
+    );
+  }
+
+  /**
+   * Maps with many color keys are written correctly, including keys whose
+   * encoded names replace each other in the serializer's name table.
+   */
+
+  @Test
+  public void testMapKeysMany()
+  {
+    final var mapper = createMapper();
+    final var map = new LinkedHashMap<DmColor, Integer>();
+    final var expected = new StringBuilder("{");
+    for (int index = 0; index < 5000; ++index) {
+      final var rgb = index * 3319 & 0xffffff;
+      if (index > 0) {
+        expected.append(',');
+      }
+      expected.append("\"#%06x\":%d".formatted(Integer.valueOf(rgb), Integer.valueOf(index)));
+      map.put(DmColorPacked.toColor(rgb), Integer.valueOf(index));
+    }
+    expected.append('}');
+
+    assertEquals(expected.toString(), mapper.writeValueAsString(map));
+    assertEquals(expected.toString(), mapper.writeValueAsString(map));
+  }
+
+  /**
+   * Invalid map keys are rejected.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testMapKeysInvalid()
+  {
+    final var mapper = createMapper();
+    return Stream.of("", "#fff", "red", "#gggggg", "#3344556")
+      .map(key -> DynamicTest.dynamicTest("testMapKeysInvalid_" + key, () -> {
+        final var ex = assertThrows(InvalidFormatException.class, () -> {
+          mapper.readValue(
+            "{\"%s\":1}".formatted(key),
+            new TypeReference<Map<DmColor, Integer>>()
+            {
+            });
+        });
+        assertEquals(DmColor.class, ex.getTargetType());
+      }));
+  }
+
+  /**
+   * Map keys accept the extended syntax if enabled.
+   */
+
+  @Test
+  public void testMapKeysExtended()
+  {
+    final var mapper =
+      JsonMapper.builder()
+        .addModule(
+          DmColorModule.builder()
+            .setExtendedSyntaxEnabled(true)
+            .buildModule())
+        .build();
+
+    final var received =
+      mapper.readValue(
+        "{\"red\":1,\"#0f0\":2,\"rgb(0, 0, 255)\":3}",
+        new TypeReference<Map<DmColor, Integer>>()
+        {
+        });
+
+    assertEquals(
+      Map.of(
+        new DmColor(1.0, 0.0, 0.0),
+        Integer.valueOf(1),
+        new DmColor(0.0, 1.0, 0.0),
+        Integer.valueOf(2),
+        new DmColor(0.0, 0.0, 1.0),
+        Integer.valueOf(3)
+      ),
+      received
+    );
+  }
+
+  /**
+   * Color-keyed maps work with a restricted allowlist.
+   */
+
+  @Test
+  public void testMapKeysRestricted()
+  {
+    final var mapper =
+      JsonMapper.builder()
+        .addModule(DmColorModule.create())
+        .addModule(
+          DmJsonRestrictedDeserializers.builder()
+            .allowMapsOfClass(DmColor.class, Integer.class)
+            .buildModule())
+        .build();
+
+    final var type = new TypeReference<Map<DmColor, Integer>>()
+    {
+    };
+
+    assertEquals(
+      Map.of(new DmColor(1.0, 0.0, 0.0), Integer.valueOf(1)),
+      mapper.readValue("{\"#ff0000\":1}", type)
+    );
+    assertThrows(JacksonException.class, () -> {
+      mapper.readValue(
+        "{\"#ff0000\":\"x\"}",
+        new TypeReference<Map<DmColor, String>>()
+        {
+        });
+    });
+  }
+
+  /**
+   * Color-keyed maps work in binary formats.
+   */
+
+  @Test
+  public void testMapKeysBinary()
+  {
+    final var mapper =
+      CBORMapper.builder()
+        .addModule(DmColorModule.create())
+        .build();
+
+    final var map =
+      Map.of(new DmColor(1.0, 0.0, 0.0), new DmColor(0.0, 0.0, 1.0));
+    final var bytes = mapper.writeValueAsBytes(map);
+
+    assertEquals(
+      map,
+      mapper.readValue(bytes, new TypeReference<Map<DmColor, DmColor>>()
+      {
+      })
+    );
+  }
 }
@@ -0,0 +1,373 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorArray;
+import com.io7m.dixmont.colors.DmColorBatch;
+import com.io7m.dixmont.colors.DmColorHSL;
+import com.io7m.dixmont.colors.DmColorHSV;
+import com.io7m.dixmont.colors.DmColorLab;
+import com.io7m.dixmont.colors.DmColorPacked;
+import com.io7m.dixmont.colors.DmColorSpaces;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class DmColorSpacesTest
+{
+  private static final double EPSILON = 1.0e-9;
+
+  /*
+   * The reference implementation of the sRGB transfer functions, written
+   * directly from IEC 61966-2-1.
+   */
+
+  private static double referenceDecode(
+    final double c)
+  {
+    return c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+  }
+
+  private static double referenceEncode(
+    final double c)
+  {
+    return c <= 0.0031308 ? 12.92 * c : 1.055 * Math.pow(c, 1.0 / 2.4) - 0.055;
+  }
+
+  private static List<DmColor> sampleColors()
+  {
+    final var colors = new ArrayList<DmColor>();
+    for (int rgb = 0; rgb <= 0xffffff; rgb += 0x0f0d0b) {
+      colors.add(DmColorPacked.toColor(rgb));
+    }
+    colors.add(new DmColor(1.0, 1.0, 1.0));
+    colors.add(new DmColor(0.5, 0.5, 0.5));
+    colors.add(new DmColor(1.0, 0.0, 0.0));
+    colors.add(new DmColor(0.0, 1.0, 0.0));
+    colors.add(new DmColor(0.0, 0.0, 1.0));
+    colors.add(new DmColor(1.0, 1.0, 0.0));
+    colors.add(new DmColor(0.0, 1.0, 1.0));
+    colors.add(new DmColor(1.0, 0.0, 1.0));
+    return colors;
+  }
+
+  private static void assertColorClose(
+    final DmColor expected,
+    final DmColor received,
+    final double epsilon)
+  {
+    final var message = "%s vs %s".formatted(expected, received);
+    assertEquals(expected.red(), received.red(), epsilon, message);
+    assertEquals(expected.green(), received.green(), epsilon, message);
+    assertEquals(expected.blue(), received.blue(), epsilon, message);
+  }
+
+  /**
+   * The 8-bit decoding table matches the reference exactly.
+   */
+
+  @Test
+  public void testDecodeTable()
+  {
+    for (int c = 0; c < 256; ++c) {
+      assertEquals(
+        referenceDecode((double) c / 255.0),
+        DmColorSpaces.srgb8ToLinear(c)
+      );
+    }
+  }
+
+  /**
+   * The 8-bit encoding table produces the nearest 8-bit value to the
+   * reference, except where the reference is within rounding error of
+   * halfway between two values.
+   */
+
+  @Test
+  public void testEncodeTable()
+  {
+    final var random = new Random(0x38L);
+    final var values = new double[1_000_000 + 256];
+    for (int index = 0; index < 1_000_000; ++index) {
+      values[index] = random.nextDouble();
+    }
+    for (int c = 0; c < 256; ++c) {
+      values[1_000_000 + c] = referenceDecode((double) c / 255.0);
+    }
+
+    for (final var x : values) {
+      final var scaled = referenceEncode(x) * 255.0;
+      final var expected = (int) Math.round(scaled);
+      final var received = DmColorSpaces.linearToSrgb8(x);
+      if (expected != received) {
+        assertTrue(
+          Math.abs(scaled - Math.floor(scaled) - 0.5) < EPSILON,
+          "Linear %s: expected %d, received %d".formatted(
+            Double.valueOf(x),
+            Integer.valueOf(expected),
+            Integer.valueOf(received))
+        );
+      }
+    }
+
+    for (int c = 0; c < 256; ++c) {
+      assertEquals(c, DmColorSpaces.linearToSrgb8(DmColorSpaces.srgb8ToLinear(c)));
+    }
+
+    assertEquals(0, DmColorSpaces.linearToSrgb8(-1.0));
+    assertEquals(0, DmColorSpaces.linearToSrgb8(Double.NaN));
+    assertEquals(255, DmColorSpaces.linearToSrgb8(2.0));
+  }
+
+  /**
+   * Linear conversions match the reference and round trip.
+   */
+
+  @Test
+  public void testLinear()
+  {
+    for (final var color : sampleColors()) {
+      final var linear = DmColorSpaces.toLinear(color);
+      assertEquals(referenceDecode(color.red()), linear.red());
+      assertEquals(referenceDecode(color.green()), linear.green());
+      assertEquals(referenceDecode(color.blue()), linear.blue());
+      assertColorClose(color, DmColorSpaces.fromLinear(linear), EPSILON);
+    }
+  }
+
+  /**
+   * HSV conversions match the AWT implementation and round trip.
+   */
+
+  @Test
+  public void testHSV()
+  {
+    for (final var color : sampleColors()) {
+      final var r = (int) Math.round(color.red() * 255.0);
+      final var g = (int) Math.round(color.green() * 255.0);
+      final var b = (int) Math.round(color.blue() * 255.0);
+      final var awt = Color.RGBtoHSB(r, g, b, null);
+      final var hsv =
+        DmColorSpaces.toHSV(new DmColor(r / 255.0, g / 255.0, b / 255.0));
+
+      if (hsv.saturation() > 0.0) {
+        final var hueDelta = Math.abs(hsv.hue() - awt[0] * 360.0);
+        assertTrue(Math.min(hueDelta, 360.0 - hueDelta) < 1.0e-3, color.toString());
+      }
+      assertEquals(awt[1], hsv.saturation(), 1.0e-6, color.toString());
+      assertEquals(awt[2], hsv.value(), 1.0e-6, color.toString());
+      assertColorClose(
+        color,
+        DmColorSpaces.fromHSV(DmColorSpaces.toHSV(color)),
+        EPSILON
+      );
+    }
+  }
+
+  /**
+   * HSL conversions match known values and round trip.
+   */
+
+  @Test
+  public void testHSL()
+  {
+    assertEquals(
+      new DmColorHSL(0.0, 1.0, 0.5),
+      DmColorSpaces.toHSL(new DmColor(1.0, 0.0, 0.0))
+    );
+    assertEquals(
+      new DmColorHSL(120.0, 1.0, 0.25),
+      DmColorSpaces.toHSL(new DmColor(0.0, 0.5, 0.0))
+    );
+    assertEquals(
+      new DmColorHSL(0.0, 0.0, 0.5),
+      DmColorSpaces.toHSL(new DmColor(0.5, 0.5, 0.5))
+    );
+    assertColorClose(
+      new DmColor(0.75, 0.25, 0.75),
+      DmColorSpaces.fromHSL(new DmColorHSL(300.0 - 720.0, 0.5, 0.5)),
+      EPSILON
+    );
+
+    for (final var color : sampleColors()) {
+      final var hsl = DmColorSpaces.toHSL(color);
+      assertTrue(hsl.hue() >= 0.0 && hsl.hue() < 360.0, hsl.toString());
+      assertColorClose(color, DmColorSpaces.fromHSL(hsl), EPSILON);
+    }
+  }
+
+  /**
+   * Lab conversions match published reference values and round trip.
+   */
+
+  @Test
+  public void testLab()
+  {
+    final var references = List.of(
+      List.of(new DmColor(1.0, 1.0, 1.0), new DmColorLab(100.0, 0.0, 0.0)),
+      List.of(new DmColor(0.0, 0.0, 0.0), new DmColorLab(0.0, 0.0, 0.0)),
+      List.of(new DmColor(1.0, 0.0, 0.0), new DmColorLab(53.2408, 80.0925, 67.2032)),
+      List.of(new DmColor(0.0, 1.0, 0.0), new DmColorLab(87.7347, -86.1827, 83.1793)),
+      List.of(new DmColor(0.0, 0.0, 1.0), new DmColorLab(32.2970, 79.1875, -107.8602))
+    );
+
+    for (final var reference : references) {
+      final var color = (DmColor) reference.get(0);
+      final var expected = (DmColorLab) reference.get(1);
+      final var lab = DmColorSpaces.toLab(color);
+      assertEquals(expected.lightness(), lab.lightness(), 1.0e-2, color.toString());
+      assertEquals(expected.a(), lab.a(), 1.0e-2, color.toString());
+      assertEquals(expected.b(), lab.b(), 1.0e-2, color.toString());
+    }
+
+    for (final var color : sampleColors()) {
+      final var lab = DmColorSpaces.toLab(color);
+      assertColorClose(color, DmColorSpaces.fromLab(lab), EPSILON);
+    }
+  }
+
+  /**
+   * WCAG contrast ratios match known values.
+   */
+
+  @Test
+  public void testContrast()
+  {
+    final var black = new DmColor(0.0, 0.0, 0.0);
+    final var white = new DmColor(1.0, 1.0, 1.0);
+    assertEquals(21.0, DmColorSpaces.contrastRatio(black, white), EPSILON);
+    assertEquals(21.0, DmColorSpaces.contrastRatio(white, black), EPSILON);
+    assertEquals(1.0, DmColorSpaces.contrastRatio(white, white), EPSILON);
+    assertEquals(
+      4.54,
+      DmColorSpaces.contrastRatio(white, DmColorPacked.toColor(0x767676)),
+      1.0e-2
+    );
+  }
+
+  /**
+   * Buffer conversions are identical to single conversions, and work in
+   * place.
+   */
+
+  @Test
+  public void testBuffers()
+  {
+    final var colors = sampleColors();
+    final var count = colors.size();
+    final var source = DmColorBatch.allocate(count);
+    DmColorBatch.load(colors, source);
+
+    final var buffer = source.clone();
+    DmColorSpaces.toHSL(buffer, buffer, count);
+    for (int index = 0; index < count; ++index) {
+      final var hsl = DmColorSpaces.toHSL(colors.get(index));
+      final var base = index * 3;
+      assertEquals(hsl, new DmColorHSL(buffer[base], buffer[base + 1], buffer[base + 2]));
+    }
+    DmColorSpaces.fromHSL(buffer, buffer, count);
+    for (int index = 0; index < count; ++index) {
+      assertColorClose(colors.get(index), DmColorBatch.get(buffer, index), EPSILON);
+    }
+
+    final var hsv = DmColorBatch.allocate(count);
+    DmColorSpaces.toHSV(source, hsv, count);
+    for (int index = 0; index < count; ++index) {
+      final var base = index * 3;
+      assertEquals(
+        DmColorSpaces.toHSV(colors.get(index)),
+        new DmColorHSV(hsv[base], hsv[base + 1], hsv[base + 2])
+      );
+    }
+    DmColorSpaces.fromHSV(hsv, hsv, count);
+    for (int index = 0; index < count; ++index) {
+      assertColorClose(colors.get(index), DmColorBatch.get(hsv, index), EPSILON);
+    }
+
+    final var lab = DmColorBatch.allocate(count);
+    DmColorSpaces.toLab(source, lab, count);
+    for (int index = 0; index < count; ++index) {
+      final var base = index * 3;
+      assertEquals(
+        DmColorSpaces.toLab(colors.get(index)),
+        new DmColorLab(lab[base], lab[base + 1], lab[base + 2])
+      );
+    }
+    DmColorSpaces.fromLab(lab, lab, count);
+    for (int index = 0; index < count; ++index) {
+      assertColorClose(colors.get(index), DmColorBatch.get(lab, index), EPSILON);
+    }
+
+    final var linear = source.clone();
+    DmColorSpaces.toLinear(linear, linear, count);
+    for (int index = 0; index < count; ++index) {
+      assertEquals(
+        DmColorSpaces.toLinear(colors.get(index)),
+        DmColorBatch.get(linear, index)
+      );
+    }
+    DmColorSpaces.fromLinear(linear, linear, count);
+    for (int index = 0; index < count; ++index) {
+      assertColorClose(colors.get(index), DmColorBatch.get(linear, index), EPSILON);
+    }
+  }
+
+  /**
+   * Packed conversions use the tables and are identical to the exact
+   * conversions.
+   */
+
+  @Test
+  public void testPacked()
+  {
+    final var colors = sampleColors();
+    final var count = colors.size();
+    final var packed = DmColorArray.ofColors(colors).toPackedArray();
+
+    final var linear = DmColorBatch.allocate(count);
+    DmColorSpaces.packedToLinear(packed, linear, count);
+    for (int index = 0; index < count; ++index) {
+      assertEquals(
+        DmColorSpaces.toLinear(DmColorPacked.toColor(packed[index])),
+        DmColorBatch.get(linear, index)
+      );
+    }
+
+    final var repacked = new int[count];
+    DmColorSpaces.linearToPacked(linear, repacked, count);
+    for (int index = 0; index < count; ++index) {
+      assertEquals(packed[index], repacked[index]);
+    }
+
+    final var lab = DmColorBatch.allocate(count);
+    DmColorSpaces.packedToLab(packed, lab, count);
+    for (int index = 0; index < count; ++index) {
+      final var base = index * 3;
+      assertEquals(
+        DmColorSpaces.toLab(DmColorPacked.toColor(packed[index])),
+        new DmColorLab(lab[base], lab[base + 1], lab[base + 2])
+      );
+    }
+  }
+}
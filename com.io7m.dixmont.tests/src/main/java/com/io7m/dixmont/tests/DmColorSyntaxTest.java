@@ -0,0 +1,587 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorCache;
+import com.io7m.dixmont.colors.DmColorCacheEviction;
+import com.io7m.dixmont.colors.DmColorHSL;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.colors.DmColorSpaces;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.exc.MismatchedInputException;
+import tools.jackson.databind.exc.UnrecognizedPropertyException;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tools.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
+
+public final class DmColorSyntaxTest
+{
+  private static final double EPSILON = 1.0e-9;
+
+  private static final String[] NAMED = {
+    "aliceblue", "#f0f8ff",
+    "antiquewhite", "#faebd7",
+    "aqua", "#00ffff",
+    "aquamarine", "#7fffd4",
+    "azure", "#f0ffff",
+    "beige", "#f5f5dc",
+    "bisque", "#ffe4c4",
+    "black", "#000000",
+    "blanchedalmond", "#ffebcd",
+    "blue", "#0000ff",
+    "blueviolet", "#8a2be2",
+    "brown", "#a52a2a",
+    "burlywood", "#deb887",
+    "cadetblue", "#5f9ea0",
+    "chartreuse", "#7fff00",
+    "chocolate", "#d2691e",
+    "coral", "#ff7f50",
+    "cornflowerblue", "#6495ed",
+    "cornsilk", "#fff8dc",
+    "crimson", "#dc143c",
+    "cyan", "#00ffff",
+    "darkblue", "#00008b",
+    "darkcyan", "#008b8b",
+    "darkgoldenrod", "#b8860b",
+    "darkgray", "#a9a9a9",
+    "darkgreen", "#006400",
+    "darkgrey", "#a9a9a9",
+    "darkkhaki", "#bdb76b",
+    "darkmagenta", "#8b008b",
+    "darkolivegreen", "#556b2f",
+    "darkorange", "#ff8c00",
+    "darkorchid", "#9932cc",
+    "darkred", "#8b0000",
+    "darksalmon", "#e9967a",
+    "darkseagreen", "#8fbc8f",
+    "darkslateblue", "#483d8b",
+    "darkslategray", "#2f4f4f",
+    "darkslategrey", "#2f4f4f",
+    "darkturquoise", "#00ced1",
+    "darkviolet", "#9400d3",
+    "deeppink", "#ff1493",
+    "deepskyblue", "#00bfff",
+    "dimgray", "#696969",
+    "dimgrey", "#696969",
+    "dodgerblue", "#1e90ff",
+    "firebrick", "#b22222",
+    "floralwhite", "#fffaf0",
+    "forestgreen", "#228b22",
+    "fuchsia", "#ff00ff",
+    "gainsboro", "#dcdcdc",
+    "ghostwhite", "#f8f8ff",
+    "gold", "#ffd700",
+    "goldenrod", "#daa520",
+    "gray", "#808080",
+    "green", "#008000",
+    "greenyellow", "#adff2f",
+    "grey", "#808080",
+    "honeydew", "#f0fff0",
+    "hotpink", "#ff69b4",
+    "indianred", "#cd5c5c",
+    "indigo", "#4b0082",
+    "ivory", "#fffff0",
+    "khaki", "#f0e68c",
+    "lavender", "#e6e6fa",
+    "lavenderblush", "#fff0f5",
+    "lawngreen", "#7cfc00",
+    "lemonchiffon", "#fffacd",
+    "lightblue", "#add8e6",
+    "lightcoral", "#f08080",
+    "lightcyan", "#e0ffff",
+    "lightgoldenrodyellow", "#fafad2",
+    "lightgray", "#d3d3d3",
+    "lightgreen", "#90ee90",
+    "lightgrey", "#d3d3d3",
+    "lightpink", "#ffb6c1",
+    "lightsalmon", "#ffa07a",
+    "lightseagreen", "#20b2aa",
+    "lightskyblue", "#87cefa",
+    "lightslategray", "#778899",
+    "lightslategrey", "#778899",
+    "lightsteelblue", "#b0c4de",
+    "lightyellow", "#ffffe0",
+    "lime", "#00ff00",
+    "limegreen", "#32cd32",
+    "linen", "#faf0e6",
+    "magenta", "#ff00ff",
+    "maroon", "#800000",
+    "mediumaquamarine", "#66cdaa",
+    "mediumblue", "#0000cd",
+    "mediumorchid", "#ba55d3",
+    "mediumpurple", "#9370db",
+    "mediumseagreen", "#3cb371",
+    "mediumslateblue", "#7b68ee",
+    "mediumspringgreen", "#00fa9a",
+    "mediumturquoise", "#48d1cc",
+    "mediumvioletred", "#c71585",
+    "midnightblue", "#191970",
+    "mintcream", "#f5fffa",
+    "mistyrose", "#ffe4e1",
+    "moccasin", "#ffe4b5",
+    "navajowhite", "#ffdead",
+    "navy", "#000080",
+    "oldlace", "#fdf5e6",
+    "olive", "#808000",
+    "olivedrab", "#6b8e23",
+    "orange", "#ffa500",
+    "orangered", "#ff4500",
+    "orchid", "#da70d6",
+    "palegoldenrod", "#eee8aa",
+    "palegreen", "#98fb98",
+    "paleturquoise", "#afeeee",
+    "palevioletred", "#db7093",
+    "papayawhip", "#ffefd5",
+    "peachpuff", "#ffdab9",
+    "peru", "#cd853f",
+    "pink", "#ffc0cb",
+    "plum", "#dda0dd",
+    "powderblue", "#b0e0e6",
+    "purple", "#800080",
+    "rebeccapurple", "#663399",
+    "red", "#ff0000",
+    "rosybrown", "#bc8f8f",
+    "royalblue", "#4169e1",
+    "saddlebrown", "#8b4513",
+    "salmon", "#fa8072",
+    "sandybrown", "#f4a460",
+    "seagreen", "#2e8b57",
+    "seashell", "#fff5ee",
+    "sienna", "#a0522d",
+    "silver", "#c0c0c0",
+    "skyblue", "#87ceeb",
+    "slateblue", "#6a5acd",
+    "slategray", "#708090",
+    "slategrey", "#708090",
+    "snow", "#fffafa",
+    "springgreen", "#00ff7f",
+    "steelblue", "#4682b4",
+    "tan", "#d2b48c",
+    "teal", "#008080",
+    "thistle", "#d8bfd8",
+    "tomato", "#ff6347",
+    "turquoise", "#40e0d0",
+    "violet", "#ee82ee",
+    "wheat", "#f5deb3",
+    "white", "#ffffff",
+    "whitesmoke", "#f5f5f5",
+    "yellow", "#ffff00",
+    "yellowgreen", "#9acd32",
+  };
+
+  private static ObjectMapper createMapper()
+  {
+    return JsonMapper.builder()
+      .addModule(
+        DmColorModule.builder()
+          .setExtendedSyntaxEnabled(true)
+          .buildModule())
+      .build();
+  }
+
+  private static DmColor parse(
+    final ObjectMapper mapper,
+    final String text)
+  {
+    return mapper.readValue(text, DmColor.class);
+  }
+
+  private static DmColor parseString(
+    final String text)
+  {
+    return parse(createMapper(), "\"%s\"".formatted(text));
+  }
+
+  private static void assertColorEquals(
+    final DmColor expected,
+    final DmColor received)
+  {
+    assertEquals(expected.red(), received.red(), EPSILON, "red");
+    assertEquals(expected.green(), received.green(), EPSILON, "green");
+    assertEquals(expected.blue(), received.blue(), EPSILON, "blue");
+  }
+
+  private static DmColor rgb8(
+    final int r,
+    final int g,
+    final int b)
+  {
+    return new DmColor(r / 255.0, g / 255.0, b / 255.0);
+  }
+
+  /**
+   * Every CSS named color is recognized, in any case.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testNamedColors()
+  {
+    final var mapper = createMapper();
+    final var tests = new ArrayList<DynamicTest>();
+    for (int index = 0; index < NAMED.length; index += 2) {
+      final var name = NAMED[index];
+      final var hex = NAMED[index + 1];
+      tests.add(DynamicTest.dynamicTest("testNamed_" + name, () -> {
+        final var expected = parse(mapper, "\"%s\"".formatted(hex));
+        assertEquals(expected, parse(mapper, "\"%s\"".formatted(name)));
+        assertEquals(
+          expected,
+          parse(mapper, "\"%s\"".formatted(name.toUpperCase(Locale.ROOT)))
+        );
+      }));
+    }
+    return tests.stream();
+  }
+
+  /**
+   * Valid strings in the extended syntax.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testValidStrings()
+  {
+    final var grey = rgb8(0x80, 0x80, 0x80);
+    final var hsl =
+      DmColorSpaces.fromHSL(new DmColorHSL(120.0, 0.5, 0.25));
+
+    return Stream.of(
+      new Case("#334c66", rgb8(0x33, 0x4c, 0x66)),
+      new Case("#334C66", rgb8(0x33, 0x4c, 0x66)),
+      new Case("#36c", rgb8(0x33, 0x66, 0xcc)),
+      new Case("#36cf", rgb8(0x33, 0x66, 0xcc)),
+      new Case("#334c6680", rgb8(0x33, 0x4c, 0x66)),
+      new Case("rgb(128, 128, 128)", grey),
+      new Case("rgb(128 128 128)", grey),
+      new Case("RGB( 128 ,128, 128 )", grey),
+      new Case("rgba(128, 128, 128, 0.5)", grey),
+      new Case("rgb(128 128 128 / 50%)", grey),
+      new Case("rgba(128, 128, 128, 0)", grey),
+      new Case("rgba(128, 128, 128, 1.0)", grey),
+      new Case("rgb(128 128 128 / 100%)", grey),
+      new Case("rgb(128 128 128 / 0%)", grey),
+      new Case("rgb(100%, 0%, 50%)", new DmColor(1.0, 0.0, 0.5)),
+      new Case("rgb(25.5, 2.55e1, 255e-1)", new DmColor(0.1, 0.1, 0.1)),
+      new Case("rgb(300, -20, +51)", new DmColor(1.0, 0.0, 0.2)),
+      new Case("hsl(120, 50%, 25%)", hsl),
+      new Case("hsl(120deg 50% 25%)", hsl),
+      new Case("hsla(480, 50%, 25%, 1)", hsl),
+      new Case("hsl(-240, 50%, 25%)", hsl),
+      new Case("hsl(0, 0%, 100%)", new DmColor(1.0, 1.0, 1.0)),
+      new Case("RebeccaPurple", rgb8(0x66, 0x33, 0x99))
+    ).map(c -> DynamicTest.dynamicTest("testValid_" + c.text, () -> {
+      assertColorEquals(c.expected, parseString(c.text));
+    }));
+  }
+
+  /**
+   * Invalid strings in the extended syntax.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testInvalidStrings()
+  {
+    return Stream.of(
+      "",
+      "#",
+      "#12",
+      "#12345",
+      "#1234567",
+      "#123456789",
+      "#ggg",
+      "rgb",
+      "rgb(",
+      "rgb()",
+      "rgb(1, 2)",
+      "rgb(1, 2, 3",
+      "rgb(1, 2, 3))",
+      "rgb(1, 2, 3) ",
+      "rgb(1, 2, 3, 4, 5)",
+      "rgb(1,, 2, 3)",
+      "rgb(1, 2, x)",
+      "rgb(1., 2, 3)",
+      "rgb(1e, 2, 3)",
+      "rgb(1e999, 2, 3)",
+      "rgb(1234567890123456789, 2, 3)",
+      "rgb(1, 2, 3 / )",
+      "rgba(1, 2, 3, 7)",
+      "rgba(1, 2, 3, -0.1)",
+      "rgba(1, 2, 3, 1.5)",
+      "rgb(1 2 3 / 150%)",
+      "rgb(1 2 3 / -1%)",
+      "rgb(1 2 3 / x)",
+      "hsla(120, 50%, 25%, 2)",
+      "cmyk(1, 2, 3)",
+      "hsl(120, 50%)",
+      "notacolor",
+      "re d",
+      "red1",
+      "reddish",
+      "lightgoldenrodyellowish",
+      " red"
+    ).map(text -> DynamicTest.dynamicTest("testInvalid_" + text, () -> {
+      final var ex =
+        assertThrows(MismatchedInputException.class, () -> parseString(text));
+      assertEquals(DmColor.class, ex.getTargetType());
+    }));
+  }
+
+  /**
+   * Arrays of components are accepted.
+   */
+
+  @Test
+  public void testArray()
+  {
+    final var mapper = createMapper();
+    assertColorEquals(
+      new DmColor(0.25, 0.5, 1.0),
+      parse(mapper, "[0.25, 0.5, 1]")
+    );
+    assertColorEquals(
+      new DmColor(0.0, 1.0, 1.0),
+      parse(mapper, "[0, 1.0, 1e0]")
+    );
+  }
+
+  /**
+   * Arrays must contain exactly three numbers.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testArrayInvalid()
+  {
+    final var mapper = createMapper();
+    return Stream.of(
+      "[]",
+      "[0.1, 0.2]",
+      "[0.1, 0.2, 0.3, 0.4]",
+      "[0.1, \"x\", 0.3]",
+      "[0.1, [0.2], 0.3]",
+      "[-1, 0.5, 0.5]",
+      "[0.5, 1.01, 0.5]",
+      "[255, 128, 0]"
+    ).map(text -> DynamicTest.dynamicTest("testArrayInvalid_" + text, () -> {
+      assertThrows(MismatchedInputException.class, () -> parse(mapper, text));
+    }));
+  }
+
+  /**
+   * Objects with components are accepted, in any order.
+   */
+
+  @Test
+  public void testObject()
+  {
+    final var mapper = createMapper();
+    assertColorEquals(
+      new DmColor(0.25, 0.5, 1.0),
+      parse(mapper, "{\"b\": 1, \"r\": 0.25, \"g\": 0.5}")
+    );
+  }
+
+  /**
+   * Components in 8-bit form are rejected in arrays and objects rather than
+   * being clamped to the wrong color, whereas rgb() functions accept them.
+   */
+
+  @Test
+  public void testEightBitComponents()
+  {
+    final var mapper = createMapper();
+
+    final var ex0 =
+      assertThrows(MismatchedInputException.class, () -> {
+        parse(mapper, "[255,128,0]");
+      });
+    assertEquals(DmColor.class, ex0.getTargetType());
+
+    final var ex1 =
+      assertThrows(MismatchedInputException.class, () -> {
+        parse(mapper, "{\"r\":128,\"g\":64,\"b\":0}");
+      });
+    assertEquals(DmColor.class, ex1.getTargetType());
+
+    assertEquals(
+      parse(mapper, "\"#804000\""),
+      parse(mapper, "\"rgb(128,64,0)\"")
+    );
+  }
+
+  /**
+   * Objects must have all components.
+   */
+
+  @Test
+  public void testObjectMissing()
+  {
+    final var mapper = createMapper();
+    assertThrows(MismatchedInputException.class, () -> {
+      parse(mapper, "{\"r\": 0.25, \"g\": 0.5}");
+    });
+  }
+
+  /**
+   * Unknown properties in objects are handled according to the mapper
+   * configuration.
+   */
+
+  @Test
+  public void testObjectUnknown()
+  {
+    final var text = "{\"r\": 0.25, \"x\": [1, 2], \"g\": 0.5, \"b\": 1}";
+
+    final var strict =
+      createMapper()
+        .rebuild()
+        .enable(FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+
+    assertThrows(UnrecognizedPropertyException.class, () -> {
+      parse(strict, text);
+    });
+
+    final var lenient =
+      createMapper()
+        .rebuild()
+        .disable(FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+
+    assertColorEquals(new DmColor(0.25, 0.5, 1.0), parse(lenient, text));
+  }
+
+  /**
+   * Colors nested in other structures work in all forms.
+   */
+
+  @Test
+  public void testNested()
+  {
+    final var mapper = createMapper();
+    final var colors =
+      mapper.readValue(
+        "[\"red\", [0, 1, 0], {\"r\":0,\"g\":0,\"b\":1}, \"#fff\"]",
+        DmColor[].class
+      );
+
+    assertEquals(
+      List.of(
+        new DmColor(1.0, 0.0, 0.0),
+        new DmColor(0.0, 1.0, 0.0),
+        new DmColor(0.0, 0.0, 1.0),
+        new DmColor(1.0, 1.0, 1.0)
+      ),
+      List.of(colors)
+    );
+  }
+
+  /**
+   * Colors with 8-bit channels are interned if a cache is configured.
+   */
+
+  @Test
+  public void testCache()
+  {
+    final var cache = DmColorCache.create(16, DmColorCacheEviction.EVICTION_REPLACE);
+    final var mapper =
+      JsonMapper.builder()
+        .addModule(
+          DmColorModule.builder()
+            .setCache(cache)
+            .setExtendedSyntaxEnabled(true)
+            .buildModule())
+        .build();
+
+    final var x = parse(mapper, "\"#f00\"");
+    final var y = parse(mapper, "\"red\"");
+    assertSame(x, y);
+  }
+
+  /**
+   * Binary formats still accept packed integers.
+   */
+
+  @Test
+  public void testBinary()
+  {
+    final var mapper =
+      CBORMapper.builder()
+        .addModule(
+          DmColorModule.builder()
+            .setExtendedSyntaxEnabled(true)
+            .buildModule())
+        .build();
+
+    final var bytes = mapper.writeValueAsBytes(new DmColor(1.0, 0.0, 0.0));
+    assertEquals(
+      new DmColor(1.0, 0.0, 0.0),
+      mapper.readValue(bytes, DmColor.class)
+    );
+  }
+
+  /**
+   * The extended syntax is rejected unless enabled.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testStrictRejectsExtended()
+  {
+    final var mapper =
+      JsonMapper.builder()
+        .addModule(DmColorModule.create())
+        .build();
+
+    return Stream.of(
+      "\"#fff\"",
+      "\"red\"",
+      "\"rgb(1, 2, 3)\"",
+      "[0, 0, 0]",
+      "{\"r\":0,\"g\":0,\"b\":0}"
+    ).map(text -> DynamicTest.dynamicTest("testStrict_" + text, () -> {
+      assertThrows(MismatchedInputException.class, () -> parse(mapper, text));
+    }));
+  }
+
+  private record Case(
+    String text,
+    DmColor expected)
+  {
+
+  }
+}
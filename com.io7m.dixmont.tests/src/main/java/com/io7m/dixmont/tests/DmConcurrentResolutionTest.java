@@ -0,0 +1,543 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import ch.qos.logback.classic.Level;
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleDeserializers;
+import tools.jackson.databind.type.CollectionType;
+import tools.jackson.databind.type.MapType;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress tests for deserializer resolution under contention. Many platform
+ * and virtual threads are released at once against freshly built mappers
+ * (cold resolution, where every thread races to populate the restricted
+ * type caches) and against warmed mappers (where every check should be a
+ * cache hit). The tests check that the caches never allow a type that the
+ * allowlist does not, that resolution does not pin virtual threads to their
+ * carriers, and report throughput as the number of threads increases.
+ */
+
+public final class DmConcurrentResolutionTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(DmConcurrentResolutionTest.class);
+
+  private static final int PLATFORM_THREADS = 64;
+  private static final int VIRTUAL_THREADS = 2_000;
+  private static final int COLD_ROUNDS = 5;
+  private static final int SCALING_OPERATIONS = 200_000;
+
+  private static final String COLORS_TEXT =
+    "[\"#ff0000\",\"#00ff00\",\"#0000ff\"]";
+  private static final List<DmColor> COLORS =
+    List.of(
+      new DmColor(1.0, 0.0, 0.0),
+      new DmColor(0.0, 1.0, 0.0),
+      new DmColor(0.0, 0.0, 1.0)
+    );
+
+  private Level savedLevel;
+
+  /**
+   * A record resolved through the bean deserializers.
+   *
+   * @param name  The name
+   * @param color The color
+   */
+
+  public record Swatch(
+    String name,
+    DmColor color)
+  {
+
+  }
+
+  private static ch.qos.logback.classic.Logger restrictedLogger()
+  {
+    return (ch.qos.logback.classic.Logger)
+      LoggerFactory.getLogger(DmJsonRestrictedDeserializers.class);
+  }
+
+  /*
+   * Trace logging from thousands of threads would swamp the test output.
+   * The pinning test turns it back on explicitly.
+   */
+
+  @BeforeEach
+  public void setup()
+  {
+    this.savedLevel = restrictedLogger().getLevel();
+    restrictedLogger().setLevel(Level.INFO);
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    restrictedLogger().setLevel(this.savedLevel);
+  }
+
+  private static ObjectMapper createMapper()
+  {
+    final var module =
+      DmJsonRestrictedDeserializers.builder()
+        .allowClass(Swatch.class)
+        .allowClass(DmColor.class)
+        .allowClass(String.class)
+        .allowClass(int.class)
+        .allowClassName(DmColor[].class.getName())
+        .allowListsOfClass(DmColor.class)
+        .allowMapsOfClass(String.class, Integer.class)
+        .allowServiceLoaderFragments()
+        .setRecordDeserializersEnabled(true)
+        .buildModule();
+
+    return JsonMapper.builder()
+      .addModule(DmColorModule.create())
+      .addModule(module)
+      .build();
+  }
+
+  /*
+   * The virtual thread API is not available at the language level that the
+   * project is compiled against, so the executor is obtained reflectively.
+   */
+
+  private static ExecutorService virtualExecutor()
+  {
+    try {
+      final var method =
+        Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) method.invoke(null);
+    } catch (final NoSuchMethodException e) {
+      Assumptions.abort("Virtual threads are not supported by this JVM");
+      throw new IllegalStateException(e);
+    } catch (final ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Read every allowed type and attempt to read every disallowed type.
+   *
+   * @param mapper The mapper
+   */
+
+  private static void resolveAll(
+    final ObjectMapper mapper)
+  {
+    assertEquals(
+      COLORS,
+      mapper.readValue(COLORS_TEXT, new TypeReference<List<DmColor>>() { })
+    );
+    assertEquals(
+      COLORS,
+      List.of(mapper.readValue(COLORS_TEXT, DmColor[].class))
+    );
+    assertEquals(
+      Map.of("x", Integer.valueOf(23)),
+      mapper.readValue(
+        "{\"x\":23}",
+        new TypeReference<Map<String, Integer>>() { })
+    );
+    assertEquals(
+      new Swatch("red", COLORS.get(0)),
+      mapper.readValue(
+        "{\"name\":\"red\",\"color\":\"#ff0000\"}",
+        Swatch.class)
+    );
+    assertEquals(
+      List.of(EnumExample.ENUM_EXAMPLE_A),
+      mapper.readValue(
+        "[\"ENUM_EXAMPLE_A\"]",
+        new TypeReference<List<EnumExample>>() { })
+    );
+
+    assertThrows(JacksonException.class, () -> {
+      mapper.readValue("[\"x\"]", new TypeReference<List<String>>() { });
+    });
+    assertThrows(JacksonException.class, () -> {
+      mapper.readValue("{\"x\":\"y\"}", new TypeReference<Map<String, String>>() { });
+    });
+    assertThrows(JacksonException.class, () -> {
+      mapper.readValue("[1]", int[].class);
+    });
+  }
+
+  /**
+   * Run {@code tasks} copies of {@code task} on the given executor, releasing
+   * them all at the same moment. The executor must be able to run all of the
+   * tasks at once.
+   *
+   * @param executor The executor
+   * @param tasks    The number of tasks
+   * @param task     The task
+   *
+   * @throws Exception On errors
+   */
+
+  private static void runTogether(
+    final ExecutorService executor,
+    final int tasks,
+    final Callable<Void> task)
+    throws Exception
+  {
+    final var ready = new CountDownLatch(tasks);
+    final var start = new CountDownLatch(1);
+    final var futures = new ArrayList<Future<Void>>(tasks);
+
+    for (int index = 0; index < tasks; ++index) {
+      futures.add(executor.submit(() -> {
+        ready.countDown();
+        start.await();
+        return task.call();
+      }));
+    }
+
+    assertTrue(ready.await(60L, TimeUnit.SECONDS), "Tasks must start");
+    start.countDown();
+
+    for (final var future : futures) {
+      future.get(60L, TimeUnit.SECONDS);
+    }
+  }
+
+  private static void shutdown(
+    final ExecutorService executor)
+    throws InterruptedException
+  {
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(60L, TimeUnit.SECONDS));
+  }
+
+  private static void coldResolution(
+    final ExecutorService executor,
+    final int threads)
+    throws Exception
+  {
+    for (int round = 0; round < COLD_ROUNDS; ++round) {
+      final var mapper = createMapper();
+      runTogether(executor, threads, () -> {
+        resolveAll(mapper);
+        resolveAll(mapper);
+        return null;
+      });
+
+      /*
+       * Failed checks must never have been cached as successes, regardless
+       * of how the threads interleaved.
+       */
+
+      resolveAll(mapper);
+    }
+  }
+
+  /**
+   * Cold resolution from many platform threads produces correct results.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColdResolutionPlatform()
+    throws Exception
+  {
+    final var executor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+    try {
+      coldResolution(executor, PLATFORM_THREADS);
+    } finally {
+      shutdown(executor);
+    }
+  }
+
+  /**
+   * Cold resolution from thousands of virtual threads produces correct
+   * results.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColdResolutionVirtual()
+    throws Exception
+  {
+    final var executor = virtualExecutor();
+    try {
+      coldResolution(executor, VIRTUAL_THREADS);
+    } finally {
+      shutdown(executor);
+    }
+  }
+
+  /**
+   * Cold resolution on virtual threads, with trace logging enabled inside
+   * the restricted checks, does not pin carrier threads anywhere inside
+   * this project's code.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testColdResolutionDoesNotPin()
+    throws Exception
+  {
+    final var file =
+      Files.createTempFile("dixmont-pinning-", ".jfr");
+
+    try (var recording = new Recording()) {
+      recording.enable("jdk.VirtualThreadPinned")
+        .withThreshold(Duration.ZERO)
+        .withStackTrace();
+      recording.start();
+
+      restrictedLogger().setLevel(Level.TRACE);
+      final var executor = virtualExecutor();
+      try {
+        final var mapper = createMapper();
+        runTogether(executor, 256, () -> {
+          resolveAll(mapper);
+          return null;
+        });
+      } finally {
+        restrictedLogger().setLevel(Level.INFO);
+        shutdown(executor);
+      }
+
+      recording.stop();
+      recording.dump(file);
+    }
+
+    try {
+      final var events = RecordingFile.readAllEvents(file);
+      LOG.info("pinned events: {}", Integer.valueOf(events.size()));
+
+      final var ours =
+        events.stream()
+          .filter(DmConcurrentResolutionTest::isPinnedInProject)
+          .toList();
+
+      for (final var event : ours) {
+        LOG.error("pinned: {}", event);
+      }
+      assertEquals(List.of(), ours);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static boolean isPinnedInProject(
+    final RecordedEvent event)
+  {
+    final var stack = event.getStackTrace();
+    if (stack == null) {
+      return false;
+    }
+    return stack.getFrames()
+      .stream()
+      .map(RecordedFrame::getMethod)
+      .filter(Objects::nonNull)
+      .anyMatch(m -> m.getType().getName().startsWith("com.io7m.dixmont.core"));
+  }
+
+  private static List<Object> check(
+    final SimpleDeserializers deserializers,
+    final DeserializationConfig config,
+    final CollectionType listType,
+    final MapType mapType,
+    final JavaType beanType)
+  {
+    return Arrays.asList(
+      deserializers.findCollectionDeserializer(
+        listType, config, null, null, null),
+      deserializers.findMapDeserializer(
+        mapType, config, null, null, null, null),
+      deserializers.findBeanDeserializer(
+        beanType, config, null)
+    );
+  }
+
+  private static double throughput(
+    final ExecutorService executor,
+    final int threads,
+    final SimpleDeserializers deserializers)
+    throws Exception
+  {
+    final var mapper = JsonMapper.builder().build();
+    final var config = mapper.deserializationConfig();
+    final var types = mapper.getTypeFactory();
+    final var listType =
+      types.constructCollectionType(List.class, DmColor.class);
+    final var mapType =
+      types.constructMapType(Map.class, String.class, Integer.class);
+    final var beanType =
+      types.constructType(Swatch.class);
+    final var deniedType =
+      types.constructCollectionType(List.class, String.class);
+
+    final var expected =
+      check(deserializers, config, listType, mapType, beanType);
+    final var results =
+      new ConcurrentLinkedQueue<List<Object>>();
+
+    final var perThread = SCALING_OPERATIONS / threads;
+    final var timeThen = System.nanoTime();
+    runTogether(executor, threads, () -> {
+      for (int index = 0; index < perThread; ++index) {
+        deserializers.findCollectionDeserializer(
+          listType, config, null, null, null);
+        deserializers.findMapDeserializer(
+          mapType, config, null, null, null, null);
+        deserializers.findBeanDeserializer(
+          beanType, config, null);
+      }
+
+      results.add(check(deserializers, config, listType, mapType, beanType));
+      assertThrows(IllegalArgumentException.class, () -> {
+        deserializers.findCollectionDeserializer(
+          deniedType, config, null, null, null);
+      });
+      return null;
+    });
+    final var timeNow = System.nanoTime();
+
+    /*
+     * Every thread must have seen exactly the results that a single thread
+     * sees; any failure on a thread has already surfaced from runTogether.
+     */
+
+    assertEquals(threads, results.size());
+    for (final var result : results) {
+      assertEquals(expected, result);
+    }
+
+    final var seconds = (double) (timeNow - timeThen) / 1_000_000_000.0;
+    return (double) (perThread * threads) / seconds;
+  }
+
+  private static void scaling(
+    final String name,
+    final ExecutorService executor,
+    final int maximum)
+    throws Exception
+  {
+    final var deserializers =
+      DmJsonRestrictedDeserializers.builder()
+        .allowClass(Swatch.class)
+        .allowListsOfClass(DmColor.class)
+        .allowMapsOfClass(String.class, Integer.class)
+        .allowServiceLoaderFragments()
+        .build();
+
+    /*
+     * Warm up the JIT and the caches so that the single-threaded measurement
+     * is not penalized for running first.
+     */
+
+    throughput(executor, maximum, deserializers);
+
+    var baseline = 0.0;
+    for (int threads = 1; threads <= maximum; threads *= 4) {
+      final var opsPerSecond = throughput(executor, threads, deserializers);
+      if (threads == 1) {
+        baseline = opsPerSecond;
+      }
+
+      LOG.info(
+        "{} restricted checks: {} threads, {} ops/s ({}x)",
+        name,
+        Integer.valueOf(threads),
+        String.format("%.0f", Double.valueOf(opsPerSecond)),
+        String.format("%.2f", Double.valueOf(opsPerSecond / baseline))
+      );
+    }
+  }
+
+  /**
+   * Warm restricted checks give identical results on any number of platform
+   * threads. Throughput is logged, but not asserted.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testScalingPlatform()
+    throws Exception
+  {
+    final var executor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+    try {
+      scaling("platform", executor, PLATFORM_THREADS);
+    } finally {
+      shutdown(executor);
+    }
+  }
+
+  /**
+   * Warm restricted checks give identical results on any number of virtual
+   * threads. Throughput is logged, but not asserted.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testScalingVirtual()
+    throws Exception
+  {
+    final var executor = virtualExecutor();
+    try {
+      scaling("virtual", executor, 1024);
+    } finally {
+      shutdown(executor);
+    }
+  }
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorBatch;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.colors.DmColorPacked;
+import com.io7m.dixmont.colors.DmColorSpaces;
+import com.io7m.dixmont.colors.DmGradient;
+import com.io7m.dixmont.colors.DmGradientCache;
+import com.io7m.dixmont.colors.DmGradientDefinition;
+import com.io7m.dixmont.colors.DmGradientInterpolation;
+import com.io7m.dixmont.colors.DmGradientStop;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.exc.MismatchedInputException;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class DmGradientTest
+{
+  private static final DmColor BLACK = new DmColor(0.0, 0.0, 0.0);
+  private static final DmColor WHITE = new DmColor(1.0, 1.0, 1.0);
+  private static final DmColor RED = new DmColor(1.0, 0.0, 0.0);
+  private static final DmColor BLUE = new DmColor(0.0, 0.0, 1.0);
+
+  private static ObjectMapper createMapper()
+  {
+    return JsonMapper.builder()
+      .addModule(DmColorModule.create())
+      .build();
+  }
+
+  /*
+   * The reference implementation: evaluate the gradient directly at a
+   * position.
+   */
+
+  private static DmColor evaluate(
+    final DmGradientDefinition definition,
+    final double position)
+  {
+    final var stops = definition.stops();
+    var next = 0;
+    while (next < stops.size() && stops.get(next).position() <= position) {
+      ++next;
+    }
+    if (next == 0) {
+      return stops.get(0).color();
+    }
+    if (next == stops.size()) {
+      return stops.get(next - 1).color();
+    }
+
+    final var s0 = stops.get(next - 1);
+    final var s1 = stops.get(next);
+    final var f = (position - s0.position()) / (s1.position() - s0.position());
+    return switch (definition.interpolation()) {
+      case INTERPOLATION_SRGB -> s0.color().lerp(s1.color(), f);
+      case INTERPOLATION_LINEAR -> DmColorSpaces.fromLinear(
+        DmColorSpaces.toLinear(s0.color()).lerp(DmColorSpaces.toLinear(s1.color()), f));
+    };
+  }
+
+  /**
+   * Baked tables match direct evaluation at each table position, and
+   * sampling picks the nearest table entry.
+   */
+
+  @Test
+  public void testBakedSameAsEvaluated()
+  {
+    final var random = new Random(0x42L);
+    for (final var interpolation : DmGradientInterpolation.values()) {
+      final var definition =
+        new DmGradientDefinition(
+          List.of(
+            new DmGradientStop(0.7, RED),
+            new DmGradientStop(0.1, BLACK),
+            new DmGradientStop(0.4, BLUE),
+            new DmGradientStop(0.4, WHITE)
+          ),
+          interpolation,
+          101
+        );
+
+      final var gradient = DmGradient.bake(definition);
+      assertEquals(101, gradient.resolution());
+      for (int index = 0; index < 101; ++index) {
+        final var expected = evaluate(definition, index / 100.0);
+        assertEquals(expected, gradient.color(index));
+        assertEquals(DmColorPacked.pack(expected), gradient.packed(index));
+      }
+
+      for (int sample = 0; sample < 10_000; ++sample) {
+        final var t = random.nextDouble();
+        final var index = (int) Math.round(t * 100.0);
+        assertEquals(gradient.color(index), gradient.sample(t));
+        assertEquals(gradient.packed(index), gradient.samplePacked(t));
+      }
+
+      assertEquals(gradient.color(0), gradient.sample(-1.0));
+      assertEquals(gradient.color(0), gradient.sample(Double.NaN));
+      assertEquals(gradient.color(100), gradient.sample(2.0));
+    }
+  }
+
+  /**
+   * Stops are sorted, equal stops form hard edges, and positions outside
+   * the stops take the nearest stop color.
+   */
+
+  @Test
+  public void testStops()
+  {
+    final var definition =
+      new DmGradientDefinition(
+        List.of(
+          new DmGradientStop(0.75, WHITE),
+          new DmGradientStop(0.25, BLACK),
+          new DmGradientStop(0.5, RED),
+          new DmGradientStop(0.5, BLUE)
+        ),
+        DmGradientInterpolation.INTERPOLATION_SRGB,
+        5
+      );
+
+    assertEquals(
+      List.of(
+        new DmGradientStop(0.25, BLACK),
+        new DmGradientStop(0.5, RED),
+        new DmGradientStop(0.5, BLUE),
+        new DmGradientStop(0.75, WHITE)
+      ),
+      definition.stops()
+    );
+
+    final var gradient = DmGradient.bake(definition);
+    assertEquals(BLACK, gradient.color(0));
+    assertEquals(BLACK, gradient.color(1));
+    assertEquals(BLUE, gradient.color(2));
+    assertEquals(WHITE, gradient.color(3));
+    assertEquals(WHITE, gradient.color(4));
+
+    final var single = DmGradient.bake(DmGradientDefinition.evenlySpaced(List.of(RED)));
+    assertEquals(RED, single.sample(0.0));
+    assertEquals(RED, single.sample(1.0));
+  }
+
+  /**
+   * Linear interpolation differs from sRGB interpolation in the expected
+   * way.
+   */
+
+  @Test
+  public void testLinearInterpolation()
+  {
+    final var stops =
+      List.of(new DmGradientStop(0.0, BLACK), new DmGradientStop(1.0, WHITE));
+    final var srgb =
+      DmGradient.bake(new DmGradientDefinition(stops, DmGradientInterpolation.INTERPOLATION_SRGB, 3));
+    final var linear =
+      DmGradient.bake(new DmGradientDefinition(stops, DmGradientInterpolation.INTERPOLATION_LINEAR, 3));
+
+    assertEquals(0.5, srgb.color(1).red(), 1.0e-12);
+    assertEquals(DmColorSpaces.linearToSrgb(0.5), linear.color(1).red(), 1.0e-12);
+  }
+
+  /**
+   * Batch sampling gives the same results as single sampling.
+   */
+
+  @Test
+  public void testBatch()
+  {
+    final var gradient =
+      DmGradient.bake(DmGradientDefinition.evenlySpaced(List.of(BLACK, RED, BLUE, WHITE)));
+    final var random = new Random(0x4242L);
+    final var count = 1000;
+    final var positions = new double[count];
+    for (int index = 0; index < count; ++index) {
+      positions[index] = random.nextDouble() * 1.2 - 0.1;
+    }
+
+    final var packed = new int[count];
+    final var channels = DmColorBatch.allocate(count);
+    gradient.samplePacked(positions, packed, count);
+    gradient.sample(positions, channels, count);
+    for (int index = 0; index < count; ++index) {
+      assertEquals(gradient.samplePacked(positions[index]), packed[index]);
+      assertEquals(gradient.sample(positions[index]), DmColorBatch.get(channels, index));
+    }
+  }
+
+  /**
+   * Invalid definitions are rejected.
+   */
+
+  @Test
+  public void testInvalidDefinitions()
+  {
+    assertThrows(IllegalArgumentException.class, () -> DmGradientDefinition.of(List.of()));
+    assertThrows(IllegalArgumentException.class, () -> new DmGradientStop(1.5, RED));
+    assertThrows(IllegalArgumentException.class, () -> new DmGradientStop(Double.NaN, RED));
+    assertThrows(IllegalArgumentException.class, () -> {
+      new DmGradientDefinition(
+        List.of(new DmGradientStop(0.0, RED)),
+        DmGradientInterpolation.INTERPOLATION_SRGB,
+        1
+      );
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new DmGradientDefinition(
+        List.of(new DmGradientStop(0.0, RED)),
+        DmGradientInterpolation.INTERPOLATION_SRGB,
+        DmGradientDefinition.MAXIMUM_RESOLUTION + 1
+      );
+    });
+  }
+
+  /**
+   * Caches deduplicate identical definitions and evict the least recently
+   * used gradient.
+   */
+
+  @Test
+  public void testCache()
+  {
+    final var cache = DmGradientCache.create(2);
+    final var d0 = DmGradientDefinition.evenlySpaced(List.of(BLACK, WHITE));
+    final var d1 = DmGradientDefinition.evenlySpaced(List.of(RED, BLUE));
+    final var d2 = DmGradientDefinition.evenlySpaced(List.of(RED, WHITE));
+
+    final var g0 = cache.bake(d0);
+    assertSame(g0, cache.bake(DmGradientDefinition.evenlySpaced(List.of(BLACK, WHITE))));
+    final var g1 = cache.bake(d1);
+    assertSame(g0, cache.bake(d0));
+    cache.bake(d2);
+    assertEquals(2, cache.size());
+    assertEquals(2, cache.capacity());
+
+    assertSame(g0, cache.bake(d0));
+    assertNotSame(g1, cache.bake(d1));
+    assertThrows(IllegalArgumentException.class, () -> DmGradientCache.create(0));
+  }
+
+  /**
+   * Gradients round trip, and identical gradients in a document share a
+   * baked table.
+   */
+
+  @Test
+  public void testSerialization()
+  {
+    final var mapper = createMapper();
+    final var gradient =
+      DmGradient.bake(
+        new DmGradientDefinition(
+          List.of(new DmGradientStop(0.0, RED), new DmGradientStop(1.0, BLUE)),
+          DmGradientInterpolation.INTERPOLATION_LINEAR,
+          16
+        ));
+
+    final var text = mapper.writeValueAsString(gradient);
+    assertEquals(
+      "{\"interpolation\":\"linear\",\"resolution\":16,\"stops\":[{\"position\":0.0,\"color\":\"#ff0000\"},{\"position\":1.0,\"color\":\"#0000ff\"}]}",
+      text
+    );
+    assertEquals(gradient.definition(), mapper.readValue(text, DmGradient.class).definition());
+
+    final List<DmGradient> read =
+      mapper.readValue("[" + text + "," + text + "]", new TypeReference<>() { });
+    assertSame(read.get(0), read.get(1));
+
+    final var defaults =
+      mapper.readValue(
+        "{\"stops\":[{\"color\":\"#000000\",\"position\":0},{\"position\":1,\"color\":\"#ffffff\"}]}",
+        DmGradient.class);
+    assertEquals(DmGradientDefinition.evenlySpaced(List.of(BLACK, WHITE)), defaults.definition());
+  }
+
+  /**
+   * Gradients round trip through binary formats.
+   */
+
+  @Test
+  public void testSerializationBinary()
+  {
+    final var mapper =
+      CBORMapper.builder()
+        .addModule(DmColorModule.create())
+        .build();
+
+    final var gradient =
+      DmGradient.bake(DmGradientDefinition.evenlySpaced(
+        List.of(DmColorPacked.toColor(0x102030), DmColorPacked.toColor(0xa0b0c0))));
+
+    assertEquals(
+      gradient.definition(),
+      mapper.readValue(mapper.writeValueAsBytes(gradient), DmGradient.class).definition()
+    );
+  }
+
+  /**
+   * Gradients are subject to restricted deserialization.
+   */
+
+  @Test
+  public void testRestricted()
+  {
+    final var mapper =
+      JsonMapper.builder()
+        .addModule(DmColorModule.create())
+        .addModule(
+          DmJsonRestrictedDeserializers.builder()
+            .allowClass(DmGradient.class)
+            .buildModule())
+        .build();
+
+    assertEquals(
+      RED,
+      mapper.readValue("{\"stops\":[{\"position\":0.5,\"color\":\"#ff0000\"}]}", DmGradient.class)
+        .sample(0.0)
+    );
+  }
+
+  /**
+   * Malformed gradients are rejected.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testInvalid()
+  {
+    return Stream.of(
+      "[]",
+      "23",
+      "{}",
+      "{\"stops\":[]}",
+      "{\"stops\":{}}",
+      "{\"stops\":[23]}",
+      "{\"stops\":[{\"position\":0.5}]}",
+      "{\"stops\":[{\"color\":\"#000000\"}]}",
+      "{\"stops\":[{\"position\":1.5,\"color\":\"#000000\"}]}",
+      "{\"stops\":[{\"position\":\"0\",\"color\":\"#000000\"}]}",
+      "{\"stops\":[{\"position\":0,\"color\":\"#00000\"}]}",
+      "{\"stops\":[{\"position\":0,\"color\":\"#000000\"}],\"resolution\":1}",
+      "{\"stops\":[{\"position\":0,\"color\":\"#000000\"}],\"resolution\":1000000}",
+      "{\"stops\":[{\"position\":0,\"color\":\"#000000\"}],\"resolution\":2.5}",
+      "{\"stops\":[{\"position\":0,\"color\":\"#000000\"}],\"interpolation\":\"lab\"}",
+      "{\"stops\":[{\"position\":0,\"color\":\"#000000\"}],\"interpolation\":1}"
+    ).map(text -> {
+      return DynamicTest.dynamicTest("testInvalid_" + text, () -> {
+        assertThrows(MismatchedInputException.class, () -> {
+          createMapper().readValue(text, DmGradient.class);
+        });
+      });
+    });
+  }
+}
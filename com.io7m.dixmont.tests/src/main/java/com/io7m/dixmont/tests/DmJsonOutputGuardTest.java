@@ -0,0 +1,414 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.core.DmJsonOutputGuard;
+import com.io7m.dixmont.core.DmJsonOutputLimit;
+import com.io7m.dixmont.core.DmJsonOutputLimitExceededException;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.io.IOContext;
+import tools.jackson.core.io.OutputDecorator;
+import tools.jackson.core.json.JsonFactory;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORFactory;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.FilterWriter;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class DmJsonOutputGuardTest
+{
+  private static ObjectMapper createMapper(
+    final DmJsonOutputGuard guard)
+  {
+    return JsonMapper.builder(guard.configure(JsonFactory.builder()).build())
+      .build();
+  }
+
+  private static List<String> strings(
+    final int count)
+  {
+    return Collections.nCopies(count, "abcdefghijklmnopqrstuvwxyz");
+  }
+
+  private static Object nested(
+    final int depth)
+  {
+    Object value = Integer.valueOf(23);
+    for (int index = 0; index < depth; ++index) {
+      value = List.of(value);
+    }
+    return value;
+  }
+
+  /**
+   * Outputs within the limits are unchanged, and are measured exactly.
+   */
+
+  @Test
+  public void testWithinLimits()
+  {
+    final var guard =
+      DmJsonOutputGuard.builder()
+        .setMaximumBytes(1000L)
+        .setMaximumElements(100L)
+        .setMaximumDepth(10)
+        .build();
+
+    final var value =
+      Map.of("x", List.of(Integer.valueOf(1), Integer.valueOf(2)));
+    final var expected =
+      JsonMapper.builder().build().writeValueAsString(value);
+
+    final var mapper = createMapper(guard);
+    assertEquals(expected, mapper.writeValueAsString(value));
+    assertArrayEquals(
+      expected.getBytes(),
+      mapper.writeValueAsBytes(value)
+    );
+
+    final var statistics = guard.statistics();
+    assertEquals(2L, statistics.outputs());
+    assertEquals(0L, statistics.exceeded());
+    assertEquals(expected.length(), statistics.largestBytes());
+    assertEquals(4L, statistics.largestElements());
+    assertEquals(2, statistics.deepest());
+  }
+
+  /**
+   * Outputs that exceed the byte limit are rejected before the entire
+   * output is written.
+   */
+
+  @Test
+  public void testBytesExceeded()
+  {
+    final var guard =
+      DmJsonOutputGuard.builder()
+        .setMaximumBytes(100_000L)
+        .build();
+
+    final var mapper = createMapper(guard);
+    final var output = new ByteArrayOutputStream();
+    final var ex =
+      assertThrows(DmJsonOutputLimitExceededException.class, () -> {
+        mapper.writeValue(output, strings(1_000_000));
+      });
+
+    assertEquals(DmJsonOutputLimit.LIMIT_BYTES, ex.limit());
+    assertEquals(100_000L, ex.maximum());
+    assertTrue(ex.observed() > ex.maximum());
+    assertTrue(ex.observed() < ex.maximum() + 100L);
+    assertTrue(output.size() <= ex.observed());
+
+    final var statistics = guard.statistics();
+    assertEquals(1L, statistics.outputs());
+    assertEquals(1L, statistics.exceeded());
+  }
+
+  /**
+   * Outputs that exceed the byte limit are rejected for character outputs.
+   */
+
+  @Test
+  public void testBytesExceededString()
+  {
+    final var guard =
+      DmJsonOutputGuard.builder()
+        .setMaximumBytes(100_000L)
+        .build();
+
+    final var mapper = createMapper(guard);
+    final var ex =
+      assertThrows(DmJsonOutputLimitExceededException.class, () -> {
+        mapper.writeValueAsString(strings(1_000_000));
+      });
+
+    assertEquals(DmJsonOutputLimit.LIMIT_BYTES, ex.limit());
+  }
+
+  /**
+   * Character outputs count the UTF-8 encoded length of what they write,
+   * and so measure the same as byte outputs.
+   */
+
+  @Test
+  public void testBytesNonASCII()
+  {
+    final var value =
+      List.of("gr\u00fcn", "\u00e9t\u00e9", "\u2713", "\ud83d\ude00");
+    final var expected =
+      JsonMapper.builder().build().writeValueAsString(value);
+    final var expectedBytes =
+      expected.getBytes(StandardCharsets.UTF_8).length;
+
+    final var guardChars =
+      DmJsonOutputGuard.builder()
+        .setMaximumBytes(1000L)
+        .build();
+    final var guardBytes =
+      DmJsonOutputGuard.builder()
+        .setMaximumBytes(1000L)
+        .build();
+
+    assertEquals(expected, createMapper(guardChars).writeValueAsString(value));
+    assertArrayEquals(
+      expected.getBytes(StandardCharsets.UTF_8),
+      createMapper(guardBytes).writeValueAsBytes(value)
+    );
+
+    assertEquals(expectedBytes, guardChars.statistics().largestBytes());
+    assertEquals(expectedBytes, guardBytes.statistics().largestBytes());
+    assertTrue(expectedBytes > expected.length());
+
+    /*
+     * Around 290000 characters, but around 550000 bytes.
+     */
+
+    final var large =
+      Collections.nCopies(10_000, "\u00fc".repeat(26));
+    final var guardLimited =
+      DmJsonOutputGuard.builder()
+        .setMaximumBytes(400_000L)
+        .build();
+
+    final var ex =
+      assertThrows(DmJsonOutputLimitExceededException.class, () -> {
+        createMapper(guardLimited).writeValueAsString(large);
+      });
+    assertEquals(DmJsonOutputLimit.LIMIT_BYTES, ex.limit());
+  }
+
+  /**
+   * Outputs that exceed the element limit are rejected.
+   */
+
+  @Test
+  public void testElementsExceeded()
+  {
+    final var guard =
+      DmJsonOutputGuard.builder()
+        .setMaximumElements(1000L)
+        .build();
+
+    final var mapper = createMapper(guard);
+    assertEquals(
+      1000L,
+      mapper.writeValueAsString(strings(999)).chars()
+        .filter(c -> c == ',')
+        .count() + 2L
+    );
+
+    final var ex =
+      assertThrows(DmJsonOutputLimitExceededException.class, () -> {
+        mapper.writeValueAsString(strings(1000));
+      });
+
+    assertEquals(DmJsonOutputLimit.LIMIT_ELEMENTS, ex.limit());
+    assertEquals(1000L, ex.maximum());
+    assertEquals(1001L, ex.observed());
+    assertEquals(1000L, guard.statistics().largestElements());
+  }
+
+  /**
+   * Primitive arrays count each of their elements.
+   */
+
+  @Test
+  public void testElementsExceededPrimitiveArray()
+  {
+    final var guard =
+      DmJsonOutputGuard.builder()
+        .setMaximumElements(1000L)
+        .build();
+
+    final var mapper = createMapper(guard);
+    final var ex =
+      assertThrows(DmJsonOutputLimitExceededException.class, () -> {
+        mapper.writeValueAsString(new int[1000]);
+      });
+
+    assertEquals(DmJsonOutputLimit.LIMIT_ELEMENTS, ex.limit());
+  }
+
+  /**
+   * Outputs that exceed the depth limit are rejected.
+   */
+
+  @Test
+  public void testDepthExceeded()
+  {
+    final var guard =
+      DmJsonOutputGuard.builder()
+        .setMaximumDepth(8)
+        .build();
+
+    final var mapper = createMapper(guard);
+    mapper.writeValueAsString(nested(8));
+
+    final var ex =
+      assertThrows(DmJsonOutputLimitExceededException.class, () -> {
+        mapper.writeValueAsString(nested(9));
+      });
+
+    assertEquals(DmJsonOutputLimit.LIMIT_DEPTH, ex.limit());
+    assertEquals(8L, ex.maximum());
+    assertEquals(9L, ex.observed());
+    assertEquals(8, guard.statistics().deepest());
+  }
+
+  /**
+   * Existing output decorators are retained.
+   */
+
+  @Test
+  public void testExistingDecorator()
+  {
+    final var calls = new AtomicInteger();
+    final var decorator = new OutputDecorator()
+    {
+      @Override
+      public OutputStream decorate(
+        final IOContext context,
+        final OutputStream out)
+      {
+        calls.incrementAndGet();
+        return new FilterOutputStream(out);
+      }
+
+      @Override
+      public Writer decorate(
+        final IOContext context,
+        final Writer w)
+      {
+        calls.incrementAndGet();
+        return new FilterWriter(w)
+        {
+        };
+      }
+    };
+
+    final var guard =
+      DmJsonOutputGuard.builder()
+        .setMaximumBytes(10L)
+        .build();
+
+    final var mapper =
+      JsonMapper.builder(
+        guard.configure(JsonFactory.builder().outputDecorator(decorator))
+          .build())
+        .build();
+
+    assertEquals("[1,2]", mapper.writeValueAsString(List.of(1, 2)));
+    assertThrows(DmJsonOutputLimitExceededException.class, () -> {
+      mapper.writeValue(new ByteArrayOutputStream(), strings(10));
+    });
+    assertEquals(2, calls.get());
+  }
+
+  /**
+   * Guards work with binary formats.
+   */
+
+  @Test
+  public void testBinary()
+  {
+    final var guard =
+      DmJsonOutputGuard.builder()
+        .setMaximumBytes(1000L)
+        .build();
+
+    final var mapper =
+      CBORMapper.builder(guard.configure(CBORFactory.builder()).build())
+        .build();
+
+    final var bytes = mapper.writeValueAsBytes(strings(10));
+    assertEquals(bytes.length, guard.statistics().largestBytes());
+
+    final var ex =
+      assertThrows(DmJsonOutputLimitExceededException.class, () -> {
+        mapper.writeValueAsBytes(strings(1000));
+      });
+    assertEquals(DmJsonOutputLimit.LIMIT_BYTES, ex.limit());
+  }
+
+  /**
+   * Guards may be shared between threads, and statistics cover every output.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testShared()
+    throws Exception
+  {
+    final var guard = DmJsonOutputGuard.builder().build();
+    final var mapper = createMapper(guard);
+
+    final var threads = new ArrayList<Thread>();
+    for (int index = 0; index < 4; ++index) {
+      final var thread = new Thread(() -> {
+        for (int count = 0; count < 100; ++count) {
+          mapper.writeValueAsString(strings(count));
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (final var thread : threads) {
+      thread.join();
+    }
+
+    final var statistics = guard.statistics();
+    assertEquals(400L, statistics.outputs());
+    assertEquals(100L, statistics.largestElements());
+  }
+
+  /**
+   * Limits must be positive.
+   */
+
+  @Test
+  public void testInvalidLimits()
+  {
+    final var builder = DmJsonOutputGuard.builder();
+    assertThrows(IllegalArgumentException.class, () -> {
+      builder.setMaximumBytes(0L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      builder.setMaximumElements(-1L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      builder.setMaximumDepth(0);
+    });
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.core.DmJsonReaderRegistry;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class DmJsonReaderRegistryTest
+{
+  private static ObjectMapper createMapper()
+  {
+    final var module =
+      DmJsonRestrictedDeserializers.builder()
+        .allowClass(DmColor.class)
+        .allowClass(int.class)
+        .allowListsOfClass(DmColor.class)
+        .allowMapsOfClass(String.class, Integer.class)
+        .buildModule();
+
+    return JsonMapper.builder()
+      .addModule(DmColorModule.create())
+      .addModule(module)
+      .build();
+  }
+
+  /**
+   * Registered readers read values.
+   */
+
+  @Test
+  public void testRegistered()
+  {
+    final var registry =
+      DmJsonReaderRegistry.builder(createMapper())
+        .register(DmColor.class)
+        .register(new TypeReference<List<DmColor>>()
+        {
+        })
+        .register(new TypeReference<Map<String, Integer>>()
+        {
+        })
+        .build();
+
+    final List<DmColor> colors =
+      registry.reader(new TypeReference<List<DmColor>>()
+        {
+        })
+        .readValue("[\"#ff0000\"]");
+
+    assertEquals(List.of(new DmColor(1.0, 0.0, 0.0)), colors);
+
+    final DmColor color =
+      registry.reader(DmColor.class).readValue("\"#00ff00\"");
+
+    assertEquals(new DmColor(0.0, 1.0, 0.0), color);
+
+    final Map<String, Integer> map =
+      registry.reader(new TypeReference<Map<String, Integer>>()
+        {
+        })
+        .readValue("{\"x\":23}");
+
+    assertEquals(Map.of("x", Integer.valueOf(23)), map);
+  }
+
+  /**
+   * Lookups return the same reader every time, regardless of which type
+   * reference is used.
+   */
+
+  @Test
+  public void testSameReader()
+  {
+    final var registry =
+      DmJsonReaderRegistry.builder(createMapper())
+        .register(new TypeReference<List<DmColor>>()
+        {
+        })
+        .build();
+
+    final var r0 =
+      registry.reader(new TypeReference<List<DmColor>>()
+      {
+      });
+    final var r1 =
+      registry.reader(new TypeReference<List<DmColor>>()
+      {
+      });
+
+    assertSame(r0, r1);
+    assertTrue(registry.isRegistered(
+      new TypeReference<List<DmColor>>()
+      {
+      }.getType()));
+  }
+
+  /**
+   * Types that are not allowed are rejected at registration time.
+   */
+
+  @Test
+  public void testNotAllowed()
+  {
+    final var builder = DmJsonReaderRegistry.builder(createMapper());
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      builder.register(URI.class);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      builder.register(new TypeReference<List<URI>>()
+      {
+      });
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      builder.register(new TypeReference<Map<String, DmColor>>()
+      {
+      });
+    });
+
+    final var registry = builder.register(DmColor.class).build();
+    assertTrue(registry.isRegistered(DmColor.class));
+    assertFalse(registry.isRegistered(URI.class));
+  }
+
+  /**
+   * Types whose deserializers reject null values are still registered.
+   */
+
+  @Test
+  public void testNullRejected()
+  {
+    final var mapper =
+      createMapper()
+        .rebuild()
+        .enable(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES)
+        .build();
+
+    final var registry =
+      DmJsonReaderRegistry.builder(mapper)
+        .register(int.class)
+        .build();
+
+    assertTrue(registry.isRegistered(int.class));
+    assertEquals(
+      Integer.valueOf(23),
+      registry.reader(int.class).readValue("23")
+    );
+  }
+
+  /**
+   * Types that are not registered have no readers.
+   */
+
+  @Test
+  public void testNotRegistered()
+  {
+    final var registry =
+      DmJsonReaderRegistry.builder(createMapper())
+        .build();
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      registry.reader(DmColor.class);
+    });
+  }
+}
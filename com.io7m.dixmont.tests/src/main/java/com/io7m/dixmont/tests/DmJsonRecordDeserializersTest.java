@@ -0,0 +1,455 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.exc.MismatchedInputException;
+import tools.jackson.databind.exc.UnrecognizedPropertyException;
+import tools.jackson.databind.exc.ValueInstantiationException;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tools.jackson.databind.DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES;
+import static tools.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
+
+public final class DmJsonRecordDeserializersTest
+{
+  public record Point(
+    int x,
+    int y)
+  {
+
+  }
+
+  public record Named(
+    @JsonProperty(value = "Name", required = true)
+    String name,
+    @JsonProperty(value = "Color")
+    DmColor color,
+    @JsonAlias("Points")
+    List<Point> points)
+  {
+    public Named
+    {
+      Objects.requireNonNull(name, "name");
+    }
+  }
+
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  public record Lenient(
+    int x)
+  {
+
+  }
+
+  public record Nested(
+    Point point,
+    Nested next)
+  {
+
+  }
+
+  public record Formatted(
+    @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+    List<Point> points)
+  {
+
+  }
+
+  public record Probe(
+    String deserializer)
+  {
+
+  }
+
+  /*
+   * A deserializer that reports the class of the deserializer that the
+   * mapper resolves for a given type.
+   */
+
+  private static final class ProbeDeserializer
+    extends ValueDeserializer<Probe>
+  {
+    private final Class<?> type;
+
+    ProbeDeserializer(
+      final Class<?> inType)
+    {
+      this.type = inType;
+    }
+
+    @Override
+    public Probe deserialize(
+      final JsonParser p,
+      final DeserializationContext ctxt)
+    {
+      final var deserializer =
+        ctxt.findRootValueDeserializer(ctxt.constructType(this.type));
+      return new Probe(deserializer.getClass().getName());
+    }
+  }
+
+  private static String deserializerOf(
+    final JacksonModule restricted,
+    final Class<?> type)
+  {
+    final var probe = new SimpleModule();
+    probe.addDeserializer(Probe.class, new ProbeDeserializer(type));
+
+    final var mapper =
+      JsonMapper.builder()
+        .addModule(restricted)
+        .addModule(probe)
+        .build();
+
+    return mapper.readValue("0", Probe.class).deserializer();
+  }
+
+  private static ObjectMapper createMapper(
+    final boolean records,
+    final Set<String> classes)
+  {
+    final var module =
+      DmJsonRestrictedDeserializers.builder()
+        .allowClassNames(classes)
+        .setRecordDeserializersEnabled(records)
+        .buildModule();
+
+    final var builder = JsonMapper.builder();
+    builder.addModule(DmColorModule.create());
+    builder.addModule(module);
+    return builder.build();
+  }
+
+  private static Set<String> namedClasses()
+  {
+    return Set.of(
+      Named.class.getCanonicalName(),
+      Point.class.getCanonicalName(),
+      DmColor.class.getCanonicalName(),
+      String.class.getCanonicalName(),
+      "int",
+      "java.util.List<%s>".formatted(Point.class.getName())
+    );
+  }
+
+  /**
+   * Records are deserialized identically with and without the record
+   * deserializers.
+   */
+
+  @Test
+  public void testSameAsBeanDeserializer()
+  {
+    final var text = """
+      {
+        "Name": "x",
+        "Color": "#334c66",
+        "points": [ { "x": 1, "y": 2 }, { "y": 4, "x": 3 } ]
+      }
+      """;
+
+    final var fast =
+      createMapper(true, namedClasses()).readValue(text, Named.class);
+    final var slow =
+      createMapper(false, namedClasses()).readValue(text, Named.class);
+
+    assertEquals(slow, fast);
+    assertEquals(
+      new Named(
+        "x",
+        new DmColor(0x33 / 255.0, 0x4c / 255.0, 0x66 / 255.0),
+        List.of(new Point(1, 2), new Point(3, 4))),
+      fast
+    );
+  }
+
+  /**
+   * Aliases are respected.
+   */
+
+  @Test
+  public void testAlias()
+  {
+    final var fast =
+      createMapper(true, namedClasses())
+        .readValue("{\"Name\":\"x\",\"Points\":[]}", Named.class);
+
+    assertEquals(new Named("x", null, List.of()), fast);
+  }
+
+  /**
+   * Missing primitive properties are rejected.
+   */
+
+  @Test
+  public void testMissingPrimitive()
+  {
+    final var mapper = createMapper(true, namedClasses());
+    assertThrows(MismatchedInputException.class, () -> {
+      mapper.readValue("{\"y\":3}", Point.class);
+    });
+  }
+
+  /**
+   * Missing primitive properties receive default values if the mapper is
+   * configured to allow them.
+   */
+
+  @Test
+  public void testMissingPrimitiveDefault()
+  {
+    final var mapper =
+      createMapper(true, namedClasses())
+        .rebuild()
+        .disable(FAIL_ON_NULL_FOR_PRIMITIVES)
+        .build();
+
+    assertEquals(new Point(0, 3), mapper.readValue("{\"y\":3}", Point.class));
+  }
+
+  /**
+   * Missing required properties are rejected.
+   */
+
+  @Test
+  public void testMissingRequired()
+  {
+    final var mapper = createMapper(true, namedClasses());
+    assertThrows(MismatchedInputException.class, () -> {
+      mapper.readValue("{\"Color\":\"#334c66\"}", Named.class);
+    });
+  }
+
+  /**
+   * Unknown properties are rejected.
+   */
+
+  @Test
+  public void testUnknownProperty()
+  {
+    final var mapper =
+      createMapper(true, namedClasses())
+        .rebuild()
+        .enable(FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+
+    assertThrows(UnrecognizedPropertyException.class, () -> {
+      mapper.readValue("{\"x\":1,\"y\":1,\"z\":2}", Point.class);
+    });
+  }
+
+  /**
+   * Unknown properties are ignored if the mapper is configured to ignore
+   * them.
+   */
+
+  @Test
+  public void testUnknownPropertyIgnored()
+  {
+    final var mapper =
+      createMapper(true, namedClasses())
+        .rebuild()
+        .disable(FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+
+    assertEquals(
+      new Point(1, 3),
+      mapper.readValue("{\"x\":1,\"z\":{\"a\":[1,2]},\"y\":3}", Point.class)
+    );
+  }
+
+  /**
+   * Unknown properties are ignored if the record is annotated to ignore them.
+   */
+
+  @Test
+  public void testUnknownPropertyIgnoredAnnotation()
+  {
+    final var mapper =
+      createMapper(true, Set.of(Lenient.class.getCanonicalName(), "int"))
+        .rebuild()
+        .enable(FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+
+    assertEquals(
+      new Lenient(1),
+      mapper.readValue("{\"x\":1,\"z\":[]}", Lenient.class)
+    );
+  }
+
+  /**
+   * Exceptions raised by constructors are reported.
+   */
+
+  @Test
+  public void testConstructorFails()
+  {
+    final var mapper = createMapper(true, namedClasses());
+    assertThrows(ValueInstantiationException.class, () -> {
+      mapper.readValue("{\"Name\":null}", Named.class);
+    });
+  }
+
+  /**
+   * Recursive records work.
+   */
+
+  @Test
+  public void testRecursive()
+  {
+    final var mapper =
+      createMapper(
+        true,
+        Set.of(
+          Nested.class.getCanonicalName(),
+          Point.class.getCanonicalName(),
+          "int"
+        )
+      );
+
+    assertEquals(
+      new Nested(new Point(1, 2), new Nested(new Point(3, 4), null)),
+      mapper.readValue(
+        "{\"point\":{\"x\":1,\"y\":2},\"next\":{\"point\":{\"x\":3,\"y\":4},\"next\":null}}",
+        Nested.class)
+    );
+  }
+
+  /**
+   * Record component types are still subject to the allowlist.
+   */
+
+  @Test
+  public void testComponentNotAllowed()
+  {
+    final var mapper =
+      createMapper(true, Set.of(Nested.class.getCanonicalName()));
+
+    assertThrows(JacksonException.class, () -> {
+      mapper.readValue("{}", Nested.class);
+    });
+  }
+
+  /**
+   * Lists of records work.
+   */
+
+  @Test
+  public void testListOfRecords()
+  {
+    final var mapper = createMapper(true, namedClasses());
+    assertEquals(
+      List.of(new Point(1, 2)),
+      mapper.readValue(
+        "[{\"x\":1,\"y\":2}]",
+        new TypeReference<List<Point>>()
+        {
+        })
+    );
+  }
+
+  /**
+   * Per-component formats are respected.
+   */
+
+  @Test
+  public void testComponentFormat()
+  {
+    final var classes = Set.of(
+      Formatted.class.getCanonicalName(),
+      Point.class.getCanonicalName(),
+      "int",
+      "java.util.List<%s>".formatted(Point.class.getName())
+    );
+
+    final var text = "{\"points\":{\"x\":1,\"y\":2}}";
+    final var fast =
+      createMapper(true, classes).readValue(text, Formatted.class);
+    final var slow =
+      createMapper(false, classes).readValue(text, Formatted.class);
+
+    assertEquals(slow, fast);
+    assertEquals(new Formatted(List.of(new Point(1, 2))), fast);
+  }
+
+  /**
+   * The record deserializer is selected for allowed records when enabled,
+   * and the setting does not carry over to the next module built by the
+   * same builder.
+   */
+
+  @Test
+  public void testRecordDeserializerSelected()
+  {
+    final var builder = DmJsonRestrictedDeserializers.builder();
+    final var enabled =
+      builder.allowClass(Point.class)
+        .allowClass(Probe.class)
+        .allowClass(int.class)
+        .setRecordDeserializersEnabled(true)
+        .buildModule();
+    final var reset =
+      builder.allowClass(Point.class)
+        .allowClass(Probe.class)
+        .allowClass(int.class)
+        .buildModule();
+
+    assertEquals(
+      "com.io7m.dixmont.core.DmJsonRecordDeserializer",
+      deserializerOf(enabled, Point.class)
+    );
+    assertNotEquals(
+      "com.io7m.dixmont.core.DmJsonRecordDeserializer",
+      deserializerOf(reset, Point.class)
+    );
+  }
+
+  /**
+   * Records must be objects.
+   */
+
+  @Test
+  public void testNotObject()
+  {
+    final var mapper = createMapper(true, namedClasses());
+    assertThrows(MismatchedInputException.class, () -> {
+      mapper.readValue("23", Point.class);
+    });
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.core.DmJsonRecyclerPool;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import com.io7m.dixmont.core.DmJsonRestrictedMappers;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.util.BufferRecycler;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class DmJsonRecyclerPoolTest
+{
+  /**
+   * Released recyclers are reused by the same thread.
+   */
+
+  @Test
+  public void testReuse()
+  {
+    final var pool = DmJsonRecyclerPool.create(4, 2);
+    final var r0 = pool.acquireAndLinkPooled();
+    r0.releaseToPool();
+    assertEquals(1, pool.pooledCount());
+
+    final var r1 = pool.acquireAndLinkPooled();
+    assertSame(r0, r1);
+    assertEquals(0, pool.pooledCount());
+    r1.releaseToPool();
+  }
+
+  /**
+   * The pool never retains more than its capacity.
+   */
+
+  @Test
+  public void testBounded()
+  {
+    final var pool = DmJsonRecyclerPool.create(3, 2);
+    assertEquals(4, pool.stripes());
+    assertEquals(8, pool.capacity());
+
+    final var recyclers = new ArrayList<BufferRecycler>();
+    for (int index = 0; index < 100; ++index) {
+      recyclers.add(pool.acquireAndLinkPooled());
+    }
+    for (final var recycler : recyclers) {
+      recycler.releaseToPool();
+    }
+
+    assertTrue(pool.pooledCount() <= pool.capacity());
+    assertTrue(pool.pooledCount() > 0);
+    assertTrue(pool.clear());
+    assertEquals(0, pool.pooledCount());
+  }
+
+  /**
+   * The pool is bounded when used by many threads at once.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testConcurrent()
+    throws Exception
+  {
+    final var pool = DmJsonRecyclerPool.create(4, 4);
+    final var failures = new ConcurrentLinkedQueue<Throwable>();
+    final var threads = new ArrayList<Thread>();
+
+    for (int index = 0; index < 16; ++index) {
+      final var thread = new Thread(() -> {
+        try {
+          for (int count = 0; count < 10_000; ++count) {
+            final var r = pool.acquireAndLinkPooled();
+            final var buffer = r.allocCharBuffer(BufferRecycler.CHAR_TEXT_BUFFER);
+            r.releaseCharBuffer(BufferRecycler.CHAR_TEXT_BUFFER, buffer);
+            r.releaseToPool();
+          }
+        } catch (final Throwable e) {
+          failures.add(e);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (final var thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(List.of(), List.copyOf(failures));
+    assertTrue(pool.pooledCount() <= pool.capacity());
+  }
+
+  /**
+   * Invalid pool sizes are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmJsonRecyclerPool.create(0, 1);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmJsonRecyclerPool.create(DmJsonRecyclerPool.MAXIMUM_STRIPES + 1, 1);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmJsonRecyclerPool.create(1, 0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      DmJsonRecyclerPool.create(1, DmJsonRecyclerPool.MAXIMUM_SLOTS_PER_STRIPE + 1);
+    });
+  }
+
+  /**
+   * Mappers created by the factory use the pool and the restricted
+   * deserializers.
+   */
+
+  @Test
+  public void testMapper()
+  {
+    final var pool = DmJsonRecyclerPool.create(1, 1);
+    final var mapper =
+      DmJsonRestrictedMappers.builder(
+          DmJsonRestrictedDeserializers.builder()
+            .allowListsOfClass(DmColor.class),
+          pool)
+        .addModule(DmColorModule.create())
+        .build();
+
+    assertEquals(0, pool.pooledCount());
+    assertEquals(
+      List.of(new DmColor(1.0, 0.0, 0.0)),
+      mapper.readValue(
+        "[\"#ff0000\"]",
+        mapper.getTypeFactory()
+          .constructCollectionType(List.class, DmColor.class))
+    );
+    assertEquals(1, pool.pooledCount());
+
+    assertThrows(JacksonException.class, () -> {
+      mapper.readValue("\"https://www.io7m.com\"", URI.class);
+    });
+  }
+
+  /**
+   * The shared pool is used by default.
+   */
+
+  @Test
+  public void testMapperShared()
+  {
+    final var mapper =
+      DmJsonRestrictedMappers.builder(
+          DmJsonRestrictedDeserializers.builder()
+            .allowClass(int.class))
+        .build();
+
+    assertEquals(
+      Integer.valueOf(23),
+      mapper.readValue("23", int.class)
+    );
+    assertSame(
+      DmJsonRecyclerPool.shared(),
+      mapper.tokenStreamFactory()._getRecyclerPool()
+    );
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.core.DmJsonRestrictedAllowlistFragmentType;
+import com.io7m.dixmont.core.DmJsonRestrictedAllowlistType;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.io7m.dixmont.tests.EnumExample.ENUM_EXAMPLE_A;
+import static com.io7m.dixmont.tests.EnumExample.ENUM_EXAMPLE_B;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class DmJsonRestrictedFragmentsTest
+{
+  private static ObjectMapper createMapper(
+    final JacksonModule module)
+  {
+    return JsonMapper.builder()
+      .addModule(module)
+      .build();
+  }
+
+  /**
+   * Fragments are not consulted unless requested.
+   */
+
+  @Test
+  public void testFragmentsNotRequested()
+  {
+    final var mapper =
+      createMapper(
+        DmJsonRestrictedDeserializers.builder()
+          .allowClass(int.class)
+          .buildModule()
+      );
+
+    assertThrows(JacksonException.class, () -> {
+      mapper.readValue("\"ENUM_EXAMPLE_A\"", EnumExample.class);
+    });
+  }
+
+  /**
+   * Fragments from the service loader are merged.
+   */
+
+  @Test
+  public void testServiceLoaderFragments()
+  {
+    final var mapper =
+      createMapper(
+        DmJsonRestrictedDeserializers.builder()
+          .allowClass(int.class)
+          .allowServiceLoaderFragments()
+          .buildModule()
+      );
+
+    assertEquals(23, mapper.readValue("23", int.class));
+    assertEquals(
+      ENUM_EXAMPLE_A,
+      mapper.readValue("\"ENUM_EXAMPLE_A\"", EnumExample.class)
+    );
+    assertEquals(
+      List.of(ENUM_EXAMPLE_A, ENUM_EXAMPLE_B),
+      mapper.readValue(
+        "[\"ENUM_EXAMPLE_A\", \"ENUM_EXAMPLE_B\"]",
+        new TypeReference<List<EnumExample>>()
+        {
+        })
+    );
+  }
+
+  /**
+   * Service loader fragments are loaded with the class loader that was
+   * current when they were requested, not that of the thread that first
+   * checks a type.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testServiceLoaderFragmentsClassLoader()
+    throws Exception
+  {
+    final var mapper =
+      createMapper(
+        DmJsonRestrictedDeserializers.builder()
+          .allowServiceLoaderFragments()
+          .buildModule()
+      );
+
+    final var result = new AtomicReference<Object>();
+    final var thread = new Thread(() -> {
+      result.set(mapper.readValue("\"ENUM_EXAMPLE_A\"", EnumExample.class));
+    });
+    thread.setContextClassLoader(new ClassLoader(null) { });
+    thread.start();
+    thread.join();
+
+    assertEquals(ENUM_EXAMPLE_A, result.get());
+  }
+
+  /**
+   * Fragments are evaluated lazily, exactly once.
+   */
+
+  @Test
+  public void testFragmentsLazy()
+  {
+    final var fragment = new CountingFragment();
+    final var mapper =
+      createMapper(
+        DmJsonRestrictedDeserializers.builder()
+          .allowFragment(fragment)
+          .buildModule()
+      );
+
+    assertEquals(0, fragment.count);
+    assertEquals(
+      ENUM_EXAMPLE_A,
+      mapper.readValue("\"ENUM_EXAMPLE_A\"", EnumExample.class)
+    );
+    assertEquals(23, mapper.readValue("23", int.class));
+    assertEquals(1, fragment.count);
+  }
+
+  /**
+   * Fragments may use the allowlist helper methods.
+   */
+
+  @Test
+  public void testFragmentsHelpers()
+  {
+    final var mapper =
+      createMapper(
+        DmJsonRestrictedDeserializers.builder()
+          .allowFragment(allowlist -> allowlist.allowListsOfClass(EnumExample.class))
+          .buildModule()
+      );
+
+    assertEquals(
+      List.of(ENUM_EXAMPLE_B),
+      mapper.readValue(
+        "[\"ENUM_EXAMPLE_B\"]",
+        new TypeReference<List<EnumExample>>()
+        {
+        })
+    );
+  }
+
+  private static final class CountingFragment
+    implements DmJsonRestrictedAllowlistFragmentType
+  {
+    private int count;
+
+    @Override
+    public void contribute(
+      final DmJsonRestrictedAllowlistType allowlist)
+    {
+      ++this.count;
+      allowlist.allowClass(EnumExample.class)
+        .allowClass(int.class);
+    }
+  }
+}
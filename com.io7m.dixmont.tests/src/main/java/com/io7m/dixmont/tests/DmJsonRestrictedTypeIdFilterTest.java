@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import com.io7m.dixmont.core.DmJsonRestrictedTypeIdFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.exc.InvalidTypeIdException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class DmJsonRestrictedTypeIdFilterTest
+{
+  @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, property = "@class")
+  public interface Shape
+  {
+
+  }
+
+  public record Circle(
+    double radius)
+    implements Shape
+  {
+
+  }
+
+  public record Square(
+    double side)
+    implements Shape
+  {
+
+  }
+
+  public record Drawing(
+    String name,
+    List<Shape> shapes)
+  {
+
+  }
+
+  private ObjectMapper mapper;
+  private DmJsonRestrictedTypeIdFilter filter;
+
+  private <T> T read(
+    final String text,
+    final Class<T> clazz)
+  {
+    try (var parser = this.filter.filter(this.mapper.createParser(text))) {
+      return this.mapper.readValue(parser, clazz);
+    }
+  }
+
+  @BeforeEach
+  public void setup()
+  {
+    final var builder =
+      DmJsonRestrictedDeserializers.builder()
+        .allowClass(Shape.class)
+        .allowClass(Circle.class)
+        .allowClass(Drawing.class)
+        .allowClass(String.class)
+        .allowClass(double.class)
+        .allowClassName("java.util.List<%s>".formatted(Shape.class.getName()));
+
+    this.filter = builder.buildTypeIdFilter(Set.of("@class", "@type"));
+    this.mapper =
+      JsonMapper.builder()
+        .addModule(builder.buildModule())
+        .build();
+  }
+
+  /**
+   * Allowed type IDs are accepted.
+   */
+
+  @Test
+  public void testAllowed()
+  {
+    final var drawing =
+      new Drawing("x", List.of(new Circle(1.0), new Circle(2.0)));
+    final var text =
+      this.mapper.writeValueAsString(drawing);
+
+    assertEquals(drawing, this.read(text, Drawing.class));
+  }
+
+  /**
+   * Disallowed type IDs are rejected as soon as they are read, before the
+   * rest of the document is parsed.
+   */
+
+  @Test
+  public void testRejectedEarly()
+  {
+    final var text = """
+      {
+        "name": "x",
+        "shapes": [
+          { "@class": "java.net.URL", "radius": ]
+      """;
+
+    final var ex =
+      assertThrows(InvalidTypeIdException.class, () -> {
+        this.read(text, Drawing.class);
+      });
+
+    assertEquals("java.net.URL", ex.getTypeId());
+  }
+
+  /**
+   * Type IDs are checked wherever they appear in an object.
+   */
+
+  @Test
+  public void testRejectedNotFirst()
+  {
+    final var text = """
+      { "radius": 1.0, "@class": "%s" }
+      """.formatted(Square.class.getName());
+
+    assertThrows(InvalidTypeIdException.class, () -> {
+      this.read(text, Shape.class);
+    });
+  }
+
+  /**
+   * All configured type ID properties are checked.
+   */
+
+  @Test
+  public void testRejectedOtherProperty()
+  {
+    assertThrows(InvalidTypeIdException.class, () -> {
+      this.read("{\"name\":\"x\",\"@type\":\"java.lang.Runtime\"}", Drawing.class);
+    });
+  }
+
+  /**
+   * Values of other properties are not checked.
+   */
+
+  @Test
+  public void testOtherPropertiesIgnored()
+  {
+    assertEquals(
+      new Drawing("java.lang.Runtime", List.of()),
+      this.read(
+        "{\"name\":\"java.lang.Runtime\",\"shapes\":[]}",
+        Drawing.class)
+    );
+  }
+
+  /**
+   * Nested class names are accepted in their binary form.
+   */
+
+  @Test
+  public void testNestedClassName()
+  {
+    final var text = """
+      { "@class": "%s", "radius": 3.0 }
+      """.formatted(Circle.class.getName());
+
+    assertEquals(new Circle(3.0), this.read(text, Shape.class));
+  }
+
+  /**
+   * Type ID properties with non-string values are left to the deserializer.
+   */
+
+  @Test
+  public void testNonStringTypeId()
+  {
+    assertThrows(InvalidTypeIdException.class, () -> {
+      this.read("{\"@class\":23,\"radius\":3.0}", Shape.class);
+    });
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorBatch;
+import com.io7m.dixmont.colors.DmColorPacked;
+import com.io7m.dixmont.colors.DmColorSpaces;
+import com.io7m.dixmont.colors.DmPalette;
+import com.io7m.dixmont.colors.DmPaletteDistance;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class DmPaletteTest
+{
+  private static double[] point(
+    final DmPaletteDistance distance,
+    final DmColor color)
+  {
+    return switch (distance) {
+      case DISTANCE_RGB -> new double[]{color.red(), color.green(), color.blue()};
+      case DISTANCE_LAB -> {
+        final var lab = DmColorSpaces.toLab(color);
+        yield new double[]{lab.lightness(), lab.a(), lab.b()};
+      }
+    };
+  }
+
+  /*
+   * The reference implementation: a linear scan, preferring the first of
+   * equally near colors.
+   */
+
+  private static int linearScan(
+    final List<DmColor> palette,
+    final DmPaletteDistance distance,
+    final DmColor color)
+  {
+    final var query = point(distance, color);
+    var best = -1;
+    var bestDistance = Double.POSITIVE_INFINITY;
+    for (int index = 0; index < palette.size(); ++index) {
+      final var p = point(distance, palette.get(index));
+      final var d0 = query[0] - p[0];
+      final var d1 = query[1] - p[1];
+      final var d2 = query[2] - p[2];
+      final var d = d0 * d0 + d1 * d1 + d2 * d2;
+      if (d < bestDistance) {
+        bestDistance = d;
+        best = index;
+      }
+    }
+    return best;
+  }
+
+  private static List<DmColor> randomPalette(
+    final Random random,
+    final int size)
+  {
+    final var colors = new ArrayList<DmColor>(size);
+    for (int index = 0; index < size; ++index) {
+      if (index > 0 && random.nextInt(8) == 0) {
+        colors.add(colors.get(random.nextInt(index)));
+      } else {
+        colors.add(DmColorPacked.toColor(random.nextInt(0x1000000)));
+      }
+    }
+    return colors;
+  }
+
+  /**
+   * Queries give the same results as a linear scan, for both packed and
+   * unpacked colors.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testSameAsLinearScan()
+  {
+    return Stream.of(DmPaletteDistance.values())
+      .flatMap(distance -> IntStream.of(1, 2, 3, 7, 64, 300).mapToObj(size -> {
+        return DynamicTest.dynamicTest(
+          "testSameAsLinearScan_%s_%d".formatted(distance, Integer.valueOf(size)),
+          () -> {
+            final var random = new Random(size);
+            final var colors = randomPalette(random, size);
+            final var palette = DmPalette.of(colors, distance);
+
+            for (int query = 0; query < 10_000; ++query) {
+              final var rgb = random.nextInt(0x1000000);
+              final var color = DmColorPacked.toColor(rgb);
+              final var expected = linearScan(colors, distance, color);
+              assertEquals(expected, palette.nearestIndex(color), color.toString());
+              assertEquals(expected, palette.nearestIndexPacked(rgb), color.toString());
+
+              final var other =
+                new DmColor(random.nextDouble(), random.nextDouble(), random.nextDouble());
+              assertEquals(
+                colors.get(linearScan(colors, distance, other)),
+                palette.nearest(other)
+              );
+            }
+          });
+      }));
+  }
+
+  /**
+   * Colors that are in the palette are their own nearest color, and
+   * repeated colors resolve to the first occurrence.
+   */
+
+  @Test
+  public void testExactMatches()
+  {
+    final var colors = randomPalette(new Random(0x39L), 200);
+    for (final var distance : DmPaletteDistance.values()) {
+      final var palette = DmPalette.of(colors, distance);
+      for (int index = 0; index < colors.size(); ++index) {
+        final var color = colors.get(index);
+        assertEquals(colors.indexOf(color), palette.nearestIndex(color));
+      }
+    }
+  }
+
+  /**
+   * Batch queries give the same results as single queries.
+   */
+
+  @Test
+  public void testBatch()
+  {
+    final var random = new Random(0x3939L);
+    final var palette = DmPalette.of(randomPalette(random, 100), DmPaletteDistance.DISTANCE_LAB);
+
+    final var count = 1000;
+    final var packed = new int[count];
+    final var colors = new ArrayList<DmColor>(count);
+    for (int index = 0; index < count; ++index) {
+      packed[index] = random.nextInt(0x1000000);
+      colors.add(new DmColor(random.nextDouble(), random.nextDouble(), random.nextDouble()));
+    }
+
+    final var buffer = DmColorBatch.allocate(count);
+    DmColorBatch.load(colors, buffer);
+    final var indices = new int[count];
+    palette.nearestIndices(buffer, indices, count);
+    for (int index = 0; index < count; ++index) {
+      assertEquals(palette.nearestIndex(colors.get(index)), indices[index]);
+    }
+
+    palette.nearestIndicesPacked(packed, indices, count);
+    for (int index = 0; index < count; ++index) {
+      assertEquals(palette.nearestIndexPacked(packed[index]), indices[index]);
+    }
+
+    final var mapped = packed.clone();
+    palette.mapPacked(mapped, mapped, count);
+    for (int index = 0; index < count; ++index) {
+      assertEquals(palette.packed(indices[index]), mapped[index]);
+    }
+
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      palette.nearestIndicesPacked(packed, new int[count - 1], count);
+    });
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      palette.nearestIndices(buffer, indices, count + 1);
+    });
+  }
+
+  /**
+   * Palettes can be queried concurrently.
+   */
+
+  @Test
+  public void testConcurrent()
+  {
+    final var random = new Random(0x393939L);
+    final var colors = randomPalette(random, 256);
+    final var palette = DmPalette.of(colors, DmPaletteDistance.DISTANCE_RGB);
+
+    final var results =
+      IntStream.range(0, 0x1000000)
+        .parallel()
+        .filter(rgb -> rgb % 61 == 0)
+        .filter(rgb -> {
+          final var color = DmColorPacked.toColor(rgb);
+          return palette.nearestIndexPacked(rgb)
+                 != linearScan(colors, DmPaletteDistance.DISTANCE_RGB, color);
+        })
+        .count();
+
+    assertEquals(0L, results);
+  }
+
+  /**
+   * Queries outside the grid give the same results as a linear scan.
+   */
+
+  @Test
+  public void testOutsideGrid()
+  {
+    final var colors = List.of(
+      new DmColor(0.9, 0.5, 0.5),
+      new DmColor(1.0, 0.0, 0.0)
+    );
+    final var palette = DmPalette.of(colors, DmPaletteDistance.DISTANCE_RGB);
+    final var indices = new int[1];
+    palette.nearestIndices(new double[]{10.0, 0.5, 0.5}, indices, 1);
+    assertEquals(1, indices[0]);
+  }
+
+  /**
+   * Random queries with channels outside the range [0, 1] give the same
+   * results as a linear scan.
+   */
+
+  @Test
+  public void testOutsideGridRandom()
+  {
+    final var random = new Random(0x3bL);
+    final var colors = randomPalette(random, 50);
+    final var palette = DmPalette.of(colors, DmPaletteDistance.DISTANCE_RGB);
+
+    final var count = 5000;
+    final var buffer = DmColorBatch.allocate(count);
+    for (int index = 0; index < buffer.length; ++index) {
+      buffer[index] = random.nextDouble() * 4.0 - 2.0;
+    }
+
+    final var indices = new int[count];
+    palette.nearestIndices(buffer, indices, count);
+
+    for (int index = 0; index < count; ++index) {
+      final var base = index * 3;
+      var expected = -1;
+      var expectedDistance = Double.POSITIVE_INFINITY;
+      for (int p = 0; p < colors.size(); ++p) {
+        final var color = colors.get(p);
+        final var d0 = buffer[base] - color.red();
+        final var d1 = buffer[base + 1] - color.green();
+        final var d2 = buffer[base + 2] - color.blue();
+        final var d = d0 * d0 + d1 * d1 + d2 * d2;
+        if (d < expectedDistance) {
+          expectedDistance = d;
+          expected = p;
+        }
+      }
+      assertEquals(expected, indices[index]);
+    }
+  }
+
+  /**
+   * Colors with NaN channels still produce a valid index.
+   */
+
+  @Test
+  public void testNaN()
+  {
+    final var palette =
+      DmPalette.of(randomPalette(new Random(0x3aL), 10), DmPaletteDistance.DISTANCE_RGB);
+
+    assertEquals(0, palette.nearestIndex(new DmColor(Double.NaN, 0.0, 0.0)));
+  }
+
+  /**
+   * Empty palettes are rejected.
+   */
+
+  @Test
+  public void testEmpty()
+  {
+    assertThrows(IllegalArgumentException.class, () -> DmPalette.of(List.of()));
+  }
+}
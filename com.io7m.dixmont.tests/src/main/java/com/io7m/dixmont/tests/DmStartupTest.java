@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.spi.ToolProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measure the time taken to perform the first deserialization in a fresh
+ * JVM, with and without an application class data sharing archive produced
+ * by the {@link DmStartupTraining} workload. The timings are logged rather
+ * than asserted. The archive for distribution is produced by the
+ * {@code cds} build profile.
+ */
+
+public final class DmStartupTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(DmStartupTest.class);
+
+  /**
+   * The application classes must be loaded from jar files in order to be
+   * archived, so any directories on the class path are packaged into jars.
+   */
+
+  private static String jarClassPath(
+    final Path directory)
+    throws IOException
+  {
+    final var jar =
+      ToolProvider.findFirst("jar")
+        .orElseThrow();
+
+    final var entries = new ArrayList<String>();
+    var index = 0;
+    for (final var element : System.getProperty("java.class.path")
+      .split(File.pathSeparator)) {
+      final var path = Path.of(element);
+      if (Files.isDirectory(path)) {
+        final var output = directory.resolve("classes-%d.jar".formatted(index));
+        final var status = jar.run(
+          System.out,
+          System.err,
+          "--create",
+          "--file",
+          output.toString(),
+          "-C",
+          path.toString(),
+          "."
+        );
+        assertEquals(0, status);
+        entries.add(output.toString());
+        ++index;
+      } else {
+        entries.add(element);
+      }
+    }
+    return String.join(File.pathSeparator, entries);
+  }
+
+  /*
+   * Run the workload, returning the time it reports for the first
+   * deserialization in nanoseconds.
+   */
+
+  private static long run(
+    final String classPath,
+    final List<String> options)
+    throws Exception
+  {
+    final var command = new ArrayList<String>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(options);
+    command.add("-Dlogback.configurationFile=logback-startup.xml");
+    command.add("-cp");
+    command.add(classPath);
+    command.add(DmStartupTraining.class.getName());
+
+    final var process =
+      new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .start();
+
+    final String output;
+    try (InputStream stream = process.getInputStream()) {
+      output = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals(0, process.waitFor(), output);
+
+    final var line =
+      output.lines()
+        .filter(s -> s.startsWith("first-deserialization-ns "))
+        .findFirst()
+        .orElseThrow();
+
+    return Long.parseLong(line.split(" ")[1].trim());
+  }
+
+  /**
+   * Train an archive, and compare the time to first deserialization with
+   * and without it.
+   *
+   * @param directory A temporary directory
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTimeToFirstDeserialization(
+    final @TempDir Path directory)
+    throws Exception
+  {
+    final var classPath = jarClassPath(directory);
+    final var archive = directory.resolve("dixmont.jsa");
+
+    run(classPath, List.of("-XX:ArchiveClassesAtExit=" + archive));
+    assertTrue(Files.isRegularFile(archive), "Archive must have been created");
+
+    final var without =
+      run(classPath, List.of("-Xshare:off"));
+    final var with =
+      run(classPath, List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:on"));
+
+    LOG.info(
+      "First deserialization: without archive {} ms, with archive {} ms",
+      Long.valueOf(without / 1_000_000L),
+      Long.valueOf(with / 1_000_000L)
+    );
+  }
+}
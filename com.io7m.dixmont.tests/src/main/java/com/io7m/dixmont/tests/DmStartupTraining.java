@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.dixmont.tests;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.io7m.dixmont.colors.DmColor;
+import com.io7m.dixmont.colors.DmColorModule;
+import com.io7m.dixmont.core.DmJsonRestrictedDeserializers;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A training workload for class data sharing archives. The workload builds
+ * a restricted mapper, performs a round trip of values through the color
+ * module, and reports the time taken to complete the first deserialization.
+ */
+
+public final class DmStartupTraining
+{
+  private DmStartupTraining()
+  {
+
+  }
+
+  /**
+   * A value used in the training workload.
+   *
+   * @param name   The name
+   * @param color  The color
+   * @param colors The palette
+   */
+
+  public record Swatch(
+    @JsonProperty(value = "Name", required = true)
+    String name,
+    @JsonProperty(value = "Color", required = true)
+    DmColor color,
+    @JsonProperty(value = "Palette", required = true)
+    Map<String, List<DmColor>> colors)
+  {
+
+  }
+
+  /**
+   * The main entry point.
+   *
+   * @param args The command-line arguments
+   */
+
+  public static void main(
+    final String[] args)
+  {
+    final var timeStart = System.nanoTime();
+
+    final var module =
+      DmJsonRestrictedDeserializers.builder()
+        .allowClass(Swatch.class)
+        .allowClass(String.class)
+        .allowClass(DmColor.class)
+        .allowListsOfClass(DmColor.class)
+        .allowClassName(
+          "java.util.Map<java.lang.String,java.util.List<com.io7m.dixmont.colors.DmColor>>")
+        .setRecordDeserializersEnabled(true)
+        .buildModule();
+
+    final var mapper =
+      JsonMapper.builder()
+        .addModule(DmColorModule.create())
+        .addModule(module)
+        .build();
+
+    final var swatch =
+      new Swatch(
+        "Primary",
+        new DmColor(0.2, 0.3, 0.4),
+        Map.of("Accents", List.of(new DmColor(1.0, 0.5, 0.0)))
+      );
+
+    final var text =
+      mapper.writeValueAsString(swatch);
+    final var result =
+      mapper.readValue(text, Swatch.class);
+    final var colors =
+      mapper.readValue("[\"#ff0000\",\"#00ff00\"]", new TypeReference<List<DmColor>>() { });
+
+    final var timeEnd = System.nanoTime();
+    if (!result.name().equals(swatch.name()) || colors.size() != 2) {
+      throw new IllegalStateException("Round trip failed.");
+    }
+
+    System.out.printf("first-deserialization-ns %d%n", timeEnd - timeStart);
+  }
+}